@@ -0,0 +1,113 @@
+package core.bench;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import core.model.Book;
+import core.model.Keys;
+import core.model.PrintedBook;
+import core.storage.BookStorage;
+
+/**
+ * Búsquedas por ISBN y lecturas ordenadas de BookStorage, como las hacen
+ * los controladores (búsqueda puntual) y las tablas (una página de filas
+ * de la vista en vivo).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookStorageBenchmark {
+    
+    // Filas visibles de una tabla
+    private static final int PAGE = 50;
+    private static final int MASK = 1023;
+    
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int size;
+    
+    private BookStorage storage;
+    private long[] isbnKeys;
+    private String[] isbns;
+    private int[] offsets;
+    private int next;
+    
+    @Setup(Level.Trial)
+    public void load() {
+        Catalog.load(size);
+        storage = BookStorage.getInstance();
+        int[] indexes = Catalog.randomIndexes(size, MASK + 1, 1);
+        isbnKeys = new long[indexes.length];
+        isbns = new String[indexes.length];
+        for (int i = 0; i < indexes.length; i++) {
+            isbns[i] = Catalog.isbn(indexes[i]);
+            isbnKeys[i] = Keys.parseIsbn(isbns[i]);
+        }
+        offsets = Catalog.randomIndexes(Math.max(1, size - PAGE), MASK + 1, 2);
+    }
+    
+    @Benchmark
+    public Book getBookByIsbnKey() {
+        return storage.getBookByIsbn(isbnKeys[next++ & MASK]);
+    }
+    
+    @Benchmark
+    public Book getBookByIsbn() {
+        return storage.getBookByIsbn(isbns[next++ & MASK]);
+    }
+    
+    @Benchmark
+    public boolean existsMissingIsbn() {
+        return storage.existsBookByIsbn(isbnKeys[next++ & MASK] + size);
+    }
+    
+    /**
+     * Una página de la vista ordenada de todos los libros
+     */
+    @Benchmark
+    public void sortedPage(Blackhole blackhole) {
+        List<Book> view = storage.getBooksView();
+        int offset = offsets[next++ & MASK];
+        int end = Math.min(view.size(), offset + PAGE);
+        for (int i = offset; i < end; i++) {
+            blackhole.consume(view.get(i));
+        }
+    }
+    
+    /**
+     * Una página de la vista ordenada de un solo tipo
+     */
+    @Benchmark
+    public void sortedTypePage(Blackhole blackhole) {
+        List<Book> view = storage.getBooksByTypeView(PrintedBook.class);
+        int offset = offsets[next++ & MASK] / 3;
+        int end = Math.min(view.size(), offset + PAGE);
+        for (int i = offset; i < end; i++) {
+            blackhole.consume(view.get(i));
+        }
+    }
+    
+    @Benchmark
+    public List<Book> getBooksByGenre() {
+        return storage.getBooksByGenre(Catalog.GENRES[(next++ & MASK) % Catalog.GENRES.length]);
+    }
+    
+    @Benchmark
+    public List<Book> getAllBooks() {
+        return storage.getAllBooks();
+    }
+}
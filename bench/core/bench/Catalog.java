@@ -0,0 +1,68 @@
+package core.bench;
+
+import java.util.Random;
+import core.storage.BookStorage;
+import core.storage.PersonStorage;
+import core.storage.PublisherStorage;
+import core.storage.StandStorage;
+import core.tools.DatasetGenerator;
+
+/**
+ * Catálogo de los benchmarks: vacía los Storage y los llena con
+ * DatasetGenerator.scaled, así que para un mismo tamaño siempre tiene los
+ * mismos datos.
+ */
+final class Catalog {
+
+    static final String[] GENRES = DatasetGenerator.GENRES;
+    static final String[] FORMATS = DatasetGenerator.FORMATS;
+    private static final long SEED = 42;
+
+    final int books;
+    final int authors;
+    final int publishers;
+    final int stands;
+    final int narrators;
+
+    private Catalog(DatasetGenerator generator) {
+        this.books = generator.getBooks();
+        this.authors = generator.getAuthors();
+        this.publishers = generator.getPublishers();
+        this.stands = generator.getStands();
+        this.narrators = generator.getNarrators();
+    }
+
+    static String isbn(int index) {
+        return DatasetGenerator.isbn(index);
+    }
+
+    static String nit(int index) {
+        return DatasetGenerator.nit(index);
+    }
+
+    /**
+     * Vacía los Storage y carga un catálogo con esa cantidad de libros
+     */
+    static Catalog load(int books) {
+        BookStorage.getInstance().clear();
+        PublisherStorage.getInstance().clear();
+        StandStorage.getInstance().clear();
+        PersonStorage.getInstance().clear();
+        DatasetGenerator generator = DatasetGenerator.scaled(SEED, books);
+        generator.generate();
+        return new Catalog(generator);
+    }
+
+    /**
+     * Índices aleatorios en [0, bound) para recorrer con una máscara
+     * (la cantidad es potencia de 2)
+     */
+    static int[] randomIndexes(int bound, int count, long seed) {
+        Random random = new Random(seed);
+        int[] indexes = new int[count];
+        for (int i = 0; i < count; i++) {
+            indexes[i] = random.nextInt(bound);
+        }
+        return indexes;
+    }
+}
@@ -0,0 +1,137 @@
+package core.bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import core.model.Author;
+import core.model.Book;
+import core.model.Manager;
+import core.model.PrintedBook;
+import core.model.Publisher;
+import core.storage.BookStorage;
+
+/**
+ * Antes y después del índice por ISBN: cargar size libros verificando
+ * primero que el ISBN no exista (como BookController.create*) y luego
+ * buscarlos todos. La línea base repite la búsqueda lineal que tenía
+ * BookStorage sobre un ArrayList; el índice se mide con BookStorage.
+ *
+ * La búsqueda lineal hace O(n²) comparaciones, así que solo se mide hasta
+ * 100000 libros; el índice llega a 1M. Se corre con ant bench
+ * -Dbench.args="IsbnIndexBenchmark".
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class IsbnIndexBenchmark {
+    
+    /**
+     * Libros ya construidos, sin registrar en ningún Storage
+     */
+    abstract static class Books {
+        
+        List<Book> books;
+        String[] isbns;
+        
+        void create(int size) {
+            Manager manager = new Manager(1, "Gerente", "Benchmark");
+            Publisher publisher = new Publisher(Catalog.nit(0), "Editorial", "Dirección", manager);
+            ArrayList<Author> authors = new ArrayList<>();
+            authors.add(new Author(1, "Autor", "Benchmark"));
+            books = new ArrayList<>(size);
+            isbns = new String[size];
+            for (int i = 0; i < size; i++) {
+                isbns[i] = Catalog.isbn(i);
+                books.add(new PrintedBook("Libro " + i, authors, isbns[i], Catalog.GENRES[i % Catalog.GENRES.length],
+                                          Catalog.FORMATS[i % 2], 10000, publisher, 100, 1));
+            }
+        }
+    }
+    
+    @State(Scope.Benchmark)
+    public static class Linear extends Books {
+        
+        @Param({"1000", "10000", "100000"})
+        public int size;
+        
+        @Setup(Level.Trial)
+        public void load() {
+            create(size);
+        }
+    }
+    
+    @State(Scope.Benchmark)
+    public static class Indexed extends Books {
+        
+        @Param({"1000", "10000", "100000", "1000000"})
+        public int size;
+        
+        @Setup(Level.Trial)
+        public void load() {
+            create(size);
+        }
+        
+        @Setup(Level.Invocation)
+        public void clear() {
+            BookStorage.getInstance().clear();
+        }
+    }
+    
+    /**
+     * La implementación anterior: recorrer la lista con un stream
+     */
+    private static Book findLinear(List<Book> books, String isbn) {
+        return books.stream()
+            .filter(b -> b.getIsbn().equals(isbn))
+            .findFirst()
+            .orElse(null);
+    }
+    
+    @Benchmark
+    public int linearInsertAndLookup(Linear state) {
+        List<Book> stored = new ArrayList<>();
+        for (Book book : state.books) {
+            if (findLinear(stored, book.getIsbn()) == null) {
+                stored.add(book);
+            }
+        }
+        int found = 0;
+        for (String isbn : state.isbns) {
+            if (findLinear(stored, isbn) != null) {
+                found++;
+            }
+        }
+        return found;
+    }
+    
+    @Benchmark
+    public int indexedInsertAndLookup(Indexed state) {
+        BookStorage storage = BookStorage.getInstance();
+        for (Book book : state.books) {
+            if (!storage.existsBookByIsbn(book.getIsbn())) {
+                storage.addBook(book);
+            }
+        }
+        int found = 0;
+        for (String isbn : state.isbns) {
+            if (storage.getBookByIsbn(isbn) != null) {
+                found++;
+            }
+        }
+        return found;
+    }
+}
@@ -0,0 +1,194 @@
+package core.bench;
+
+import com.fasterxml.jackson.annotation.JsonIdentityInfo;
+import com.fasterxml.jackson.annotation.JsonIdentityReference;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.annotation.ObjectIdGenerators;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import core.controller.BookData;
+import core.controller.QueryController;
+import core.json.JsonReader;
+import core.json.JsonWriter;
+import core.json.ModelCodec;
+import core.model.Audiobook;
+import core.model.Author;
+import core.model.Book;
+import core.model.DigitalBook;
+import core.model.Narrator;
+import core.model.Person;
+import core.model.PrintedBook;
+import core.model.Publisher;
+import core.model.Response;
+import core.model.StatusCode;
+
+/**
+ * ModelCodec frente a Jackson (ObjectMapper) con una página de libros, como
+ * la responde GET /books. Jackson se configura con mix-ins para que escriba
+ * lo mismo: las relaciones como claves y el campo "type". La lectura con
+ * Jackson arma el árbol (readTree) y de ahí los BookData.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonCodecBenchmark {
+    
+    private static final int BOOKS = 10_000;
+    
+    // Libros por página
+    @Param({"1", "100", "1000"})
+    public int page;
+    
+    private Response<List<Book>> response;
+    private byte[] books;
+    private ByteArrayOutputStream out;
+    private ObjectMapper mapper;
+    
+    @Setup(Level.Trial)
+    public void load() throws IOException {
+        Catalog.load(BOOKS);
+        List<Book> all = new QueryController().getAllBooks().getData();
+        response = new Response<>(StatusCode.OK, "Libros obtenidos", new ArrayList<>(all.subList(0, page)));
+        mapper = new ObjectMapper();
+        mapper.addMixIn(Response.class, ResponseMixIn.class);
+        mapper.addMixIn(Book.class, BookMixIn.class);
+        mapper.addMixIn(Audiobook.class, AudiobookMixIn.class);
+        mapper.addMixIn(Person.class, PersonMixIn.class);
+        mapper.addMixIn(Publisher.class, PublisherMixIn.class);
+        out = new ByteArrayOutputStream(1 << 20);
+        JsonWriter writer = new JsonWriter(out);
+        writer.beginArray();
+        for (Book book : response.getData()) {
+            ModelCodec.writeBook(writer, book);
+        }
+        writer.endArray();
+        writer.flush();
+        books = out.toByteArray();
+    }
+    
+    @Benchmark
+    public int writeModelCodec() throws IOException {
+        out.reset();
+        JsonWriter writer = new JsonWriter(out);
+        ModelCodec.writeResponse(writer, response, 0, Integer.MAX_VALUE);
+        writer.flush();
+        return out.size();
+    }
+    
+    @Benchmark
+    public int writeJackson() throws IOException {
+        out.reset();
+        mapper.writeValue(out, response);
+        return out.size();
+    }
+    
+    @Benchmark
+    public List<BookData> readModelCodec() {
+        JsonReader in = new JsonReader(new InputStreamReader(new ByteArrayInputStream(books), StandardCharsets.UTF_8));
+        List<BookData> result = new ArrayList<>(page);
+        in.beginArray();
+        while (in.hasNext()) {
+            result.add(ModelCodec.readBook(in));
+        }
+        in.endArray();
+        return result;
+    }
+    
+    @Benchmark
+    public List<BookData> readJackson() throws IOException {
+        JsonNode array = mapper.readTree(books);
+        List<BookData> result = new ArrayList<>(page);
+        for (JsonNode node : array) {
+            List<Long> authorIds = new ArrayList<>();
+            for (JsonNode id : node.get("authorIds")) {
+                authorIds.add(id.asLong());
+            }
+            String title = node.get("title").asText();
+            String isbn = node.get("isbn").asText();
+            String genre = node.get("genre").asText();
+            String format = node.get("format").asText();
+            double value = node.get("value").asDouble();
+            String publisherNit = node.get("publisherNit").asText();
+            switch (node.get("type").asText()) {
+                case "printed":
+                    result.add(BookData.printed(title, authorIds, isbn, genre, format, value, publisherNit,
+                                                node.get("pages").asInt(), node.get("copies").asInt()));
+                    break;
+                case "digital":
+                    JsonNode hyperlink = node.get("hyperlink");
+                    result.add(BookData.digital(title, authorIds, isbn, genre, format, value, publisherNit,
+                                                hyperlink == null || hyperlink.isNull() ? null : hyperlink.asText()));
+                    break;
+                default:
+                    result.add(BookData.audiobook(title, authorIds, isbn, genre, format, value, publisherNit,
+                                                  node.get("duration").asInt(), node.get("narratorId").asLong()));
+                    break;
+            }
+        }
+        return result;
+    }
+    
+    // Mix-ins de Jackson: los mismos campos que escribe ModelCodec
+    
+    @JsonIgnoreProperties("success")
+    abstract static class ResponseMixIn {
+    }
+    
+    @JsonTypeInfo(use = JsonTypeInfo.Id.NAME, property = "type")
+    @JsonSubTypes({
+        @JsonSubTypes.Type(value = PrintedBook.class, name = "printed"),
+        @JsonSubTypes.Type(value = DigitalBook.class, name = "digital"),
+        @JsonSubTypes.Type(value = Audiobook.class, name = "audiobook")
+    })
+    @JsonIgnoreProperties("isbnKey")
+    abstract static class BookMixIn {
+        
+        @JsonProperty("authorIds")
+        abstract List<Author> getAuthors();
+        
+        @JsonProperty("publisherNit")
+        abstract Publisher getPublisher();
+    }
+    
+    abstract static class AudiobookMixIn {
+        
+        @JsonProperty("narratorId")
+        abstract Narrator getNarrador();
+    }
+    
+    @JsonIdentityInfo(generator = ObjectIdGenerators.PropertyGenerator.class, property = "id")
+    @JsonIdentityReference(alwaysAsId = true)
+    abstract static class PersonMixIn {
+    }
+    
+    @JsonIdentityInfo(generator = ObjectIdGenerators.PropertyGenerator.class, property = "nit")
+    @JsonIdentityReference(alwaysAsId = true)
+    abstract static class PublisherMixIn {
+    }
+}
@@ -0,0 +1,107 @@
+package core.bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import core.model.Book;
+import core.storage.BookStorage;
+import core.view.BookTableModel;
+
+/**
+ * Camino de los datos hacia las tablas: clonar libros (patrón Prototype,
+ * como los controladores) frente a proyectar las celdas de una página de la
+ * vista en vivo con BookTableModel, que no copia nada.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProjectionBenchmark {
+    
+    private static final int PAGE = 50;
+    private static final int MASK = 1023;
+    
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int size;
+    
+    private List<Book> view;
+    private BookTableModel liveModel;
+    private int[] offsets;
+    private int next;
+    
+    @Setup(Level.Trial)
+    public void load() {
+        Catalog.load(size);
+        view = BookStorage.getInstance().getBooksView();
+        liveModel = new BookTableModel();
+        liveModel.showLive(view);
+        offsets = Catalog.randomIndexes(Math.max(1, size - PAGE), MASK + 1, 7);
+    }
+    
+    @Benchmark
+    public Book cloneBook() throws CloneNotSupportedException {
+        return (Book) view.get(offsets[next++ & MASK]).clone();
+    }
+    
+    /**
+     * Clona una página de libros y proyecta sus celdas, como cuando la tabla
+     * muestra un resultado clonado por el controlador
+     */
+    @Benchmark
+    public void clonedPage(Blackhole blackhole) throws CloneNotSupportedException {
+        int offset = offsets[next++ & MASK];
+        int end = Math.min(view.size(), offset + PAGE);
+        List<Book> page = new ArrayList<>(PAGE);
+        for (int i = offset; i < end; i++) {
+            page.add((Book) view.get(i).clone());
+        }
+        BookTableModel model = new BookTableModel();
+        model.showResult(page);
+        for (int row = 0; row < page.size(); row++) {
+            for (int column = 0; column < model.getColumnCount(); column++) {
+                blackhole.consume(model.getValueAt(row, column));
+            }
+        }
+    }
+    
+    /**
+     * Proyecta las celdas de una página directamente de la vista en vivo
+     */
+    @Benchmark
+    public void livePage(Blackhole blackhole) {
+        int offset = offsets[next++ & MASK];
+        int end = Math.min(liveModel.getRowCount(), offset + PAGE);
+        for (int row = offset; row < end; row++) {
+            for (int column = 0; column < liveModel.getColumnCount(); column++) {
+                blackhole.consume(liveModel.getValueAt(row, column));
+            }
+        }
+    }
+    
+    /**
+     * Clona el catálogo completo, como QueryController.getAllBooks
+     */
+    @Benchmark
+    public List<Book> cloneAll() throws CloneNotSupportedException {
+        List<Book> cloned = new ArrayList<>(view.size());
+        for (Book book : view) {
+            cloned.add((Book) book.clone());
+        }
+        return cloned;
+    }
+}
@@ -0,0 +1,105 @@
+package core.bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import core.controller.PurchaseData;
+import core.controller.StandPurchaseController;
+import core.model.Response;
+import core.storage.Storage;
+
+/**
+ * StandPurchaseController.purchaseStands. Cada compra se hace dentro de una
+ * transacción que se deshace al terminar, para que las listas de stands y
+ * editoriales no crezcan con las iteraciones; el costo medido incluye el
+ * de deshacer los enlaces.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PurchaseBenchmark {
+    
+    private static final int MASK = 1023;
+    // Compras por lote en purchaseBatch
+    private static final int BATCH = 16;
+    
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int size;
+    
+    private StandPurchaseController controller;
+    private List<List<Long>> standIds;
+    private List<List<String>> nits;
+    private List<List<PurchaseData>> batches;
+    private List<Long> missingStand;
+    private int next;
+    
+    @Setup(Level.Trial)
+    public void load() {
+        Catalog catalog = Catalog.load(size);
+        controller = new StandPurchaseController();
+        int[] stands = Catalog.randomIndexes(catalog.stands, MASK + 1, 5);
+        int[] publishers = Catalog.randomIndexes(catalog.publishers, MASK + 1, 6);
+        standIds = new ArrayList<>();
+        nits = new ArrayList<>();
+        for (int i = 0; i <= MASK; i++) {
+            standIds.add(List.of((long) stands[i]));
+            nits.add(List.of(Catalog.nit(publishers[i])));
+        }
+        batches = new ArrayList<>();
+        for (int i = 0; i <= MASK; i++) {
+            List<PurchaseData> batch = new ArrayList<>();
+            for (int j = 0; j < BATCH; j++) {
+                int index = (i + j) & MASK;
+                batch.add(new PurchaseData(standIds.get(index), nits.get(index)));
+            }
+            batches.add(batch);
+        }
+        missingStand = List.of((long) catalog.stands);
+    }
+    
+    @Benchmark
+    public Response<String> purchase() {
+        int index = next++ & MASK;
+        return Storage.write(() -> {
+            Response<String> response = controller.purchaseStands(standIds.get(index), nits.get(index));
+            Storage.setRollbackOnly();
+            return response;
+        });
+    }
+    
+    /**
+     * BATCH compras con una sola llamada; el tiempo es por lote
+     */
+    @Benchmark
+    public List<Response<String>> purchaseBatch() {
+        List<PurchaseData> batch = batches.get(next++ & MASK);
+        return Storage.write(() -> {
+            List<Response<String>> responses = controller.purchaseStands(batch);
+            Storage.setRollbackOnly();
+            return responses;
+        });
+    }
+    
+    /**
+     * Compra rechazada porque el stand no existe: no modifica nada
+     */
+    @Benchmark
+    public Response<String> purchaseMissingStand() {
+        return controller.purchaseStands(missingStand, nits.get(next++ & MASK));
+    }
+}
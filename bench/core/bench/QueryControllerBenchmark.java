@@ -0,0 +1,143 @@
+package core.bench;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import core.controller.QueryController;
+import core.model.Author;
+import core.model.Book;
+import core.model.Person;
+import core.model.Publisher;
+import core.model.Response;
+import core.model.Stand;
+
+/**
+ * Cada consulta de QueryController. Las que clonan todo el resultado
+ * (getAllBooks, getBooksByGenre, ...) crecen con el catálogo; las vistas en
+ * vivo deberían costar lo mismo con cualquier tamaño.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QueryControllerBenchmark {
+    
+    private static final int MASK = 1023;
+    
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int size;
+    
+    private QueryController controller;
+    private int[] authorIds;
+    private String[] nits;
+    private int next;
+    
+    @Setup(Level.Trial)
+    public void load() {
+        Catalog catalog = Catalog.load(size);
+        controller = new QueryController();
+        authorIds = Catalog.randomIndexes(catalog.authors, MASK + 1, 3);
+        int[] publishers = Catalog.randomIndexes(catalog.publishers, MASK + 1, 4);
+        nits = new String[publishers.length];
+        for (int i = 0; i < publishers.length; i++) {
+            nits[i] = Catalog.nit(publishers[i]);
+        }
+    }
+    
+    private String nextFrom(String[] values) {
+        return values[(next++ & MASK) % values.length];
+    }
+    
+    @Benchmark
+    public Response<List<Book>> getBooksByAuthor() {
+        return controller.getBooksByAuthor(authorIds[next++ & MASK]);
+    }
+    
+    @Benchmark
+    public Response<List<Book>> getBooksByFormat() {
+        return controller.getBooksByFormat(nextFrom(Catalog.FORMATS));
+    }
+    
+    @Benchmark
+    public Response<List<Book>> getBooksByPublisher() {
+        return controller.getBooksByPublisher(nits[next++ & MASK]);
+    }
+    
+    @Benchmark
+    public Response<List<Book>> getBooksByGenre() {
+        return controller.getBooksByGenre(nextFrom(Catalog.GENRES));
+    }
+    
+    @Benchmark
+    public Response<List<Author>> getAuthorsWithMostPublishers() {
+        return controller.getAuthorsWithMostPublishers();
+    }
+    
+    @Benchmark
+    public Response<List<Stand>> getAllStands() {
+        return controller.getAllStands();
+    }
+    
+    @Benchmark
+    public Response<List<Person>> getAllPersons() {
+        return controller.getAllPersons();
+    }
+    
+    @Benchmark
+    public Response<List<Publisher>> getAllPublishers() {
+        return controller.getAllPublishers();
+    }
+    
+    @Benchmark
+    public Response<List<Publisher>> getPublishersView() {
+        return controller.getPublishersView();
+    }
+    
+    @Benchmark
+    public Response<List<Person>> getPersonsView() {
+        return controller.getPersonsView();
+    }
+    
+    @Benchmark
+    public Response<List<Stand>> getStandsView() {
+        return controller.getStandsView();
+    }
+    
+    @Benchmark
+    public Response<List<Book>> getBooksView() {
+        return controller.getBooksView(Book.class);
+    }
+    
+    @Benchmark
+    public Response<List<Book>> getAllBooks() {
+        return controller.getAllBooks();
+    }
+    
+    @Benchmark
+    public Response<List<Book>> getAllPrintedBooks() {
+        return controller.getAllPrintedBooks();
+    }
+    
+    @Benchmark
+    public Response<List<Book>> getAllDigitalBooks() {
+        return controller.getAllDigitalBooks();
+    }
+    
+    @Benchmark
+    public Response<List<Book>> getAllAudiobooks() {
+        return controller.getAllAudiobooks();
+    }
+}
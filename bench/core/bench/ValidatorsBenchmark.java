@@ -0,0 +1,125 @@
+package core.bench;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import core.controller.Validators;
+import core.model.Keys;
+import core.model.Response;
+
+/**
+ * Reglas de Validators. No dependen de los Storage, así que no llevan el
+ * parámetro de tamaño del catálogo.
+ *
+ * Antes y después de Keys: los métodos regex* repiten la validación
+ * anterior de BookController y PublisherController con Pattern.matches,
+ * y los parser* la de Keys con los mismos textos.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidatorsBenchmark {
+    
+    // Campos leídos en cada llamada para que el JIT no los trate como constantes
+    public String isbn = "978-0-12-345678-9";
+    public String badIsbn = "978-0-12-34567X-9";
+    public String nit = "900.123.456-7";
+    public String title = "Cien años de soledad";
+    public String genre = "Novela";
+    public String format = "Tapa dura";
+    public double value = 50000;
+    public long id = 123456789L;
+    public List<Long> authorIds = List.of(1L, 2L, 3L);
+    public List<Long> standIds = List.of(1L, 2L, 3L, 4L);
+    public List<String> nits = List.of("900.123.456-7", "900.123.456-8");
+    
+    /**
+     * La implementación anterior: compilar el patrón en cada llamada
+     */
+    private static boolean isValidIsbnRegex(String isbn) {
+        String pattern = "^\\d{3}-\\d-\\d{2}-\\d{6}-\\d$";
+        return Pattern.matches(pattern, isbn);
+    }
+    
+    private static boolean isValidNitRegex(String nit) {
+        String pattern = "^\\d{3}\\.\\d{3}\\.\\d{3}-\\d$";
+        return Pattern.matches(pattern, nit);
+    }
+    
+    @Benchmark
+    public boolean regexIsbn() {
+        return isValidIsbnRegex(isbn);
+    }
+    
+    @Benchmark
+    public boolean parserIsbn() {
+        return Keys.isValidIsbn(isbn);
+    }
+    
+    @Benchmark
+    public boolean regexBadIsbn() {
+        return isValidIsbnRegex(badIsbn);
+    }
+    
+    @Benchmark
+    public boolean parserBadIsbn() {
+        return Keys.isValidIsbn(badIsbn);
+    }
+    
+    @Benchmark
+    public boolean regexNit() {
+        return isValidNitRegex(nit);
+    }
+    
+    @Benchmark
+    public boolean parserNit() {
+        return Keys.isValidNit(nit);
+    }
+    
+    @Benchmark
+    public Response<Object> validateIsbn() {
+        return Validators.validateIsbn(isbn);
+    }
+    
+    @Benchmark
+    public Response<Object> validateBadIsbn() {
+        return Validators.validateIsbn(badIsbn);
+    }
+    
+    @Benchmark
+    public Response<Object> validateNit() {
+        return Validators.validateNit(nit);
+    }
+    
+    @Benchmark
+    public Response<Object> validateId() {
+        return Validators.validateId(id, "autor");
+    }
+    
+    @Benchmark
+    public Response<Object> validateNames() {
+        return Validators.validateNames(genre, format, "autor");
+    }
+    
+    @Benchmark
+    public Response<Object> validateBook() {
+        return Validators.validateBook(title, genre, format, value, authorIds);
+    }
+    
+    @Benchmark
+    public Response<Object> validatePurchase() {
+        return Validators.validatePurchase(standIds, nits);
+    }
+}
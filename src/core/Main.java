@@ -1,18 +1,52 @@
 package core;
 
 import com.formdev.flatlaf.FlatDarkLaf;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import javax.management.JMException;
 import javax.swing.UIManager;
+import core.importer.CatalogImporter;
+import core.importer.ImportReport;
+import core.metrics.Metrics;
+import core.persistence.FsyncPolicy;
+import core.persistence.WriteAheadLog;
+import core.server.ApiServer;
+import core.storage.Storage;
 import core.view.MegaferiaFrame;
 
 public class Main {
     
+    // Registros a partir de los cuales conviene guardar una instantánea al iniciar
+    private static final long CHECKPOINT_RECORDS = 100_000;
+    
+    // Lo que se cierra al terminar el proceso (ver shutdown); null si no se abrió
+    private static volatile WriteAheadLog changeLog;
+    private static volatile ApiServer apiServer;
+    
     public static void main(String[] args) {
-        System.setProperty("flatlaf.useNativeLibrary", "false");
+        // Con --server se atiende la API HTTP en lugar de mostrar la ventana
+        boolean server = Arrays.asList(args).contains("--server");
+        if (!server) {
+            System.setProperty("flatlaf.useNativeLibrary", "false");
+            
+            try {
+                UIManager.setLookAndFeel(new FlatDarkLaf());
+            } catch (Exception ex) {
+                System.err.println("Failed to initialize LaF");
+            }
+        }
         
-        try {
-            UIManager.setLookAndFeel(new FlatDarkLaf());
-        } catch (Exception ex) {
-            System.err.println("Failed to initialize LaF");
+        // La ventana crea entidades en el EDT, que no debe esperar un fsync por cada una
+        openChangeLog(server ? FsyncPolicy.ALWAYS : FsyncPolicy.INTERVAL);
+        Runtime.getRuntime().addShutdownHook(new Thread(Main::shutdown, "megaferia-shutdown"));
+        registerMetrics();
+        importCatalog();
+        
+        if (server) {
+            startServer();
+            return;
         }
         
         java.awt.EventQueue.invokeLater(new Runnable() {
@@ -22,4 +56,101 @@ public class Main {
             }
         });
     }
+    
+    /**
+     * Restaura los Storage desde la instantánea y el registro de cambios, y
+     * deja el registro instalado para persistir los cambios siguientes. Los
+     * archivos y la política de fsync se configuran con -Dmegaferia.wal=...,
+     * -Dmegaferia.snapshot=... y -Dmegaferia.fsync=ALWAYS|INTERVAL|NEVER.
+     * @param defaultPolicy la política si no se indica -Dmegaferia.fsync
+     */
+    private static void openChangeLog(FsyncPolicy defaultPolicy) {
+        Path path = Paths.get(System.getProperty("megaferia.wal", "megaferia.wal"));
+        Path snapshotPath = Paths.get(System.getProperty("megaferia.snapshot", "megaferia.snapshot"));
+        FsyncPolicy policy = FsyncPolicy.valueOf(System.getProperty("megaferia.fsync", defaultPolicy.name()));
+        try {
+            WriteAheadLog log = WriteAheadLog.open(path, snapshotPath, policy);
+            if (log.getReplayedRecords() >= CHECKPOINT_RECORDS || log.getDiscardedRecords() > 0) {
+                log.checkpoint();
+            }
+            Storage.setJournal(log);
+            changeLog = log;
+        } catch (IOException ex) {
+            System.err.println("Failed to open the change log, changes will not be saved: " + ex.getMessage());
+        }
+    }
+    
+    /**
+     * Único gancho de cierre: la JVM ejecuta los ganchos en paralelo, y el
+     * registro debe cerrarse después de que el servidor termine las
+     * peticiones en curso, para que sus cambios lleguen al archivo
+     */
+    private static void shutdown() {
+        ApiServer server = apiServer;
+        if (server != null) {
+            server.stop(2);
+        }
+        WriteAheadLog log = changeLog;
+        if (log == null) {
+            return;
+        }
+        Storage.setJournal(null);
+        try {
+            log.close();
+        } catch (IOException ex) {
+            System.err.println("Failed to close the change log: " + ex.getMessage());
+        }
+    }
+    
+    /**
+     * Publica las métricas de los controladores y Storage por JMX (ver
+     * core.metrics.Metrics) para verlas con jconsole o VisualVM
+     */
+    private static void registerMetrics() {
+        try {
+            Metrics.register();
+        } catch (JMException ex) {
+            System.err.println("Failed to register the metrics MBean: " + ex.getMessage());
+        }
+    }
+    
+    /**
+     * Inicia la API HTTP (ver core.server.ApiServer) en el puerto indicado con
+     * -Dmegaferia.port=... (8080 por defecto). El proceso sigue vivo mientras
+     * el servidor atienda; al terminar se dejan 2 segundos a las peticiones
+     * en curso.
+     */
+    private static void startServer() {
+        int port = Integer.getInteger("megaferia.port", 8080);
+        try {
+            ApiServer started = new ApiServer(port);
+            started.start();
+            apiServer = started;
+            System.out.println("Serving the API on http://localhost:" + started.getPort() + "/");
+        } catch (IOException ex) {
+            System.err.println("Failed to start the API server on port " + port + ": " + ex.getMessage());
+            System.exit(1);
+        }
+    }
+    
+    /**
+     * Importa el catálogo indicado con -Dmegaferia.import=archivo.csv|archivo.jsonl
+     * antes de mostrar la ventana (ver CatalogImporter)
+     */
+    private static void importCatalog() {
+        String file = System.getProperty("megaferia.import");
+        if (file == null) {
+            return;
+        }
+        try {
+            ImportReport report = new CatalogImporter().importFile(Paths.get(file));
+            System.out.println("Imported " + report.getCreated() + " of " + report.getRecords() + " records from "
+                               + file + " in " + report.getElapsedMillis() + " ms");
+            for (ImportReport.Rejection rejection : report.getRejections()) {
+                System.err.println("Rejected " + rejection);
+            }
+        } catch (IOException ex) {
+            System.err.println("Failed to import " + file + ": " + ex.getMessage());
+        }
+    }
 }
@@ -1,12 +1,25 @@
 package core.controller;
 
+import core.metrics.Metrics;
+import core.metrics.OperationMetrics;
 import core.model.Author;
+import core.model.Page;
 import core.model.Response;
 import core.model.StatusCode;
 import core.storage.PersonStorage;
+import core.storage.Storage;
+import core.storage.NotDurableException;
+import core.storage.NotWrittenException;
 
 public class AuthorController {
     
+    // Métricas de cada método (ver core.metrics.Metrics)
+    private static final OperationMetrics CREATE_AUTHOR = Metrics.operation("AuthorController.createAuthor", Author.class);
+    private static final OperationMetrics CREATE_AUTHORS = Metrics.operation("AuthorController.createAuthors", Author.class);
+    private static final OperationMetrics GET_ALL_AUTHORS = Metrics.operation("AuthorController.getAllAuthors", Author.class);
+    private static final OperationMetrics GET_AUTHORS_PAGE = Metrics.operation("AuthorController.getAuthorsPage", Author.class);
+    private static final OperationMetrics GET_AUTHOR_BY_ID = Metrics.operation("AuthorController.getAuthorById", Author.class);
+    
     private PersonStorage personStorage;
     
     public AuthorController() {
@@ -14,61 +27,95 @@ public class AuthorController {
     }
     
     public Response<Author> createAuthor(long id, String firstname, String lastname) {
-        if (id < 0) {
-            return new Response<>(StatusCode.BAD_REQUEST, "El ID del autor debe ser mayor o igual a 0");
-        }
-        
-        if (id > 999999999999999L) {
-            return new Response<>(StatusCode.BAD_REQUEST, "El ID del autor no puede tener más de 15 dígitos");
-        }
-        
-        if (personStorage.existsAuthorById(id)) {
-            return new Response<>(StatusCode.CONFLICT, "Ya existe un autor con el ID: " + id);
-        }
-        
-        if (firstname == null || firstname.trim().isEmpty()) {
-            return new Response<>(StatusCode.BAD_REQUEST, "El nombre del autor no puede estar vacío");
-        }
-        
-        if (lastname == null || lastname.trim().isEmpty()) {
-            return new Response<>(StatusCode.BAD_REQUEST, "El apellido del autor no puede estar vacío");
-        }
-        
-        Author author = new Author(id, firstname.trim(), lastname.trim());
-        personStorage.addAuthor(author);
-        
-        try {
-            return new Response<>(StatusCode.CREATED, "Autor creado exitosamente", (Author) author.clone());
-        } catch (CloneNotSupportedException e) {
-            return new Response<>(StatusCode.CREATED, "Autor creado exitosamente (sin clon)", author);
-        }
+        return CREATE_AUTHOR.time(id, () -> {
+            Response<Author> invalid = Validators.validateId(id, "autor");
+            if (invalid != null) {
+                return invalid;
+            }
+            
+            if (personStorage.existsAuthorById(id)) {
+                return new Response<>(StatusCode.CONFLICT, "Ya existe un autor con el ID: " + id);
+            }
+            
+            invalid = Validators.validateNames(firstname, lastname, "autor");
+            if (invalid != null) {
+                return invalid;
+            }
+            
+            Author author = new Author(id, firstname.trim(), lastname.trim());
+            // Otro hilo pudo registrar el mismo ID después de la verificación
+            try {
+                if (!personStorage.addAuthor(author)) {
+                    return new Response<>(StatusCode.CONFLICT, "Ya existe un autor con el ID: " + id);
+                }
+            } catch (NotDurableException e) {
+                return new Response<>(StatusCode.INTERNAL_SERVER_ERROR, e.getMessage());
+            } catch (NotWrittenException e) {
+                // La transacción se deshizo: no se registró nada
+                return new Response<>(StatusCode.INTERNAL_SERVER_ERROR, e.getMessage());
+            }
+            
+            try {
+                return new Response<>(StatusCode.CREATED, "Autor creado exitosamente", (Author) author.clone());
+            } catch (CloneNotSupportedException e) {
+                return new Response<>(StatusCode.CREATED, "Autor creado exitosamente (sin clon)", author);
+            }
+        });
+    }
+    
+    /**
+     * Crea varios autores con un solo candado y una sola notificación. Retorna
+     * una Response por elemento, en el mismo orden; los inválidos o repetidos
+     * (dentro del lote o ya registrados) no impiden crear los demás.
+     */
+    public java.util.List<Response<Author>> createAuthors(java.util.List<PersonData> authors) {
+        return CREATE_AUTHORS.timeAll(() -> {
+            return PersonBatch.create(authors, "autor", "Autor creado exitosamente",
+                                      data -> new Author(data.getId(), data.getFirstname().trim(), data.getLastname().trim()),
+                                      personStorage::addAuthor);
+        });
     }
     
     public Response<java.util.List<Author>> getAllAuthors() {
-        java.util.List<Author> authors = personStorage.getAllAuthors();
-        
-        java.util.List<Author> clonedAuthors = new java.util.ArrayList<>();
-        for (Author author : authors) {
-            try {
-                clonedAuthors.add((Author) author.clone());
-            } catch (CloneNotSupportedException e) {
-                clonedAuthors.add(author);
+        return GET_ALL_AUTHORS.time(() -> Storage.copy(() -> {
+            java.util.List<Author> authors = personStorage.getAllAuthors();
+            
+            java.util.List<Author> clonedAuthors = new java.util.ArrayList<>();
+            for (Author author : authors) {
+                try {
+                    clonedAuthors.add((Author) author.clone());
+                } catch (CloneNotSupportedException e) {
+                    clonedAuthors.add(author);
+                }
             }
-        }
-        
-        return new Response<>(StatusCode.OK, "Autores obtenidos", clonedAuthors);
+            
+            return new Response<>(StatusCode.OK, "Autores obtenidos", clonedAuthors);
+        }));
+    }
+    
+    /**
+     * Obtiene una página de autores (ver Page): solo se clonan los
+     * elementos de offset a offset + limit
+     */
+    public Response<Page<Author>> getAuthorsPage(int offset, int limit) {
+        return GET_AUTHORS_PAGE.time(() -> Storage.copy(() -> {
+            Page<Author> page = Pages.copyOf(personStorage.getAuthorsView(), offset, limit, author -> (Author) author.clone());
+            return new Response<>(StatusCode.OK, "Autores obtenidos", page);
+        }));
     }
     
     public Response<Author> getAuthorById(long id) {
-        Author author = personStorage.getAuthorById(id);
-        if (author == null) {
-            return new Response<>(StatusCode.NOT_FOUND, "Autor no encontrado con ID: " + id);
-        }
-        
-        try {
-            return new Response<>(StatusCode.OK, "Autor obtenido", (Author) author.clone());
-        } catch (CloneNotSupportedException e) {
-            return new Response<>(StatusCode.OK, "Autor obtenido (sin clon)", author);
-        }
+        return GET_AUTHOR_BY_ID.time(id, () -> Storage.copy(() -> {
+            Author author = personStorage.getAuthorById(id);
+            if (author == null) {
+                return new Response<>(StatusCode.NOT_FOUND, "Autor no encontrado con ID: " + id);
+            }
+            
+            try {
+                return new Response<>(StatusCode.OK, "Autor obtenido", (Author) author.clone());
+            } catch (CloneNotSupportedException e) {
+                return new Response<>(StatusCode.OK, "Autor obtenido (sin clon)", author);
+            }
+        }));
     }
 }
@@ -1,20 +1,41 @@
-﻿package core.controller;
+package core.controller;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
-import java.util.regex.Pattern;
+import java.util.Set;
+import core.metrics.Metrics;
+import core.metrics.OperationMetrics;
 import core.model.Book;
+import core.model.Keys;
 import core.model.PrintedBook;
 import core.model.DigitalBook;
 import core.model.Audiobook;
 import core.model.Author;
 import core.model.Publisher;
 import core.model.Narrator;
+import core.model.Page;
 import core.model.Response;
 import core.model.StatusCode;
 import core.storage.BookStorage;
 import core.storage.PersonStorage;
 import core.storage.PublisherStorage;
+import core.storage.Storage;
+import core.storage.NotDurableException;
+import core.storage.NotWrittenException;
 public class BookController {
+    // Métricas de cada método (ver core.metrics.Metrics)
+    private static final OperationMetrics CREATE_PRINTED_BOOK = Metrics.operation("BookController.createPrintedBook", PrintedBook.class);
+    private static final OperationMetrics CREATE_DIGITAL_BOOK = Metrics.operation("BookController.createDigitalBook", DigitalBook.class);
+    private static final OperationMetrics CREATE_AUDIOBOOK = Metrics.operation("BookController.createAudiobook", Audiobook.class);
+    private static final OperationMetrics CREATE_BOOKS = Metrics.operation("BookController.createBooks", Book.class);
+    private static final OperationMetrics GET_ALL_BOOKS = Metrics.operation("BookController.getAllBooks", Book.class);
+    private static final OperationMetrics GET_ALL_PRINTED_BOOKS = Metrics.operation("BookController.getAllPrintedBooks", PrintedBook.class);
+    private static final OperationMetrics GET_ALL_DIGITAL_BOOKS = Metrics.operation("BookController.getAllDigitalBooks", DigitalBook.class);
+    private static final OperationMetrics GET_ALL_AUDIOBOOKS = Metrics.operation("BookController.getAllAudiobooks", Audiobook.class);
+    private static final OperationMetrics GET_BOOKS_PAGE = Metrics.operation("BookController.getBooksPage", Book.class);
+    private static final OperationMetrics GET_BOOKS_BY_AUTHOR = Metrics.operation("BookController.getBooksByAuthor", Book.class);
+    private static final OperationMetrics GET_BOOKS_BY_FORMAT = Metrics.operation("BookController.getBooksByFormat", Book.class);
     private BookStorage bookStorage;
     private PersonStorage personStorage;
     private PublisherStorage publisherStorage;
@@ -23,146 +44,179 @@ public class BookController {
         this.personStorage = PersonStorage.getInstance();
         this.publisherStorage = PublisherStorage.getInstance();
     }
-    private boolean isValidIsbn(String isbn) {
-        String pattern = "^\d{3}-\d-\d{2}-\d{6}-\d$";
-        return Pattern.matches(pattern, isbn);
-    }
     public Response<PrintedBook> createPrintedBook(String title, List<Long> authorIds, String isbn, 
                                                    String genre, String format, double value, 
                                                    String publisherNit, int pages, int copies) {
-        if (isbn == null || isbn.trim().isEmpty()) {
-            return new Response<>(StatusCode.BAD_REQUEST, "El ISBN no puede estar vac?o");
-        }
-        if (!isValidIsbn(isbn)) {
-            return new Response<>(StatusCode.BAD_REQUEST, "El ISBN debe tener el formato XXX-X-XX-XXXXXX-X");
-        }
-        if (bookStorage.existsBookByIsbn(isbn)) {
-            return new Response<>(StatusCode.CONFLICT, "Ya existe un libro con el ISBN: " + isbn);
-        }
-        if (title == null || title.trim().isEmpty()) {
-            return new Response<>(StatusCode.BAD_REQUEST, "El t?tulo del libro no puede estar vac?o");
-        }
-        if (genre == null || genre.trim().isEmpty()) {
-            return new Response<>(StatusCode.BAD_REQUEST, "El g?nero del libro no puede estar vac?o");
-        }
-        if (format == null || format.trim().isEmpty()) {
-            return new Response<>(StatusCode.BAD_REQUEST, "El formato del libro no puede estar vac?o");
-        }
-        if (value <= 0) {
-            return new Response<>(StatusCode.BAD_REQUEST, "El valor del libro debe ser superior a 0");
-        }
-        if (authorIds == null || authorIds.isEmpty()) {
-            return new Response<>(StatusCode.BAD_REQUEST, "El libro debe tener al menos un autor");
-        }
-        ArrayList<Author> authors = new ArrayList<>();
-        for (Long authorId : authorIds) {
-            Author author = personStorage.getAuthorById(authorId);
-            if (author == null) {
-                return new Response<>(StatusCode.NOT_FOUND, "Autor no encontrado con ID: " + authorId);
+        return CREATE_PRINTED_BOOK.time(isbn, () -> {
+            Response<PrintedBook> invalid = Validators.validateIsbn(isbn);
+            if (invalid != null) {
+                return invalid;
             }
-            if (authors.contains(author)) {
-                return new Response<>(StatusCode.CONFLICT, "Los autores no pueden estar duplicados");
+            long isbnKey = Keys.parseIsbn(isbn);
+            if (bookStorage.existsBookByIsbn(isbnKey)) {
+                return new Response<>(StatusCode.CONFLICT, "Ya existe un libro con el ISBN: " + isbn);
             }
-            authors.add(author);
-        }
-        Publisher publisher = publisherStorage.getPublisherByNit(publisherNit);
-        if (publisher == null) {
-            return new Response<>(StatusCode.NOT_FOUND, "Editorial no encontrada con NIT: " + publisherNit);
-        }
-        PrintedBook book = new PrintedBook(title.trim(), authors, isbn, genre.trim(), 
-                                          format.trim(), value, publisher, pages, copies);
-        bookStorage.addBook(book);
-        try {
-            return new Response<>(StatusCode.CREATED, "Libro impreso creado exitosamente", (PrintedBook) book.clone());
-        } catch (CloneNotSupportedException e) {
-            return new Response<>(StatusCode.CREATED, "Libro impreso creado exitosamente (sin clon)", book);
-        }
+            invalid = Validators.validateBook(title, genre, format, value, authorIds);
+            if (invalid != null) {
+                return invalid;
+            }
+            ArrayList<Author> authors = new ArrayList<>();
+            invalid = findAuthors(authorIds, authors);
+            if (invalid != null) {
+                return invalid;
+            }
+            Publisher publisher = publisherStorage.getPublisherByNit(publisherNit);
+            if (publisher == null) {
+                return new Response<>(StatusCode.NOT_FOUND, "Editorial no encontrada con NIT: " + publisherNit);
+            }
+            // El constructor enlaza el libro con sus autores y editorial, así que
+            // la verificación del ISBN, la creación y el registro van juntos
+            PrintedBook book;
+            try {
+                book = Storage.write(() -> {
+                    if (bookStorage.existsBookByIsbn(isbnKey)) {
+                        return null;
+                    }
+                    PrintedBook created = new PrintedBook(title.trim(), authors, isbn, genre.trim(), 
+                                                          format.trim(), value, publisher, pages, copies);
+                    bookStorage.addBook(created);
+                    return created;
+                });
+            } catch (NotDurableException e) {
+                return new Response<>(StatusCode.INTERNAL_SERVER_ERROR, e.getMessage());
+            } catch (NotWrittenException e) {
+                // La transacción se deshizo: no se registró nada
+                return new Response<>(StatusCode.INTERNAL_SERVER_ERROR, e.getMessage());
+            }
+            if (book == null) {
+                return new Response<>(StatusCode.CONFLICT, "Ya existe un libro con el ISBN: " + isbn);
+            }
+            try {
+                return new Response<>(StatusCode.CREATED, "Libro impreso creado exitosamente", (PrintedBook) book.clone());
+            } catch (CloneNotSupportedException e) {
+                return new Response<>(StatusCode.CREATED, "Libro impreso creado exitosamente (sin clon)", book);
+            }
+        });
     }
     public Response<DigitalBook> createDigitalBook(String title, List<Long> authorIds, String isbn, 
                                                    String genre, String format, double value, 
                                                    String publisherNit, String hyperlink) {
-        if (isbn == null || isbn.trim().isEmpty()) {
-            return new Response<>(StatusCode.BAD_REQUEST, "El ISBN no puede estar vac?o");
-        }
-        if (!isValidIsbn(isbn)) {
-            return new Response<>(StatusCode.BAD_REQUEST, "El ISBN debe tener el formato XXX-X-XX-XXXXXX-X");
-        }
-        if (bookStorage.existsBookByIsbn(isbn)) {
-            return new Response<>(StatusCode.CONFLICT, "Ya existe un libro con el ISBN: " + isbn);
-        }
-        if (title == null || title.trim().isEmpty()) {
-            return new Response<>(StatusCode.BAD_REQUEST, "El t?tulo del libro no puede estar vac?o");
-        }
-        if (genre == null || genre.trim().isEmpty()) {
-            return new Response<>(StatusCode.BAD_REQUEST, "El g?nero del libro no puede estar vac?o");
-        }
-        if (format == null || format.trim().isEmpty()) {
-            return new Response<>(StatusCode.BAD_REQUEST, "El formato del libro no puede estar vac?o");
-        }
-        if (value <= 0) {
-            return new Response<>(StatusCode.BAD_REQUEST, "El valor del libro debe ser superior a 0");
-        }
-        if (authorIds == null || authorIds.isEmpty()) {
-            return new Response<>(StatusCode.BAD_REQUEST, "El libro debe tener al menos un autor");
-        }
-        ArrayList<Author> authors = new ArrayList<>();
-        for (Long authorId : authorIds) {
-            Author author = personStorage.getAuthorById(authorId);
-            if (author == null) {
-                return new Response<>(StatusCode.NOT_FOUND, "Autor no encontrado con ID: " + authorId);
+        return CREATE_DIGITAL_BOOK.time(isbn, () -> {
+            Response<DigitalBook> invalid = Validators.validateIsbn(isbn);
+            if (invalid != null) {
+                return invalid;
             }
-            if (authors.contains(author)) {
-                return new Response<>(StatusCode.CONFLICT, "Los autores no pueden estar duplicados");
+            long isbnKey = Keys.parseIsbn(isbn);
+            if (bookStorage.existsBookByIsbn(isbnKey)) {
+                return new Response<>(StatusCode.CONFLICT, "Ya existe un libro con el ISBN: " + isbn);
             }
-            authors.add(author);
-        }
-        Publisher publisher = publisherStorage.getPublisherByNit(publisherNit);
-        if (publisher == null) {
-            return new Response<>(StatusCode.NOT_FOUND, "Editorial no encontrada con NIT: " + publisherNit);
-        }
-        DigitalBook book;
-        if (hyperlink != null && !hyperlink.trim().isEmpty()) {
-            book = new DigitalBook(title.trim(), authors, isbn, genre.trim(), 
-                                  format.trim(), value, publisher, hyperlink.trim());
-        } else {
-            book = new DigitalBook(title.trim(), authors, isbn, genre.trim(), 
-                                  format.trim(), value, publisher);
-        }
-        bookStorage.addBook(book);
-        try {
-            return new Response<>(StatusCode.CREATED, "Libro digital creado exitosamente", (DigitalBook) book.clone());
-        } catch (CloneNotSupportedException e) {
-            return new Response<>(StatusCode.CREATED, "Libro digital creado exitosamente (sin clon)", book);
-        }
+            invalid = Validators.validateBook(title, genre, format, value, authorIds);
+            if (invalid != null) {
+                return invalid;
+            }
+            ArrayList<Author> authors = new ArrayList<>();
+            invalid = findAuthors(authorIds, authors);
+            if (invalid != null) {
+                return invalid;
+            }
+            Publisher publisher = publisherStorage.getPublisherByNit(publisherNit);
+            if (publisher == null) {
+                return new Response<>(StatusCode.NOT_FOUND, "Editorial no encontrada con NIT: " + publisherNit);
+            }
+            DigitalBook book;
+            try {
+                book = Storage.write(() -> {
+                    if (bookStorage.existsBookByIsbn(isbnKey)) {
+                        return null;
+                    }
+                    DigitalBook created;
+                    if (hyperlink != null && !hyperlink.isBlank()) {
+                        created = new DigitalBook(title.trim(), authors, isbn, genre.trim(), 
+                                                  format.trim(), value, publisher, hyperlink.trim());
+                    } else {
+                        created = new DigitalBook(title.trim(), authors, isbn, genre.trim(), 
+                                                  format.trim(), value, publisher);
+                    }
+                    bookStorage.addBook(created);
+                    return created;
+                });
+            } catch (NotDurableException e) {
+                return new Response<>(StatusCode.INTERNAL_SERVER_ERROR, e.getMessage());
+            } catch (NotWrittenException e) {
+                // La transacción se deshizo: no se registró nada
+                return new Response<>(StatusCode.INTERNAL_SERVER_ERROR, e.getMessage());
+            }
+            if (book == null) {
+                return new Response<>(StatusCode.CONFLICT, "Ya existe un libro con el ISBN: " + isbn);
+            }
+            try {
+                return new Response<>(StatusCode.CREATED, "Libro digital creado exitosamente", (DigitalBook) book.clone());
+            } catch (CloneNotSupportedException e) {
+                return new Response<>(StatusCode.CREATED, "Libro digital creado exitosamente (sin clon)", book);
+            }
+        });
     }
     public Response<Audiobook> createAudiobook(String title, List<Long> authorIds, String isbn, 
                                                String genre, String format, double value, 
                                                String publisherNit, int duration, long narratorId) {
-        if (isbn == null || isbn.trim().isEmpty()) {
-            return new Response<>(StatusCode.BAD_REQUEST, "El ISBN no puede estar vac?o");
-        }
-        if (!isValidIsbn(isbn)) {
-            return new Response<>(StatusCode.BAD_REQUEST, "El ISBN debe tener el formato XXX-X-XX-XXXXXX-X");
-        }
-        if (bookStorage.existsBookByIsbn(isbn)) {
-            return new Response<>(StatusCode.CONFLICT, "Ya existe un libro con el ISBN: " + isbn);
-        }
-        if (title == null || title.trim().isEmpty()) {
-            return new Response<>(StatusCode.BAD_REQUEST, "El t?tulo del libro no puede estar vac?o");
-        }
-        if (genre == null || genre.trim().isEmpty()) {
-            return new Response<>(StatusCode.BAD_REQUEST, "El g?nero del libro no puede estar vac?o");
-        }
-        if (format == null || format.trim().isEmpty()) {
-            return new Response<>(StatusCode.BAD_REQUEST, "El formato del libro no puede estar vac?o");
-        }
-        if (value <= 0) {
-            return new Response<>(StatusCode.BAD_REQUEST, "El valor del libro debe ser superior a 0");
-        }
-        if (authorIds == null || authorIds.isEmpty()) {
-            return new Response<>(StatusCode.BAD_REQUEST, "El libro debe tener al menos un autor");
-        }
-        ArrayList<Author> authors = new ArrayList<>();
+        return CREATE_AUDIOBOOK.time(isbn, () -> {
+            Response<Audiobook> invalid = Validators.validateIsbn(isbn);
+            if (invalid != null) {
+                return invalid;
+            }
+            long isbnKey = Keys.parseIsbn(isbn);
+            if (bookStorage.existsBookByIsbn(isbnKey)) {
+                return new Response<>(StatusCode.CONFLICT, "Ya existe un libro con el ISBN: " + isbn);
+            }
+            invalid = Validators.validateBook(title, genre, format, value, authorIds);
+            if (invalid != null) {
+                return invalid;
+            }
+            ArrayList<Author> authors = new ArrayList<>();
+            invalid = findAuthors(authorIds, authors);
+            if (invalid != null) {
+                return invalid;
+            }
+            Publisher publisher = publisherStorage.getPublisherByNit(publisherNit);
+            if (publisher == null) {
+                return new Response<>(StatusCode.NOT_FOUND, "Editorial no encontrada con NIT: " + publisherNit);
+            }
+            Narrator narrator = personStorage.getNarratorById(narratorId);
+            if (narrator == null) {
+                return new Response<>(StatusCode.NOT_FOUND, "Narrador no encontrado con ID: " + narratorId);
+            }
+            Audiobook book;
+            try {
+                book = Storage.write(() -> {
+                    if (bookStorage.existsBookByIsbn(isbnKey)) {
+                        return null;
+                    }
+                    Audiobook created = new Audiobook(title.trim(), authors, isbn, genre.trim(), 
+                                                      format.trim(), value, publisher, duration, narrator);
+                    bookStorage.addBook(created);
+                    return created;
+                });
+            } catch (NotDurableException e) {
+                return new Response<>(StatusCode.INTERNAL_SERVER_ERROR, e.getMessage());
+            } catch (NotWrittenException e) {
+                // La transacción se deshizo: no se registró nada
+                return new Response<>(StatusCode.INTERNAL_SERVER_ERROR, e.getMessage());
+            }
+            if (book == null) {
+                return new Response<>(StatusCode.CONFLICT, "Ya existe un libro con el ISBN: " + isbn);
+            }
+            try {
+                return new Response<>(StatusCode.CREATED, "Audiolibro creado exitosamente", (Audiobook) book.clone());
+            } catch (CloneNotSupportedException e) {
+                return new Response<>(StatusCode.CREATED, "Audiolibro creado exitosamente (sin clon)", book);
+            }
+        });
+    }
+    /**
+     * Busca los autores por ID y los agrega a la lista en el mismo orden.
+     * @return null si todos existen y no hay repetidos, o la respuesta de error
+     */
+    private <T> Response<T> findAuthors(List<Long> authorIds, ArrayList<Author> authors) {
         for (Long authorId : authorIds) {
             Author author = personStorage.getAuthorById(authorId);
             if (author == null) {
@@ -173,103 +227,229 @@ public class BookController {
             }
             authors.add(author);
         }
-        Publisher publisher = publisherStorage.getPublisherByNit(publisherNit);
+        return null;
+    }
+    /**
+     * Versión en lote de createPrintedBook, createDigitalBook y createAudiobook.
+     * Valida todo el lote (también los ISBN repetidos dentro de él), resuelve
+     * autores, editorial y narrador con los índices y registra los libros con
+     * un solo candado y una sola notificación. Retorna una Response por
+     * elemento, en el mismo orden; los inválidos no impiden crear los demás.
+     */
+    public List<Response<Book>> createBooks(List<BookData> books) {
+        return CREATE_BOOKS.timeAll(() -> {
+            int size = books.size();
+            List<Response<Book>> responses = new ArrayList<>(Collections.nCopies(size, null));
+            long[] isbnKeys = new long[size];
+            Set<Long> isbns = new HashSet<>();
+            for (int i = 0; i < size; i++) {
+                BookData data = books.get(i);
+                Response<Book> invalid = Validators.validateIsbn(data.getIsbn());
+                if (invalid == null) {
+                    invalid = Validators.validateBook(data.getTitle(), data.getGenre(), data.getFormat(),
+                                                      data.getValue(), data.getAuthorIds());
+                }
+                if (invalid == null) {
+                    isbnKeys[i] = Keys.parseIsbn(data.getIsbn());
+                    if (!isbns.add(isbnKeys[i])) {
+                        invalid = new Response<>(StatusCode.CONFLICT, "Ya existe un libro con el ISBN: " + data.getIsbn());
+                    }
+                }
+                responses.set(i, invalid);
+            }
+            Book[] created = new Book[size];
+            try {
+                Storage.write(() -> {
+                    for (int i = 0; i < size; i++) {
+                        if (responses.get(i) == null) {
+                            created[i] = registerBook(books.get(i), isbnKeys[i], responses, i);
+                        }
+                    }
+                });
+            } catch (NotDurableException e) {
+                // Los ya registrados quedan en memoria; se informa que no llegaron a disco
+                for (int i = 0; i < size; i++) {
+                    if (created[i] != null) {
+                        responses.set(i, new Response<>(StatusCode.INTERNAL_SERVER_ERROR, e.getMessage()));
+                    }
+                }
+                return responses;
+            } catch (NotWrittenException e) {
+                // La transacción se deshizo: ninguno quedó registrado
+                for (int i = 0; i < size; i++) {
+                    if (created[i] != null) {
+                        responses.set(i, new Response<>(StatusCode.INTERNAL_SERVER_ERROR, e.getMessage()));
+                    }
+                }
+                return responses;
+            }
+            // Patrón Prototype: Retornar una copia de cada libro creado
+            for (int i = 0; i < size; i++) {
+                if (created[i] == null) {
+                    continue;
+                }
+                String message = created[i] instanceof PrintedBook ? "Libro impreso creado exitosamente"
+                               : created[i] instanceof DigitalBook ? "Libro digital creado exitosamente"
+                               : "Audiolibro creado exitosamente";
+                try {
+                    responses.set(i, new Response<>(StatusCode.CREATED, message, (Book) created[i].clone()));
+                } catch (CloneNotSupportedException e) {
+                    responses.set(i, new Response<>(StatusCode.CREATED, message + " (sin clon)", created[i]));
+                }
+            }
+            return responses;
+        });
+    }
+    /**
+     * Resuelve las referencias del libro y lo registra; se llama con el
+     * candado de escritura tomado.
+     * @return el libro creado, o null si se dejó la respuesta de error en responses
+     */
+    private Book registerBook(BookData data, long isbnKey, List<Response<Book>> responses, int index) {
+        if (bookStorage.existsBookByIsbn(isbnKey)) {
+            responses.set(index, new Response<>(StatusCode.CONFLICT, "Ya existe un libro con el ISBN: " + data.getIsbn()));
+            return null;
+        }
+        ArrayList<Author> authors = new ArrayList<>(data.getAuthorIds().size());
+        Response<Book> invalid = findAuthors(data.getAuthorIds(), authors);
+        if (invalid != null) {
+            responses.set(index, invalid);
+            return null;
+        }
+        Publisher publisher = publisherStorage.getPublisherByNit(data.getPublisherNit());
         if (publisher == null) {
-            return new Response<>(StatusCode.NOT_FOUND, "Editorial no encontrada con NIT: " + publisherNit);
-        }
-        Narrator narrator = personStorage.getNarratorById(narratorId);
-        if (narrator == null) {
-            return new Response<>(StatusCode.NOT_FOUND, "Narrador no encontrado con ID: " + narratorId);
+            responses.set(index, new Response<>(StatusCode.NOT_FOUND, "Editorial no encontrada con NIT: " + data.getPublisherNit()));
+            return null;
+        }
+        String title = data.getTitle().trim();
+        String genre = data.getGenre().trim();
+        String format = data.getFormat().trim();
+        Book book;
+        if (data.getType() == PrintedBook.class) {
+            book = new PrintedBook(title, authors, data.getIsbn(), genre, format, data.getValue(), publisher,
+                                   data.getPages(), data.getCopies());
+        } else if (data.getType() == DigitalBook.class) {
+            String hyperlink = data.getHyperlink();
+            if (hyperlink != null && !hyperlink.isBlank()) {
+                book = new DigitalBook(title, authors, data.getIsbn(), genre, format, data.getValue(), publisher,
+                                       hyperlink.trim());
+            } else {
+                book = new DigitalBook(title, authors, data.getIsbn(), genre, format, data.getValue(), publisher);
+            }
+        } else {
+            Narrator narrator = personStorage.getNarratorById(data.getNarratorId());
+            if (narrator == null) {
+                responses.set(index, new Response<>(StatusCode.NOT_FOUND, "Narrador no encontrado con ID: " + data.getNarratorId()));
+                return null;
+            }
+            book = new Audiobook(title, authors, data.getIsbn(), genre, format, data.getValue(), publisher,
+                                 data.getDuration(), narrator);
         }
-        Audiobook book = new Audiobook(title.trim(), authors, isbn, genre.trim(), 
-                                      format.trim(), value, publisher, duration, narrator);
         bookStorage.addBook(book);
-        try {
-            return new Response<>(StatusCode.CREATED, "Audiolibro creado exitosamente", (Audiobook) book.clone());
-        } catch (CloneNotSupportedException e) {
-            return new Response<>(StatusCode.CREATED, "Audiolibro creado exitosamente (sin clon)", book);
-        }
+        return book;
     }
     public Response<List<Book>> getAllBooks() {
-        List<Book> books = bookStorage.getAllBooks();
-        List<Book> clonedBooks = new ArrayList<>();
-        for (Book book : books) {
-            try {
-                clonedBooks.add((Book) book.clone());
-            } catch (CloneNotSupportedException e) {
-                clonedBooks.add(book);
+        return GET_ALL_BOOKS.time(() -> Storage.copy(() -> {
+            List<Book> books = bookStorage.getAllBooks();
+            List<Book> clonedBooks = new ArrayList<>();
+            for (Book book : books) {
+                try {
+                    clonedBooks.add((Book) book.clone());
+                } catch (CloneNotSupportedException e) {
+                    clonedBooks.add(book);
+                }
             }
-        }
-        return new Response<>(StatusCode.OK, "Libros obtenidos", clonedBooks);
+            return new Response<>(StatusCode.OK, "Libros obtenidos", clonedBooks);
+        }));
     }
     public Response<List<PrintedBook>> getAllPrintedBooks() {
-        List<Book> allBooks = bookStorage.getBooksByType(PrintedBook.class);
-        List<PrintedBook> printedBooks = new ArrayList<>();
-        for (Book book : allBooks) {
-            if (book instanceof PrintedBook) {
-                try {
-                    printedBooks.add((PrintedBook) book.clone());
-                } catch (CloneNotSupportedException e) {
-                    printedBooks.add((PrintedBook) book);
+        return GET_ALL_PRINTED_BOOKS.time(() -> Storage.copy(() -> {
+            List<Book> allBooks = bookStorage.getBooksByType(PrintedBook.class);
+            List<PrintedBook> printedBooks = new ArrayList<>();
+            for (Book book : allBooks) {
+                if (book instanceof PrintedBook) {
+                    try {
+                        printedBooks.add((PrintedBook) book.clone());
+                    } catch (CloneNotSupportedException e) {
+                        printedBooks.add((PrintedBook) book);
+                    }
                 }
             }
-        }
-        return new Response<>(StatusCode.OK, "Libros impresos obtenidos", printedBooks);
+            return new Response<>(StatusCode.OK, "Libros impresos obtenidos", printedBooks);
+        }));
     }
     public Response<List<DigitalBook>> getAllDigitalBooks() {
-        List<Book> allBooks = bookStorage.getBooksByType(DigitalBook.class);
-        List<DigitalBook> digitalBooks = new ArrayList<>();
-        for (Book book : allBooks) {
-            if (book instanceof DigitalBook) {
-                try {
-                    digitalBooks.add((DigitalBook) book.clone());
-                } catch (CloneNotSupportedException e) {
-                    digitalBooks.add((DigitalBook) book);
+        return GET_ALL_DIGITAL_BOOKS.time(() -> Storage.copy(() -> {
+            List<Book> allBooks = bookStorage.getBooksByType(DigitalBook.class);
+            List<DigitalBook> digitalBooks = new ArrayList<>();
+            for (Book book : allBooks) {
+                if (book instanceof DigitalBook) {
+                    try {
+                        digitalBooks.add((DigitalBook) book.clone());
+                    } catch (CloneNotSupportedException e) {
+                        digitalBooks.add((DigitalBook) book);
+                    }
                 }
             }
-        }
-        return new Response<>(StatusCode.OK, "Libros digitales obtenidos", digitalBooks);
+            return new Response<>(StatusCode.OK, "Libros digitales obtenidos", digitalBooks);
+        }));
     }
     public Response<List<Audiobook>> getAllAudiobooks() {
-        List<Book> allBooks = bookStorage.getBooksByType(Audiobook.class);
-        List<Audiobook> audiobooks = new ArrayList<>();
-        for (Book book : allBooks) {
-            if (book instanceof Audiobook) {
-                try {
-                    audiobooks.add((Audiobook) book.clone());
-                } catch (CloneNotSupportedException e) {
-                    audiobooks.add((Audiobook) book);
+        return GET_ALL_AUDIOBOOKS.time(() -> Storage.copy(() -> {
+            List<Book> allBooks = bookStorage.getBooksByType(Audiobook.class);
+            List<Audiobook> audiobooks = new ArrayList<>();
+            for (Book book : allBooks) {
+                if (book instanceof Audiobook) {
+                    try {
+                        audiobooks.add((Audiobook) book.clone());
+                    } catch (CloneNotSupportedException e) {
+                        audiobooks.add((Audiobook) book);
+                    }
                 }
             }
-        }
-        return new Response<>(StatusCode.OK, "Audiolibros obtenidos", audiobooks);
+            return new Response<>(StatusCode.OK, "Audiolibros obtenidos", audiobooks);
+        }));
+    }
+    /**
+     * Obtiene una página de los libros de un tipo (Book.class para todos);
+     * solo se clonan los libros de offset a offset + limit
+     */
+    public Response<Page<Book>> getBooksPage(Class<? extends Book> type, int offset, int limit) {
+        return GET_BOOKS_PAGE.time(type.getSimpleName(), () -> Storage.copy(() -> {
+            Page<Book> page = Pages.copyOf(bookStorage.getBooksByTypeView(type), offset, limit, book -> (Book) book.clone());
+            return new Response<>(StatusCode.OK, "Libros obtenidos", page);
+        }));
     }
     public Response<List<Book>> getBooksByAuthor(long authorId) {
-        Author author = personStorage.getAuthorById(authorId);
-        if (author == null) {
-            return new Response<>(StatusCode.NOT_FOUND, "Autor no encontrado con ID: " + authorId);
-        }
-        List<Book> books = bookStorage.getBooksByAuthor(author);
-        List<Book> clonedBooks = new ArrayList<>();
-        for (Book book : books) {
-            try {
-                clonedBooks.add((Book) book.clone());
-            } catch (CloneNotSupportedException e) {
-                clonedBooks.add(book);
+        return GET_BOOKS_BY_AUTHOR.time(authorId, () -> Storage.copy(() -> {
+            Author author = personStorage.getAuthorById(authorId);
+            if (author == null) {
+                return new Response<>(StatusCode.NOT_FOUND, "Autor no encontrado con ID: " + authorId);
             }
-        }
-        return new Response<>(StatusCode.OK, "Libros del autor obtenidos", clonedBooks);
+            List<Book> books = bookStorage.getBooksByAuthor(author);
+            List<Book> clonedBooks = new ArrayList<>();
+            for (Book book : books) {
+                try {
+                    clonedBooks.add((Book) book.clone());
+                } catch (CloneNotSupportedException e) {
+                    clonedBooks.add(book);
+                }
+            }
+            return new Response<>(StatusCode.OK, "Libros del autor obtenidos", clonedBooks);
+        }));
     }
     public Response<List<Book>> getBooksByFormat(String format) {
-        List<Book> books = bookStorage.getBooksByFormat(format);
-        List<Book> clonedBooks = new ArrayList<>();
-        for (Book book : books) {
-            try {
-                clonedBooks.add((Book) book.clone());
-            } catch (CloneNotSupportedException e) {
-                clonedBooks.add(book);
+        return GET_BOOKS_BY_FORMAT.time(format, () -> Storage.copy(() -> {
+            List<Book> books = bookStorage.getBooksByFormat(format);
+            List<Book> clonedBooks = new ArrayList<>();
+            for (Book book : books) {
+                try {
+                    clonedBooks.add((Book) book.clone());
+                } catch (CloneNotSupportedException e) {
+                    clonedBooks.add(book);
+                }
             }
-        }
-        return new Response<>(StatusCode.OK, "Libros por formato obtenidos", clonedBooks);
+            return new Response<>(StatusCode.OK, "Libros por formato obtenidos", clonedBooks);
+        }));
     }
 }
@@ -0,0 +1,119 @@
+package core.controller;
+
+import java.util.List;
+import core.model.Audiobook;
+import core.model.Book;
+import core.model.DigitalBook;
+import core.model.PrintedBook;
+
+/**
+ * Datos de entrada para crear un libro en lote (ver BookController.createBooks).
+ * Se construye con printed, digital o audiobook; cada tipo usa solo sus
+ * campos propios.
+ */
+public final class BookData {
+    
+    private final Class<? extends Book> type;
+    private final String title;
+    private final List<Long> authorIds;
+    private final String isbn;
+    private final String genre;
+    private final String format;
+    private final double value;
+    private final String publisherNit;
+    // Libro impreso
+    private int pages;
+    private int copies;
+    // Libro digital (opcional)
+    private String hyperlink;
+    // Audiolibro
+    private int duration;
+    private long narratorId;
+    
+    private BookData(Class<? extends Book> type, String title, List<Long> authorIds, String isbn,
+                     String genre, String format, double value, String publisherNit) {
+        this.type = type;
+        this.title = title;
+        this.authorIds = authorIds;
+        this.isbn = isbn;
+        this.genre = genre;
+        this.format = format;
+        this.value = value;
+        this.publisherNit = publisherNit;
+    }
+    
+    public static BookData printed(String title, List<Long> authorIds, String isbn, String genre, String format,
+                                   double value, String publisherNit, int pages, int copies) {
+        BookData book = new BookData(PrintedBook.class, title, authorIds, isbn, genre, format, value, publisherNit);
+        book.pages = pages;
+        book.copies = copies;
+        return book;
+    }
+    
+    public static BookData digital(String title, List<Long> authorIds, String isbn, String genre, String format,
+                                   double value, String publisherNit, String hyperlink) {
+        BookData book = new BookData(DigitalBook.class, title, authorIds, isbn, genre, format, value, publisherNit);
+        book.hyperlink = hyperlink;
+        return book;
+    }
+    
+    public static BookData audiobook(String title, List<Long> authorIds, String isbn, String genre, String format,
+                                     double value, String publisherNit, int duration, long narratorId) {
+        BookData book = new BookData(Audiobook.class, title, authorIds, isbn, genre, format, value, publisherNit);
+        book.duration = duration;
+        book.narratorId = narratorId;
+        return book;
+    }
+    
+    public Class<? extends Book> getType() {
+        return type;
+    }
+    
+    public String getTitle() {
+        return title;
+    }
+    
+    public List<Long> getAuthorIds() {
+        return authorIds;
+    }
+    
+    public String getIsbn() {
+        return isbn;
+    }
+    
+    public String getGenre() {
+        return genre;
+    }
+    
+    public String getFormat() {
+        return format;
+    }
+    
+    public double getValue() {
+        return value;
+    }
+    
+    public String getPublisherNit() {
+        return publisherNit;
+    }
+    
+    public int getPages() {
+        return pages;
+    }
+    
+    public int getCopies() {
+        return copies;
+    }
+    
+    public String getHyperlink() {
+        return hyperlink;
+    }
+    
+    public int getDuration() {
+        return duration;
+    }
+    
+    public long getNarratorId() {
+        return narratorId;
+    }
+}
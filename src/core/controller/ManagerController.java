@@ -3,10 +3,16 @@
  */
 package core.controller;
 
+import core.metrics.Metrics;
+import core.metrics.OperationMetrics;
 import core.model.Manager;
+import core.model.Page;
 import core.model.Response;
 import core.model.StatusCode;
 import core.storage.PersonStorage;
+import core.storage.Storage;
+import core.storage.NotDurableException;
+import core.storage.NotWrittenException;
 
 /**
  *
@@ -14,6 +20,13 @@ import core.storage.PersonStorage;
  */
 public class ManagerController {
     
+    // Métricas de cada método (ver core.metrics.Metrics)
+    private static final OperationMetrics CREATE_MANAGER = Metrics.operation("ManagerController.createManager", Manager.class);
+    private static final OperationMetrics CREATE_MANAGERS = Metrics.operation("ManagerController.createManagers", Manager.class);
+    private static final OperationMetrics GET_ALL_MANAGERS = Metrics.operation("ManagerController.getAllManagers", Manager.class);
+    private static final OperationMetrics GET_MANAGERS_PAGE = Metrics.operation("ManagerController.getManagersPage", Manager.class);
+    private static final OperationMetrics GET_MANAGER_BY_ID = Metrics.operation("ManagerController.getManagerById", Manager.class);
+    
     private PersonStorage personStorage;
     
     public ManagerController() {
@@ -21,66 +34,99 @@ public class ManagerController {
     }
     
     public Response<Manager> createManager(long id, String firstname, String lastname) {
-        // Validar ID: único, >= 0, máximo 15 dígitos
-        if (id < 0) {
-            return new Response<>(StatusCode.BAD_REQUEST, "El ID del gerente debe ser mayor o igual a 0");
-        }
-        
-        if (id > 999999999999999L) { // 15 dígitos
-            return new Response<>(StatusCode.BAD_REQUEST, "El ID del gerente no puede tener más de 15 dígitos");
-        }
-        
-        if (personStorage.existsManagerById(id)) {
-            return new Response<>(StatusCode.CONFLICT, "Ya existe un gerente con el ID: " + id);
-        }
-        
-        // Validar campos no vacíos
-        if (firstname == null || firstname.trim().isEmpty()) {
-            return new Response<>(StatusCode.BAD_REQUEST, "El nombre del gerente no puede estar vacío");
-        }
-        
-        if (lastname == null || lastname.trim().isEmpty()) {
-            return new Response<>(StatusCode.BAD_REQUEST, "El apellido del gerente no puede estar vacío");
-        }
-        
-        Manager manager = new Manager(id, firstname.trim(), lastname.trim());
-        personStorage.addManager(manager);
-        
-        // Patrón Prototype: Retornar una copia del objeto
-        try {
-            return new Response<>(StatusCode.CREATED, "Gerente creado exitosamente", (Manager) manager.clone());
-        } catch (CloneNotSupportedException e) {
-            return new Response<>(StatusCode.CREATED, "Gerente creado exitosamente (sin clon)", manager);
-        }
+        return CREATE_MANAGER.time(id, () -> {
+            // Validar ID: único, >= 0, máximo 15 dígitos
+            Response<Manager> invalid = Validators.validateId(id, "gerente");
+            if (invalid != null) {
+                return invalid;
+            }
+            
+            if (personStorage.existsManagerById(id)) {
+                return new Response<>(StatusCode.CONFLICT, "Ya existe un gerente con el ID: " + id);
+            }
+            
+            // Validar campos no vacíos
+            invalid = Validators.validateNames(firstname, lastname, "gerente");
+            if (invalid != null) {
+                return invalid;
+            }
+            
+            Manager manager = new Manager(id, firstname.trim(), lastname.trim());
+            // Otro hilo pudo registrar el mismo ID después de la verificación
+            try {
+                if (!personStorage.addManager(manager)) {
+                    return new Response<>(StatusCode.CONFLICT, "Ya existe un gerente con el ID: " + id);
+                }
+            } catch (NotDurableException e) {
+                return new Response<>(StatusCode.INTERNAL_SERVER_ERROR, e.getMessage());
+            } catch (NotWrittenException e) {
+                // La transacción se deshizo: no se registró nada
+                return new Response<>(StatusCode.INTERNAL_SERVER_ERROR, e.getMessage());
+            }
+            
+            // Patrón Prototype: Retornar una copia del objeto
+            try {
+                return new Response<>(StatusCode.CREATED, "Gerente creado exitosamente", (Manager) manager.clone());
+            } catch (CloneNotSupportedException e) {
+                return new Response<>(StatusCode.CREATED, "Gerente creado exitosamente (sin clon)", manager);
+            }
+        });
+    }
+    
+    /**
+     * Versión en lote de createManager: valida todos los gerentes, los registra con
+     * un solo candado y retorna una Response por elemento, en el mismo orden
+     */
+    public java.util.List<Response<Manager>> createManagers(java.util.List<PersonData> managers) {
+        return CREATE_MANAGERS.timeAll(() -> {
+            return PersonBatch.create(managers, "gerente", "Gerente creado exitosamente",
+                                      data -> new Manager(data.getId(), data.getFirstname().trim(), data.getLastname().trim()),
+                                      personStorage::addManager);
+        });
     }
     
     public Response<java.util.List<Manager>> getAllManagers() {
-        java.util.List<Manager> managers = personStorage.getAllManagers();
-        
-        // Patrón Prototype: Clonar cada gerente antes de retornar
-        java.util.List<Manager> clonedManagers = new java.util.ArrayList<>();
-        for (Manager manager : managers) {
-            try {
-                clonedManagers.add((Manager) manager.clone());
-            } catch (CloneNotSupportedException e) {
-                clonedManagers.add(manager); // Fallback en caso de error
+        return GET_ALL_MANAGERS.time(() -> Storage.copy(() -> {
+            java.util.List<Manager> managers = personStorage.getAllManagers();
+            
+            // Patrón Prototype: Clonar cada gerente antes de retornar
+            java.util.List<Manager> clonedManagers = new java.util.ArrayList<>();
+            for (Manager manager : managers) {
+                try {
+                    clonedManagers.add((Manager) manager.clone());
+                } catch (CloneNotSupportedException e) {
+                    clonedManagers.add(manager); // Fallback en caso de error
+                }
             }
-        }
-        
-        return new Response<>(StatusCode.OK, "Gerentes obtenidos", clonedManagers);
+            
+            return new Response<>(StatusCode.OK, "Gerentes obtenidos", clonedManagers);
+        }));
+    }
+    
+    /**
+     * Obtiene una página de gerentes (ver Page): solo se clonan los
+     * elementos de offset a offset + limit
+     */
+    public Response<Page<Manager>> getManagersPage(int offset, int limit) {
+        return GET_MANAGERS_PAGE.time(() -> Storage.copy(() -> {
+            Page<Manager> page = Pages.copyOf(personStorage.getManagersView(), offset, limit, manager -> (Manager) manager.clone());
+            return new Response<>(StatusCode.OK, "Gerentes obtenidos", page);
+        }));
     }
     
     public Response<Manager> getManagerById(long id) {
-        Manager manager = personStorage.getManagerById(id);
-        if (manager == null) {
-            return new Response<>(StatusCode.NOT_FOUND, "Gerente no encontrado con ID: " + id);
-        }
-        
-        // Patrón Prototype: Retornar una copia del objeto
-        try {
-            return new Response<>(StatusCode.OK, "Gerente obtenido", (Manager) manager.clone());
-        } catch (CloneNotSupportedException e) {
-            return new Response<>(StatusCode.OK, "Gerente obtenido (sin clon)", manager);
-        }
+        return GET_MANAGER_BY_ID.time(id, () -> Storage.copy(() -> {
+            Manager manager = personStorage.getManagerById(id);
+            if (manager == null) {
+                return new Response<>(StatusCode.NOT_FOUND, "Gerente no encontrado con ID: " + id);
+            }
+            
+            // Patrón Prototype: Retornar una copia del objeto
+            try {
+                return new Response<>(StatusCode.OK, "Gerente obtenido", (Manager) manager.clone());
+            } catch (CloneNotSupportedException e) {
+                return new Response<>(StatusCode.OK, "Gerente obtenido (sin clon)", manager);
+            }
+        }));
     }
 }
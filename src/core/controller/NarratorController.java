@@ -3,10 +3,16 @@
  */
 package core.controller;
 
+import core.metrics.Metrics;
+import core.metrics.OperationMetrics;
 import core.model.Narrator;
+import core.model.Page;
 import core.model.Response;
 import core.model.StatusCode;
 import core.storage.PersonStorage;
+import core.storage.Storage;
+import core.storage.NotDurableException;
+import core.storage.NotWrittenException;
 
 /**
  *
@@ -14,6 +20,13 @@ import core.storage.PersonStorage;
  */
 public class NarratorController {
     
+    // Métricas de cada método (ver core.metrics.Metrics)
+    private static final OperationMetrics CREATE_NARRATOR = Metrics.operation("NarratorController.createNarrator", Narrator.class);
+    private static final OperationMetrics CREATE_NARRATORS = Metrics.operation("NarratorController.createNarrators", Narrator.class);
+    private static final OperationMetrics GET_ALL_NARRATORS = Metrics.operation("NarratorController.getAllNarrators", Narrator.class);
+    private static final OperationMetrics GET_NARRATORS_PAGE = Metrics.operation("NarratorController.getNarratorsPage", Narrator.class);
+    private static final OperationMetrics GET_NARRATOR_BY_ID = Metrics.operation("NarratorController.getNarratorById", Narrator.class);
+    
     private PersonStorage personStorage;
     
     public NarratorController() {
@@ -21,66 +34,99 @@ public class NarratorController {
     }
     
     public Response<Narrator> createNarrator(long id, String firstname, String lastname) {
-        // Validar ID: único, >= 0, máximo 15 dígitos
-        if (id < 0) {
-            return new Response<>(StatusCode.BAD_REQUEST, "El ID del narrador debe ser mayor o igual a 0");
-        }
-        
-        if (id > 999999999999999L) { // 15 dígitos
-            return new Response<>(StatusCode.BAD_REQUEST, "El ID del narrador no puede tener más de 15 dígitos");
-        }
-        
-        if (personStorage.existsNarratorById(id)) {
-            return new Response<>(StatusCode.CONFLICT, "Ya existe un narrador con el ID: " + id);
-        }
-        
-        // Validar campos no vacíos
-        if (firstname == null || firstname.trim().isEmpty()) {
-            return new Response<>(StatusCode.BAD_REQUEST, "El nombre del narrador no puede estar vacío");
-        }
-        
-        if (lastname == null || lastname.trim().isEmpty()) {
-            return new Response<>(StatusCode.BAD_REQUEST, "El apellido del narrador no puede estar vacío");
-        }
-        
-        Narrator narrator = new Narrator(id, firstname.trim(), lastname.trim());
-        personStorage.addNarrator(narrator);
-        
-        // Patrón Prototype: Retornar una copia del objeto
-        try {
-            return new Response<>(StatusCode.CREATED, "Narrador creado exitosamente", (Narrator) narrator.clone());
-        } catch (CloneNotSupportedException e) {
-            return new Response<>(StatusCode.CREATED, "Narrador creado exitosamente (sin clon)", narrator);
-        }
+        return CREATE_NARRATOR.time(id, () -> {
+            // Validar ID: único, >= 0, máximo 15 dígitos
+            Response<Narrator> invalid = Validators.validateId(id, "narrador");
+            if (invalid != null) {
+                return invalid;
+            }
+            
+            if (personStorage.existsNarratorById(id)) {
+                return new Response<>(StatusCode.CONFLICT, "Ya existe un narrador con el ID: " + id);
+            }
+            
+            // Validar campos no vacíos
+            invalid = Validators.validateNames(firstname, lastname, "narrador");
+            if (invalid != null) {
+                return invalid;
+            }
+            
+            Narrator narrator = new Narrator(id, firstname.trim(), lastname.trim());
+            // Otro hilo pudo registrar el mismo ID después de la verificación
+            try {
+                if (!personStorage.addNarrator(narrator)) {
+                    return new Response<>(StatusCode.CONFLICT, "Ya existe un narrador con el ID: " + id);
+                }
+            } catch (NotDurableException e) {
+                return new Response<>(StatusCode.INTERNAL_SERVER_ERROR, e.getMessage());
+            } catch (NotWrittenException e) {
+                // La transacción se deshizo: no se registró nada
+                return new Response<>(StatusCode.INTERNAL_SERVER_ERROR, e.getMessage());
+            }
+            
+            // Patrón Prototype: Retornar una copia del objeto
+            try {
+                return new Response<>(StatusCode.CREATED, "Narrador creado exitosamente", (Narrator) narrator.clone());
+            } catch (CloneNotSupportedException e) {
+                return new Response<>(StatusCode.CREATED, "Narrador creado exitosamente (sin clon)", narrator);
+            }
+        });
+    }
+    
+    /**
+     * Versión en lote de createNarrator: valida todos los narradores, los registra con
+     * un solo candado y retorna una Response por elemento, en el mismo orden
+     */
+    public java.util.List<Response<Narrator>> createNarrators(java.util.List<PersonData> narrators) {
+        return CREATE_NARRATORS.timeAll(() -> {
+            return PersonBatch.create(narrators, "narrador", "Narrador creado exitosamente",
+                                      data -> new Narrator(data.getId(), data.getFirstname().trim(), data.getLastname().trim()),
+                                      personStorage::addNarrator);
+        });
     }
     
     public Response<java.util.List<Narrator>> getAllNarrators() {
-        java.util.List<Narrator> narrators = personStorage.getAllNarrators();
-        
-        // Patrón Prototype: Clonar cada narrador antes de retornar
-        java.util.List<Narrator> clonedNarrators = new java.util.ArrayList<>();
-        for (Narrator narrator : narrators) {
-            try {
-                clonedNarrators.add((Narrator) narrator.clone());
-            } catch (CloneNotSupportedException e) {
-                clonedNarrators.add(narrator); // Fallback en caso de error
+        return GET_ALL_NARRATORS.time(() -> Storage.copy(() -> {
+            java.util.List<Narrator> narrators = personStorage.getAllNarrators();
+            
+            // Patrón Prototype: Clonar cada narrador antes de retornar
+            java.util.List<Narrator> clonedNarrators = new java.util.ArrayList<>();
+            for (Narrator narrator : narrators) {
+                try {
+                    clonedNarrators.add((Narrator) narrator.clone());
+                } catch (CloneNotSupportedException e) {
+                    clonedNarrators.add(narrator); // Fallback en caso de error
+                }
             }
-        }
-        
-        return new Response<>(StatusCode.OK, "Narradores obtenidos", clonedNarrators);
+            
+            return new Response<>(StatusCode.OK, "Narradores obtenidos", clonedNarrators);
+        }));
+    }
+    
+    /**
+     * Obtiene una página de narradores (ver Page): solo se clonan los
+     * elementos de offset a offset + limit
+     */
+    public Response<Page<Narrator>> getNarratorsPage(int offset, int limit) {
+        return GET_NARRATORS_PAGE.time(() -> Storage.copy(() -> {
+            Page<Narrator> page = Pages.copyOf(personStorage.getNarratorsView(), offset, limit, narrator -> (Narrator) narrator.clone());
+            return new Response<>(StatusCode.OK, "Narradores obtenidos", page);
+        }));
     }
     
     public Response<Narrator> getNarratorById(long id) {
-        Narrator narrator = personStorage.getNarratorById(id);
-        if (narrator == null) {
-            return new Response<>(StatusCode.NOT_FOUND, "Narrador no encontrado con ID: " + id);
-        }
-        
-        // Patrón Prototype: Retornar una copia del objeto
-        try {
-            return new Response<>(StatusCode.OK, "Narrador obtenido", (Narrator) narrator.clone());
-        } catch (CloneNotSupportedException e) {
-            return new Response<>(StatusCode.OK, "Narrador obtenido (sin clon)", narrator);
-        }
+        return GET_NARRATOR_BY_ID.time(id, () -> Storage.copy(() -> {
+            Narrator narrator = personStorage.getNarratorById(id);
+            if (narrator == null) {
+                return new Response<>(StatusCode.NOT_FOUND, "Narrador no encontrado con ID: " + id);
+            }
+            
+            // Patrón Prototype: Retornar una copia del objeto
+            try {
+                return new Response<>(StatusCode.OK, "Narrador obtenido", (Narrator) narrator.clone());
+            } catch (CloneNotSupportedException e) {
+                return new Response<>(StatusCode.OK, "Narrador obtenido (sin clon)", narrator);
+            }
+        }));
     }
 }
@@ -0,0 +1,40 @@
+package core.controller;
+
+import java.util.ArrayList;
+import java.util.List;
+import core.model.Page;
+
+/**
+ * Copia de una página de una vista en vivo, para los GET de la API: solo
+ * se clonan los elementos de la página, no la lista completa. Se llama
+ * dentro de Storage.copy(), así que el total y los elementos son del mismo
+ * instante.
+ */
+final class Pages {
+    
+    /**
+     * Clona un elemento (Patrón Prototype)
+     */
+    interface Prototype<E> {
+        E copy(E item) throws CloneNotSupportedException;
+    }
+    
+    private Pages() {
+    }
+    
+    static <E> Page<E> copyOf(List<? extends E> view, int offset, int limit, Prototype<E> prototype) {
+        int total = view.size();
+        int from = Math.min(Math.max(offset, 0), total);
+        int to = (int) Math.min((long) from + limit, total);
+        List<E> items = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            E item = view.get(i);
+            try {
+                items.add(prototype.copy(item));
+            } catch (CloneNotSupportedException e) {
+                items.add(item); // Fallback en caso de error
+            }
+        }
+        return new Page<>(items, total, from);
+    }
+}
@@ -0,0 +1,95 @@
+package core.controller;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import core.model.Person;
+import core.model.Response;
+import core.model.StatusCode;
+import core.storage.Storage;
+import core.storage.NotDurableException;
+import core.storage.NotWrittenException;
+
+/**
+ * Creación en lote común a autores, gerentes y narradores, que solo
+ * cambian en el Storage donde se registran y en los mensajes.
+ */
+final class PersonBatch {
+    
+    private PersonBatch() {
+    }
+    
+    /**
+     * @param entity nombre de la entidad en los mensajes ("autor", ...)
+     * @param factory crea la persona a partir de los datos ya validados
+     * @param add registra la persona; retorna false si el ID ya existía
+     */
+    @SuppressWarnings("unchecked")
+    static <T extends Person> List<Response<T>> create(List<PersonData> persons, String entity, String created,
+                                                       Function<PersonData, T> factory, Predicate<T> add) {
+        int size = persons.size();
+        List<Response<T>> responses = new ArrayList<>(Collections.nCopies(size, null));
+        // Reglas sin estado y duplicados dentro del lote, fuera del candado
+        HashSet<Long> ids = new HashSet<>();
+        for (int i = 0; i < size; i++) {
+            PersonData person = persons.get(i);
+            Response<T> invalid = Validators.validateId(person.getId(), entity);
+            if (invalid == null) {
+                invalid = Validators.validateNames(person.getFirstname(), person.getLastname(), entity);
+            }
+            if (invalid == null && !ids.add(person.getId())) {
+                invalid = new Response<>(StatusCode.CONFLICT, "Ya existe un " + entity + " con el ID: " + person.getId());
+            }
+            responses.set(i, invalid);
+        }
+        Object[] registered = new Object[size];
+        try {
+            Storage.write(() -> {
+                for (int i = 0; i < size; i++) {
+                    if (responses.get(i) != null) {
+                        continue;
+                    }
+                    PersonData data = persons.get(i);
+                    T person = factory.apply(data);
+                    if (add.test(person)) {
+                        registered[i] = person;
+                    } else {
+                        responses.set(i, new Response<>(StatusCode.CONFLICT, "Ya existe un " + entity + " con el ID: " + data.getId()));
+                    }
+                }
+            });
+        } catch (NotDurableException e) {
+            // Los ya registrados quedan en memoria; se informa que no llegaron a disco
+            for (int i = 0; i < size; i++) {
+                if (registered[i] != null) {
+                    responses.set(i, new Response<>(StatusCode.INTERNAL_SERVER_ERROR, e.getMessage()));
+                }
+            }
+            return responses;
+        } catch (NotWrittenException e) {
+            // La transacción se deshizo: ninguno quedó registrado
+            for (int i = 0; i < size; i++) {
+                if (registered[i] != null) {
+                    responses.set(i, new Response<>(StatusCode.INTERNAL_SERVER_ERROR, e.getMessage()));
+                }
+            }
+            return responses;
+        }
+        // Patrón Prototype: Retornar una copia de cada persona creada
+        for (int i = 0; i < size; i++) {
+            T person = (T) registered[i];
+            if (person == null) {
+                continue;
+            }
+            try {
+                responses.set(i, new Response<>(StatusCode.CREATED, created, (T) person.clone()));
+            } catch (CloneNotSupportedException e) {
+                responses.set(i, new Response<>(StatusCode.CREATED, created + " (sin clon)", person));
+            }
+        }
+        return responses;
+    }
+}
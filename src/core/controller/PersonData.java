@@ -0,0 +1,30 @@
+package core.controller;
+
+/**
+ * Datos de entrada para crear un autor, gerente o narrador en lote
+ * (ver AuthorController.createAuthors y similares)
+ */
+public final class PersonData {
+    
+    private final long id;
+    private final String firstname;
+    private final String lastname;
+    
+    public PersonData(long id, String firstname, String lastname) {
+        this.id = id;
+        this.firstname = firstname;
+        this.lastname = lastname;
+    }
+    
+    public long getId() {
+        return id;
+    }
+    
+    public String getFirstname() {
+        return firstname;
+    }
+    
+    public String getLastname() {
+        return lastname;
+    }
+}
@@ -3,13 +3,19 @@
  */
 package core.controller;
 
-import java.util.regex.Pattern;
+import core.metrics.Metrics;
+import core.metrics.OperationMetrics;
+import core.model.Keys;
 import core.model.Publisher;
+import core.model.Page;
 import core.model.Manager;
 import core.model.Response;
 import core.model.StatusCode;
 import core.storage.PublisherStorage;
 import core.storage.PersonStorage;
+import core.storage.Storage;
+import core.storage.NotDurableException;
+import core.storage.NotWrittenException;
 
 /**
  *
@@ -17,88 +23,201 @@ import core.storage.PersonStorage;
  */
 public class PublisherController {
     
+    // Métricas de cada método (ver core.metrics.Metrics)
+    private static final OperationMetrics CREATE_PUBLISHER = Metrics.operation("PublisherController.createPublisher", Publisher.class);
+    private static final OperationMetrics CREATE_PUBLISHERS = Metrics.operation("PublisherController.createPublishers", Publisher.class);
+    private static final OperationMetrics GET_ALL_PUBLISHERS = Metrics.operation("PublisherController.getAllPublishers", Publisher.class);
+    private static final OperationMetrics GET_PUBLISHERS_PAGE = Metrics.operation("PublisherController.getPublishersPage", Publisher.class);
+    private static final OperationMetrics GET_PUBLISHER_BY_NIT = Metrics.operation("PublisherController.getPublisherByNit", Publisher.class);
+    
     private PublisherStorage publisherStorage;
     
     public PublisherController() {
         this.publisherStorage = PublisherStorage.getInstance();
     }
     
-    /**
-     * Valida que el NIT siga el formato XXX.XXX.XXX-X
-     */
-    private boolean isValidNit(String nit) {
-        String pattern = "^\\d{3}\\.\\d{3}\\.\\d{3}-\\d$";
-        return Pattern.matches(pattern, nit);
+    public Response<Publisher> createPublisher(String nit, String name, String address, long managerId) {
+        return CREATE_PUBLISHER.time(nit, () -> {
+            // Validar NIT: formato XXX.XXX.XXX-X
+            Response<Publisher> invalid = Validators.validateNit(nit);
+            if (invalid != null) {
+                return invalid;
+            }
+            
+            long nitKey = Keys.parseNit(nit);
+            
+            if (publisherStorage.existsPublisherByNit(nitKey)) {
+                return new Response<>(StatusCode.CONFLICT, "Ya existe una editorial con el NIT: " + nit);
+            }
+            
+            // Validar campos no vacíos
+            invalid = Validators.validatePublisher(name, address);
+            if (invalid != null) {
+                return invalid;
+            }
+            
+            // Validar que el gerente exista
+            PersonStorage personStorage = PersonStorage.getInstance();
+            Manager manager = personStorage.getManagerById(managerId);
+            if (manager == null) {
+                return new Response<>(StatusCode.NOT_FOUND, "Gerente no encontrado con ID: " + managerId);
+            }
+            
+            // El constructor asigna la editorial al gerente, así que la
+            // verificación del NIT, la creación y el registro van juntos
+            Publisher publisher;
+            try {
+                publisher = Storage.write(() -> {
+                    if (publisherStorage.existsPublisherByNit(nitKey)) {
+                        return null;
+                    }
+                    Publisher created = new Publisher(nit, name.trim(), address.trim(), manager);
+                    publisherStorage.addPublisher(created);
+                    return created;
+                });
+            } catch (NotDurableException e) {
+                return new Response<>(StatusCode.INTERNAL_SERVER_ERROR, e.getMessage());
+            } catch (NotWrittenException e) {
+                // La transacción se deshizo: no se registró nada
+                return new Response<>(StatusCode.INTERNAL_SERVER_ERROR, e.getMessage());
+            }
+            if (publisher == null) {
+                return new Response<>(StatusCode.CONFLICT, "Ya existe una editorial con el NIT: " + nit);
+            }
+            
+            // Patrón Prototype: Retornar una copia del objeto
+            try {
+                return new Response<>(StatusCode.CREATED, "Editorial creada exitosamente", (Publisher) publisher.clone());
+            } catch (CloneNotSupportedException e) {
+                return new Response<>(StatusCode.CREATED, "Editorial creada exitosamente (sin clon)", publisher);
+            }
+        });
     }
     
-    public Response<Publisher> createPublisher(String nit, String name, String address, long managerId) {
-        // Validar NIT: formato XXX.XXX.XXX-X
-        if (nit == null || nit.trim().isEmpty()) {
-            return new Response<>(StatusCode.BAD_REQUEST, "El NIT no puede estar vacío");
-        }
-        
-        if (!isValidNit(nit)) {
-            return new Response<>(StatusCode.BAD_REQUEST, "El NIT debe tener el formato XXX.XXX.XXX-X");
-        }
-        
-        if (publisherStorage.existsPublisherByNit(nit)) {
-            return new Response<>(StatusCode.CONFLICT, "Ya existe una editorial con el NIT: " + nit);
-        }
-        
-        // Validar campos no vacíos
-        if (name == null || name.trim().isEmpty()) {
-            return new Response<>(StatusCode.BAD_REQUEST, "El nombre de la editorial no puede estar vacío");
-        }
-        
-        if (address == null || address.trim().isEmpty()) {
-            return new Response<>(StatusCode.BAD_REQUEST, "La dirección de la editorial no puede estar vacía");
-        }
-        
-        // Validar que el gerente exista
-        PersonStorage personStorage = PersonStorage.getInstance();
-        Manager manager = personStorage.getManagerById(managerId);
-        if (manager == null) {
-            return new Response<>(StatusCode.NOT_FOUND, "Gerente no encontrado con ID: " + managerId);
-        }
-        
-        Publisher publisher = new Publisher(nit, name.trim(), address.trim(), manager);
-        publisherStorage.addPublisher(publisher);
-        
-        // Patrón Prototype: Retornar una copia del objeto
-        try {
-            return new Response<>(StatusCode.CREATED, "Editorial creada exitosamente", (Publisher) publisher.clone());
-        } catch (CloneNotSupportedException e) {
-            return new Response<>(StatusCode.CREATED, "Editorial creada exitosamente (sin clon)", publisher);
-        }
+    /**
+     * Versión en lote de createPublisher. Los NIT repetidos dentro del lote se
+     * detectan antes de tomar el candado; la existencia del NIT y del gerente
+     * se verifican contra los índices con un solo candado para todo el lote.
+     * Retorna una Response por elemento, en el mismo orden.
+     */
+    public java.util.List<Response<Publisher>> createPublishers(java.util.List<PublisherData> publishers) {
+        return CREATE_PUBLISHERS.timeAll(() -> {
+            int size = publishers.size();
+            java.util.List<Response<Publisher>> responses = new java.util.ArrayList<>(java.util.Collections.nCopies(size, null));
+            long[] nitKeys = new long[size];
+            java.util.Set<Long> nits = new java.util.HashSet<>();
+            for (int i = 0; i < size; i++) {
+                PublisherData data = publishers.get(i);
+                Response<Publisher> invalid = Validators.validateNit(data.getNit());
+                if (invalid == null) {
+                    invalid = Validators.validatePublisher(data.getName(), data.getAddress());
+                }
+                if (invalid == null) {
+                    nitKeys[i] = Keys.parseNit(data.getNit());
+                    if (!nits.add(nitKeys[i])) {
+                        invalid = new Response<>(StatusCode.CONFLICT, "Ya existe una editorial con el NIT: " + data.getNit());
+                    }
+                }
+                responses.set(i, invalid);
+            }
+            
+            PersonStorage personStorage = PersonStorage.getInstance();
+            Publisher[] created = new Publisher[size];
+            try {
+                Storage.write(() -> {
+                    for (int i = 0; i < size; i++) {
+                        if (responses.get(i) != null) {
+                            continue;
+                        }
+                        PublisherData data = publishers.get(i);
+                        if (publisherStorage.existsPublisherByNit(nitKeys[i])) {
+                            responses.set(i, new Response<>(StatusCode.CONFLICT, "Ya existe una editorial con el NIT: " + data.getNit()));
+                            continue;
+                        }
+                        Manager manager = personStorage.getManagerById(data.getManagerId());
+                        if (manager == null) {
+                            responses.set(i, new Response<>(StatusCode.NOT_FOUND, "Gerente no encontrado con ID: " + data.getManagerId()));
+                            continue;
+                        }
+                        created[i] = new Publisher(data.getNit(), data.getName().trim(), data.getAddress().trim(), manager);
+                        publisherStorage.addPublisher(created[i]);
+                    }
+                });
+            } catch (NotDurableException e) {
+                // Los ya registrados quedan en memoria; se informa que no llegaron a disco
+                for (int i = 0; i < size; i++) {
+                    if (created[i] != null) {
+                        responses.set(i, new Response<>(StatusCode.INTERNAL_SERVER_ERROR, e.getMessage()));
+                    }
+                }
+                return responses;
+            } catch (NotWrittenException e) {
+                // La transacción se deshizo: ninguno quedó registrado
+                for (int i = 0; i < size; i++) {
+                    if (created[i] != null) {
+                        responses.set(i, new Response<>(StatusCode.INTERNAL_SERVER_ERROR, e.getMessage()));
+                    }
+                }
+                return responses;
+            }
+            
+            // Patrón Prototype: Retornar una copia de cada editorial creada
+            for (int i = 0; i < size; i++) {
+                if (created[i] == null) {
+                    continue;
+                }
+                try {
+                    responses.set(i, new Response<>(StatusCode.CREATED, "Editorial creada exitosamente", (Publisher) created[i].clone()));
+                } catch (CloneNotSupportedException e) {
+                    responses.set(i, new Response<>(StatusCode.CREATED, "Editorial creada exitosamente (sin clon)", created[i]));
+                }
+            }
+            return responses;
+        });
     }
     
     public Response<java.util.List<Publisher>> getAllPublishers() {
-        java.util.List<Publisher> publishers = publisherStorage.getAllPublishers();
-        
-        // Patrón Prototype: Clonar cada editorial antes de retornar
-        java.util.List<Publisher> clonedPublishers = new java.util.ArrayList<>();
-        for (Publisher publisher : publishers) {
-            try {
-                clonedPublishers.add((Publisher) publisher.clone());
-            } catch (CloneNotSupportedException e) {
-                clonedPublishers.add(publisher); // Fallback en caso de error
+        return GET_ALL_PUBLISHERS.time(() -> Storage.copy(() -> {
+            java.util.List<Publisher> publishers = publisherStorage.getAllPublishers();
+            
+            // Patrón Prototype: Clonar cada editorial antes de retornar
+            java.util.List<Publisher> clonedPublishers = new java.util.ArrayList<>();
+            for (Publisher publisher : publishers) {
+                try {
+                    clonedPublishers.add((Publisher) publisher.clone());
+                } catch (CloneNotSupportedException e) {
+                    clonedPublishers.add(publisher); // Fallback en caso de error
+                }
             }
-        }
-        
-        return new Response<>(StatusCode.OK, "Editoriales obtenidas", clonedPublishers);
+            
+            return new Response<>(StatusCode.OK, "Editoriales obtenidas", clonedPublishers);
+        }));
+    }
+    
+    /**
+     * Obtiene una página de editoriales (ver Page): solo se clonan los
+     * elementos de offset a offset + limit
+     */
+    public Response<Page<Publisher>> getPublishersPage(int offset, int limit) {
+        return GET_PUBLISHERS_PAGE.time(() -> Storage.copy(() -> {
+            Page<Publisher> page = Pages.copyOf(publisherStorage.getPublishersView(), offset, limit, publisher -> (Publisher) publisher.clone());
+            return new Response<>(StatusCode.OK, "Editoriales obtenidas", page);
+        }));
     }
     
     public Response<Publisher> getPublisherByNit(String nit) {
-        Publisher publisher = publisherStorage.getPublisherByNit(nit);
-        if (publisher == null) {
-            return new Response<>(StatusCode.NOT_FOUND, "Editorial no encontrada con NIT: " + nit);
-        }
-        
-        // Patrón Prototype: Retornar una copia del objeto
-        try {
-            return new Response<>(StatusCode.OK, "Editorial obtenida", (Publisher) publisher.clone());
-        } catch (CloneNotSupportedException e) {
-            return new Response<>(StatusCode.OK, "Editorial obtenida (sin clon)", publisher);
-        }
+        return GET_PUBLISHER_BY_NIT.time(nit, () -> Storage.copy(() -> {
+            Publisher publisher = publisherStorage.getPublisherByNit(nit);
+            if (publisher == null) {
+                return new Response<>(StatusCode.NOT_FOUND, "Editorial no encontrada con NIT: " + nit);
+            }
+            
+            // Patrón Prototype: Retornar una copia del objeto
+            try {
+                return new Response<>(StatusCode.OK, "Editorial obtenida", (Publisher) publisher.clone());
+            } catch (CloneNotSupportedException e) {
+                return new Response<>(StatusCode.OK, "Editorial obtenida (sin clon)", publisher);
+            }
+        }));
     }
 }
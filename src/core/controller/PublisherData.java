@@ -0,0 +1,36 @@
+package core.controller;
+
+/**
+ * Datos de entrada para crear una editorial en lote
+ * (ver PublisherController.createPublishers)
+ */
+public final class PublisherData {
+    
+    private final String nit;
+    private final String name;
+    private final String address;
+    private final long managerId;
+    
+    public PublisherData(String nit, String name, String address, long managerId) {
+        this.nit = nit;
+        this.name = name;
+        this.address = address;
+        this.managerId = managerId;
+    }
+    
+    public String getNit() {
+        return nit;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public String getAddress() {
+        return address;
+    }
+    
+    public long getManagerId() {
+        return managerId;
+    }
+}
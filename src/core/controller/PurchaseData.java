@@ -0,0 +1,26 @@
+package core.controller;
+
+import java.util.List;
+
+/**
+ * Una compra de stands: cada editorial compra cada uno de los stands
+ * (ver StandPurchaseController.purchaseStands)
+ */
+public final class PurchaseData {
+    
+    private final List<Long> standIds;
+    private final List<String> publisherNits;
+    
+    public PurchaseData(List<Long> standIds, List<String> publisherNits) {
+        this.standIds = standIds;
+        this.publisherNits = publisherNits;
+    }
+    
+    public List<Long> getStandIds() {
+        return standIds;
+    }
+    
+    public List<String> getPublisherNits() {
+        return publisherNits;
+    }
+}
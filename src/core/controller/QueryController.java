@@ -4,9 +4,9 @@
 package core.controller;
 
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.List;
-import java.util.stream.Collectors;
+import core.metrics.Metrics;
+import core.metrics.OperationMetrics;
 import core.model.Book;
 import core.model.Author;
 import core.model.Publisher;
@@ -15,19 +15,44 @@ import core.model.DigitalBook;
 import core.model.Audiobook;
 import core.model.Stand;
 import core.model.Person;
+import core.model.Page;
 import core.model.Response;
 import core.model.StatusCode;
 import core.storage.BookStorage;
 import core.storage.PersonStorage;
 import core.storage.StandStorage;
 import core.storage.PublisherStorage;
+import core.storage.Storage;
 
 /**
+ * Cada consulta lee los Storage y hace sus copias dentro de un mismo
+ * Storage.copy(), que no avanza la época: los índices que combina (libros
+ * de un autor o de una editorial, ranking de autores) y las relaciones de
+ * cada copia son los de un mismo instante confirmado.
  *
  * @author edangulo
  */
 public class QueryController {
     
+    // Métricas de cada método (ver core.metrics.Metrics)
+    private static final OperationMetrics GET_BOOKS_BY_AUTHOR = Metrics.operation("QueryController.getBooksByAuthor", Book.class);
+    private static final OperationMetrics GET_BOOKS_BY_FORMAT = Metrics.operation("QueryController.getBooksByFormat", Book.class);
+    private static final OperationMetrics GET_BOOKS_BY_PUBLISHER = Metrics.operation("QueryController.getBooksByPublisher", Book.class);
+    private static final OperationMetrics GET_BOOKS_BY_GENRE = Metrics.operation("QueryController.getBooksByGenre", Book.class);
+    private static final OperationMetrics GET_AUTHORS_WITH_MOST_PUBLISHERS = Metrics.operation("QueryController.getAuthorsWithMostPublishers", Author.class);
+    private static final OperationMetrics GET_ALL_STANDS = Metrics.operation("QueryController.getAllStands", Stand.class);
+    private static final OperationMetrics GET_ALL_PERSONS = Metrics.operation("QueryController.getAllPersons", Person.class);
+    private static final OperationMetrics GET_ALL_PUBLISHERS = Metrics.operation("QueryController.getAllPublishers", Publisher.class);
+    private static final OperationMetrics GET_PUBLISHERS_VIEW = Metrics.operation("QueryController.getPublishersView", Publisher.class);
+    private static final OperationMetrics GET_PERSONS_VIEW = Metrics.operation("QueryController.getPersonsView", Person.class);
+    private static final OperationMetrics GET_PERSONS_PAGE = Metrics.operation("QueryController.getPersonsPage", Person.class);
+    private static final OperationMetrics GET_STANDS_VIEW = Metrics.operation("QueryController.getStandsView", Stand.class);
+    private static final OperationMetrics GET_BOOKS_VIEW = Metrics.operation("QueryController.getBooksView", Book.class);
+    private static final OperationMetrics GET_ALL_BOOKS = Metrics.operation("QueryController.getAllBooks", Book.class);
+    private static final OperationMetrics GET_ALL_PRINTED_BOOKS = Metrics.operation("QueryController.getAllPrintedBooks", PrintedBook.class);
+    private static final OperationMetrics GET_ALL_DIGITAL_BOOKS = Metrics.operation("QueryController.getAllDigitalBooks", DigitalBook.class);
+    private static final OperationMetrics GET_ALL_AUDIOBOOKS = Metrics.operation("QueryController.getAllAudiobooks", Audiobook.class);
+    
     private BookStorage bookStorage;
     private PersonStorage personStorage;
     private StandStorage standStorage;
@@ -44,214 +69,311 @@ public class QueryController {
      * Obtiene los libros de un autor específico
      */
     public Response<List<Book>> getBooksByAuthor(long authorId) {
-        Author author = personStorage.getAuthorById(authorId);
-        if (author == null) {
-            return new Response<>(StatusCode.NOT_FOUND, "Autor no encontrado con ID: " + authorId);
-        }
-        
-        List<Book> books = bookStorage.getBooksByAuthor(author);
-        
-        // Patrón Prototype: Clonar cada libro antes de retornar
-        List<Book> clonedBooks = new ArrayList<>();
-        for (Book book : books) {
-            try {
-                clonedBooks.add((Book) book.clone());
-            } catch (CloneNotSupportedException e) {
-                clonedBooks.add(book); // Fallback en caso de error
+        return GET_BOOKS_BY_AUTHOR.time(authorId, () -> Storage.copy(() -> {
+            Author author = personStorage.getAuthorById(authorId);
+            if (author == null) {
+                return new Response<>(StatusCode.NOT_FOUND, "Autor no encontrado con ID: " + authorId);
+            }
+            
+            List<Book> books = bookStorage.getBooksByAuthor(author);
+            
+            // Patrón Prototype: Clonar cada libro antes de retornar
+            List<Book> clonedBooks = new ArrayList<>();
+            for (Book book : books) {
+                try {
+                    clonedBooks.add((Book) book.clone());
+                } catch (CloneNotSupportedException e) {
+                    clonedBooks.add(book); // Fallback en caso de error
+                }
             }
-        }
-        
-        return new Response<>(StatusCode.OK, "Libros del autor obtenidos", clonedBooks);
+            
+            return new Response<>(StatusCode.OK, "Libros del autor obtenidos", clonedBooks);
+        }));
     }
     
     /**
      * Obtiene los libros por formato específico
      */
     public Response<List<Book>> getBooksByFormat(String format) {
-        List<Book> books = bookStorage.getBooksByFormat(format);
-        
-        // Patrón Prototype: Clonar cada libro antes de retornar
-        List<Book> clonedBooks = new ArrayList<>();
-        for (Book book : books) {
-            try {
-                clonedBooks.add((Book) book.clone());
-            } catch (CloneNotSupportedException e) {
-                clonedBooks.add(book); // Fallback en caso de error
+        return GET_BOOKS_BY_FORMAT.time(format, () -> Storage.copy(() -> {
+            List<Book> books = bookStorage.getBooksByFormat(format);
+            
+            // Patrón Prototype: Clonar cada libro antes de retornar
+            List<Book> clonedBooks = new ArrayList<>();
+            for (Book book : books) {
+                try {
+                    clonedBooks.add((Book) book.clone());
+                } catch (CloneNotSupportedException e) {
+                    clonedBooks.add(book); // Fallback en caso de error
+                }
             }
-        }
-        
-        return new Response<>(StatusCode.OK, "Libros por formato obtenidos", clonedBooks);
+            
+            return new Response<>(StatusCode.OK, "Libros por formato obtenidos", clonedBooks);
+        }));
     }
-    
+
+    /**
+     * Obtiene los libros de una editorial específica
+     */
+    public Response<List<Book>> getBooksByPublisher(String nit) {
+        return GET_BOOKS_BY_PUBLISHER.time(nit, () -> Storage.copy(() -> {
+            if (publisherStorage.getPublisherByNit(nit) == null) {
+                return new Response<>(StatusCode.NOT_FOUND, "Editorial no encontrada con NIT: " + nit);
+            }
+            
+            List<Book> books = bookStorage.getBooksByPublisher(nit);
+            
+            // Patrón Prototype: Clonar cada libro antes de retornar
+            List<Book> clonedBooks = new ArrayList<>();
+            for (Book book : books) {
+                try {
+                    clonedBooks.add((Book) book.clone());
+                } catch (CloneNotSupportedException e) {
+                    clonedBooks.add(book); // Fallback en caso de error
+                }
+            }
+            
+            return new Response<>(StatusCode.OK, "Libros de la editorial obtenidos", clonedBooks);
+        }));
+    }
+
+    /**
+     * Obtiene los libros de un género específico
+     */
+    public Response<List<Book>> getBooksByGenre(String genre) {
+        return GET_BOOKS_BY_GENRE.time(genre, () -> Storage.copy(() -> {
+            List<Book> books = bookStorage.getBooksByGenre(genre);
+            
+            // Patrón Prototype: Clonar cada libro antes de retornar
+            List<Book> clonedBooks = new ArrayList<>();
+            for (Book book : books) {
+                try {
+                    clonedBooks.add((Book) book.clone());
+                } catch (CloneNotSupportedException e) {
+                    clonedBooks.add(book); // Fallback en caso de error
+                }
+            }
+            
+            return new Response<>(StatusCode.OK, "Libros por género obtenidos", clonedBooks);
+        }));
+    }
+
     /**
      * Obtiene los autores con más libros en diferentes editoriales
      */
     public Response<List<Author>> getAuthorsWithMostPublishers() {
-        List<Author> allAuthors = personStorage.getAllAuthors();
-        
-        if (allAuthors.isEmpty()) {
-            return new Response<>(StatusCode.OK, "No hay autores registrados", new ArrayList<>());
-        }
-        
-        // Encontrar el máximo número de editoriales
-        int maxPublishers = allAuthors.stream()
-            .mapToInt(Author::getPublisherQuantity)
-            .max()
-            .orElse(-1);
-        
-        if (maxPublishers <= 0) {
-            return new Response<>(StatusCode.OK, "No hay autores con libros en diferentes editoriales", new ArrayList<>());
-        }
-        
-        // Filtrar autores con el máximo número de editoriales
-        List<Author> authorsWithMaxPublishers = allAuthors.stream()
-            .filter(a -> a.getPublisherQuantity() == maxPublishers)
-            .sorted(Comparator.comparingLong(Author::getId))
-            .collect(Collectors.toList());
-        
-        // Patrón Prototype: Clonar cada autor antes de retornar
-        List<Author> clonedAuthors = new ArrayList<>();
-        for (Author author : authorsWithMaxPublishers) {
-            try {
-                clonedAuthors.add((Author) author.clone());
-            } catch (CloneNotSupportedException e) {
-                clonedAuthors.add(author); // Fallback en caso de error
+        return GET_AUTHORS_WITH_MOST_PUBLISHERS.time(() -> Storage.copy(() -> {
+            if (personStorage.getAuthorQuantity() == 0) {
+                return new Response<>(StatusCode.OK, "No hay autores registrados", new ArrayList<>());
             }
-        }
-        
-        return new Response<>(StatusCode.OK, "Autores con más libros en diferentes editoriales obtenidos", clonedAuthors);
+            
+            // El ranking se mantiene en BookStorage al agregar cada libro
+            if (bookStorage.getTopPublisherQuantity() <= 0) {
+                return new Response<>(StatusCode.OK, "No hay autores con libros en diferentes editoriales", new ArrayList<>());
+            }
+            
+            List<Author> authorsWithMaxPublishers = bookStorage.getAuthorsWithMostPublishers();
+            
+            // Patrón Prototype: Clonar cada autor antes de retornar
+            List<Author> clonedAuthors = new ArrayList<>();
+            for (Author author : authorsWithMaxPublishers) {
+                try {
+                    clonedAuthors.add((Author) author.clone());
+                } catch (CloneNotSupportedException e) {
+                    clonedAuthors.add(author); // Fallback en caso de error
+                }
+            }
+            
+            return new Response<>(StatusCode.OK, "Autores con más libros en diferentes editoriales obtenidos", clonedAuthors);
+        }));
     }
     
     /**
      * Obtiene todos los stands
      */
     public Response<List<Stand>> getAllStands() {
-        List<Stand> stands = standStorage.getAllStands();
-        
-        // Patrón Prototype: Clonar cada stand antes de retornar
-        List<Stand> clonedStands = new ArrayList<>();
-        for (Stand stand : stands) {
-            try {
-                clonedStands.add((Stand) stand.clone());
-            } catch (CloneNotSupportedException e) {
-                clonedStands.add(stand); // Fallback en caso de error
+        return GET_ALL_STANDS.time(() -> Storage.copy(() -> {
+            List<Stand> stands = standStorage.getAllStands();
+            
+            // Patrón Prototype: Clonar cada stand antes de retornar
+            List<Stand> clonedStands = new ArrayList<>();
+            for (Stand stand : stands) {
+                try {
+                    clonedStands.add((Stand) stand.clone());
+                } catch (CloneNotSupportedException e) {
+                    clonedStands.add(stand); // Fallback en caso de error
+                }
             }
-        }
-        
-        return new Response<>(StatusCode.OK, "Stands obtenidos", clonedStands);
+            
+            return new Response<>(StatusCode.OK, "Stands obtenidos", clonedStands);
+        }));
     }
     
     /**
      * Obtiene todas las personas (autores, gerentes, narradores)
      */
     public Response<List<Person>> getAllPersons() {
-        List<Person> persons = personStorage.getAllPersons();
-        
-        // Patrón Prototype: Clonar cada persona antes de retornar
-        List<Person> clonedPersons = new ArrayList<>();
-        for (Person person : persons) {
-            try {
-                clonedPersons.add((Person) person.clone());
-            } catch (CloneNotSupportedException e) {
-                clonedPersons.add(person); // Fallback en caso de error
+        return GET_ALL_PERSONS.time(() -> Storage.copy(() -> {
+            List<Person> persons = personStorage.getAllPersons();
+            
+            // Patrón Prototype: Clonar cada persona antes de retornar
+            List<Person> clonedPersons = new ArrayList<>();
+            for (Person person : persons) {
+                try {
+                    clonedPersons.add((Person) person.clone());
+                } catch (CloneNotSupportedException e) {
+                    clonedPersons.add(person); // Fallback en caso de error
+                }
             }
-        }
-        
-        return new Response<>(StatusCode.OK, "Personas obtenidas", clonedPersons);
+            
+            return new Response<>(StatusCode.OK, "Personas obtenidas", clonedPersons);
+        }));
     }
     
     /**
      * Obtiene todas las editoriales
      */
     public Response<List<Publisher>> getAllPublishers() {
-        List<Publisher> publishers = publisherStorage.getAllPublishers();
-        
-        // Patrón Prototype: Clonar cada editorial antes de retornar
-        List<Publisher> clonedPublishers = new ArrayList<>();
-        for (Publisher publisher : publishers) {
-            try {
-                clonedPublishers.add((Publisher) publisher.clone());
-            } catch (CloneNotSupportedException e) {
-                clonedPublishers.add(publisher); // Fallback en caso de error
+        return GET_ALL_PUBLISHERS.time(() -> Storage.copy(() -> {
+            List<Publisher> publishers = publisherStorage.getAllPublishers();
+            
+            // Patrón Prototype: Clonar cada editorial antes de retornar
+            List<Publisher> clonedPublishers = new ArrayList<>();
+            for (Publisher publisher : publishers) {
+                try {
+                    clonedPublishers.add((Publisher) publisher.clone());
+                } catch (CloneNotSupportedException e) {
+                    clonedPublishers.add(publisher); // Fallback en caso de error
+                }
             }
-        }
-        
-        return new Response<>(StatusCode.OK, "Editoriales obtenidas", clonedPublishers);
+            
+            return new Response<>(StatusCode.OK, "Editoriales obtenidas", clonedPublishers);
+        }));
     }
     
+    /**
+     * Obtiene una vista en vivo, de solo lectura, de todas las editoriales.
+     * A diferencia de getAllPublishers() no copia ni clona los datos; está
+     * pensada para modelos de tabla que leen las filas bajo demanda.
+     */
+    public Response<List<Publisher>> getPublishersView() {
+        return GET_PUBLISHERS_VIEW.time(() -> new Response<>(StatusCode.OK, "Editoriales obtenidas", publisherStorage.getPublishersView()));
+    }
+
+    /**
+     * Obtiene una vista en vivo, de solo lectura, de todas las personas
+     */
+    public Response<List<Person>> getPersonsView() {
+        return GET_PERSONS_VIEW.time(() -> new Response<>(StatusCode.OK, "Personas obtenidas", personStorage.getPersonsView()));
+    }
+
+    /**
+     * Obtiene una página de todas las personas; solo se clonan las de
+     * offset a offset + limit
+     */
+    public Response<Page<Person>> getPersonsPage(int offset, int limit) {
+        return GET_PERSONS_PAGE.time(() -> Storage.copy(() -> {
+            Page<Person> page = Pages.copyOf(personStorage.getPersonsView(), offset, limit, person -> (Person) person.clone());
+            return new Response<>(StatusCode.OK, "Personas obtenidas", page);
+        }));
+    }
+
+    /**
+     * Obtiene una vista en vivo, de solo lectura, de todos los stands
+     */
+    public Response<List<Stand>> getStandsView() {
+        return GET_STANDS_VIEW.time(() -> new Response<>(StatusCode.OK, "Stands obtenidos", standStorage.getStandsView()));
+    }
+
+    /**
+     * Obtiene una vista en vivo, de solo lectura, de los libros de un tipo
+     * (Book.class para todos los libros)
+     */
+    public Response<List<Book>> getBooksView(Class<? extends Book> type) {
+        return GET_BOOKS_VIEW.time(type.getSimpleName(), () -> new Response<>(StatusCode.OK, "Libros obtenidos", bookStorage.getBooksByTypeView(type)));
+    }
+
     /**
      * Obtiene todos los libros
      */
     public Response<List<Book>> getAllBooks() {
-        List<Book> books = bookStorage.getAllBooks();
-        
-        // Patrón Prototype: Clonar cada libro antes de retornar
-        List<Book> clonedBooks = new ArrayList<>();
-        for (Book book : books) {
-            try {
-                clonedBooks.add((Book) book.clone());
-            } catch (CloneNotSupportedException e) {
-                clonedBooks.add(book); // Fallback en caso de error
+        return GET_ALL_BOOKS.time(() -> Storage.copy(() -> {
+            List<Book> books = bookStorage.getAllBooks();
+            
+            // Patrón Prototype: Clonar cada libro antes de retornar
+            List<Book> clonedBooks = new ArrayList<>();
+            for (Book book : books) {
+                try {
+                    clonedBooks.add((Book) book.clone());
+                } catch (CloneNotSupportedException e) {
+                    clonedBooks.add(book); // Fallback en caso de error
+                }
             }
-        }
-        
-        return new Response<>(StatusCode.OK, "Libros obtenidos", clonedBooks);
+            
+            return new Response<>(StatusCode.OK, "Libros obtenidos", clonedBooks);
+        }));
     }
     
     /**
      * Obtiene todos los libros impresos
      */
     public Response<List<Book>> getAllPrintedBooks() {
-        List<Book> books = bookStorage.getBooksByType(PrintedBook.class);
-        
-        // Patrón Prototype: Clonar cada libro antes de retornar
-        List<Book> clonedBooks = new ArrayList<>();
-        for (Book book : books) {
-            try {
-                clonedBooks.add((Book) book.clone());
-            } catch (CloneNotSupportedException e) {
-                clonedBooks.add(book); // Fallback en caso de error
+        return GET_ALL_PRINTED_BOOKS.time(() -> Storage.copy(() -> {
+            List<Book> books = bookStorage.getBooksByType(PrintedBook.class);
+            
+            // Patrón Prototype: Clonar cada libro antes de retornar
+            List<Book> clonedBooks = new ArrayList<>();
+            for (Book book : books) {
+                try {
+                    clonedBooks.add((Book) book.clone());
+                } catch (CloneNotSupportedException e) {
+                    clonedBooks.add(book); // Fallback en caso de error
+                }
             }
-        }
-        
-        return new Response<>(StatusCode.OK, "Libros impresos obtenidos", clonedBooks);
+            
+            return new Response<>(StatusCode.OK, "Libros impresos obtenidos", clonedBooks);
+        }));
     }
     
     /**
      * Obtiene todos los libros digitales
      */
     public Response<List<Book>> getAllDigitalBooks() {
-        List<Book> books = bookStorage.getBooksByType(DigitalBook.class);
-        
-        // Patrón Prototype: Clonar cada libro antes de retornar
-        List<Book> clonedBooks = new ArrayList<>();
-        for (Book book : books) {
-            try {
-                clonedBooks.add((Book) book.clone());
-            } catch (CloneNotSupportedException e) {
-                clonedBooks.add(book); // Fallback en caso de error
+        return GET_ALL_DIGITAL_BOOKS.time(() -> Storage.copy(() -> {
+            List<Book> books = bookStorage.getBooksByType(DigitalBook.class);
+            
+            // Patrón Prototype: Clonar cada libro antes de retornar
+            List<Book> clonedBooks = new ArrayList<>();
+            for (Book book : books) {
+                try {
+                    clonedBooks.add((Book) book.clone());
+                } catch (CloneNotSupportedException e) {
+                    clonedBooks.add(book); // Fallback en caso de error
+                }
             }
-        }
-        
-        return new Response<>(StatusCode.OK, "Libros digitales obtenidos", clonedBooks);
+            
+            return new Response<>(StatusCode.OK, "Libros digitales obtenidos", clonedBooks);
+        }));
     }
     
     /**
      * Obtiene todos los audiolibros
      */
     public Response<List<Book>> getAllAudiobooks() {
-        List<Book> books = bookStorage.getBooksByType(Audiobook.class);
-        
-        // Patrón Prototype: Clonar cada libro antes de retornar
-        List<Book> clonedBooks = new ArrayList<>();
-        for (Book book : books) {
-            try {
-                clonedBooks.add((Book) book.clone());
-            } catch (CloneNotSupportedException e) {
-                clonedBooks.add(book); // Fallback en caso de error
+        return GET_ALL_AUDIOBOOKS.time(() -> Storage.copy(() -> {
+            List<Book> books = bookStorage.getBooksByType(Audiobook.class);
+            
+            // Patrón Prototype: Clonar cada libro antes de retornar
+            List<Book> clonedBooks = new ArrayList<>();
+            for (Book book : books) {
+                try {
+                    clonedBooks.add((Book) book.clone());
+                } catch (CloneNotSupportedException e) {
+                    clonedBooks.add(book); // Fallback en caso de error
+                }
             }
-        }
-        
-        return new Response<>(StatusCode.OK, "Audiolibros obtenidos", clonedBooks);
+            
+            return new Response<>(StatusCode.OK, "Audiolibros obtenidos", clonedBooks);
+        }));
     }
 }
@@ -3,10 +3,16 @@
  */
 package core.controller;
 
+import core.metrics.Metrics;
+import core.metrics.OperationMetrics;
 import core.model.Stand;
+import core.model.Page;
 import core.model.Response;
 import core.model.StatusCode;
 import core.storage.StandStorage;
+import core.storage.Storage;
+import core.storage.NotDurableException;
+import core.storage.NotWrittenException;
 
 /**
  *
@@ -14,6 +20,12 @@ import core.storage.StandStorage;
  */
 public class StandController {
     
+    // Métricas de cada método (ver core.metrics.Metrics)
+    private static final OperationMetrics CREATE_STAND = Metrics.operation("StandController.createStand", Stand.class);
+    private static final OperationMetrics CREATE_STANDS = Metrics.operation("StandController.createStands", Stand.class);
+    private static final OperationMetrics GET_ALL_STANDS = Metrics.operation("StandController.getAllStands", Stand.class);
+    private static final OperationMetrics GET_STANDS_PAGE = Metrics.operation("StandController.getStandsPage", Stand.class);
+    
     private StandStorage standStorage;
     
     public StandController() {
@@ -21,48 +33,141 @@ public class StandController {
     }
     
     public Response<Stand> createStand(long id, double price) {
-        // Validar ID: único, >= 0, máximo 15 dígitos
-        if (id < 0) {
-            return new Response<>(StatusCode.BAD_REQUEST, "El ID del stand debe ser mayor o igual a 0");
-        }
-        
-        if (id > 999999999999999L) { // 15 dígitos
-            return new Response<>(StatusCode.BAD_REQUEST, "El ID del stand no puede tener más de 15 dígitos");
-        }
-        
-        if (standStorage.existsStandById(id)) {
-            return new Response<>(StatusCode.CONFLICT, "Ya existe un stand con el ID: " + id);
-        }
-        
-        // Validar precio: debe ser superior a 0
-        if (price <= 0) {
-            return new Response<>(StatusCode.BAD_REQUEST, "El precio del stand debe ser superior a 0");
-        }
-        
-        Stand stand = new Stand(id, price);
-        standStorage.addStand(stand);
-        
-        // Patrón Prototype: Retornar una copia del objeto
-        try {
-            return new Response<>(StatusCode.CREATED, "Stand creado exitosamente", (Stand) stand.clone());
-        } catch (CloneNotSupportedException e) {
-            return new Response<>(StatusCode.OK, "Stand creado exitosamente (sin clon)", stand);
-        }
+        return CREATE_STAND.time(id, () -> {
+            // Validar ID: único, >= 0, máximo 15 dígitos
+            Response<Stand> invalid = Validators.validateId(id, "stand");
+            if (invalid != null) {
+                return invalid;
+            }
+            
+            if (standStorage.existsStandById(id)) {
+                return new Response<>(StatusCode.CONFLICT, "Ya existe un stand con el ID: " + id);
+            }
+            
+            // Validar precio: debe ser superior a 0
+            invalid = Validators.validatePrice(price);
+            if (invalid != null) {
+                return invalid;
+            }
+            
+            Stand stand = new Stand(id, price);
+            // Otro hilo pudo registrar el mismo ID después de la verificación
+            try {
+                if (!standStorage.addStand(stand)) {
+                    return new Response<>(StatusCode.CONFLICT, "Ya existe un stand con el ID: " + id);
+                }
+            } catch (NotDurableException e) {
+                return new Response<>(StatusCode.INTERNAL_SERVER_ERROR, e.getMessage());
+            } catch (NotWrittenException e) {
+                // La transacción se deshizo: no se registró nada
+                return new Response<>(StatusCode.INTERNAL_SERVER_ERROR, e.getMessage());
+            }
+            
+            // Patrón Prototype: Retornar una copia del objeto
+            try {
+                return new Response<>(StatusCode.CREATED, "Stand creado exitosamente", (Stand) stand.clone());
+            } catch (CloneNotSupportedException e) {
+                return new Response<>(StatusCode.OK, "Stand creado exitosamente (sin clon)", stand);
+            }
+        });
     }
     
-    public Response<java.util.List<Stand>> getAllStands() {
-        java.util.List<Stand> stands = standStorage.getAllStands();
-        
-        // Patrón Prototype: Clonar cada stand antes de retornar
-        java.util.List<Stand> clonedStands = new java.util.ArrayList<>();
-        for (Stand stand : stands) {
+    /**
+     * Versión en lote de createStand: valida todos los stands (también los
+     * IDs repetidos dentro del lote), los registra con un solo candado y una
+     * sola notificación, y retorna una Response por elemento, en el mismo orden
+     */
+    public java.util.List<Response<Stand>> createStands(java.util.List<StandData> stands) {
+        return CREATE_STANDS.timeAll(() -> {
+            int size = stands.size();
+            java.util.List<Response<Stand>> responses = new java.util.ArrayList<>(java.util.Collections.nCopies(size, null));
+            java.util.Set<Long> ids = new java.util.HashSet<>();
+            for (int i = 0; i < size; i++) {
+                StandData data = stands.get(i);
+                Response<Stand> invalid = Validators.validateId(data.getId(), "stand");
+                if (invalid == null) {
+                    invalid = Validators.validatePrice(data.getPrice());
+                }
+                if (invalid == null && !ids.add(data.getId())) {
+                    invalid = new Response<>(StatusCode.CONFLICT, "Ya existe un stand con el ID: " + data.getId());
+                }
+                responses.set(i, invalid);
+            }
+            
+            Stand[] created = new Stand[size];
             try {
-                clonedStands.add((Stand) stand.clone());
-            } catch (CloneNotSupportedException e) {
-                clonedStands.add(stand); // Fallback en caso de error
+                Storage.write(() -> {
+                    for (int i = 0; i < size; i++) {
+                        if (responses.get(i) != null) {
+                            continue;
+                        }
+                        Stand stand = new Stand(stands.get(i).getId(), stands.get(i).getPrice());
+                        if (standStorage.addStand(stand)) {
+                            created[i] = stand;
+                        } else {
+                            responses.set(i, new Response<>(StatusCode.CONFLICT, "Ya existe un stand con el ID: " + stand.getId()));
+                        }
+                    }
+                });
+            } catch (NotDurableException e) {
+                // Los ya registrados quedan en memoria; se informa que no llegaron a disco
+                for (int i = 0; i < size; i++) {
+                    if (created[i] != null) {
+                        responses.set(i, new Response<>(StatusCode.INTERNAL_SERVER_ERROR, e.getMessage()));
+                    }
+                }
+                return responses;
+            } catch (NotWrittenException e) {
+                // La transacción se deshizo: ninguno quedó registrado
+                for (int i = 0; i < size; i++) {
+                    if (created[i] != null) {
+                        responses.set(i, new Response<>(StatusCode.INTERNAL_SERVER_ERROR, e.getMessage()));
+                    }
+                }
+                return responses;
+            }
+            
+            // Patrón Prototype: Retornar una copia de cada stand creado
+            for (int i = 0; i < size; i++) {
+                if (created[i] == null) {
+                    continue;
+                }
+                try {
+                    responses.set(i, new Response<>(StatusCode.CREATED, "Stand creado exitosamente", (Stand) created[i].clone()));
+                } catch (CloneNotSupportedException e) {
+                    responses.set(i, new Response<>(StatusCode.CREATED, "Stand creado exitosamente (sin clon)", created[i]));
+                }
             }
-        }
-        
-        return new Response<>(StatusCode.OK, "Stands obtenidos", clonedStands);
+            return responses;
+        });
+    }
+    
+    public Response<java.util.List<Stand>> getAllStands() {
+        return GET_ALL_STANDS.time(() -> Storage.copy(() -> {
+            java.util.List<Stand> stands = standStorage.getAllStands();
+            
+            // Patrón Prototype: Clonar cada stand antes de retornar
+            java.util.List<Stand> clonedStands = new java.util.ArrayList<>();
+            for (Stand stand : stands) {
+                try {
+                    clonedStands.add((Stand) stand.clone());
+                } catch (CloneNotSupportedException e) {
+                    clonedStands.add(stand); // Fallback en caso de error
+                }
+            }
+            
+            return new Response<>(StatusCode.OK, "Stands obtenidos", clonedStands);
+        }));
+    }
+    
+    /**
+     * Obtiene una página de stands (ver Page): solo se clonan los
+     * elementos de offset a offset + limit
+     */
+    public Response<Page<Stand>> getStandsPage(int offset, int limit) {
+        return GET_STANDS_PAGE.time(() -> Storage.copy(() -> {
+            Page<Stand> page = Pages.copyOf(standStorage.getStandsView(), offset, limit, stand -> (Stand) stand.clone());
+            return new Response<>(StatusCode.OK, "Stands obtenidos", page);
+        }));
     }
 }
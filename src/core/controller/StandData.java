@@ -0,0 +1,23 @@
+package core.controller;
+
+/**
+ * Datos de entrada para crear un stand en lote (ver StandController.createStands)
+ */
+public final class StandData {
+    
+    private final long id;
+    private final double price;
+    
+    public StandData(long id, double price) {
+        this.id = id;
+        this.price = price;
+    }
+    
+    public long getId() {
+        return id;
+    }
+    
+    public double getPrice() {
+        return price;
+    }
+}
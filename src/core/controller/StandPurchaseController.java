@@ -4,13 +4,19 @@
 package core.controller;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import core.metrics.Metrics;
+import core.metrics.OperationMetrics;
 import core.model.Stand;
 import core.model.Publisher;
 import core.model.Response;
 import core.model.StatusCode;
 import core.storage.StandStorage;
 import core.storage.PublisherStorage;
+import core.storage.Storage;
+import core.storage.NotDurableException;
+import core.storage.NotWrittenException;
 
 /**
  *
@@ -18,6 +24,12 @@ import core.storage.PublisherStorage;
  */
 public class StandPurchaseController {
     
+    // Métricas de cada método (ver core.metrics.Metrics)
+    private static final OperationMetrics PURCHASE_STANDS = Metrics.operation("StandPurchaseController.purchaseStands", Stand.class);
+    private static final OperationMetrics PURCHASE_STANDS_BATCH = Metrics.operation("StandPurchaseController.purchaseStandsBatch", Stand.class);
+    private static final OperationMetrics GET_ALL_STANDS = Metrics.operation("StandPurchaseController.getAllStands", Stand.class);
+    private static final OperationMetrics GET_ALL_PUBLISHERS = Metrics.operation("StandPurchaseController.getAllPublishers", Publisher.class);
+    
     private StandStorage standStorage;
     private PublisherStorage publisherStorage;
     
@@ -30,29 +42,65 @@ public class StandPurchaseController {
      * Realiza la compra de stands por parte de una o varias editoriales
      */
     public Response<String> purchaseStands(List<Long> standIds, List<String> publisherNits) {
-        
-        // Validar que haya stands y editoriales
-        if (standIds == null || standIds.isEmpty()) {
-            return new Response<>(StatusCode.BAD_REQUEST, "Debe seleccionar al menos un stand");
-        }
-        
-        if (publisherNits == null || publisherNits.isEmpty()) {
-            return new Response<>(StatusCode.BAD_REQUEST, "Debe seleccionar al menos una editorial");
-        }
-        
-        // Validar que no haya duplicados en stands
-        if (standIds.size() != new java.util.HashSet<>(standIds).size()) {
-            return new Response<>(StatusCode.CONFLICT, "No pueden haber stands duplicados");
+        return PURCHASE_STANDS.time(standIds, () -> {
+            // Una compra sola es un lote de uno: se valida igual y se aplica de forma atómica
+            return purchaseAll(List.of(new PurchaseData(standIds, publisherNits))).get(0);
+        });
+    }
+    
+    /**
+     * Realiza varias compras con un solo candado y una sola notificación.
+     * Cada compra se valida por separado y se aplica completa o no se aplica;
+     * retorna una Response por compra, en el mismo orden.
+     */
+    public List<Response<String>> purchaseStands(List<PurchaseData> purchases) {
+        return PURCHASE_STANDS_BATCH.timeAll(() -> purchaseAll(purchases));
+    }
+    
+    private List<Response<String>> purchaseAll(List<PurchaseData> purchases) {
+        int size = purchases.size();
+        List<Response<String>> responses = new ArrayList<>(Collections.nCopies(size, null));
+        for (int i = 0; i < size; i++) {
+            PurchaseData purchase = purchases.get(i);
+            responses.set(i, Validators.validatePurchase(purchase.getStandIds(), purchase.getPublisherNits()));
         }
         
-        // Validar que no haya duplicados en editoriales
-        if (publisherNits.size() != new java.util.HashSet<>(publisherNits).size()) {
-            return new Response<>(StatusCode.CONFLICT, "No pueden haber editoriales duplicadas");
+        try {
+            Storage.write(() -> {
+                for (int i = 0; i < size; i++) {
+                    if (responses.get(i) == null) {
+                        responses.set(i, purchase(purchases.get(i)));
+                    }
+                }
+            });
+        } catch (NotDurableException e) {
+            // Las compras ya aplicadas quedan en memoria; se informa que no llegaron a disco
+            for (int i = 0; i < size; i++) {
+                if (responses.get(i).getStatus() == StatusCode.OK) {
+                    responses.set(i, new Response<>(StatusCode.INTERNAL_SERVER_ERROR, e.getMessage()));
+                }
+            }
+            return responses;
+        } catch (NotWrittenException e) {
+            // La transacción se deshizo: ninguna compra se aplicó
+            for (int i = 0; i < size; i++) {
+                if (responses.get(i).getStatus() == StatusCode.OK) {
+                    responses.set(i, new Response<>(StatusCode.INTERNAL_SERVER_ERROR, e.getMessage()));
+                }
+            }
+            return responses;
         }
-        
+        return responses;
+    }
+    
+    /**
+     * Busca los stands y editoriales de la compra y los enlaza; se llama con
+     * el candado de escritura tomado
+     */
+    private Response<String> purchase(PurchaseData purchase) {
         // Obtener stands y verificar que existan
         List<Stand> stands = new ArrayList<>();
-        for (Long standId : standIds) {
+        for (Long standId : purchase.getStandIds()) {
             Stand stand = standStorage.getStandById(standId);
             if (stand == null) {
                 return new Response<>(StatusCode.NOT_FOUND, "Stand no encontrado con ID: " + standId);
@@ -62,7 +110,7 @@ public class StandPurchaseController {
         
         // Obtener editoriales y verificar que existan
         List<Publisher> publishers = new ArrayList<>();
-        for (String publisherNit : publisherNits) {
+        for (String publisherNit : purchase.getPublisherNits()) {
             Publisher publisher = publisherStorage.getPublisherByNit(publisherNit);
             if (publisher == null) {
                 return new Response<>(StatusCode.NOT_FOUND, "Editorial no encontrada con NIT: " + publisherNit);
@@ -70,46 +118,47 @@ public class StandPurchaseController {
             publishers.add(publisher);
         }
         
-        // Realizar la compra
         for (Stand stand : stands) {
             for (Publisher publisher : publishers) {
-                stand.addPublisher(publisher);
-                publisher.addStand(stand);
+                standStorage.linkPublisher(stand, publisher);
             }
         }
-        
         return new Response<>(StatusCode.OK, "Compra de stands realizada exitosamente");
     }
     
     public Response<List<Stand>> getAllStands() {
-        List<Stand> stands = standStorage.getAllStands();
-        
-        // Patrón Prototype: Clonar cada stand antes de retornar
-        List<Stand> clonedStands = new ArrayList<>();
-        for (Stand stand : stands) {
-            try {
-                clonedStands.add((Stand) stand.clone());
-            } catch (CloneNotSupportedException e) {
-                clonedStands.add(stand); // Fallback en caso de error
+        return GET_ALL_STANDS.time(() -> Storage.copy(() -> {
+            List<Stand> stands = standStorage.getAllStands();
+            
+            // Patrón Prototype: Clonar cada stand antes de retornar
+            List<Stand> clonedStands = new ArrayList<>();
+            for (Stand stand : stands) {
+                try {
+                    clonedStands.add((Stand) stand.clone());
+                } catch (CloneNotSupportedException e) {
+                    clonedStands.add(stand); // Fallback en caso de error
+                }
             }
-        }
-        
-        return new Response<>(StatusCode.OK, "Stands obtenidos", clonedStands);
+            
+            return new Response<>(StatusCode.OK, "Stands obtenidos", clonedStands);
+        }));
     }
     
     public Response<List<Publisher>> getAllPublishers() {
-        List<Publisher> publishers = publisherStorage.getAllPublishers();
-        
-        // Patrón Prototype: Clonar cada editorial antes de retornar
-        List<Publisher> clonedPublishers = new ArrayList<>();
-        for (Publisher publisher : publishers) {
-            try {
-                clonedPublishers.add((Publisher) publisher.clone());
-            } catch (CloneNotSupportedException e) {
-                clonedPublishers.add(publisher); // Fallback en caso de error
+        return GET_ALL_PUBLISHERS.time(() -> Storage.copy(() -> {
+            List<Publisher> publishers = publisherStorage.getAllPublishers();
+            
+            // Patrón Prototype: Clonar cada editorial antes de retornar
+            List<Publisher> clonedPublishers = new ArrayList<>();
+            for (Publisher publisher : publishers) {
+                try {
+                    clonedPublishers.add((Publisher) publisher.clone());
+                } catch (CloneNotSupportedException e) {
+                    clonedPublishers.add(publisher); // Fallback en caso de error
+                }
             }
-        }
-        
-        return new Response<>(StatusCode.OK, "Editoriales obtenidas", clonedPublishers);
+            
+            return new Response<>(StatusCode.OK, "Editoriales obtenidas", clonedPublishers);
+        }));
     }
 }
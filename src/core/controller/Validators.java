@@ -0,0 +1,124 @@
+package core.controller;
+
+import java.util.HashSet;
+import java.util.List;
+import core.model.Keys;
+import core.model.Response;
+import core.model.StatusCode;
+
+/**
+ * Reglas de validación que no dependen de lo ya registrado: campos vacíos,
+ * rangos y formato de las claves. Las comparten los controladores y el
+ * importador de catálogos, que las evalúa en paralelo antes de tomar el
+ * candado de escritura.
+ *
+ * Cada método retorna null si los datos son válidos, o la respuesta de
+ * error que debe retornar el controlador.
+ */
+public final class Validators {
+    
+    // Los IDs tienen como máximo 15 dígitos
+    public static final long MAX_ID = 999999999999999L;
+    
+    private Validators() {
+    }
+    
+    /**
+     * @param entity nombre de la entidad en los mensajes ("autor", "stand", ...)
+     */
+    public static <T> Response<T> validateId(long id, String entity) {
+        if (id < 0) {
+            return new Response<>(StatusCode.BAD_REQUEST, "El ID del " + entity + " debe ser mayor o igual a 0");
+        }
+        if (id > MAX_ID) {
+            return new Response<>(StatusCode.BAD_REQUEST, "El ID del " + entity + " no puede tener más de 15 dígitos");
+        }
+        return null;
+    }
+    
+    public static <T> Response<T> validateNames(String firstname, String lastname, String entity) {
+        if (firstname == null || firstname.isBlank()) {
+            return new Response<>(StatusCode.BAD_REQUEST, "El nombre del " + entity + " no puede estar vacío");
+        }
+        if (lastname == null || lastname.isBlank()) {
+            return new Response<>(StatusCode.BAD_REQUEST, "El apellido del " + entity + " no puede estar vacío");
+        }
+        return null;
+    }
+    
+    public static <T> Response<T> validateNit(String nit) {
+        if (nit == null || nit.isBlank()) {
+            return new Response<>(StatusCode.BAD_REQUEST, "El NIT no puede estar vacío");
+        }
+        if (Keys.parseNit(nit) < 0) {
+            return new Response<>(StatusCode.BAD_REQUEST, "El NIT debe tener el formato XXX.XXX.XXX-X");
+        }
+        return null;
+    }
+    
+    public static <T> Response<T> validatePublisher(String name, String address) {
+        if (name == null || name.isBlank()) {
+            return new Response<>(StatusCode.BAD_REQUEST, "El nombre de la editorial no puede estar vacío");
+        }
+        if (address == null || address.isBlank()) {
+            return new Response<>(StatusCode.BAD_REQUEST, "La dirección de la editorial no puede estar vacía");
+        }
+        return null;
+    }
+    
+    public static <T> Response<T> validatePrice(double price) {
+        if (price <= 0) {
+            return new Response<>(StatusCode.BAD_REQUEST, "El precio del stand debe ser superior a 0");
+        }
+        return null;
+    }
+    
+    public static <T> Response<T> validateIsbn(String isbn) {
+        if (isbn == null || isbn.isBlank()) {
+            return new Response<>(StatusCode.BAD_REQUEST, "El ISBN no puede estar vacío");
+        }
+        if (Keys.parseIsbn(isbn) < 0) {
+            return new Response<>(StatusCode.BAD_REQUEST, "El ISBN debe tener el formato XXX-X-XX-XXXXXX-X");
+        }
+        return null;
+    }
+    
+    /**
+     * Campos comunes a todos los libros. Los autores repetidos se detectan al
+     * buscarlos, junto con los que no existen.
+     */
+    public static <T> Response<T> validateBook(String title, String genre, String format, double value, List<Long> authorIds) {
+        if (title == null || title.isBlank()) {
+            return new Response<>(StatusCode.BAD_REQUEST, "El título del libro no puede estar vacío");
+        }
+        if (genre == null || genre.isBlank()) {
+            return new Response<>(StatusCode.BAD_REQUEST, "El género del libro no puede estar vacío");
+        }
+        if (format == null || format.isBlank()) {
+            return new Response<>(StatusCode.BAD_REQUEST, "El formato del libro no puede estar vacío");
+        }
+        if (value <= 0) {
+            return new Response<>(StatusCode.BAD_REQUEST, "El valor del libro debe ser superior a 0");
+        }
+        if (authorIds == null || authorIds.isEmpty()) {
+            return new Response<>(StatusCode.BAD_REQUEST, "El libro debe tener al menos un autor");
+        }
+        return null;
+    }
+    
+    public static <T> Response<T> validatePurchase(List<Long> standIds, List<String> publisherNits) {
+        if (standIds == null || standIds.isEmpty()) {
+            return new Response<>(StatusCode.BAD_REQUEST, "Debe seleccionar al menos un stand");
+        }
+        if (publisherNits == null || publisherNits.isEmpty()) {
+            return new Response<>(StatusCode.BAD_REQUEST, "Debe seleccionar al menos una editorial");
+        }
+        if (standIds.size() != new HashSet<>(standIds).size()) {
+            return new Response<>(StatusCode.CONFLICT, "No pueden haber stands duplicados");
+        }
+        if (publisherNits.size() != new HashSet<>(publisherNits).size()) {
+            return new Response<>(StatusCode.CONFLICT, "No pueden haber editoriales duplicadas");
+        }
+        return null;
+    }
+}
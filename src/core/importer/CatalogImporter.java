@@ -0,0 +1,270 @@
+package core.importer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import core.controller.AuthorController;
+import core.controller.BookController;
+import core.controller.ManagerController;
+import core.controller.NarratorController;
+import core.controller.PublisherController;
+import core.controller.StandController;
+import core.controller.StandPurchaseController;
+import core.importer.ImportRecord.Kind;
+import core.model.Response;
+import core.model.StatusCode;
+import core.storage.NotDurableException;
+import core.storage.NotWrittenException;
+import core.storage.NotificationDispatcher;
+import core.storage.Storage;
+
+/**
+ * Importa un catálogo completo (personas, editoriales, stands, libros y
+ * compras de stands) desde un archivo CSV o JSON Lines, sin cargarlo entero
+ * en memoria.
+ *
+ * El archivo se lee por lotes de líneas. Cada lote se convierte y valida en
+ * paralelo (LineParser, con las reglas de Validators) y luego se aplica en
+ * orden, en una sola transacción (Storage.write) por lote, con los métodos
+ * en lote de los controladores (createAuthors, createBooks, ...). Las reglas
+ * que dependen de lo ya registrado (duplicados y referencias por ID, NIT o
+ * ISBN) las verifican los controladores contra los índices de los Storage,
+ * así que un registro puede referirse a cualquier entidad de una línea
+ * anterior.
+ *
+ * Solo hay a la vez unos pocos lotes leídos y sin aplicar, de modo que la
+ * memoria usada no depende del tamaño del archivo. Los registros inválidos
+ * no detienen la importación: se cuentan en el ImportReport con la misma
+ * respuesta que daría el controlador. Los observadores reciben una sola
+ * notificación al final.
+ */
+public final class CatalogImporter {
+    
+    public enum Format {
+        CSV, JSON_LINES;
+        
+        /**
+         * Formato según la extensión: .csv es CSV y cualquier otra JSON Lines
+         */
+        public static Format of(Path path) {
+            String name = path.getFileName().toString().toLowerCase();
+            return name.endsWith(".csv") ? CSV : JSON_LINES;
+        }
+    }
+    
+    public static final int DEFAULT_BATCH_SIZE = 4096;
+    private static final int READ_BUFFER = 1 << 16;
+    
+    private final int batchSize;
+    private final int parallelism;
+    private final AuthorController authorController = new AuthorController();
+    private final ManagerController managerController = new ManagerController();
+    private final NarratorController narratorController = new NarratorController();
+    private final PublisherController publisherController = new PublisherController();
+    private final StandController standController = new StandController();
+    private final StandPurchaseController purchaseController = new StandPurchaseController();
+    private final BookController bookController = new BookController();
+    
+    public CatalogImporter() {
+        this(DEFAULT_BATCH_SIZE, Runtime.getRuntime().availableProcessors());
+    }
+    
+    /**
+     * @param batchSize líneas por lote (y por transacción)
+     * @param parallelism hilos que convierten y validan los lotes
+     */
+    public CatalogImporter(int batchSize, int parallelism) {
+        if (batchSize < 1 || parallelism < 1) {
+            throw new IllegalArgumentException("El tamaño de lote y el paralelismo deben ser positivos");
+        }
+        this.batchSize = batchSize;
+        this.parallelism = parallelism;
+    }
+    
+    public ImportReport importFile(Path path) throws IOException {
+        try (Reader reader = new InputStreamReader(Files.newInputStream(path), StandardCharsets.UTF_8)) {
+            return importFrom(reader, Format.of(path));
+        }
+    }
+    
+    /**
+     * Importa todas las líneas del lector. Se ignoran las líneas vacías y las
+     * que empiezan con '#'. Si una transacción falla (por ejemplo al escribir
+     * el registro de cambios) la importación se detiene; los lotes anteriores
+     * quedan aplicados.
+     */
+    public ImportReport importFrom(Reader reader, Format format) throws IOException {
+        long start = System.nanoTime();
+        LineParser parser = LineParser.forFormat(format);
+        BufferedReader lines = new BufferedReader(reader, READ_BUFFER);
+        ImportReport report = new ImportReport();
+        ExecutorService workers = Executors.newFixedThreadPool(parallelism, r -> {
+            Thread thread = new Thread(r, "megaferia-import");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Lotes en conversión, en el orden del archivo
+        ArrayDeque<Future<ImportRecord[]>> inFlight = new ArrayDeque<>();
+        NotificationDispatcher.getInstance().beginBatch();
+        try {
+            String[] batch = new String[batchSize];
+            long[] numbers = new long[batchSize];
+            int count = 0;
+            long number = 0;
+            String line;
+            while ((line = lines.readLine()) != null) {
+                number++;
+                if (line.isBlank() || line.charAt(0) == '#') {
+                    continue;
+                }
+                batch[count] = line;
+                numbers[count] = number;
+                if (++count == batchSize) {
+                    inFlight.add(submit(workers, parser, batch, numbers, count));
+                    batch = new String[batchSize];
+                    numbers = new long[batchSize];
+                    count = 0;
+                    if (inFlight.size() > parallelism * 2) {
+                        apply(inFlight.poll().get(), report);
+                    }
+                }
+            }
+            if (count > 0) {
+                inFlight.add(submit(workers, parser, batch, numbers, count));
+            }
+            while (!inFlight.isEmpty()) {
+                apply(inFlight.poll().get(), report);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Importación interrumpida");
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Falló la conversión de un lote", e.getCause());
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            workers.shutdownNow();
+            NotificationDispatcher.getInstance().endBatch();
+        }
+        report.setElapsedMillis((System.nanoTime() - start) / 1_000_000);
+        return report;
+    }
+    
+    private static Future<ImportRecord[]> submit(ExecutorService workers, LineParser parser,
+                                                 String[] batch, long[] numbers, int count) {
+        return workers.submit(() -> {
+            ImportRecord[] records = new ImportRecord[count];
+            for (int i = 0; i < count; i++) {
+                records[i] = parser.parse(batch[i], numbers[i]);
+            }
+            return records;
+        });
+    }
+    
+    /**
+     * Aplica el lote en una transacción y luego lo cuenta en el reporte. Los
+     * registros válidos consecutivos del mismo tipo se entregan juntos al
+     * método en lote de su controlador; como todo ocurre dentro de la misma
+     * escritura, cada registro ve lo creado por los anteriores.
+     */
+    private void apply(ImportRecord[] records, ImportReport report) {
+        Response<?>[] results = new Response<?>[records.length];
+        try {
+            write(records, results);
+        } catch (NotDurableException e) {
+            // El lote quedó en memoria; se informa que no llegó a disco
+            failCreated(results, e.getMessage());
+        } catch (NotWrittenException e) {
+            // La transacción se deshizo: ningún registro del lote quedó creado
+            failCreated(results, e.getMessage());
+        }
+        for (int i = 0; i < records.length; i++) {
+            if (results[i].isSuccess()) {
+                report.created();
+            } else {
+                report.rejected(records[i].line, results[i].getStatus(), results[i].getMessage());
+            }
+        }
+    }
+    
+    private static void failCreated(Response<?>[] results, String message) {
+        for (int i = 0; i < results.length; i++) {
+            if (results[i].isSuccess()) {
+                results[i] = new Response<>(StatusCode.INTERNAL_SERVER_ERROR, message);
+            }
+        }
+    }
+    
+    private void write(ImportRecord[] records, Response<?>[] results) {
+        Storage.write(() -> {
+            int start = 0;
+            while (start < records.length) {
+                if (records[start].error != null) {
+                    results[start] = records[start].error;
+                    start++;
+                    continue;
+                }
+                int end = start + 1;
+                while (end < records.length && records[end].error == null
+                       && sameController(records[start].kind, records[end].kind)) {
+                    end++;
+                }
+                List<? extends Response<?>> responses = create(records, start, end);
+                for (int i = start; i < end; i++) {
+                    results[i] = responses.get(i - start);
+                }
+                start = end;
+            }
+        });
+    }
+    
+    private List<? extends Response<?>> create(ImportRecord[] records, int start, int end) {
+        switch (records[start].kind) {
+            case AUTHOR:
+                return authorController.createAuthors(dataOf(records, start, end));
+            case MANAGER:
+                return managerController.createManagers(dataOf(records, start, end));
+            case NARRATOR:
+                return narratorController.createNarrators(dataOf(records, start, end));
+            case PUBLISHER:
+                return publisherController.createPublishers(dataOf(records, start, end));
+            case STAND:
+                return standController.createStands(dataOf(records, start, end));
+            case PURCHASE:
+                return purchaseController.purchaseStands(dataOf(records, start, end));
+            default:
+                return bookController.createBooks(dataOf(records, start, end));
+        }
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static <T> List<T> dataOf(ImportRecord[] records, int start, int end) {
+        List<T> data = new ArrayList<>(end - start);
+        for (int i = start; i < end; i++) {
+            data.add((T) records[i].data);
+        }
+        return data;
+    }
+    
+    // Los tres tipos de libro se crean con el mismo método (BookController.createBooks)
+    private static boolean sameController(Kind first, Kind second) {
+        return first == second || (isBook(first) && isBook(second));
+    }
+    
+    private static boolean isBook(Kind kind) {
+        return kind == Kind.PRINTED_BOOK || kind == Kind.DIGITAL_BOOK || kind == Kind.AUDIOBOOK;
+    }
+}
@@ -0,0 +1,69 @@
+package core.importer;
+
+import java.util.ArrayList;
+import java.util.List;
+import core.importer.ImportRecord.Kind;
+
+/**
+ * Líneas CSV: la primera columna es el tipo de registro y las siguientes sus
+ * columnas en el orden de ImportRecord.Kind, por ejemplo
+ * {@code printed,978-0-12-345678-9,Título,1;2,Novela,Tapa dura,50000,900.123.456-7,320,10}.
+ * Los valores con comas o comillas van entre comillas dobles y las comillas
+ * internas se duplican. Un registro no puede ocupar varias líneas.
+ */
+final class CsvLineParser extends LineParser {
+    
+    @Override
+    String[] split(String line, ImportRecord record) {
+        List<String> fields = fields(line);
+        Kind kind = kindOf(fields.get(0).trim());
+        record.kind = kind;
+        if (fields.size() - 1 != kind.columns.length) {
+            throw new IllegalArgumentException("Se esperaban " + kind.columns.length + " columnas para "
+                                               + kind.label + " y hay " + (fields.size() - 1));
+        }
+        return fields.subList(1, fields.size()).toArray(new String[0]);
+    }
+    
+    private static List<String> fields(String line) {
+        List<String> fields = new ArrayList<>(12);
+        int length = line.length();
+        int i = 0;
+        while (true) {
+            if (i < length && line.charAt(i) == '"') {
+                StringBuilder value = new StringBuilder();
+                i++;
+                while (true) {
+                    if (i >= length) {
+                        throw new IllegalArgumentException("Falta cerrar las comillas de una columna");
+                    }
+                    char c = line.charAt(i++);
+                    if (c != '"') {
+                        value.append(c);
+                    } else if (i < length && line.charAt(i) == '"') {
+                        value.append('"');
+                        i++;
+                    } else {
+                        break;
+                    }
+                }
+                if (i < length && line.charAt(i) != ',') {
+                    throw new IllegalArgumentException("Se esperaba una coma después de las comillas en la posición " + i);
+                }
+                fields.add(value.toString());
+            } else {
+                int end = line.indexOf(',', i);
+                if (end < 0) {
+                    end = length;
+                }
+                fields.add(line.substring(i, end));
+                i = end;
+            }
+            if (i >= length) {
+                return fields;
+            }
+            // Se salta la coma
+            i++;
+        }
+    }
+}
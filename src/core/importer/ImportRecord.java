@@ -0,0 +1,66 @@
+package core.importer;
+
+import core.model.Response;
+
+/**
+ * Un registro del archivo ya convertido a los datos de entrada del
+ * controlador que lo crea, y validado sin consultar los Storage.
+ */
+final class ImportRecord {
+    
+    /**
+     * Tipos de registro con el nombre que llevan en el archivo y sus columnas
+     * en el orden del CSV (en JSON son los nombres de los campos)
+     */
+    enum Kind {
+        AUTHOR("author", "id", "firstname", "lastname"),
+        MANAGER("manager", "id", "firstname", "lastname"),
+        NARRATOR("narrator", "id", "firstname", "lastname"),
+        PUBLISHER("publisher", "nit", "name", "address", "managerId"),
+        STAND("stand", "id", "price"),
+        PRINTED_BOOK("printed", "isbn", "title", "authorIds", "genre", "format", "value", "publisherNit", "pages", "copies"),
+        DIGITAL_BOOK("digital", "isbn", "title", "authorIds", "genre", "format", "value", "publisherNit", "hyperlink"),
+        AUDIOBOOK("audiobook", "isbn", "title", "authorIds", "genre", "format", "value", "publisherNit", "duration", "narratorId"),
+        PURCHASE("purchase", "standIds", "publisherNits");
+        
+        final String label;
+        final String[] columns;
+        
+        Kind(String label, String... columns) {
+            this.label = label;
+            this.columns = columns;
+        }
+        
+        /**
+         * @return el tipo con ese nombre, o null si no existe
+         */
+        static Kind of(String label) {
+            for (Kind kind : values()) {
+                if (kind.label.equals(label)) {
+                    return kind;
+                }
+            }
+            return null;
+        }
+        
+        int column(String name) {
+            for (int i = 0; i < columns.length; i++) {
+                if (columns[i].equals(name)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+    
+    final long line;
+    Kind kind;
+    // Datos para el controlador (PersonData, PublisherData, StandData, BookData o PurchaseData)
+    Object data;
+    // Error de formato o de validación; si no es null el registro no se aplica
+    Response<?> error;
+    
+    ImportRecord(long line) {
+        this.line = line;
+    }
+}
@@ -0,0 +1,113 @@
+package core.importer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import core.model.StatusCode;
+
+/**
+ * Resultado de una importación: cuántos registros se leyeron, cuántos se
+ * crearon y cuántos se rechazaron por cada StatusCode. Solo se guardan los
+ * primeros MAX_REJECTIONS rechazos con su detalle, para que un archivo
+ * con muchos errores no ocupe memoria sin límite.
+ */
+public final class ImportReport {
+    
+    public static final int MAX_REJECTIONS = 1000;
+    
+    /**
+     * Registro rechazado: su línea en el archivo y la respuesta que habría
+     * dado el controlador
+     */
+    public static final class Rejection {
+        
+        private final long line;
+        private final StatusCode status;
+        private final String message;
+        
+        Rejection(long line, StatusCode status, String message) {
+            this.line = line;
+            this.status = status;
+            this.message = message;
+        }
+        
+        public long getLine() {
+            return line;
+        }
+        
+        public StatusCode getStatus() {
+            return status;
+        }
+        
+        public String getMessage() {
+            return message;
+        }
+        
+        @Override
+        public String toString() {
+            return "línea " + line + " (" + status.getCode() + "): " + message;
+        }
+    }
+    
+    private long records;
+    private long created;
+    private final Map<StatusCode, Long> rejectedByStatus = new EnumMap<>(StatusCode.class);
+    private final List<Rejection> rejections = new ArrayList<>();
+    private long elapsedMillis;
+    
+    void created() {
+        records++;
+        created++;
+    }
+    
+    void rejected(long line, StatusCode status, String message) {
+        records++;
+        rejectedByStatus.merge(status, 1L, Long::sum);
+        if (rejections.size() < MAX_REJECTIONS) {
+            rejections.add(new Rejection(line, status, message));
+        }
+    }
+    
+    void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+    
+    public long getRecords() {
+        return records;
+    }
+    
+    public long getCreated() {
+        return created;
+    }
+    
+    public long getRejected() {
+        return records - created;
+    }
+    
+    public long getRejected(StatusCode status) {
+        return rejectedByStatus.getOrDefault(status, 0L);
+    }
+    
+    /**
+     * Los primeros MAX_REJECTIONS rechazos, en el orden del archivo
+     */
+    public List<Rejection> getRejections() {
+        return Collections.unmodifiableList(rejections);
+    }
+    
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+    
+    @Override
+    public String toString() {
+        return "ImportReport{" +
+                "records=" + records +
+                ", created=" + created +
+                ", rejected=" + rejectedByStatus +
+                ", elapsedMillis=" + elapsedMillis +
+                '}';
+    }
+}
@@ -0,0 +1,89 @@
+package core.importer;
+
+import core.importer.ImportRecord.Kind;
+import core.json.JsonReader;
+
+/**
+ * Líneas JSON (un objeto plano por línea, JSON Lines): el campo "type" es el
+ * tipo de registro y los demás se llaman como las columnas de
+ * ImportRecord.Kind, por ejemplo
+ * {@code {"type":"author","id":1,"firstname":"Ana","lastname":"Gómez"}}.
+ * Los arreglos de números o textos ("authorIds", "standIds",
+ * "publisherNits") se convierten al texto separado por ';' de LineParser.
+ * Los campos desconocidos se ignoran.
+ */
+final class JsonLineParser extends LineParser {
+    
+    // Cantidad máxima de campos por objeto que se tienen en cuenta
+    private static final int MAX_FIELDS = 32;
+    
+    @Override
+    String[] split(String line, ImportRecord record) {
+        JsonReader in = new JsonReader(line);
+        String[] names = new String[MAX_FIELDS];
+        String[] values = new String[MAX_FIELDS];
+        int count = 0;
+        in.beginObject();
+        while (in.hasNext()) {
+            String name = in.nextName();
+            String value = value(in);
+            if (count < MAX_FIELDS) {
+                names[count] = name;
+                values[count] = value;
+                count++;
+            }
+        }
+        in.endObject();
+        in.endDocument();
+        String type = null;
+        for (int i = 0; i < count; i++) {
+            if (names[i].equals("type")) {
+                type = values[i];
+            }
+        }
+        if (type == null) {
+            throw new IllegalArgumentException("Falta el campo type");
+        }
+        Kind kind = kindOf(type);
+        record.kind = kind;
+        String[] columns = new String[kind.columns.length];
+        for (int i = 0; i < count; i++) {
+            int column = kind.column(names[i]);
+            if (column >= 0) {
+                columns[column] = values[i];
+            }
+        }
+        return columns;
+    }
+    
+    /**
+     * Valor de un campo como texto: los números y literales tal como están
+     * escritos, null para null y los arreglos separados por ';'
+     */
+    private static String value(JsonReader in) {
+        switch (in.peek()) {
+            case NULL:
+                in.nextNull();
+                return null;
+            case BEGIN_OBJECT:
+                throw new IllegalArgumentException("JSON inválido: no se admiten objetos anidados");
+            case BEGIN_ARRAY:
+                StringBuilder items = new StringBuilder();
+                in.beginArray();
+                while (in.hasNext()) {
+                    if (items.length() > 0) {
+                        items.append(LineParser.LIST_SEPARATOR);
+                    }
+                    String item = value(in);
+                    if (item == null) {
+                        throw new IllegalArgumentException("JSON inválido: los arreglos no admiten null");
+                    }
+                    items.append(item);
+                }
+                in.endArray();
+                return items.toString();
+            default:
+                return in.nextString();
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package core.importer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import core.controller.BookData;
+import core.controller.PersonData;
+import core.controller.PublisherData;
+import core.controller.PurchaseData;
+import core.controller.StandData;
+import core.controller.Validators;
+import core.importer.ImportRecord.Kind;
+import core.model.Response;
+import core.model.StatusCode;
+
+/**
+ * Convierte una línea del archivo en los datos de entrada del controlador y
+ * les aplica las mismas validaciones sin estado (ver Validators), para
+ * descartar los registros inválidos antes de tomar el candado. No consulta
+ * los Storage; entre llamadas solo comparte los textos repetidos, así que
+ * los hilos del importador pueden usar la misma instancia a la vez.
+ *
+ * Las subclases solo separan la línea en columnas; las listas (IDs de
+ * autores, stands y NIT de una compra) llegan como un texto separado por ';'.
+ */
+abstract class LineParser {
+    
+    static final char LIST_SEPARATOR = ';';
+    // Los géneros y formatos se repiten en muchos libros: se comparte una sola copia
+    private static final int MAX_SHARED_STRINGS = 4096;
+    
+    private final Map<String, String> sharedStrings = new ConcurrentHashMap<>();
+    
+    static LineParser forFormat(CatalogImporter.Format format) {
+        return format == CatalogImporter.Format.CSV ? new CsvLineParser() : new JsonLineParser();
+    }
+    
+    /**
+     * Separa la línea y asigna record.kind.
+     * @return los valores en el orden de record.kind.columns (null si falta alguno)
+     * @throws IllegalArgumentException si la línea no tiene el formato esperado
+     */
+    abstract String[] split(String line, ImportRecord record);
+    
+    final ImportRecord parse(String line, long number) {
+        ImportRecord record = new ImportRecord(number);
+        try {
+            String[] values = split(line, record);
+            record.error = convert(record, values);
+        } catch (IllegalArgumentException e) {
+            record.error = new Response<>(StatusCode.BAD_REQUEST, e.getMessage());
+        }
+        return record;
+    }
+    
+    static Kind kindOf(String label) {
+        Kind kind = Kind.of(label);
+        if (kind == null) {
+            throw new IllegalArgumentException("Tipo de registro desconocido: " + label);
+        }
+        return kind;
+    }
+    
+    private Response<?> convert(ImportRecord record, String[] values) {
+        Kind kind = record.kind;
+        switch (kind) {
+            case AUTHOR:
+            case MANAGER:
+            case NARRATOR: {
+                PersonData person = new PersonData(toLong(values[0], "id"), values[1], values[2]);
+                record.data = person;
+                String entity = kind == Kind.AUTHOR ? "autor" : kind == Kind.MANAGER ? "gerente" : "narrador";
+                Response<?> invalid = Validators.validateId(person.getId(), entity);
+                return invalid != null ? invalid : Validators.validateNames(person.getFirstname(), person.getLastname(), entity);
+            }
+            case PUBLISHER: {
+                PublisherData publisher = new PublisherData(values[0], values[1], values[2], toLong(values[3], "managerId"));
+                record.data = publisher;
+                Response<?> invalid = Validators.validateNit(publisher.getNit());
+                return invalid != null ? invalid : Validators.validatePublisher(publisher.getName(), publisher.getAddress());
+            }
+            case STAND: {
+                StandData stand = new StandData(toLong(values[0], "id"), toDouble(values[1], "price"));
+                record.data = stand;
+                Response<?> invalid = Validators.validateId(stand.getId(), "stand");
+                return invalid != null ? invalid : Validators.validatePrice(stand.getPrice());
+            }
+            case PURCHASE: {
+                PurchaseData purchase = new PurchaseData(toLongs(values[0], "standIds"), toTexts(values[1]));
+                record.data = purchase;
+                return Validators.validatePurchase(purchase.getStandIds(), purchase.getPublisherNits());
+            }
+            default:
+                return convertBook(record, values);
+        }
+    }
+    
+    private Response<?> convertBook(ImportRecord record, String[] values) {
+        String isbn = values[0];
+        String title = values[1];
+        List<Long> authorIds = toLongs(values[2], "authorIds");
+        String genre = shared(values[3]);
+        String format = shared(values[4]);
+        double value = toDouble(values[5], "value");
+        String publisherNit = values[6];
+        BookData book;
+        switch (record.kind) {
+            case PRINTED_BOOK:
+                book = BookData.printed(title, authorIds, isbn, genre, format, value, publisherNit,
+                                        toInt(values[7], "pages"), toInt(values[8], "copies"));
+                break;
+            case DIGITAL_BOOK:
+                book = BookData.digital(title, authorIds, isbn, genre, format, value, publisherNit, values[7]);
+                break;
+            default:
+                book = BookData.audiobook(title, authorIds, isbn, genre, format, value, publisherNit,
+                                          toInt(values[7], "duration"), toLong(values[8], "narratorId"));
+                break;
+        }
+        record.data = book;
+        Response<?> invalid = Validators.validateIsbn(isbn);
+        return invalid != null ? invalid : Validators.validateBook(title, genre, format, value, authorIds);
+    }
+    
+    /**
+     * Retorna una copia compartida del texto (sin espacios alrededor)
+     */
+    private String shared(String text) {
+        if (text == null) {
+            return null;
+        }
+        String trimmed = text.trim();
+        String existing = sharedStrings.putIfAbsent(trimmed, trimmed);
+        if (existing != null) {
+            return existing;
+        }
+        if (sharedStrings.size() > MAX_SHARED_STRINGS) {
+            // Demasiados valores distintos: ya no vale la pena compartirlos
+            sharedStrings.remove(trimmed);
+        }
+        return trimmed;
+    }
+    
+    private static long toLong(String text, String column) {
+        try {
+            return Long.parseLong(required(text, column).trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("El campo " + column + " debe ser un número entero: " + text);
+        }
+    }
+    
+    private static int toInt(String text, String column) {
+        try {
+            return Integer.parseInt(required(text, column).trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("El campo " + column + " debe ser un número entero: " + text);
+        }
+    }
+    
+    private static double toDouble(String text, String column) {
+        try {
+            return Double.parseDouble(required(text, column).trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("El campo " + column + " debe ser un número: " + text);
+        }
+    }
+    
+    private static String required(String text, String column) {
+        if (text == null) {
+            throw new IllegalArgumentException("Falta el campo " + column);
+        }
+        return text;
+    }
+    
+    private static List<Long> toLongs(String text, String column) {
+        List<Long> result = new ArrayList<>();
+        for (String item : toTexts(text)) {
+            result.add(toLong(item, column));
+        }
+        return result;
+    }
+    
+    private static List<String> toTexts(String text) {
+        List<String> result = new ArrayList<>();
+        if (text == null || text.isBlank()) {
+            return result;
+        }
+        int start = 0;
+        int end;
+        while ((end = text.indexOf(LIST_SEPARATOR, start)) >= 0) {
+            result.add(text.substring(start, end).trim());
+            start = end + 1;
+        }
+        result.add(text.substring(start).trim());
+        return result;
+    }
+}
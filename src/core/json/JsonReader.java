@@ -0,0 +1,629 @@
+package core.json;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+
+/**
+ * Lector de JSON en streaming (pull): se recorre el documento token por
+ * token con peek(), beginObject(), nextName(), nextString(), ... sin armar
+ * un árbol. Los textos sin secuencias de escape se copian una sola vez del
+ * búfer y los números se convierten sin crear textos.
+ *
+ * El JSON inválido lanza IllegalArgumentException con la posición del
+ * error; los errores de lectura del Reader se lanzan como
+ * UncheckedIOException. Para los datos que llegan escritos a mano,
+ * nextLong(), nextInt() y nextDouble() aceptan también números entre
+ * comillas, y nextString() entrega los números y los literales true/false
+ * tal como están escritos.
+ */
+public final class JsonReader implements Closeable {
+    
+    /**
+     * Tipo del siguiente elemento del documento
+     */
+    public enum Token {
+        BEGIN_OBJECT, END_OBJECT, BEGIN_ARRAY, END_ARRAY, NAME, STRING, NUMBER, BOOLEAN, NULL, END_DOCUMENT
+    }
+    
+    private static final int DEFAULT_BUFFER = 8192;
+    private static final int NAME_CACHE = 128;
+    private static final int MAX_CACHED_NAME = 32;
+    
+    // Estados de cada nivel de anidamiento
+    private static final int EMPTY_DOCUMENT = 0;
+    private static final int NONEMPTY_DOCUMENT = 1;
+    private static final int EMPTY_ARRAY = 2;
+    private static final int NONEMPTY_ARRAY = 3;
+    private static final int EMPTY_OBJECT = 4;
+    private static final int NONEMPTY_OBJECT = 5;
+    private static final int DANGLING_NAME = 6;
+    
+    private final Reader in;
+    private char[] buffer;
+    private int position;
+    private int limit;
+    // Caracteres descartados del búfer, para informar la posición de los errores
+    private long consumed;
+    private int[] stack = new int[32];
+    private int depth;
+    private Token peeked;
+    // Ubicación en el búfer del número o literal ya leído por peek()
+    private int literalStart;
+    private int literalLength;
+    private boolean booleanValue;
+    // Si el literal leído por literal() solo tiene caracteres de un número
+    private boolean numeric;
+    // Nombres de campos ya leídos: un documento repite los mismos pocos nombres
+    private final String[] names = new String[NAME_CACHE];
+    
+    public JsonReader(Reader in) {
+        this.in = in;
+        this.buffer = new char[DEFAULT_BUFFER];
+        push(EMPTY_DOCUMENT);
+    }
+    
+    /**
+     * Lee el documento completo desde el texto, sin un Reader
+     */
+    public JsonReader(String text) {
+        this.in = null;
+        this.buffer = text.toCharArray();
+        this.limit = buffer.length;
+        push(EMPTY_DOCUMENT);
+    }
+    
+    public Token peek() {
+        if (peeked != null) {
+            return peeked;
+        }
+        int c;
+        switch (stack[depth - 1]) {
+            case EMPTY_DOCUMENT:
+                stack[depth - 1] = NONEMPTY_DOCUMENT;
+                return peeked = value(nextNonWhitespace());
+            case NONEMPTY_DOCUMENT:
+                if (nextNonWhitespace() != -1) {
+                    throw error("contenido después del documento");
+                }
+                return peeked = Token.END_DOCUMENT;
+            case EMPTY_ARRAY:
+                stack[depth - 1] = NONEMPTY_ARRAY;
+                if (nextNonWhitespace() == ']') {
+                    position++;
+                    return peeked = Token.END_ARRAY;
+                }
+                return peeked = value(nextNonWhitespace());
+            case NONEMPTY_ARRAY:
+                c = nextNonWhitespace();
+                if (c == ']') {
+                    position++;
+                    return peeked = Token.END_ARRAY;
+                }
+                if (c != ',') {
+                    throw error("se esperaba ',' o ']'");
+                }
+                position++;
+                return peeked = value(nextNonWhitespace());
+            case EMPTY_OBJECT:
+            case NONEMPTY_OBJECT:
+                c = nextNonWhitespace();
+                if (c == '}') {
+                    position++;
+                    return peeked = Token.END_OBJECT;
+                }
+                if (stack[depth - 1] == NONEMPTY_OBJECT) {
+                    if (c != ',') {
+                        throw error("se esperaba ',' o '}'");
+                    }
+                    position++;
+                    c = nextNonWhitespace();
+                }
+                if (c != '"') {
+                    throw error("se esperaba el nombre de un campo");
+                }
+                position++;
+                stack[depth - 1] = DANGLING_NAME;
+                return peeked = Token.NAME;
+            default:
+                if (nextNonWhitespace() != ':') {
+                    throw error("se esperaba ':'");
+                }
+                position++;
+                stack[depth - 1] = NONEMPTY_OBJECT;
+                return peeked = value(nextNonWhitespace());
+        }
+    }
+    
+    public boolean hasNext() {
+        Token token = peek();
+        return token != Token.END_OBJECT && token != Token.END_ARRAY && token != Token.END_DOCUMENT;
+    }
+    
+    public void beginObject() {
+        expect(Token.BEGIN_OBJECT);
+        push(EMPTY_OBJECT);
+    }
+    
+    public void endObject() {
+        expect(Token.END_OBJECT);
+        depth--;
+    }
+    
+    public void beginArray() {
+        expect(Token.BEGIN_ARRAY);
+        push(EMPTY_ARRAY);
+    }
+    
+    public void endArray() {
+        expect(Token.END_ARRAY);
+        depth--;
+    }
+    
+    /**
+     * Verifica que no quede nada después del documento
+     */
+    public void endDocument() {
+        expect(Token.END_DOCUMENT);
+    }
+    
+    public String nextName() {
+        expect(Token.NAME);
+        // Nombre corto sin escapes y completo en el búfer: se busca en la caché
+        int hash = 0;
+        for (int i = position; i < limit && i - position <= MAX_CACHED_NAME; i++) {
+            char c = buffer[i];
+            if (c == '"') {
+                return cachedName(hash, i);
+            }
+            if (c == '\\') {
+                break;
+            }
+            hash = 31 * hash + c;
+        }
+        return string();
+    }
+    
+    /**
+     * @return el texto; los números y true/false tal como están escritos
+     */
+    public String nextString() {
+        Token token = peek();
+        peeked = null;
+        switch (token) {
+            case STRING:
+                return string();
+            case NUMBER:
+            case BOOLEAN:
+                return new String(buffer, literalStart, literalLength);
+            default:
+                peeked = token;
+                throw error("se esperaba un texto y hay " + token);
+        }
+    }
+    
+    public long nextLong() {
+        Token token = peek();
+        if (token == Token.STRING) {
+            peeked = null;
+            String text = string();
+            try {
+                return Long.parseLong(text.trim());
+            } catch (NumberFormatException e) {
+                throw error("se esperaba un número entero: " + text);
+            }
+        }
+        if (token != Token.NUMBER) {
+            throw error("se esperaba un número y hay " + token);
+        }
+        peeked = null;
+        return parseLong(literalStart, literalLength);
+    }
+    
+    public int nextInt() {
+        long value = nextLong();
+        if (value != (int) value) {
+            throw error("el número " + value + " no cabe en un int");
+        }
+        return (int) value;
+    }
+    
+    public double nextDouble() {
+        Token token = peek();
+        String text;
+        if (token == Token.STRING) {
+            peeked = null;
+            text = string().trim();
+        } else if (token == Token.NUMBER) {
+            peeked = null;
+            long integral = integral(literalStart, literalLength);
+            if (integral != Long.MIN_VALUE) {
+                return integral;
+            }
+            text = new String(buffer, literalStart, literalLength);
+        } else {
+            throw error("se esperaba un número y hay " + token);
+        }
+        try {
+            return Double.parseDouble(text);
+        } catch (NumberFormatException e) {
+            throw error("se esperaba un número: " + text);
+        }
+    }
+    
+    public boolean nextBoolean() {
+        expect(Token.BOOLEAN);
+        return booleanValue;
+    }
+    
+    public void nextNull() {
+        expect(Token.NULL);
+    }
+    
+    /**
+     * Salta el siguiente valor completo, con todo lo que tenga anidado
+     */
+    public void skipValue() {
+        int level = 0;
+        do {
+            Token token = peek();
+            switch (token) {
+                case BEGIN_OBJECT:
+                    beginObject();
+                    level++;
+                    break;
+                case BEGIN_ARRAY:
+                    beginArray();
+                    level++;
+                    break;
+                case END_OBJECT:
+                    endObject();
+                    level--;
+                    break;
+                case END_ARRAY:
+                    endArray();
+                    level--;
+                    break;
+                case NAME:
+                case STRING:
+                    peeked = null;
+                    skipString();
+                    break;
+                case END_DOCUMENT:
+                    throw error("no hay un valor para saltar");
+                default:
+                    peeked = null;
+                    break;
+            }
+        } while (level > 0);
+    }
+    
+    @Override
+    public void close() throws IOException {
+        if (in != null) {
+            in.close();
+        }
+    }
+    
+    private void expect(Token expected) {
+        Token token = peek();
+        if (token != expected) {
+            throw error("se esperaba " + expected + " y hay " + token);
+        }
+        peeked = null;
+    }
+    
+    private void push(int scope) {
+        if (depth == stack.length) {
+            int[] grown = new int[depth * 2];
+            System.arraycopy(stack, 0, grown, 0, depth);
+            stack = grown;
+        }
+        stack[depth++] = scope;
+    }
+    
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException("JSON inválido en la posición " + (consumed + position) + ": " + message);
+    }
+    
+    /**
+     * Reconoce el valor que empieza en c (sin consumir) y consume lo que
+     * ya sabe leer: los delimitadores, la comilla inicial de los textos y
+     * los números y literales completos
+     */
+    private Token value(int c) {
+        switch (c) {
+            case '{':
+                position++;
+                return Token.BEGIN_OBJECT;
+            case '[':
+                position++;
+                return Token.BEGIN_ARRAY;
+            case '"':
+                position++;
+                return Token.STRING;
+            case -1:
+                throw error("fin inesperado del documento");
+            default:
+                break;
+        }
+        int length = literal();
+        if (length == 0) {
+            throw error("se esperaba un valor");
+        }
+        literalStart = position;
+        literalLength = length;
+        position += length;
+        if ((c == '-' || (c >= '0' && c <= '9')) && numeric) {
+            return Token.NUMBER;
+        }
+        if (matches("true")) {
+            booleanValue = true;
+            return Token.BOOLEAN;
+        }
+        if (matches("false")) {
+            booleanValue = false;
+            return Token.BOOLEAN;
+        }
+        if (matches("null")) {
+            return Token.NULL;
+        }
+        position -= length;
+        throw error("valor desconocido: " + new String(buffer, literalStart, length));
+    }
+    
+    private boolean matches(String word) {
+        if (literalLength != word.length()) {
+            return false;
+        }
+        for (int i = 0; i < literalLength; i++) {
+            if (buffer[literalStart + i] != word.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Largo del número o literal que empieza en la posición actual; lo deja
+     * completo dentro del búfer
+     */
+    private int literal() {
+        int length = 0;
+        numeric = true;
+        while (true) {
+            if (position + length == limit && !fill(length + 1)) {
+                return length;
+            }
+            char c = buffer[position + length];
+            if ((c >= '0' && c <= '9') || c == '-' || c == '+' || c == '.') {
+                length++;
+            } else if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z')) {
+                numeric &= c == 'e' || c == 'E';
+                length++;
+            } else {
+                return length;
+            }
+        }
+    }
+    
+    /**
+     * Valor de un número entero de hasta 15 dígitos, con o sin ".0" (como
+     * escribe Double.toString), que como double es exacto
+     * @return Long.MIN_VALUE si el número no es de esa forma
+     */
+    private long integral(int start, int length) {
+        int i = start;
+        int end = start + length;
+        boolean negative = buffer[i] == '-';
+        if (negative) {
+            i++;
+        }
+        int digitsStart = i;
+        long value = 0;
+        for (; i < end && buffer[i] >= '0' && buffer[i] <= '9'; i++) {
+            value = value * 10 + (buffer[i] - '0');
+        }
+        int digits = i - digitsStart;
+        // -0 es -0.0 como double, que no tiene representación como long
+        if (digits == 0 || digits > 15 || (negative && value == 0)) {
+            return Long.MIN_VALUE;
+        }
+        if (i < end) {
+            if (buffer[i] != '.' || i + 1 == end) {
+                return Long.MIN_VALUE;
+            }
+            for (i++; i < end; i++) {
+                if (buffer[i] != '0') {
+                    return Long.MIN_VALUE;
+                }
+            }
+        }
+        return negative ? -value : value;
+    }
+    
+    private long parseLong(int start, int length) {
+        int i = start;
+        int end = start + length;
+        boolean negative = buffer[i] == '-';
+        if (negative) {
+            i++;
+        }
+        if (i == end || end - i > 18) {
+            // Sin dígitos, o podría desbordar: se deja la validación a Long.parseLong
+            String text = new String(buffer, start, length);
+            try {
+                return Long.parseLong(text);
+            } catch (NumberFormatException e) {
+                throw error("se esperaba un número entero: " + text);
+            }
+        }
+        long value = 0;
+        for (; i < end; i++) {
+            char c = buffer[i];
+            if (c < '0' || c > '9') {
+                throw error("se esperaba un número entero: " + new String(buffer, start, length));
+            }
+            value = value * 10 + (c - '0');
+        }
+        return negative ? -value : value;
+    }
+    
+    /**
+     * @param end posición de la comilla que cierra el nombre
+     */
+    private String cachedName(int hash, int end) {
+        int length = end - position;
+        int slot = hash & (NAME_CACHE - 1);
+        String name = names[slot];
+        if (name == null || name.length() != length || !sameChars(name, position)) {
+            name = new String(buffer, position, length);
+            names[slot] = name;
+        }
+        position = end + 1;
+        return name;
+    }
+    
+    private boolean sameChars(String text, int start) {
+        for (int i = 0; i < text.length(); i++) {
+            if (buffer[start + i] != text.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Salta un texto cuya comilla inicial ya se consumió, sin armarlo
+     */
+    private void skipString() {
+        while (true) {
+            if (position == limit && !fill(1)) {
+                throw error("falta cerrar un texto");
+            }
+            char c = buffer[position++];
+            if (c == '"') {
+                return;
+            }
+            if (c == '\\') {
+                if (position == limit && !fill(1)) {
+                    throw error("falta cerrar un texto");
+                }
+                position++;
+            }
+        }
+    }
+    
+    /**
+     * Lee un texto cuya comilla inicial ya se consumió
+     */
+    private String string() {
+        // Caso común: sin escapes y completo dentro del búfer
+        for (int i = position; i < limit; i++) {
+            char c = buffer[i];
+            if (c == '"') {
+                String text = new String(buffer, position, i - position);
+                position = i + 1;
+                return text;
+            }
+            if (c == '\\') {
+                break;
+            }
+        }
+        StringBuilder text = new StringBuilder();
+        while (true) {
+            if (position == limit && !fill(1)) {
+                throw error("falta cerrar un texto");
+            }
+            char c = buffer[position++];
+            if (c == '"') {
+                return text.toString();
+            }
+            if (c != '\\') {
+                text.append(c);
+                continue;
+            }
+            if (position == limit && !fill(1)) {
+                throw error("falta cerrar un texto");
+            }
+            char escaped = buffer[position++];
+            switch (escaped) {
+                case 'b': text.append('\b'); break;
+                case 'f': text.append('\f'); break;
+                case 'n': text.append('\n'); break;
+                case 'r': text.append('\r'); break;
+                case 't': text.append('\t'); break;
+                case 'u':
+                    if (limit - position < 4 && !fill(4)) {
+                        throw error("secuencia \\u incompleta");
+                    }
+                    int code = 0;
+                    for (int i = 0; i < 4; i++) {
+                        int digit = Character.digit(buffer[position + i], 16);
+                        if (digit < 0) {
+                            throw error("secuencia \\u inválida");
+                        }
+                        code = code * 16 + digit;
+                    }
+                    text.append((char) code);
+                    position += 4;
+                    break;
+                default:
+                    text.append(escaped);
+                    break;
+            }
+        }
+    }
+    
+    /**
+     * @return el siguiente carácter que no es espacio (sin consumirlo), o -1
+     * al final del documento
+     */
+    private int nextNonWhitespace() {
+        while (true) {
+            if (position == limit && !fill(1)) {
+                return -1;
+            }
+            char c = buffer[position];
+            if (c != ' ' && c != '\t' && c != '\n' && c != '\r') {
+                return c;
+            }
+            position++;
+        }
+    }
+    
+    /**
+     * Mueve lo que queda sin leer al inicio del búfer y lee más hasta tener
+     * al menos minimum caracteres sin leer
+     * @return false si el documento terminó antes
+     */
+    private boolean fill(int minimum) {
+        if (in == null) {
+            return limit - position >= minimum;
+        }
+        int remaining = limit - position;
+        if (minimum > buffer.length) {
+            char[] grown = new char[Math.max(buffer.length * 2, minimum)];
+            System.arraycopy(buffer, position, grown, 0, remaining);
+            buffer = grown;
+        } else {
+            System.arraycopy(buffer, position, buffer, 0, remaining);
+        }
+        consumed += position;
+        position = 0;
+        limit = remaining;
+        try {
+            while (limit < minimum) {
+                int read = in.read(buffer, limit, buffer.length - limit);
+                if (read < 0) {
+                    return false;
+                }
+                limit += read;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return true;
+    }
+}
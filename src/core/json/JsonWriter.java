@@ -0,0 +1,369 @@
+package core.json;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Escritor de JSON en streaming: codifica directamente a UTF-8 en un búfer
+ * propio y lo vacía en el OutputStream (o en el ByteBuffer) cuando se llena,
+ * sin armar textos ni árboles intermedios. Lleva el anidamiento para poner
+ * las comas y los dos puntos; usarlo en un orden inválido (un valor sin
+ * nombre dentro de un objeto, cerrar lo que no está abierto) lanza
+ * IllegalStateException.
+ *
+ * No es seguro para varios hilos; se usa uno por respuesta o por archivo.
+ */
+public final class JsonWriter implements Closeable, Flushable {
+    
+    private static final int DEFAULT_BUFFER = 8192;
+    // Lo máximo que ocupa un carácter escrito (\\uXXXX)
+    private static final int MAX_CHAR_BYTES = 6;
+    private static final byte[] HEX = "0123456789abcdef".getBytes();
+    private static final byte[] TRUE = "true".getBytes();
+    private static final byte[] FALSE = "false".getBytes();
+    private static final byte[] NULL = "null".getBytes();
+    
+    // Estados de cada nivel de anidamiento
+    private static final int EMPTY_DOCUMENT = 0;
+    private static final int NONEMPTY_DOCUMENT = 1;
+    private static final int EMPTY_ARRAY = 2;
+    private static final int NONEMPTY_ARRAY = 3;
+    private static final int EMPTY_OBJECT = 4;
+    private static final int NONEMPTY_OBJECT = 5;
+    private static final int DANGLING_NAME = 6;
+    
+    private final OutputStream out;
+    private final ByteBuffer target;
+    private final byte[] buffer;
+    private int position;
+    private int[] stack = new int[32];
+    private int depth;
+    
+    public JsonWriter(OutputStream out) {
+        this(out, DEFAULT_BUFFER);
+    }
+    
+    public JsonWriter(OutputStream out, int bufferSize) {
+        this.out = out;
+        this.target = null;
+        this.buffer = new byte[Math.max(bufferSize, 64)];
+        push(EMPTY_DOCUMENT);
+    }
+    
+    /**
+     * Escribe en el ByteBuffer a partir de su posición; si no alcanza lanza
+     * BufferOverflowException
+     */
+    public JsonWriter(ByteBuffer target) {
+        this.out = null;
+        this.target = target;
+        this.buffer = new byte[DEFAULT_BUFFER];
+        push(EMPTY_DOCUMENT);
+    }
+    
+    public JsonWriter beginObject() throws IOException {
+        beforeValue();
+        push(EMPTY_OBJECT);
+        write('{');
+        return this;
+    }
+    
+    public JsonWriter endObject() throws IOException {
+        int scope = peekScope();
+        if (scope != EMPTY_OBJECT && scope != NONEMPTY_OBJECT) {
+            throw new IllegalStateException("No hay un objeto abierto para cerrar");
+        }
+        depth--;
+        write('}');
+        return this;
+    }
+    
+    public JsonWriter beginArray() throws IOException {
+        beforeValue();
+        push(EMPTY_ARRAY);
+        write('[');
+        return this;
+    }
+    
+    public JsonWriter endArray() throws IOException {
+        int scope = peekScope();
+        if (scope != EMPTY_ARRAY && scope != NONEMPTY_ARRAY) {
+            throw new IllegalStateException("No hay un arreglo abierto para cerrar");
+        }
+        depth--;
+        write(']');
+        return this;
+    }
+    
+    /**
+     * Nombre del siguiente campo del objeto abierto
+     */
+    public JsonWriter name(String name) throws IOException {
+        int scope = peekScope();
+        if (scope == NONEMPTY_OBJECT) {
+            write(',');
+        } else if (scope != EMPTY_OBJECT) {
+            throw new IllegalStateException("Solo se puede escribir un nombre dentro de un objeto");
+        }
+        stack[depth - 1] = DANGLING_NAME;
+        string(name);
+        write(':');
+        return this;
+    }
+    
+    public JsonWriter value(String value) throws IOException {
+        if (value == null) {
+            return nullValue();
+        }
+        beforeValue();
+        string(value);
+        return this;
+    }
+    
+    public JsonWriter value(long value) throws IOException {
+        beforeValue();
+        ensure(20);
+        if (value == Long.MIN_VALUE) {
+            ascii("-9223372036854775808");
+            return this;
+        }
+        if (value < 0) {
+            buffer[position++] = '-';
+            value = -value;
+        }
+        // Los dígitos se escriben de atrás hacia adelante
+        int digits = 1;
+        for (long rest = value / 10; rest > 0; rest /= 10) {
+            digits++;
+        }
+        int end = position + digits;
+        for (int i = end - 1; i >= position; i--) {
+            buffer[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        position = end;
+        return this;
+    }
+    
+    /**
+     * @throws IllegalArgumentException si el valor es NaN o infinito, que
+     * JSON no puede representar
+     */
+    public JsonWriter value(double value) throws IOException {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            throw new IllegalArgumentException("JSON no admite el número " + value);
+        }
+        beforeValue();
+        ascii(Double.toString(value));
+        return this;
+    }
+    
+    public JsonWriter value(boolean value) throws IOException {
+        beforeValue();
+        bytes(value ? TRUE : FALSE);
+        return this;
+    }
+    
+    public JsonWriter nullValue() throws IOException {
+        beforeValue();
+        bytes(NULL);
+        return this;
+    }
+    
+    /**
+     * Vacía el búfer en el destino
+     */
+    @Override
+    public void flush() throws IOException {
+        drain();
+        if (out != null) {
+            out.flush();
+        }
+    }
+    
+    /**
+     * Vacía el búfer y cierra el OutputStream. No verifica que el documento
+     * esté completo.
+     */
+    @Override
+    public void close() throws IOException {
+        drain();
+        if (out != null) {
+            out.close();
+        }
+    }
+    
+    private void push(int scope) {
+        if (depth == stack.length) {
+            int[] grown = new int[depth * 2];
+            System.arraycopy(stack, 0, grown, 0, depth);
+            stack = grown;
+        }
+        stack[depth++] = scope;
+    }
+    
+    private int peekScope() {
+        return stack[depth - 1];
+    }
+    
+    /**
+     * Pone la coma o verifica que haya un nombre antes de escribir un valor
+     */
+    private void beforeValue() throws IOException {
+        switch (peekScope()) {
+            case EMPTY_DOCUMENT:
+                stack[depth - 1] = NONEMPTY_DOCUMENT;
+                break;
+            case EMPTY_ARRAY:
+                stack[depth - 1] = NONEMPTY_ARRAY;
+                break;
+            case NONEMPTY_ARRAY:
+                write(',');
+                break;
+            case DANGLING_NAME:
+                stack[depth - 1] = NONEMPTY_OBJECT;
+                break;
+            case NONEMPTY_DOCUMENT:
+                throw new IllegalStateException("El documento ya tiene un valor");
+            default:
+                throw new IllegalStateException("Falta el nombre del campo");
+        }
+    }
+    
+    private void string(String text) throws IOException {
+        int length = text.length();
+        // Cabe seguro (3 bytes por carácter, o 6 si se escapa): se escribe sin
+        // revisar el búfer en cada carácter
+        if (length * (long) MAX_CHAR_BYTES + 2 > buffer.length) {
+            longString(text);
+            return;
+        }
+        ensure(length * MAX_CHAR_BYTES + 2);
+        byte[] bytes = buffer;
+        int p = position;
+        bytes[p++] = '"';
+        int i = 0;
+        // Caso común: ASCII sin nada que escapar
+        for (; i < length; i++) {
+            char c = text.charAt(i);
+            if (c >= 0x80 || c < 0x20 || c == '"' || c == '\\') {
+                break;
+            }
+            bytes[p++] = (byte) c;
+        }
+        position = p;
+        for (; i < length; i++) {
+            i = character(text, i);
+        }
+        buffer[position++] = '"';
+    }
+    
+    /**
+     * Texto que podría no caber en el búfer: se revisa antes de cada carácter
+     */
+    private void longString(String text) throws IOException {
+        ensure(1);
+        buffer[position++] = '"';
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            if (position + MAX_CHAR_BYTES > buffer.length) {
+                drain();
+            }
+            i = character(text, i);
+        }
+        ensure(1);
+        buffer[position++] = '"';
+    }
+    
+    /**
+     * Escribe el carácter i del texto, que debe caber en el búfer
+     * @return el índice del último carácter usado (i + 1 si era un par de surrogates)
+     */
+    private int character(String text, int i) {
+        char c = text.charAt(i);
+        if (c < 0x80) {
+            if (c == '"' || c == '\\') {
+                buffer[position++] = '\\';
+                buffer[position++] = (byte) c;
+            } else if (c >= 0x20) {
+                buffer[position++] = (byte) c;
+            } else if (c == '\n') {
+                buffer[position++] = '\\';
+                buffer[position++] = 'n';
+            } else if (c == '\r') {
+                buffer[position++] = '\\';
+                buffer[position++] = 'r';
+            } else if (c == '\t') {
+                buffer[position++] = '\\';
+                buffer[position++] = 't';
+            } else {
+                escape(c);
+            }
+        } else if (c < 0x800) {
+            buffer[position++] = (byte) (0xc0 | (c >> 6));
+            buffer[position++] = (byte) (0x80 | (c & 0x3f));
+        } else if (Character.isHighSurrogate(c) && i + 1 < text.length() && Character.isLowSurrogate(text.charAt(i + 1))) {
+            int codePoint = Character.toCodePoint(c, text.charAt(++i));
+            buffer[position++] = (byte) (0xf0 | (codePoint >> 18));
+            buffer[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3f));
+            buffer[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3f));
+            buffer[position++] = (byte) (0x80 | (codePoint & 0x3f));
+        } else if (Character.isSurrogate(c)) {
+            // Surrogate sin pareja: no tiene UTF-8 válido, se conserva escapado
+            escape(c);
+        } else {
+            buffer[position++] = (byte) (0xe0 | (c >> 12));
+            buffer[position++] = (byte) (0x80 | ((c >> 6) & 0x3f));
+            buffer[position++] = (byte) (0x80 | (c & 0x3f));
+        }
+        return i;
+    }
+    
+    private void escape(char c) {
+        buffer[position++] = '\\';
+        buffer[position++] = 'u';
+        buffer[position++] = HEX[(c >> 12) & 0xf];
+        buffer[position++] = HEX[(c >> 8) & 0xf];
+        buffer[position++] = HEX[(c >> 4) & 0xf];
+        buffer[position++] = HEX[c & 0xf];
+    }
+    
+    private void ascii(String text) throws IOException {
+        ensure(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            buffer[position++] = (byte) text.charAt(i);
+        }
+    }
+    
+    private void bytes(byte[] bytes) throws IOException {
+        ensure(bytes.length);
+        System.arraycopy(bytes, 0, buffer, position, bytes.length);
+        position += bytes.length;
+    }
+    
+    private void write(char c) throws IOException {
+        ensure(1);
+        buffer[position++] = (byte) c;
+    }
+    
+    private void ensure(int bytes) throws IOException {
+        if (position + bytes > buffer.length) {
+            drain();
+        }
+    }
+    
+    private void drain() throws IOException {
+        if (position == 0) {
+            return;
+        }
+        if (out != null) {
+            out.write(buffer, 0, position);
+        } else {
+            target.put(buffer, 0, position);
+        }
+        position = 0;
+    }
+}
@@ -0,0 +1,396 @@
+package core.json;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import core.controller.BookData;
+import core.controller.PersonData;
+import core.controller.PublisherData;
+import core.controller.PurchaseData;
+import core.controller.StandData;
+import core.model.Audiobook;
+import core.model.Author;
+import core.model.Book;
+import core.model.DigitalBook;
+import core.model.Manager;
+import core.model.Narrator;
+import core.model.Page;
+import core.model.Person;
+import core.model.PrintedBook;
+import core.model.Publisher;
+import core.model.Response;
+import core.model.Stand;
+
+/**
+ * JSON de los tipos del modelo y de Response, escrito y leído a mano con
+ * JsonWriter y JsonReader (sin reflexión).
+ *
+ * Las relaciones entre entidades se escriben como claves (IDs de autores,
+ * NIT de la editorial, ...) para no recorrer los ciclos Autor-Libro y
+ * Editorial-Stand. Por lo mismo, la lectura no arma entidades sino los datos
+ * de entrada de los controladores (PersonData, BookData, ...), que son los
+ * que resuelven esas claves.
+ *
+ * Se escriben las copias que retornan los controladores, hechas dentro de
+ * Storage.copy(): las relaciones de todas son de un mismo instante
+ * confirmado y no cambian mientras se escriben.
+ */
+public final class ModelCodec {
+    
+    private ModelCodec() {
+    }
+    
+    /**
+     * Escribe la respuesta. Si sus datos son una lista, solo se escriben los
+     * elementos de offset a offset + limit y se agrega el total; si son una
+     * Page, que ya es la página pedida, se escriben sus elementos, su total y
+     * su offset.
+     */
+    public static void writeResponse(JsonWriter out, Response<?> response, int offset, int limit) throws IOException {
+        out.beginObject();
+        out.name("status").value(response.getStatus().name());
+        out.name("code").value(response.getStatus().getCode());
+        out.name("message").value(response.getMessage());
+        Object data = response.getData();
+        if (data instanceof Page) {
+            Page<?> page = (Page<?>) data;
+            out.name("total").value(page.getTotal());
+            out.name("offset").value(page.getOffset());
+            out.name("data").beginArray();
+            for (Object item : page.getItems()) {
+                writeValue(out, item);
+            }
+            out.endArray();
+        } else if (data instanceof List) {
+            List<?> items = (List<?>) data;
+            int total = items.size();
+            int from = Math.min(offset, total);
+            int to = (int) Math.min((long) from + limit, total);
+            out.name("total").value(total);
+            out.name("offset").value(from);
+            out.name("data").beginArray();
+            for (int i = from; i < to; i++) {
+                writeValue(out, items.get(i));
+            }
+            out.endArray();
+        } else if (data != null) {
+            out.name("data");
+            writeValue(out, data);
+        }
+        out.endObject();
+    }
+    
+    /**
+     * Escribe una entidad del modelo, una Response completa, un número, un
+     * booleano o, para cualquier otro objeto, su toString()
+     */
+    public static void writeValue(JsonWriter out, Object value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+        } else if (value instanceof Response) {
+            writeResponse(out, (Response<?>) value, 0, Integer.MAX_VALUE);
+        } else if (value instanceof Book) {
+            writeBook(out, (Book) value);
+        } else if (value instanceof Person) {
+            writePerson(out, (Person) value);
+        } else if (value instanceof Publisher) {
+            writePublisher(out, (Publisher) value);
+        } else if (value instanceof Stand) {
+            writeStand(out, (Stand) value);
+        } else if (value instanceof Double || value instanceof Float) {
+            out.value(((Number) value).doubleValue());
+        } else if (value instanceof Number) {
+            out.value(((Number) value).longValue());
+        } else if (value instanceof Boolean) {
+            out.value((boolean) (Boolean) value);
+        } else {
+            out.value(value.toString());
+        }
+    }
+    
+    public static void writeBook(JsonWriter out, Book book) throws IOException {
+        out.beginObject();
+        if (book instanceof PrintedBook) {
+            out.name("type").value("printed");
+        } else if (book instanceof DigitalBook) {
+            out.name("type").value("digital");
+        } else {
+            out.name("type").value("audiobook");
+        }
+        out.name("isbn").value(book.getIsbn());
+        out.name("title").value(book.getTitle());
+        out.name("authorIds").beginArray();
+        for (Author author : book.getAuthors()) {
+            out.value(author.getId());
+        }
+        out.endArray();
+        out.name("genre").value(book.getGenre());
+        out.name("format").value(book.getFormat());
+        out.name("value").value(book.getValue());
+        out.name("publisherNit").value(book.getPublisher().getNit());
+        if (book instanceof PrintedBook) {
+            PrintedBook printed = (PrintedBook) book;
+            out.name("pages").value(printed.getPages());
+            out.name("copies").value(printed.getCopies());
+        } else if (book instanceof DigitalBook) {
+            out.name("hyperlink").value(((DigitalBook) book).getHyperlink());
+        } else {
+            Audiobook audiobook = (Audiobook) book;
+            out.name("duration").value(audiobook.getDuration());
+            out.name("narratorId").value(audiobook.getNarrador().getId());
+        }
+        out.endObject();
+    }
+    
+    public static void writePerson(JsonWriter out, Person person) throws IOException {
+        out.beginObject();
+        if (person instanceof Author) {
+            out.name("type").value("author");
+        } else if (person instanceof Manager) {
+            out.name("type").value("manager");
+        } else {
+            out.name("type").value("narrator");
+        }
+        out.name("id").value(person.getId());
+        out.name("firstname").value(person.getFirstname());
+        out.name("lastname").value(person.getLastname());
+        if (person instanceof Author) {
+            Author author = (Author) person;
+            out.name("bookQuantity").value(author.getBookQuantity());
+            out.name("publisherQuantity").value(author.getPublisherQuantity());
+        } else if (person instanceof Manager) {
+            Publisher publisher = ((Manager) person).getPublisher();
+            out.name("publisherNit").value(publisher == null ? null : publisher.getNit());
+        } else if (person instanceof Narrator) {
+            out.name("bookQuantity").value(((Narrator) person).getBookQuantity());
+        }
+        out.endObject();
+    }
+    
+    public static void writePublisher(JsonWriter out, Publisher publisher) throws IOException {
+        out.beginObject();
+        out.name("nit").value(publisher.getNit());
+        out.name("name").value(publisher.getName());
+        out.name("address").value(publisher.getAddress());
+        out.name("managerId").value(publisher.getManager().getId());
+        out.name("standQuantity").value(publisher.getStandQuantity());
+        out.endObject();
+    }
+    
+    public static void writeStand(JsonWriter out, Stand stand) throws IOException {
+        out.beginObject();
+        out.name("id").value(stand.getId());
+        out.name("price").value(stand.getPrice());
+        out.name("publisherNits").beginArray();
+        for (Publisher publisher : stand.getPublishers()) {
+            out.value(publisher.getNit());
+        }
+        out.endArray();
+        out.endObject();
+    }
+    
+    /**
+     * Lee {"id","firstname","lastname"}; los campos desconocidos se ignoran
+     * @throws IllegalArgumentException si el JSON es inválido o falta un campo
+     */
+    public static PersonData readPerson(JsonReader in) {
+        Long id = null;
+        String firstname = null;
+        String lastname = null;
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "id": id = readLong(in); break;
+                case "firstname": firstname = readString(in); break;
+                case "lastname": lastname = readString(in); break;
+                default: in.skipValue(); break;
+            }
+        }
+        in.endObject();
+        return new PersonData(required(id, "id"), required(firstname, "firstname"), required(lastname, "lastname"));
+    }
+    
+    /**
+     * Lee {"nit","name","address","managerId"}
+     */
+    public static PublisherData readPublisher(JsonReader in) {
+        String nit = null;
+        String name = null;
+        String address = null;
+        Long managerId = null;
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "nit": nit = readString(in); break;
+                case "name": name = readString(in); break;
+                case "address": address = readString(in); break;
+                case "managerId": managerId = readLong(in); break;
+                default: in.skipValue(); break;
+            }
+        }
+        in.endObject();
+        return new PublisherData(required(nit, "nit"), required(name, "name"), required(address, "address"),
+                                 required(managerId, "managerId"));
+    }
+    
+    /**
+     * Lee {"id","price"}
+     */
+    public static StandData readStand(JsonReader in) {
+        Long id = null;
+        Double price = null;
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "id": id = readLong(in); break;
+                case "price": price = readDouble(in); break;
+                default: in.skipValue(); break;
+            }
+        }
+        in.endObject();
+        return new StandData(required(id, "id"), required(price, "price"));
+    }
+    
+    /**
+     * Lee {"standIds":[...],"publisherNits":[...]}
+     */
+    public static PurchaseData readPurchase(JsonReader in) {
+        List<Long> standIds = null;
+        List<String> publisherNits = null;
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "standIds": standIds = readLongs(in, "standIds"); break;
+                case "publisherNits": publisherNits = readStrings(in, "publisherNits"); break;
+                default: in.skipValue(); break;
+            }
+        }
+        in.endObject();
+        return new PurchaseData(required(standIds, "standIds"), required(publisherNits, "publisherNits"));
+    }
+    
+    /**
+     * Lee un libro con el campo "type" (printed, digital o audiobook, en
+     * cualquier posición del objeto) y los campos de ese tipo, los mismos que
+     * escribe writeBook; "hyperlink" es opcional
+     */
+    public static BookData readBook(JsonReader in) {
+        String type = null;
+        String isbn = null;
+        String title = null;
+        List<Long> authorIds = null;
+        String genre = null;
+        String format = null;
+        Double value = null;
+        String publisherNit = null;
+        Integer pages = null;
+        Integer copies = null;
+        String hyperlink = null;
+        Integer duration = null;
+        Long narratorId = null;
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "type": type = readString(in); break;
+                case "isbn": isbn = readString(in); break;
+                case "title": title = readString(in); break;
+                case "authorIds": authorIds = readLongs(in, "authorIds"); break;
+                case "genre": genre = readString(in); break;
+                case "format": format = readString(in); break;
+                case "value": value = readDouble(in); break;
+                case "publisherNit": publisherNit = readString(in); break;
+                case "pages": pages = readInt(in); break;
+                case "copies": copies = readInt(in); break;
+                case "hyperlink": hyperlink = readString(in); break;
+                case "duration": duration = readInt(in); break;
+                case "narratorId": narratorId = readLong(in); break;
+                default: in.skipValue(); break;
+            }
+        }
+        in.endObject();
+        switch (required(type, "type")) {
+            case "printed":
+                return BookData.printed(required(title, "title"), required(authorIds, "authorIds"), required(isbn, "isbn"),
+                                        required(genre, "genre"), required(format, "format"), required(value, "value"),
+                                        required(publisherNit, "publisherNit"), required(pages, "pages"), required(copies, "copies"));
+            case "digital":
+                return BookData.digital(required(title, "title"), required(authorIds, "authorIds"), required(isbn, "isbn"),
+                                        required(genre, "genre"), required(format, "format"), required(value, "value"),
+                                        required(publisherNit, "publisherNit"), hyperlink);
+            case "audiobook":
+                return BookData.audiobook(required(title, "title"), required(authorIds, "authorIds"), required(isbn, "isbn"),
+                                          required(genre, "genre"), required(format, "format"), required(value, "value"),
+                                          required(publisherNit, "publisherNit"), required(duration, "duration"),
+                                          required(narratorId, "narratorId"));
+            default:
+                throw new IllegalArgumentException("Tipo de libro desconocido: " + type);
+        }
+    }
+    
+    // Los lectores de campos devuelven null para null; required lo rechaza después
+    
+    private static String readString(JsonReader in) {
+        if (in.peek() == JsonReader.Token.NULL) {
+            in.nextNull();
+            return null;
+        }
+        return in.nextString();
+    }
+    
+    private static Long readLong(JsonReader in) {
+        if (in.peek() == JsonReader.Token.NULL) {
+            in.nextNull();
+            return null;
+        }
+        return in.nextLong();
+    }
+    
+    private static Integer readInt(JsonReader in) {
+        if (in.peek() == JsonReader.Token.NULL) {
+            in.nextNull();
+            return null;
+        }
+        return in.nextInt();
+    }
+    
+    private static Double readDouble(JsonReader in) {
+        if (in.peek() == JsonReader.Token.NULL) {
+            in.nextNull();
+            return null;
+        }
+        return in.nextDouble();
+    }
+    
+    private static List<Long> readLongs(JsonReader in, String name) {
+        if (in.peek() != JsonReader.Token.BEGIN_ARRAY) {
+            throw new IllegalArgumentException("El campo " + name + " debe ser un arreglo");
+        }
+        List<Long> values = new ArrayList<>();
+        in.beginArray();
+        while (in.hasNext()) {
+            values.add(in.nextLong());
+        }
+        in.endArray();
+        return values;
+    }
+    
+    private static List<String> readStrings(JsonReader in, String name) {
+        if (in.peek() != JsonReader.Token.BEGIN_ARRAY) {
+            throw new IllegalArgumentException("El campo " + name + " debe ser un arreglo");
+        }
+        List<String> values = new ArrayList<>();
+        in.beginArray();
+        while (in.hasNext()) {
+            values.add(in.nextString());
+        }
+        in.endArray();
+        return values;
+    }
+    
+    private static <T> T required(T value, String name) {
+        if (value == null) {
+            throw new IllegalArgumentException("Falta el campo " + name);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,43 @@
+package core.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento de Java Flight Recorder por cada llamada a un método de
+ * controlador (ver OperationMetrics). Con la grabación apagada no se llena
+ * ningún campo, así que solo cuesta la comprobación de shouldCommit().
+ */
+@Name("core.ControllerCall")
+@Label("Controller Call")
+@Category({"Megaferia", "Controllers"})
+@Description("Llamada a un método de controlador con su StatusCode")
+@StackTrace(false)
+class ControllerCallEvent extends jdk.jfr.Event {
+    
+    @Label("Operation")
+    String operation;
+    
+    @Label("Entity Type")
+    String entityType;
+    
+    // ID, ISBN, NIT o filtro de la consulta; vacío si el método no recibe clave
+    @Label("Key")
+    String key;
+    
+    // En los métodos en lote, el del primer error o el de la primera respuesta
+    @Label("Status")
+    String status;
+    
+    @Label("Status Code")
+    int statusCode;
+    
+    @Label("Items")
+    int items;
+    
+    @Label("Errors")
+    int errors;
+}
@@ -0,0 +1,127 @@
+package core.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histograma de latencias en nanosegundos con error relativo acotado: los
+ * valores menores a 64 se cuentan exactos y los demás en 32 rangos por
+ * cada potencia de 2 (error menor al 3%). Ocupa siempre lo mismo, sin
+ * importar cuántos valores se registren, y se puede registrar desde varios
+ * hilos a la vez.
+ *
+ * Los percentiles se informan con el límite superior del rango, así que
+ * nunca quedan por debajo del valor real.
+ */
+public final class LatencyHistogram {
+    
+    private static final int SUB_BITS = 5;
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+    // Los valores menores a EXACT tienen su propio contador
+    private static final int EXACT = SUB_COUNT * 2;
+    // Valores mayores (unos 18 minutos) se cuentan en el último rango
+    private static final int MAX_SHIFT = 35;
+    private static final int BUCKETS = EXACT + MAX_SHIFT * SUB_COUNT;
+    
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    // LongAdder: los hilos que registran a la vez no compiten por el mismo contador
+    private final LongAdder count = new LongAdder();
+    private final LongAdder total = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+    
+    static int bucketOf(long value) {
+        if (value < EXACT) {
+            return (int) Math.max(0, value);
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BITS;
+        if (shift > MAX_SHIFT) {
+            return BUCKETS - 1;
+        }
+        return EXACT + (shift - 1) * SUB_COUNT + (int) (value >> shift) - SUB_COUNT;
+    }
+    
+    /**
+     * Mayor valor que cae en el rango
+     */
+    static long upperBound(int bucket) {
+        if (bucket < EXACT) {
+            return bucket;
+        }
+        int shift = (bucket - EXACT) / SUB_COUNT + 1;
+        long mantissa = (bucket - EXACT) % SUB_COUNT + SUB_COUNT;
+        return ((mantissa + 1) << shift) - 1;
+    }
+    
+    public void record(long nanos) {
+        counts.incrementAndGet(bucketOf(nanos));
+        count.increment();
+        total.add(nanos);
+        // El máximo casi nunca cambia: se evita escribir si no hace falta
+        if (nanos > max.get()) {
+            max.accumulateAndGet(nanos, Math::max);
+        }
+    }
+    
+    /**
+     * Suma los valores de otro histograma a este
+     */
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < BUCKETS; i++) {
+            long value = other.counts.get(i);
+            if (value != 0) {
+                counts.addAndGet(i, value);
+            }
+        }
+        count.add(other.count.sum());
+        total.add(other.total.sum());
+        max.accumulateAndGet(other.max.get(), Math::max);
+    }
+    
+    /**
+     * Vuelve a cero. Los valores registrados al mismo tiempo pueden quedar
+     * contados solo en parte.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+        count.reset();
+        total.reset();
+        max.set(0);
+    }
+    
+    public long getCount() {
+        return count.sum();
+    }
+    
+    public double getMean() {
+        long values = count.sum();
+        return values == 0 ? 0 : (double) total.sum() / values;
+    }
+    
+    public long getMax() {
+        return max.get();
+    }
+    
+    /**
+     * @param percentile entre 0 y 100 (por ejemplo 99.9)
+     * @return la latencia bajo la cual queda ese porcentaje de los valores,
+     *         o 0 si el histograma está vacío
+     */
+    public long getPercentile(double percentile) {
+        long values = count.sum();
+        if (values == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * values));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(upperBound(i), max.get());
+            }
+        }
+        return max.get();
+    }
+}
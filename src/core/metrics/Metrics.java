@@ -0,0 +1,186 @@
+package core.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import core.model.StatusCode;
+import core.storage.BookStorage;
+import core.storage.PersonStorage;
+import core.storage.PublisherStorage;
+import core.storage.StandStorage;
+
+/**
+ * Registro de métricas de la aplicación: una OperationMetrics por método de
+ * controlador, las transacciones y lecturas de los Storage y la cantidad de
+ * entidades de cada Storage. register() lo publica como MXBean para verlo
+ * con jconsole o VisualVM mientras la feria está en marcha.
+ *
+ * Registrar una medición solo usa contadores atómicos (sin candados); el
+ * costo por llamada lo dominan las dos lecturas de System.nanoTime().
+ */
+public final class Metrics implements MetricsMXBean {
+    
+    public static final String OBJECT_NAME = "core.metrics:type=Metrics";
+    
+    private static final Metrics INSTANCE = new Metrics();
+    
+    // Ordenadas por nombre para mostrarlas agrupadas por controlador
+    private final Map<String, OperationMetrics> operations = new ConcurrentSkipListMap<>();
+    private final OperationMetrics writes = new OperationMetrics("Storage.write", "Storage");
+    private final LongAdder commits = new LongAdder();
+    private final LongAdder rollbacks = new LongAdder();
+    private final LongAdder reads = new LongAdder();
+    private final LongAdder readRetries = new LongAdder();
+    private final LongAdder snapshots = new LongAdder();
+    
+    private Metrics() {
+    }
+    
+    public static Metrics getInstance() {
+        return INSTANCE;
+    }
+    
+    /**
+     * Métricas de la operación con ese nombre (por convención
+     * "Controlador.método") sobre el tipo de entidad indicado; se crean la
+     * primera vez
+     */
+    public static OperationMetrics operation(String name, Class<?> entityType) {
+        return INSTANCE.operations.computeIfAbsent(name, n -> new OperationMetrics(n, entityType.getSimpleName()));
+    }
+    
+    /**
+     * Publica las métricas en el servidor de MBeans de la plataforma. No hace
+     * nada si ya estaban publicadas.
+     */
+    public static void register() throws JMException {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(OBJECT_NAME);
+        if (!server.isRegistered(name)) {
+            server.registerMBean(INSTANCE, name);
+        }
+    }
+    
+    public void writeFinished(long nanos, boolean committed) {
+        if (committed) {
+            commits.increment();
+            writes.record(nanos, StatusCode.OK);
+        } else {
+            rollbacks.increment();
+            writes.record(nanos, StatusCode.CONFLICT);
+        }
+    }
+    
+    public void readFinished(boolean retried) {
+        reads.increment();
+        if (retried) {
+            readRetries.increment();
+        }
+    }
+    
+    public void snapshotTaken() {
+        snapshots.increment();
+    }
+    
+    /**
+     * Las operaciones que ya tienen llamadas, para mostrarlas o exportarlas
+     */
+    public List<OperationMetrics> getOperationMetrics() {
+        List<OperationMetrics> called = new ArrayList<>();
+        for (OperationMetrics operation : operations.values()) {
+            if (operation.getLatency().getCount() > 0) {
+                called.add(operation);
+            }
+        }
+        return Collections.unmodifiableList(called);
+    }
+    
+    @Override
+    public List<OperationStats> getOperations() {
+        List<OperationStats> stats = new ArrayList<>();
+        for (OperationMetrics operation : getOperationMetrics()) {
+            stats.add(OperationStats.of(operation));
+        }
+        return stats;
+    }
+    
+    @Override
+    public OperationStats getStorageWrites() {
+        return OperationStats.of(writes);
+    }
+    
+    @Override
+    public long getStorageCommits() {
+        return commits.sum();
+    }
+    
+    @Override
+    public long getStorageRollbacks() {
+        return rollbacks.sum();
+    }
+    
+    @Override
+    public long getStorageReads() {
+        return reads.sum();
+    }
+    
+    @Override
+    public long getStorageReadRetries() {
+        return readRetries.sum();
+    }
+    
+    @Override
+    public long getSnapshots() {
+        return snapshots.sum();
+    }
+    
+    @Override
+    public int getBookCount() {
+        return BookStorage.getInstance().getBookQuantity();
+    }
+    
+    @Override
+    public int getAuthorCount() {
+        return PersonStorage.getInstance().getAuthorQuantity();
+    }
+    
+    @Override
+    public int getManagerCount() {
+        return PersonStorage.getInstance().getManagerQuantity();
+    }
+    
+    @Override
+    public int getNarratorCount() {
+        return PersonStorage.getInstance().getNarratorQuantity();
+    }
+    
+    @Override
+    public int getPublisherCount() {
+        return PublisherStorage.getInstance().getPublisherQuantity();
+    }
+    
+    @Override
+    public int getStandCount() {
+        return StandStorage.getInstance().getStandQuantity();
+    }
+    
+    @Override
+    public void reset() {
+        for (OperationMetrics operation : operations.values()) {
+            operation.reset();
+        }
+        writes.reset();
+        commits.reset();
+        rollbacks.reset();
+        reads.reset();
+        readRetries.reset();
+        snapshots.reset();
+    }
+}
@@ -0,0 +1,50 @@
+package core.metrics;
+
+import java.util.List;
+
+/**
+ * Atributos que se publican por JMX con el nombre Metrics.OBJECT_NAME.
+ * Las latencias están en microsegundos y se acumulan desde el inicio o
+ * desde el último reset().
+ */
+public interface MetricsMXBean {
+    
+    /**
+     * Una fila por cada método de controlador que ya se llamó
+     */
+    List<OperationStats> getOperations();
+    
+    /**
+     * Transacciones de Storage.write(), incluida la espera por el candado
+     * y por el disco
+     */
+    OperationStats getStorageWrites();
+    
+    long getStorageCommits();
+    
+    long getStorageRollbacks();
+    
+    long getStorageReads();
+    
+    /**
+     * Lecturas optimistas que una escritura invalidó y se repitieron con el
+     * candado de lectura
+     */
+    long getStorageReadRetries();
+    
+    long getSnapshots();
+    
+    int getBookCount();
+    
+    int getAuthorCount();
+    
+    int getManagerCount();
+    
+    int getNarratorCount();
+    
+    int getPublisherCount();
+    
+    int getStandCount();
+    
+    void reset();
+}
@@ -0,0 +1,147 @@
+package core.metrics;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+import core.model.Response;
+import core.model.StatusCode;
+
+/**
+ * Métricas de una operación de un controlador: histograma de latencias y
+ * cantidad de respuestas por StatusCode. Se obtienen con
+ * Metrics.operation(nombre, tipo) y se guardan en un campo estático del
+ * controlador, así que medir una llamada no consulta ningún mapa.
+ *
+ * Cada llamada emite además un ControllerCallEvent si hay una grabación de
+ * Java Flight Recorder activa.
+ */
+public final class OperationMetrics {
+    
+    private static final StatusCode[] STATUSES = StatusCode.values();
+    
+    private final String name;
+    // Nombre simple de la entidad que maneja la operación, para los eventos JFR
+    private final String entityType;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final AtomicLongArray statuses = new AtomicLongArray(STATUSES.length);
+    
+    OperationMetrics(String name, String entityType) {
+        this.name = name;
+        this.entityType = entityType;
+    }
+    
+    /**
+     * Ejecuta la llamada y registra su duración y el StatusCode de la
+     * respuesta. Si lanza una excepción se cuenta como INTERNAL_SERVER_ERROR.
+     */
+    public <T> Response<T> time(Supplier<Response<T>> call) {
+        return time(null, call);
+    }
+    
+    /**
+     * Igual que time(call), indicando la clave (ID, ISBN, NIT o filtro) que
+     * recibió el método para el evento JFR. Solo se convierte a texto si el
+     * evento se va a grabar.
+     */
+    public <T> Response<T> time(Object key, Supplier<Response<T>> call) {
+        ControllerCallEvent event = new ControllerCallEvent();
+        event.begin();
+        long start = System.nanoTime();
+        Response<T> response;
+        try {
+            response = call.get();
+        } catch (RuntimeException | Error e) {
+            record(System.nanoTime() - start, StatusCode.INTERNAL_SERVER_ERROR);
+            commit(event, key, StatusCode.INTERNAL_SERVER_ERROR, 1, 1);
+            throw e;
+        }
+        record(System.nanoTime() - start, response.getStatus());
+        commit(event, key, response.getStatus(), 1, response.getStatus().getCode() >= 400 ? 1 : 0);
+        return response;
+    }
+    
+    /**
+     * Versión para los métodos en lote: la latencia es la de todo el lote y
+     * se cuenta el StatusCode de cada respuesta
+     */
+    public <T> List<Response<T>> timeAll(Supplier<List<Response<T>>> call) {
+        ControllerCallEvent event = new ControllerCallEvent();
+        event.begin();
+        long start = System.nanoTime();
+        List<Response<T>> responses;
+        try {
+            responses = call.get();
+        } catch (RuntimeException | Error e) {
+            record(System.nanoTime() - start, StatusCode.INTERNAL_SERVER_ERROR);
+            commit(event, null, StatusCode.INTERNAL_SERVER_ERROR, 1, 1);
+            throw e;
+        }
+        latency.record(System.nanoTime() - start);
+        StatusCode summary = responses.isEmpty() ? StatusCode.OK : responses.get(0).getStatus();
+        int errors = 0;
+        for (Response<T> response : responses) {
+            StatusCode status = response.getStatus();
+            statuses.incrementAndGet(status.ordinal());
+            if (status.getCode() >= 400 && errors++ == 0) {
+                summary = status;
+            }
+        }
+        commit(event, null, summary, responses.size(), errors);
+        return responses;
+    }
+    
+    private void commit(ControllerCallEvent event, Object key, StatusCode status, int items, int errors) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.operation = name;
+            event.entityType = entityType;
+            event.key = key == null ? "" : key.toString();
+            event.status = status.name();
+            event.statusCode = status.getCode();
+            event.items = items;
+            event.errors = errors;
+            event.commit();
+        }
+    }
+    
+    void record(long nanos, StatusCode status) {
+        latency.record(nanos);
+        statuses.incrementAndGet(status.ordinal());
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public String getEntityType() {
+        return entityType;
+    }
+    
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+    
+    public long getCount(StatusCode status) {
+        return statuses.get(status.ordinal());
+    }
+    
+    /**
+     * Respuestas con código 400 o superior
+     */
+    public long getErrors() {
+        long errors = 0;
+        for (StatusCode status : STATUSES) {
+            if (status.getCode() >= 400) {
+                errors += statuses.get(status.ordinal());
+            }
+        }
+        return errors;
+    }
+    
+    void reset() {
+        latency.reset();
+        for (int i = 0; i < STATUSES.length; i++) {
+            statuses.set(i, 0);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package core.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import core.model.StatusCode;
+
+/**
+ * Valores de una operación en un momento dado, como los muestra el MBean
+ * (jconsole o VisualVM los presentan como una tabla). Las latencias están
+ * en microsegundos.
+ */
+public final class OperationStats {
+    
+    private final String name;
+    private final long calls;
+    private final long errors;
+    private final double meanMicros;
+    private final double p50Micros;
+    private final double p99Micros;
+    private final double p999Micros;
+    private final double maxMicros;
+    private final Map<String, Long> statuses;
+    
+    OperationStats(String name, LatencyHistogram latency, Map<String, Long> statuses, long errors) {
+        this.name = name;
+        this.calls = latency.getCount();
+        this.errors = errors;
+        this.meanMicros = latency.getMean() / 1000;
+        this.p50Micros = latency.getPercentile(50) / 1000.0;
+        this.p99Micros = latency.getPercentile(99) / 1000.0;
+        this.p999Micros = latency.getPercentile(99.9) / 1000.0;
+        this.maxMicros = latency.getMax() / 1000.0;
+        this.statuses = statuses;
+    }
+    
+    static OperationStats of(OperationMetrics operation) {
+        Map<String, Long> statuses = new LinkedHashMap<>();
+        for (StatusCode status : StatusCode.values()) {
+            long count = operation.getCount(status);
+            if (count > 0) {
+                statuses.put(status.name(), count);
+            }
+        }
+        return new OperationStats(operation.getName(), operation.getLatency(), statuses, operation.getErrors());
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public long getCalls() {
+        return calls;
+    }
+    
+    public long getErrors() {
+        return errors;
+    }
+    
+    public double getMeanMicros() {
+        return meanMicros;
+    }
+    
+    public double getP50Micros() {
+        return p50Micros;
+    }
+    
+    public double getP99Micros() {
+        return p99Micros;
+    }
+    
+    public double getP999Micros() {
+        return p999Micros;
+    }
+    
+    public double getMaxMicros() {
+        return maxMicros;
+    }
+    
+    /**
+     * Cantidad de respuestas por StatusCode (solo los que aparecieron)
+     */
+    public Map<String, Long> getStatuses() {
+        return statuses;
+    }
+}
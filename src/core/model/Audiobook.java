@@ -24,11 +24,9 @@ public class Audiobook extends Book {
     }
     
     @Override
-    public Object clone() throws CloneNotSupportedException {
-        Audiobook cloned = new Audiobook(this.title, new ArrayList<>(this.authors), 
-                                        this.isbn, this.genre, this.format, 
-                                        this.value, this.publisher, this.duration, this.narrador);
-        return cloned;
+    void unlink() {
+        super.unlink();
+        this.narrador.removeBook(this);
     }
     
 }
@@ -1,17 +1,21 @@
 package core.model;
 
-import java.util.ArrayList;
+import java.util.List;
 
 public class Author extends Person {
     
-    private ArrayList<Book> books;
+    // Versiones inmutables (ver Relation): las copias del autor no cambian
+    private Relation<Book> books;
+    // Editoriales distintas de sus libros, actualizadas en cada addBook
+    private Relation<Publisher> publishers;
 
     public Author(long id, String firstname, String lastname) {
         super(id, firstname, lastname);
-        this.books = new ArrayList<>();
+        this.books = Relation.empty();
+        this.publishers = Relation.empty();
     }
 
-    public ArrayList<Book> getBooks() {
+    public List<Book> getBooks() {
         return books;
     }
     
@@ -19,25 +23,29 @@ public class Author extends Person {
         return this.books.size();
     }
     
-    public void addBook(Book book) {
-        this.books.add(book);
+    /**
+     * Un autor tiene pocas editoriales distintas, así que se buscan en la
+     * lista en lugar de mantener un conjunto aparte
+     */
+    void addBook(Book book) {
+        this.books = this.books.with(book);
+        if (!this.publishers.contains(book.getPublisher())) {
+            this.publishers = this.publishers.with(book.getPublisher());
+        }
     }
     
-    public int getPublisherQuantity() {
-        ArrayList<Publisher> publishers = new ArrayList<>();
-        for (Book book : this.books) {
-            if (!publishers.contains(book.getPublisher())) {
-                publishers.add(book.getPublisher());
+    void removeBook(Book book) {
+        this.books = this.books.without(book);
+        for (Book other : this.books) {
+            if (other.getPublisher() == book.getPublisher()) {
+                return;
             }
         }
-        return publishers.size();
+        this.publishers = this.publishers.without(book.getPublisher());
     }
     
-    @Override
-    public Object clone() throws CloneNotSupportedException {
-        Author cloned = new Author(this.id, this.firstname, this.lastname);
-        cloned.books = new ArrayList<>(this.books);
-        return cloned;
+    public int getPublisherQuantity() {
+        return this.publishers.size();
     }
     
 }
@@ -1,12 +1,16 @@
 package core.model;
 
 import java.util.ArrayList;
+import java.util.List;
 
 public abstract class Book implements Cloneable {
     
     protected String title;
-    protected ArrayList<Author> authors;
+    // Copia inmutable de la lista recibida, compartida por las copias del libro
+    protected final List<Author> authors;
     protected final String isbn;
+    // ISBN codificado como número (ver Keys) para ordenar e indexar
+    private final long isbnKey;
     protected String genre;
     protected String format;
     protected double value;
@@ -14,8 +18,12 @@ public abstract class Book implements Cloneable {
 
     public Book(String title, ArrayList<Author> authors, String isbn, String genre, String format, double value, Publisher publisher) {
         this.title = title;
-        this.authors = authors;
+        this.authors = List.copyOf(authors);
         this.isbn = isbn;
+        this.isbnKey = Keys.parseIsbn(isbn);
+        if (this.isbnKey < 0) {
+            throw new IllegalArgumentException("ISBN inválido: " + isbn);
+        }
         this.genre = genre;
         this.format = format;
         this.value = value;
@@ -31,7 +39,7 @@ public abstract class Book implements Cloneable {
         return title;
     }
 
-    public ArrayList<Author> getAuthors() {
+    public List<Author> getAuthors() {
         return authors;
     }
 
@@ -39,6 +47,10 @@ public abstract class Book implements Cloneable {
         return isbn;
     }
 
+    public long getIsbnKey() {
+        return isbnKey;
+    }
+
     public String getGenre() {
         return genre;
     }
@@ -55,6 +67,25 @@ public abstract class Book implements Cloneable {
         return publisher;
     }
     
+    /**
+     * Deshace lo que hizo el constructor (registrarse en sus autores y su
+     * editorial). Solo se usa al revertir la transacción en la que se creó
+     * el libro (ver RelationStore).
+     */
+    void unlink() {
+        for (Author autor : this.authors) {
+            autor.removeBook(this);
+        }
+        this.publisher.removeBook(this);
+    }
+    
+    /**
+     * Patrón Prototype: copia superficial. No vuelve a ejecutar el
+     * constructor, así que no registra el libro otra vez en sus autores,
+     * editorial o narrador; la lista de autores es inmutable y se comparte.
+     */
     @Override
-    public abstract Object clone() throws CloneNotSupportedException;
+    public Object clone() throws CloneNotSupportedException {
+        return super.clone();
+    }
 }
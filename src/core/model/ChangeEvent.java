@@ -0,0 +1,20 @@
+package core.model;
+
+/**
+ * Evento de cambio emitido por los Storage. Indica qué cambió para que los
+ * observadores puedan aplicar actualizaciones incrementales en lugar de
+ * volver a leer todo el Storage.
+ */
+public abstract class ChangeEvent {
+
+    /**
+     * Se entrega cuando se acumularon demasiados eventos para un observador;
+     * el observador debe recargar todo desde los Storage.
+     */
+    public static final ChangeEvent RELOAD = new ChangeEvent() {
+        @Override
+        public String toString() {
+            return "Reload";
+        }
+    };
+}
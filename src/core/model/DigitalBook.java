@@ -27,19 +27,4 @@ public class DigitalBook extends Book {
         return hyperlink;
     }
     
-    @Override
-    public Object clone() throws CloneNotSupportedException {
-        DigitalBook cloned;
-        if (this.hasHyperlink) {
-            cloned = new DigitalBook(this.title, new ArrayList<>(this.authors), 
-                                    this.isbn, this.genre, this.format, 
-                                    this.value, this.publisher, this.hyperlink);
-        } else {
-            cloned = new DigitalBook(this.title, new ArrayList<>(this.authors), 
-                                    this.isbn, this.genre, this.format, 
-                                    this.value, this.publisher);
-        }
-        return cloned;
-    }
-    
 }
@@ -0,0 +1,36 @@
+package core.model;
+
+/**
+ * Una entidad fue agregada a un Storage.
+ * La clave es el ID (Long) para personas y stands, el ISBN para libros y el
+ * NIT para editoriales.
+ */
+public class EntityAdded<T> extends ChangeEvent {
+
+    private final Class<T> type;
+    private final Object key;
+    private final T entity;
+
+    public EntityAdded(Class<T> type, Object key, T entity) {
+        this.type = type;
+        this.key = key;
+        this.entity = entity;
+    }
+
+    public Class<T> getType() {
+        return type;
+    }
+
+    public Object getKey() {
+        return key;
+    }
+
+    public T getEntity() {
+        return entity;
+    }
+
+    @Override
+    public String toString() {
+        return "EntityAdded{" + type.getSimpleName() + ", key=" + key + '}';
+    }
+}
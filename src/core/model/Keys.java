@@ -0,0 +1,96 @@
+package core.model;
+
+/**
+ * Validación y conversión de las claves de negocio (ISBN y NIT).
+ *
+ * Los formatos son de ancho fijo, así que se validan carácter por carácter
+ * sin expresiones regulares ni objetos intermedios. En la misma pasada los
+ * dígitos se acumulan en un long; como todas las claves tienen la misma
+ * cantidad de dígitos, el orden de los long coincide con el de los textos.
+ */
+public final class Keys {
+    
+    // Formato del ISBN: XXX-X-XX-XXXXXX-X ('#' es un dígito)
+    private static final String ISBN_FORMAT = "###-#-##-######-#";
+    // Formato del NIT: XXX.XXX.XXX-X
+    private static final String NIT_FORMAT = "###.###.###-#";
+    
+    private Keys() {
+    }
+    
+    /**
+     * Valida el ISBN y retorna sus 13 dígitos como número.
+     * @return la clave numérica, o -1 si el texto no tiene el formato
+     */
+    public static long parseIsbn(String isbn) {
+        return parse(isbn, ISBN_FORMAT);
+    }
+    
+    /**
+     * Valida el NIT y retorna sus 10 dígitos como número.
+     * @return la clave numérica, o -1 si el texto no tiene el formato
+     */
+    public static long parseNit(String nit) {
+        return parse(nit, NIT_FORMAT);
+    }
+    
+    public static boolean isValidIsbn(String isbn) {
+        return parseIsbn(isbn) >= 0;
+    }
+    
+    public static boolean isValidNit(String nit) {
+        return parseNit(nit) >= 0;
+    }
+    
+    /**
+     * Convierte la clave numérica de vuelta al formato XXX-X-XX-XXXXXX-X
+     */
+    public static String formatIsbn(long key) {
+        return format(key, ISBN_FORMAT);
+    }
+    
+    /**
+     * Convierte la clave numérica de vuelta al formato XXX.XXX.XXX-X
+     */
+    public static String formatNit(long key) {
+        return format(key, NIT_FORMAT);
+    }
+    
+    private static long parse(String text, String format) {
+        if (text == null || text.length() != format.length()) {
+            return -1;
+        }
+        long key = 0;
+        for (int i = 0; i < format.length(); i++) {
+            char c = text.charAt(i);
+            char expected = format.charAt(i);
+            if (expected == '#') {
+                if (c < '0' || c > '9') {
+                    return -1;
+                }
+                key = key * 10 + (c - '0');
+            } else if (c != expected) {
+                return -1;
+            }
+        }
+        return key;
+    }
+    
+    private static String format(long key, String format) {
+        if (key < 0) {
+            throw new IllegalArgumentException("Clave negativa: " + key);
+        }
+        char[] text = format.toCharArray();
+        // Se llena de derecha a izquierda para conservar los ceros iniciales
+        for (int i = text.length - 1; i >= 0; i--) {
+            if (text[i] == '#') {
+                text[i] = (char) ('0' + key % 10);
+                key /= 10;
+            }
+        }
+        if (key != 0) {
+            throw new IllegalArgumentException("La clave no cabe en el formato " + format);
+        }
+        return new String(text);
+    }
+}
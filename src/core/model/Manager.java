@@ -12,15 +12,8 @@ public class Manager extends Person {
         return publisher;
     }
 
-    public void setPublisher(Publisher publisher) {
+    void setPublisher(Publisher publisher) {
         this.publisher = publisher;
     }
     
-    @Override
-    public Object clone() throws CloneNotSupportedException {
-        Manager cloned = new Manager(this.id, this.firstname, this.lastname);
-        cloned.publisher = this.publisher;
-        return cloned;
-    }
-    
 }
@@ -1,5 +1,16 @@
 package core.model;
 
+import java.util.List;
+
 public interface Observer {
     void update();
+    
+    /**
+     * Recibe los eventos de cambio agrupados desde la última notificación.
+     * Por defecto delega en update() para los observadores que solo
+     * necesitan saber que algo cambió.
+     */
+    default void update(List<ChangeEvent> events) {
+        update();
+    }
 }
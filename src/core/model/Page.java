@@ -0,0 +1,32 @@
+package core.model;
+
+import java.util.List;
+
+/**
+ * Una página de una lista: los elementos de offset a offset + limit y el
+ * total de la lista en el momento en que se copió la página.
+ */
+public class Page<E> {
+    
+    private final List<E> items;
+    private final int total;
+    private final int offset;
+    
+    public Page(List<E> items, int total, int offset) {
+        this.items = items;
+        this.total = total;
+        this.offset = offset;
+    }
+    
+    public List<E> getItems() {
+        return items;
+    }
+    
+    public int getTotal() {
+        return total;
+    }
+    
+    public int getOffset() {
+        return offset;
+    }
+}
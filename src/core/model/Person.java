@@ -28,6 +28,12 @@ public abstract class Person implements Cloneable {
         return firstname + " " + lastname;
     }
     
+    /**
+     * Patrón Prototype: copia superficial de solo lectura, sin efectos sobre
+     * el grafo de objetos.
+     */
     @Override
-    public abstract Object clone() throws CloneNotSupportedException;
+    public Object clone() throws CloneNotSupportedException {
+        return super.clone();
+    }
 }
@@ -21,12 +21,4 @@ public class PrintedBook extends Book {
         return copies;
     }
     
-    @Override
-    public Object clone() throws CloneNotSupportedException {
-        PrintedBook cloned = new PrintedBook(this.title, new ArrayList<>(this.authors), 
-                                            this.isbn, this.genre, this.format, 
-                                            this.value, this.publisher, this.pages, this.copies);
-        return cloned;
-    }
-    
 }
@@ -1,23 +1,31 @@
 package core.model;
 
-import java.util.ArrayList;
-
 public class Publisher implements Cloneable {
     
     private final String nit;
+    // NIT codificado como número (ver Keys) para ordenar e indexar
+    private final long nitKey;
     private String name;
     private String address;
     private Manager manager;
-    private ArrayList<Book> books;
-    private ArrayList<Stand> stands;
-
+    // Versiones inmutables (ver Relation): las copias de la editorial no cambian
+    private Relation<Book> books;
+    private Relation<Stand> stands;
+    // Editorial que tenía el gerente antes de esta, para deshacer la asignación
+    private final Publisher previousOfManager;
+    
     public Publisher(String nit, String name, String address, Manager manager) {
         this.nit = nit;
+        this.nitKey = Keys.parseNit(nit);
+        if (this.nitKey < 0) {
+            throw new IllegalArgumentException("NIT inválido: " + nit);
+        }
         this.name = name;
         this.address = address;
         this.manager = manager;
-        this.books = new ArrayList<>();
-        this.stands = new ArrayList<>();
+        this.books = Relation.empty();
+        this.stands = Relation.empty();
+        this.previousOfManager = manager.getPublisher();
         
         this.manager.setPublisher(this);
     }
@@ -26,6 +34,10 @@ public class Publisher implements Cloneable {
         return nit;
     }
 
+    public long getNitKey() {
+        return nitKey;
+    }
+
     public String getName() {
         return name;
     }
@@ -42,20 +54,48 @@ public class Publisher implements Cloneable {
         return this.stands.size();
     }
     
-    public void addBook(Book book) {
-        this.books.add(book);
+    void addBook(Book book) {
+        this.books = this.books.with(book);
     }
     
+    void removeBook(Book book) {
+        this.books = this.books.without(book);
+    }
+    
+    /**
+     * Registra la compra de un stand (ver StandStorage.linkPublisher). En una
+     * copia solo cambia la copia.
+     */
     public void addStand(Stand stand) {
-        this.stands.add(stand);
+        this.stands = this.stands.with(stand);
+    }
+    
+    /**
+     * Quita la última compra de ese stand; si no la hay no hace nada
+     */
+    public void removeStand(Stand stand) {
+        this.stands = this.stands.without(stand);
+    }
+    
+    /**
+     * Deshace lo que hizo el constructor: el gerente vuelve a la editorial
+     * que tenía antes. Solo se usa al revertir la transacción en la que se
+     * creó la editorial (ver RelationStore).
+     */
+    void unlink() {
+        if (this.manager.getPublisher() == this) {
+            this.manager.setPublisher(this.previousOfManager);
+        }
     }
     
+    /**
+     * Patrón Prototype: copia superficial. No vuelve a asignar la editorial
+     * a su gerente, y comparte las versiones inmutables de sus libros y
+     * stands, así que cambiar la copia no afecta a la original.
+     */
     @Override
     public Object clone() throws CloneNotSupportedException {
-        Publisher cloned = new Publisher(this.nit, this.name, this.address, this.manager);
-        cloned.books = new ArrayList<>(this.books);
-        cloned.stands = new ArrayList<>(this.stands);
-        return cloned;
+        return super.clone();
     }
     
 }
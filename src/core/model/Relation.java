@@ -0,0 +1,95 @@
+package core.model;
+
+import java.util.AbstractList;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Lista inmutable de las entidades relacionadas con otra (los libros de un
+ * autor, las editoriales de un stand, ...). Cada cambio retorna una versión
+ * nueva y las anteriores no cambian nunca, así que una versión se puede
+ * recorrer desde cualquier hilo mientras la entidad sigue cambiando, y las
+ * copias (Prototype) comparten la versión sin que un cambio en una afecte
+ * a la otra.
+ *
+ * Las versiones comparten el arreglo: agregar al final de la versión más
+ * reciente ocupa la siguiente posición libre, en O(1) amortizado, y si esa
+ * posición ya la tomó otra versión se copia. Quitar (solo para deshacer una
+ * transacción) siempre copia.
+ */
+final class Relation<E> extends AbstractList<E> implements RandomAccess {
+    
+    private static final Relation<?> EMPTY = new Relation<>(new Buffer(0, 0), 0);
+    
+    private final Buffer buffer;
+    private final int size;
+    
+    private Relation(Buffer buffer, int size) {
+        this.buffer = buffer;
+        this.size = size;
+    }
+    
+    @SuppressWarnings("unchecked")
+    static <E> Relation<E> empty() {
+        return (Relation<E>) EMPTY;
+    }
+    
+    /**
+     * @return una versión con el elemento agregado al final
+     */
+    Relation<E> with(E element) {
+        Buffer current = buffer;
+        if (size < current.items.length && current.used.compareAndSet(size, size + 1)) {
+            current.items[size] = element;
+            return new Relation<>(current, size + 1);
+        }
+        Buffer grown = new Buffer(Math.max(4, size * 2), size + 1);
+        System.arraycopy(current.items, 0, grown.items, 0, size);
+        grown.items[size] = element;
+        return new Relation<>(grown, size + 1);
+    }
+    
+    /**
+     * @return una versión sin la última aparición del elemento, o esta misma
+     * si no está
+     */
+    Relation<E> without(Object element) {
+        int index = lastIndexOf(element);
+        if (index < 0) {
+            return this;
+        }
+        Buffer copy = new Buffer(Math.max(4, size - 1), size - 1);
+        System.arraycopy(buffer.items, 0, copy.items, 0, index);
+        System.arraycopy(buffer.items, index + 1, copy.items, index, size - index - 1);
+        return new Relation<>(copy, size - 1);
+    }
+    
+    @Override
+    @SuppressWarnings("unchecked")
+    public E get(int index) {
+        Objects.checkIndex(index, size);
+        return (E) buffer.items[index];
+    }
+    
+    @Override
+    public int size() {
+        return size;
+    }
+    
+    /**
+     * Arreglo compartido por las versiones. used es la cantidad de
+     * posiciones ya tomadas por alguna versión: solo la versión con ese
+     * tamaño puede escribir en la siguiente.
+     */
+    private static final class Buffer {
+        
+        final Object[] items;
+        final AtomicInteger used;
+        
+        Buffer(int capacity, int used) {
+            this.items = new Object[capacity];
+            this.used = new AtomicInteger(used);
+        }
+    }
+}
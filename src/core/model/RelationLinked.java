@@ -0,0 +1,29 @@
+package core.model;
+
+/**
+ * Se creó una relación entre dos entidades existentes, por ejemplo la
+ * compra de un stand (source) por parte de una editorial (target).
+ */
+public class RelationLinked<S, T> extends ChangeEvent {
+
+    private final S source;
+    private final T target;
+
+    public RelationLinked(S source, T target) {
+        this.source = source;
+        this.target = target;
+    }
+
+    public S getSource() {
+        return source;
+    }
+
+    public T getTarget() {
+        return target;
+    }
+
+    @Override
+    public String toString() {
+        return "RelationLinked{" + source.getClass().getSimpleName() + " -> " + target.getClass().getSimpleName() + '}';
+    }
+}
@@ -0,0 +1,27 @@
+package core.model;
+
+/**
+ * Base de los Storage (ver core.storage.Storage). Les da acceso a lo que el
+ * modelo no expone: deshacer los enlaces que hizo el constructor de un
+ * libro o de una editorial, al revertir la transacción en la que se creó.
+ */
+public abstract class RelationStore {
+    
+    protected RelationStore() {
+    }
+    
+    /**
+     * Quita el libro de sus autores, su editorial y, si es un audiolibro,
+     * su narrador
+     */
+    protected static void unlink(Book book) {
+        book.unlink();
+    }
+    
+    /**
+     * Devuelve el gerente de la editorial a la editorial que tenía antes
+     */
+    protected static void unlink(Publisher publisher) {
+        publisher.unlink();
+    }
+}
@@ -1,21 +1,33 @@
 package core.model;
 
-import java.util.ArrayList;
+import java.util.List;
 
 public class Stand implements Cloneable {
     
     private long id;
     private double price;
-    private ArrayList<Publisher> publishers;
+    // Versión inmutable (ver Relation): las copias del stand no cambian
+    private Relation<Publisher> publishers;
 
     public Stand(long id, double price) {
         this.id = id;
         this.price = price;
-        this.publishers = new ArrayList<>();
+        this.publishers = Relation.empty();
     }
     
+    /**
+     * Registra la compra por parte de una editorial (ver
+     * StandStorage.linkPublisher). En una copia solo cambia la copia.
+     */
     public void addPublisher(Publisher publisher) {
-        this.publishers.add(publisher);
+        this.publishers = this.publishers.with(publisher);
+    }
+    
+    /**
+     * Quita la última compra de esa editorial; si no la hay no hace nada
+     */
+    public void removePublisher(Publisher publisher) {
+        this.publishers = this.publishers.without(publisher);
     }
 
     public long getId() {
@@ -26,7 +38,7 @@ public class Stand implements Cloneable {
         return price;
     }
 
-    public ArrayList<Publisher> getPublishers() {
+    public List<Publisher> getPublishers() {
         return publishers;
     }
     
@@ -34,11 +46,13 @@ public class Stand implements Cloneable {
         return this.publishers.size();
     }
     
+    /**
+     * Patrón Prototype: copia superficial que comparte la versión inmutable
+     * de sus editoriales, así que cambiar la copia no afecta al original
+     */
     @Override
     public Object clone() throws CloneNotSupportedException {
-        Stand cloned = new Stand(this.id, this.price);
-        cloned.publishers = new ArrayList<>(this.publishers);
-        return cloned;
+        return super.clone();
     }
     
 }
@@ -0,0 +1,276 @@
+package core.persistence;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import core.model.Audiobook;
+import core.model.Author;
+import core.model.Book;
+import core.model.ChangeEvent;
+import core.model.DigitalBook;
+import core.model.EntityAdded;
+import core.model.Keys;
+import core.model.Manager;
+import core.model.Narrator;
+import core.model.Person;
+import core.model.PrintedBook;
+import core.model.Publisher;
+import core.model.RelationLinked;
+import core.model.Stand;
+import core.storage.BookStorage;
+import core.storage.PersonStorage;
+import core.storage.PublisherStorage;
+import core.storage.StandStorage;
+
+/**
+ * Codifica las entidades en registros binarios y los vuelve a aplicar en los
+ * Storage. Las relaciones se guardan como IDs (y el ISBN y el NIT como su
+ * clave numérica), así que cada registro solo puede referirse a entidades
+ * registradas antes que él. Lo usan tanto el WriteAheadLog como SnapshotFile.
+ */
+final class EntityCodec {
+    
+    // Tipos de registro; no se deben renumerar porque quedan en los archivos
+    static final byte AUTHOR = 1;
+    static final byte MANAGER = 2;
+    static final byte NARRATOR = 3;
+    static final byte PUBLISHER = 4;
+    static final byte STAND = 5;
+    static final byte PRINTED_BOOK = 6;
+    static final byte DIGITAL_BOOK = 7;
+    static final byte AUDIOBOOK = 8;
+    static final byte STAND_PURCHASE = 9;
+    
+    private final PersonStorage personStorage = PersonStorage.getInstance();
+    private final PublisherStorage publisherStorage = PublisherStorage.getInstance();
+    private final StandStorage standStorage = StandStorage.getInstance();
+    private final BookStorage bookStorage = BookStorage.getInstance();
+    // Los géneros y formatos se repiten en muchos libros: se comparte una sola copia
+    private static final int MAX_SHARED_STRINGS = 4096;
+    private final Map<String, String> sharedStrings = new HashMap<>();
+    private byte[] scratch = new byte[256];
+    
+    /**
+     * Codifica el cambio como un registro completo (con longitud y CRC)
+     */
+    static void write(ChangeEvent event, RecordBuffer buffer) {
+        buffer.beginRecord();
+        if (event instanceof EntityAdded<?> added) {
+            writeEntity(added.getEntity(), buffer);
+        } else if (event instanceof RelationLinked<?, ?> linked
+                   && linked.getSource() instanceof Stand stand
+                   && linked.getTarget() instanceof Publisher publisher) {
+            writePurchase(stand, publisher, buffer);
+        } else {
+            buffer.cancelRecord();
+            throw new IllegalArgumentException("Cambio sin formato de registro: " + event);
+        }
+        buffer.endRecord();
+    }
+    
+    /**
+     * Codifica solo el contenido de la entidad, sin el encabezado de registro
+     */
+    static void writeEntity(Object entity, RecordBuffer buffer) {
+        if (entity instanceof Person person) {
+            writePerson(person, buffer);
+        } else if (entity instanceof Publisher publisher) {
+            buffer.putByte(PUBLISHER);
+            buffer.putLong(publisher.getNitKey());
+            buffer.putString(publisher.getName());
+            buffer.putString(publisher.getAddress());
+            buffer.putLong(publisher.getManager().getId());
+        } else if (entity instanceof Stand stand) {
+            buffer.putByte(STAND);
+            buffer.putLong(stand.getId());
+            buffer.putDouble(stand.getPrice());
+        } else if (entity instanceof Book book) {
+            writeBook(book, buffer);
+        } else {
+            throw new IllegalArgumentException("Entidad sin formato de registro: " + entity.getClass().getName());
+        }
+    }
+    
+    static void writePurchase(Stand stand, Publisher publisher, RecordBuffer buffer) {
+        buffer.putByte(STAND_PURCHASE);
+        buffer.putLong(stand.getId());
+        buffer.putLong(publisher.getNitKey());
+    }
+    
+    private static void writePerson(Person person, RecordBuffer buffer) {
+        if (person instanceof Author) {
+            buffer.putByte(AUTHOR);
+        } else if (person instanceof Manager) {
+            buffer.putByte(MANAGER);
+        } else if (person instanceof Narrator) {
+            buffer.putByte(NARRATOR);
+        } else {
+            throw new IllegalArgumentException("Persona sin formato de registro: " + person.getClass().getName());
+        }
+        buffer.putLong(person.getId());
+        buffer.putString(person.getFirstname());
+        buffer.putString(person.getLastname());
+    }
+    
+    private static void writeBook(Book book, RecordBuffer buffer) {
+        if (book instanceof PrintedBook) {
+            buffer.putByte(PRINTED_BOOK);
+        } else if (book instanceof DigitalBook) {
+            buffer.putByte(DIGITAL_BOOK);
+        } else if (book instanceof Audiobook) {
+            buffer.putByte(AUDIOBOOK);
+        } else {
+            throw new IllegalArgumentException("Libro sin formato de registro: " + book.getClass().getName());
+        }
+        buffer.putLong(book.getIsbnKey());
+        buffer.putString(book.getTitle());
+        List<Author> authors = book.getAuthors();
+        buffer.putInt(authors.size());
+        for (Author author : authors) {
+            buffer.putLong(author.getId());
+        }
+        buffer.putString(book.getGenre());
+        buffer.putString(book.getFormat());
+        buffer.putDouble(book.getValue());
+        buffer.putLong(book.getPublisher().getNitKey());
+        if (book instanceof PrintedBook printed) {
+            buffer.putInt(printed.getPages());
+            buffer.putInt(printed.getCopies());
+        } else if (book instanceof DigitalBook digital) {
+            buffer.putBoolean(digital.hasHyperlink());
+            if (digital.hasHyperlink()) {
+                buffer.putString(digital.getHyperlink());
+            }
+        } else if (book instanceof Audiobook audiobook) {
+            buffer.putInt(audiobook.getDuration());
+            buffer.putLong(audiobook.getNarrador().getId());
+        }
+    }
+    
+    /**
+     * Aplica el contenido de un registro en los Storage. Se llama dentro de
+     * Storage.write().
+     * @return false si la entidad ya existía y el registro se descartó
+     * @throws IOException si el registro no tiene un formato conocido o se
+     * refiere a entidades que no existen
+     */
+    boolean apply(ByteBuffer payload) throws IOException {
+        byte type = payload.get();
+        switch (type) {
+            case AUTHOR:
+                return personStorage.addAuthor(new Author(payload.getLong(), readString(payload), readString(payload)));
+            case MANAGER:
+                return personStorage.addManager(new Manager(payload.getLong(), readString(payload), readString(payload)));
+            case NARRATOR:
+                return personStorage.addNarrator(new Narrator(payload.getLong(), readString(payload), readString(payload)));
+            case PUBLISHER:
+                return applyPublisher(payload);
+            case STAND:
+                return standStorage.addStand(new Stand(payload.getLong(), payload.getDouble()));
+            case PRINTED_BOOK:
+            case DIGITAL_BOOK:
+            case AUDIOBOOK:
+                return applyBook(type, payload);
+            case STAND_PURCHASE:
+                Stand stand = require(standStorage.getStandById(payload.getLong()), "stand");
+                Publisher publisher = require(publisherStorage.getPublisherByNit(payload.getLong()), "editorial");
+                standStorage.linkPublisher(stand, publisher);
+                return true;
+            default:
+                throw new IOException("Tipo de registro desconocido: " + type);
+        }
+    }
+    
+    private boolean applyPublisher(ByteBuffer payload) throws IOException {
+        long nitKey = payload.getLong();
+        String name = readString(payload);
+        String address = readString(payload);
+        Manager manager = require(personStorage.getManagerById(payload.getLong()), "gerente");
+        if (publisherStorage.existsPublisherByNit(nitKey)) {
+            return false;
+        }
+        return publisherStorage.addPublisher(new Publisher(Keys.formatNit(nitKey), name, address, manager));
+    }
+    
+    private boolean applyBook(byte type, ByteBuffer payload) throws IOException {
+        long isbnKey = payload.getLong();
+        String title = readString(payload);
+        int authorQuantity = payload.getInt();
+        ArrayList<Author> authors = new ArrayList<>(authorQuantity);
+        for (int i = 0; i < authorQuantity; i++) {
+            authors.add(require(personStorage.getAuthorById(payload.getLong()), "autor"));
+        }
+        String genre = readSharedString(payload);
+        String format = readSharedString(payload);
+        double value = payload.getDouble();
+        Publisher publisher = require(publisherStorage.getPublisherByNit(payload.getLong()), "editorial");
+        // El constructor del libro lo agrega a sus autores y editorial, así que
+        // un duplicado se descarta antes de construirlo
+        if (bookStorage.existsBookByIsbn(isbnKey)) {
+            return false;
+        }
+        String isbn = Keys.formatIsbn(isbnKey);
+        Book book;
+        if (type == PRINTED_BOOK) {
+            book = new PrintedBook(title, authors, isbn, genre, format, value, publisher, payload.getInt(), payload.getInt());
+        } else if (type == DIGITAL_BOOK) {
+            book = payload.get() != 0
+                    ? new DigitalBook(title, authors, isbn, genre, format, value, publisher, readString(payload))
+                    : new DigitalBook(title, authors, isbn, genre, format, value, publisher);
+        } else {
+            int duration = payload.getInt();
+            Narrator narrator = require(personStorage.getNarratorById(payload.getLong()), "narrador");
+            book = new Audiobook(title, authors, isbn, genre, format, value, publisher, duration, narrator);
+        }
+        return bookStorage.addBook(book);
+    }
+    
+    /**
+     * Lee un texto escrito con RecordBuffer.putString()
+     */
+    private String readString(ByteBuffer payload) {
+        int length = payload.getInt();
+        if (length < 0) {
+            return null;
+        }
+        String value;
+        if (payload.hasArray()) {
+            value = new String(payload.array(), payload.arrayOffset() + payload.position(), length, StandardCharsets.UTF_8);
+            payload.position(payload.position() + length);
+        } else {
+            // Buffer mapeado (SnapshotFile): se copia a un arreglo reutilizable
+            if (scratch.length < length) {
+                scratch = new byte[Math.max(length, scratch.length * 2)];
+            }
+            payload.get(scratch, 0, length);
+            value = new String(scratch, 0, length, StandardCharsets.UTF_8);
+        }
+        return value;
+    }
+    
+    private String readSharedString(ByteBuffer payload) {
+        String value = readString(payload);
+        if (value == null) {
+            return null;
+        }
+        String shared = sharedStrings.get(value);
+        if (shared != null) {
+            return shared;
+        }
+        if (sharedStrings.size() < MAX_SHARED_STRINGS) {
+            sharedStrings.put(value, value);
+        }
+        return value;
+    }
+    
+    private static <T> T require(T entity, String description) throws IOException {
+        if (entity == null) {
+            throw new IOException("El registro se refiere a un(a) " + description + " que no existe");
+        }
+        return entity;
+    }
+}
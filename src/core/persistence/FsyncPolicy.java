@@ -0,0 +1,16 @@
+package core.persistence;
+
+/**
+ * Cuándo se fuerza a disco (fsync) lo escrito en el registro de cambios.
+ * En todos los casos los cambios se escriben al archivo al terminar cada
+ * operación; la política solo decide cuándo se espera al disco.
+ */
+public enum FsyncPolicy {
+    
+    /** Cada operación espera a que sus cambios estén en disco */
+    ALWAYS,
+    /** Se fuerza a disco periódicamente; una caída pierde a lo sumo el último intervalo */
+    INTERVAL,
+    /** Nunca se fuerza (solo al compactar y al cerrar); queda en manos del sistema operativo */
+    NEVER
+}
@@ -0,0 +1,141 @@
+package core.persistence;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+/**
+ * Buffer donde se codifican los registros antes de escribirlos al archivo.
+ *
+ * Cada registro es [longitud int][CRC32 int][contenido], con los números en
+ * big-endian como DataOutput. El CRC permite detectar al leer un registro
+ * escrito a medias por una caída.
+ */
+final class RecordBuffer {
+    
+    static final int RECORD_HEADER = 8;
+    // Límite de un registro; uno más largo al leer indica un archivo dañado
+    static final int MAX_RECORD = 1 << 20;
+    
+    private final CRC32 crc = new CRC32();
+    private byte[] data;
+    private int size;
+    private int recordStart = -1;
+    
+    RecordBuffer(int capacity) {
+        this.data = new byte[capacity];
+    }
+    
+    void beginRecord() {
+        ensure(RECORD_HEADER);
+        recordStart = size;
+        size += RECORD_HEADER;
+    }
+    
+    void endRecord() {
+        int length = size - recordStart - RECORD_HEADER;
+        if (length > MAX_RECORD) {
+            cancelRecord();
+            throw new IllegalArgumentException("Registro demasiado grande: " + length + " bytes");
+        }
+        crc.reset();
+        crc.update(data, recordStart + RECORD_HEADER, length);
+        setInt(recordStart, length);
+        setInt(recordStart + 4, (int) crc.getValue());
+        recordStart = -1;
+    }
+    
+    /**
+     * Descarta el registro empezado con beginRecord()
+     */
+    void cancelRecord() {
+        size = recordStart;
+        recordStart = -1;
+    }
+    
+    void putByte(int value) {
+        ensure(1);
+        data[size++] = (byte) value;
+    }
+    
+    void putBoolean(boolean value) {
+        putByte(value ? 1 : 0);
+    }
+    
+    void putInt(int value) {
+        ensure(4);
+        setInt(size, value);
+        size += 4;
+    }
+    
+    void putLong(long value) {
+        putInt((int) (value >>> 32));
+        putInt((int) value);
+    }
+    
+    void putDouble(double value) {
+        putLong(Double.doubleToLongBits(value));
+    }
+    
+    /**
+     * Texto en UTF-8 precedido por su longitud en bytes (-1 para null)
+     */
+    void putString(String value) {
+        if (value == null) {
+            putInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        putInt(bytes.length);
+        ensure(bytes.length);
+        System.arraycopy(bytes, 0, data, size, bytes.length);
+        size += bytes.length;
+    }
+    
+    int size() {
+        return size;
+    }
+    
+    boolean isEmpty() {
+        return size == 0;
+    }
+    
+    void clear() {
+        size = 0;
+        recordStart = -1;
+    }
+    
+    /**
+     * Acumula el contenido actual en el checksum
+     */
+    void updateChecksum(CRC32 checksum) {
+        checksum.update(data, 0, size);
+    }
+    
+    /**
+     * Escribe todo el contenido en la posición actual del canal y vacía el buffer
+     */
+    void writeTo(FileChannel channel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(data, 0, size);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        clear();
+    }
+    
+    private void setInt(int index, int value) {
+        data[index] = (byte) (value >>> 24);
+        data[index + 1] = (byte) (value >>> 16);
+        data[index + 2] = (byte) (value >>> 8);
+        data[index + 3] = (byte) value;
+    }
+    
+    private void ensure(int extra) {
+        if (size + extra > data.length) {
+            data = Arrays.copyOf(data, Math.max(data.length * 2, size + extra));
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package core.persistence;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+import core.model.Publisher;
+import core.model.Stand;
+import core.storage.Snapshot;
+
+/**
+ * Instantánea binaria de todos los Storage en un archivo.
+ *
+ * Formato: [MAGIC int][versión int][generación long][cantidad de entradas long],
+ * luego las entradas una tras otra con el formato de EntityCodec (sin
+ * encabezado por registro) y al final un CRC32 de todas ellas. Las entradas
+ * van en orden de dependencia (gerentes, autores, narradores, editoriales,
+ * stands, libros y compras de stands), así que las referencias por ID se
+ * resuelven al cargar en una sola pasada. Entre las editoriales, la actual
+ * de cada gerente va al final.
+ *
+ * La generación identifica la instantánea; el WriteAheadLog guarda la misma
+ * generación para saber si sus registros van después de esta instantánea.
+ */
+final class SnapshotFile {
+    
+    // "MGSN" y versión del formato
+    private static final int MAGIC = 0x4D47534E;
+    private static final int VERSION = 1;
+    private static final int HEADER = 24;
+    private static final int TRAILER = 4;
+    private static final int WRITE_BUFFER = 1 << 20;
+    
+    private SnapshotFile() {
+    }
+    
+    /**
+     * Escribe la instantánea en un archivo temporal, lo fuerza a disco y lo
+     * mueve sobre el destino de forma atómica: una caída deja el archivo
+     * anterior o el nuevo, nunca uno a medias. Se llama con el candado de
+     * escritura tomado, porque las compras de stands se leen de las entidades.
+     */
+    static void write(Snapshot snapshot, long generation, Path path) throws IOException {
+        List<Stand> stands = snapshot.getAllStands();
+        long purchases = 0;
+        for (Stand stand : stands) {
+            purchases += stand.getPublisherQuantity();
+        }
+        long entries = snapshot.getAllPersons().size() + snapshot.getAllPublishers().size()
+                       + stands.size() + snapshot.getAllBooks().size() + purchases;
+        
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel out = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER);
+            header.putInt(MAGIC).putInt(VERSION).putLong(generation).putLong(entries).flip();
+            writeFully(out, header);
+            
+            CRC32 checksum = new CRC32();
+            RecordBuffer buffer = new RecordBuffer(WRITE_BUFFER + (WRITE_BUFFER >> 2));
+            writeAll(snapshot.getAllManagers(), buffer, checksum, out);
+            writeAll(snapshot.getAllAuthors(), buffer, checksum, out);
+            writeAll(snapshot.getAllNarrators(), buffer, checksum, out);
+            writePublishers(snapshot.getAllPublishers(), buffer, checksum, out);
+            writeAll(stands, buffer, checksum, out);
+            writeAll(snapshot.getAllBooks(), buffer, checksum, out);
+            for (Stand stand : stands) {
+                for (Publisher publisher : stand.getPublishers()) {
+                    EntityCodec.writePurchase(stand, publisher, buffer);
+                    flushIfFull(buffer, checksum, out);
+                }
+            }
+            flush(buffer, checksum, out);
+            
+            ByteBuffer trailer = ByteBuffer.allocate(TRAILER);
+            trailer.putInt((int) checksum.getValue()).flip();
+            writeFully(out, trailer);
+            out.force(true);
+        }
+        Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        WriteAheadLog.syncDirectory(path);
+    }
+    
+    /**
+     * Al cargar, cada editorial queda como la del gerente al crearse, así que
+     * la editorial actual de cada gerente se escribe después de las demás
+     * (las editoriales van en orden de NIT, no de creación).
+     */
+    private static void writePublishers(List<Publisher> publishers, RecordBuffer buffer, CRC32 checksum, FileChannel out) throws IOException {
+        List<Publisher> current = new ArrayList<>();
+        for (Publisher publisher : publishers) {
+            if (publisher.getManager().getPublisher() == publisher) {
+                current.add(publisher);
+            } else {
+                EntityCodec.writeEntity(publisher, buffer);
+                flushIfFull(buffer, checksum, out);
+            }
+        }
+        writeAll(current, buffer, checksum, out);
+    }
+    
+    private static void writeAll(List<?> entities, RecordBuffer buffer, CRC32 checksum, FileChannel out) throws IOException {
+        for (Object entity : entities) {
+            EntityCodec.writeEntity(entity, buffer);
+            flushIfFull(buffer, checksum, out);
+        }
+    }
+    
+    private static void flushIfFull(RecordBuffer buffer, CRC32 checksum, FileChannel out) throws IOException {
+        if (buffer.size() >= WRITE_BUFFER) {
+            flush(buffer, checksum, out);
+        }
+    }
+    
+    private static void flush(RecordBuffer buffer, CRC32 checksum, FileChannel out) throws IOException {
+        buffer.updateChecksum(checksum);
+        buffer.writeTo(out);
+    }
+    
+    private static void writeFully(FileChannel out, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+    }
+    
+    /**
+     * Mapea el archivo en memoria, verifica el CRC y aplica todas las
+     * entradas en los Storage. Se llama dentro de Storage.write().
+     * En Windows el archivo no se puede reemplazar mientras el mapeo siga
+     * vivo (hasta que el recolector lo libere), así que un checkpoint justo
+     * después de cargar puede fallar allí.
+     * @return la generación de la instantánea
+     */
+    static long load(Path path) throws IOException {
+        MappedByteBuffer mapped;
+        try (FileChannel in = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = in.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Instantánea demasiado grande para mapearla: " + size + " bytes");
+            }
+            if (size < HEADER + TRAILER) {
+                throw new IOException("Instantánea incompleta: " + path);
+            }
+            // El mapeo sigue válido después de cerrar el canal
+            mapped = in.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+        if (mapped.getInt() != MAGIC) {
+            throw new IOException("El archivo no es una instantánea: " + path);
+        }
+        int version = mapped.getInt();
+        if (version != VERSION) {
+            throw new IOException("Versión de instantánea no soportada: " + version);
+        }
+        long generation = mapped.getLong();
+        long entries = mapped.getLong();
+        
+        int end = mapped.limit() - TRAILER;
+        ByteBuffer body = mapped.slice(HEADER, end - HEADER);
+        CRC32 checksum = new CRC32();
+        checksum.update(body);
+        if ((int) checksum.getValue() != mapped.getInt(end)) {
+            throw new IOException("La instantánea está dañada (CRC distinto): " + path);
+        }
+        body.rewind();
+        
+        EntityCodec codec = new EntityCodec();
+        for (long i = 0; i < entries; i++) {
+            int position = body.position();
+            try {
+                if (!codec.apply(body)) {
+                    throw new IOException("Entidad repetida");
+                }
+            } catch (IOException | RuntimeException e) {
+                throw new IOException("Entrada inválida en la posición " + (HEADER + position) + " de " + path, e);
+            }
+        }
+        if (body.hasRemaining()) {
+            throw new IOException("La instantánea tiene datos después de la última entrada: " + path);
+        }
+        return generation;
+    }
+}
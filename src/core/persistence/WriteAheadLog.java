@@ -0,0 +1,461 @@
+package core.persistence;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+import core.model.ChangeEvent;
+import core.storage.Journal;
+import core.storage.Storage;
+
+/**
+ * Registro de cambios en disco (write-ahead log) de todos los Storage.
+ *
+ * Es un archivo de solo agregado: cada entidad creada y cada compra de stand
+ * es un registro (ver EntityCodec y RecordBuffer). Los registros de una
+ * transacción se escriben juntos en el commit, con el candado de escritura
+ * tomado, así que el orden del archivo es el orden en que se aplicaron los
+ * cambios.
+ *
+ * Con FsyncPolicy.ALWAYS el fsync se hace después de soltar el candado
+ * (group commit): el primer escritor que espera fuerza a disco todo lo
+ * escrito hasta ese momento, y los que llegan mientras tanto esperan a ese
+ * fsync o al siguiente en lugar de hacer uno cada uno.
+ *
+ * checkpoint() guarda el estado completo en una instantánea (SnapshotFile) y
+ * vacía el registro. Al abrirlo se carga la instantánea y se vuelven a
+ * aplicar solo los registros posteriores (replay). Si el último quedó
+ * incompleto por una caída, se descarta y se trunca el archivo.
+ */
+public final class WriteAheadLog implements Journal, Closeable {
+    
+    // "MGWL" y versión del formato
+    private static final int MAGIC = 0x4D47574C;
+    private static final int VERSION = 2;
+    // MAGIC, versión y generación de la instantánea a la que siguen los registros
+    private static final int FILE_HEADER = 16;
+    private static final int READ_BUFFER = 4 << 20;
+    // Intervalo de la política FsyncPolicy.INTERVAL
+    private static final long FSYNC_INTERVAL_MS = 100;
+    
+    private final Path path;
+    private final Path snapshotPath;
+    private final FsyncPolicy policy;
+    private final RecordBuffer pending;
+    private final FileChannel channel;
+    private ScheduledExecutorService syncer;
+    private long generation;
+    
+    // Bytes escritos desde que se abrió el registro; los tickets de commit()
+    private volatile long writtenBytes;
+    // Protege durableBytes y syncing
+    private final Object syncMonitor = new Object();
+    private long durableBytes;
+    private boolean syncing;
+    private long syncCount;
+    
+    private long replayedRecords;
+    private long discardedRecords;
+    private long truncatedBytes;
+    private long snapshotMillis;
+    private long replayMillis;
+    
+    /**
+     * Acción de E/S que se ejecuta con el candado de escritura (ver underWriteLock)
+     */
+    private interface LockedAction<T> {
+        T run() throws IOException;
+    }
+    
+    private WriteAheadLog(Path path, Path snapshotPath, FsyncPolicy policy) throws IOException {
+        this.path = path;
+        this.snapshotPath = snapshotPath;
+        this.policy = policy;
+        this.pending = new RecordBuffer(1 << 12);
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+    
+    /**
+     * Restaura los Storage, que deberían estar vacíos: carga la instantánea
+     * (si existe) y aplica los registros escritos después de ella. El
+     * registro no queda instalado: para persistir los cambios siguientes se
+     * pasa a Storage.setJournal().
+     */
+    public static WriteAheadLog open(Path path, Path snapshotPath, FsyncPolicy policy) throws IOException {
+        WriteAheadLog log = new WriteAheadLog(path, snapshotPath, policy);
+        try {
+            log.restore();
+        } catch (IOException | RuntimeException e) {
+            log.channel.close();
+            throw e;
+        }
+        if (policy == FsyncPolicy.INTERVAL) {
+            log.startSyncer();
+        }
+        return log;
+    }
+    
+    private static <T> T underWriteLock(LockedAction<T> action) throws IOException {
+        try {
+            return Storage.write(() -> {
+                try {
+                    return action.run();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+    
+    /**
+     * Todo se aplica dentro de una sola escritura, así que los observadores
+     * reciben una única notificación al terminar.
+     */
+    private void restore() throws IOException {
+        long valid = underWriteLock(() -> {
+            long snapshotGeneration = 0;
+            if (Files.exists(snapshotPath)) {
+                long start = System.nanoTime();
+                snapshotGeneration = SnapshotFile.load(snapshotPath);
+                snapshotMillis = (System.nanoTime() - start) / 1_000_000;
+            }
+            generation = snapshotGeneration;
+            if (channel.size() < FILE_HEADER) {
+                resetLog();
+                return (long) FILE_HEADER;
+            }
+            long logGeneration = readHeader();
+            if (logGeneration < snapshotGeneration) {
+                // Se guardó la instantánea pero no se alcanzó a vaciar el registro:
+                // sus registros ya están en la instantánea
+                resetLog();
+                return (long) FILE_HEADER;
+            }
+            if (logGeneration > snapshotGeneration) {
+                throw new IOException("El registro " + path + " sigue a una instantánea que no está en " + snapshotPath);
+            }
+            long start = System.nanoTime();
+            long end = applyRecords();
+            replayMillis = (System.nanoTime() - start) / 1_000_000;
+            return end;
+        });
+        // Lo que sigue al último registro válido es una escritura interrumpida
+        long size = channel.size();
+        if (valid < size) {
+            truncatedBytes = size - valid;
+            channel.truncate(valid);
+            channel.force(true);
+        }
+        channel.position(valid);
+    }
+    
+    /**
+     * Deja el registro vacío, con el encabezado de la generación actual
+     */
+    private void resetLog() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(FILE_HEADER);
+        header.putInt(MAGIC).putInt(VERSION).putLong(generation).flip();
+        channel.truncate(0);
+        channel.position(0);
+        while (header.hasRemaining()) {
+            channel.write(header);
+        }
+        channel.force(true);
+    }
+    
+    /**
+     * @return la generación de la instantánea a la que siguen los registros
+     */
+    private long readHeader() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(FILE_HEADER);
+        channel.position(0);
+        while (header.hasRemaining() && channel.read(header) >= 0) {
+        }
+        header.flip();
+        if (header.remaining() < FILE_HEADER || header.getInt() != MAGIC) {
+            throw new IOException("El archivo no es un registro de cambios: " + path);
+        }
+        int version = header.getInt();
+        if (version != VERSION) {
+            throw new IOException("Versión de registro no soportada: " + version);
+        }
+        return header.getLong();
+    }
+    
+    /**
+     * Lee el archivo en bloques grandes y aplica los registros hasta el final
+     * o hasta el primero dañado.
+     * @return la posición que sigue al último registro válido
+     */
+    private long applyRecords() throws IOException {
+        long valid = FILE_HEADER;
+        channel.position(FILE_HEADER);
+        EntityCodec codec = new EntityCodec();
+        CRC32 crc = new CRC32();
+        ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER);
+        boolean end = false;
+        while (!end) {
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) < 0) {
+                    end = true;
+                    break;
+                }
+            }
+            buffer.flip();
+            while (buffer.remaining() >= RecordBuffer.RECORD_HEADER) {
+                int offset = buffer.position();
+                int length = buffer.getInt(offset);
+                if (length <= 0 || length > RecordBuffer.MAX_RECORD) {
+                    return valid;
+                }
+                if (buffer.remaining() < RecordBuffer.RECORD_HEADER + length) {
+                    break;
+                }
+                ByteBuffer payload = buffer.slice(offset + RecordBuffer.RECORD_HEADER, length);
+                crc.reset();
+                crc.update(payload);
+                if ((int) crc.getValue() != buffer.getInt(offset + 4)) {
+                    return valid;
+                }
+                payload.rewind();
+                try {
+                    if (codec.apply(payload)) {
+                        replayedRecords++;
+                    } else {
+                        discardedRecords++;
+                    }
+                } catch (IOException | RuntimeException e) {
+                    throw new IOException("Registro inválido en la posición " + valid + " de " + path, e);
+                }
+                buffer.position(offset + RecordBuffer.RECORD_HEADER + length);
+                valid += RecordBuffer.RECORD_HEADER + length;
+            }
+            buffer.compact();
+        }
+        return valid;
+    }
+    
+    private void startSyncer() {
+        syncer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "wal-fsync");
+            thread.setDaemon(true);
+            return thread;
+        });
+        syncer.scheduleWithFixedDelay(() -> {
+            try {
+                channel.force(false);
+            } catch (IOException e) {
+                // El canal se cerró; close() ya forzó lo escrito
+            }
+        }, FSYNC_INTERVAL_MS, FSYNC_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+    
+    @Override
+    public void append(ChangeEvent event) {
+        EntityCodec.write(event, pending);
+    }
+    
+    @Override
+    public long commit() {
+        if (pending.isEmpty()) {
+            return 0;
+        }
+        long position = -1;
+        try {
+            position = channel.position();
+            int length = pending.size();
+            pending.writeTo(channel);
+            writtenBytes += length;
+        } catch (IOException e) {
+            pending.clear();
+            discardPartialWrite(channel, position);
+            throw new UncheckedIOException("No se pudo escribir en el registro de cambios " + path, e);
+        }
+        return policy == FsyncPolicy.ALWAYS ? writtenBytes : 0;
+    }
+    
+    @Override
+    public void abort() {
+        pending.clear();
+    }
+    
+    /**
+     * Un escritor hace de líder: fuerza a disco todo lo escrito hasta ahora
+     * y despierta a los demás. Quien llega mientras hay un fsync en curso
+     * espera; si al terminar ese fsync no alcanzó su ticket, el siguiente
+     * líder cubre a todos los que estén esperando.
+     */
+    @Override
+    public void awaitDurable(long ticket) {
+        boolean interrupted = false;
+        try {
+            while (true) {
+                long target;
+                synchronized (syncMonitor) {
+                    while (syncing && durableBytes < ticket) {
+                        try {
+                            syncMonitor.wait();
+                        } catch (InterruptedException e) {
+                            interrupted = true;
+                        }
+                    }
+                    if (durableBytes >= ticket) {
+                        return;
+                    }
+                    syncing = true;
+                    target = writtenBytes;
+                }
+                IOException failure = null;
+                try {
+                    channel.force(false);
+                } catch (IOException e) {
+                    failure = e;
+                }
+                synchronized (syncMonitor) {
+                    syncing = false;
+                    if (failure == null) {
+                        durableBytes = Math.max(durableBytes, target);
+                        syncCount++;
+                    }
+                    syncMonitor.notifyAll();
+                }
+                if (failure != null) {
+                    throw new UncheckedIOException("No se pudo forzar a disco el registro de cambios " + path, failure);
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+    
+    /**
+     * Un registro escrito a medias dejaría ilegibles los siguientes, así que
+     * se intenta volver al final anterior del archivo
+     */
+    private static void discardPartialWrite(FileChannel channel, long position) {
+        if (position < 0) {
+            return;
+        }
+        try {
+            channel.truncate(position);
+            channel.position(position);
+        } catch (IOException e) {
+            // El replay descartará el registro incompleto
+        }
+    }
+    
+    /**
+     * Guarda una instantánea con el estado actual y vacía el registro, así el
+     * próximo inicio carga la instantánea en lugar de aplicar los registros
+     * uno por uno. También elimina los registros descartados en el replay.
+     * Bloquea las escrituras mientras dura.
+     *
+     * Si se guarda la instantánea pero una caída impide vaciar el registro,
+     * la generación del encabezado indica al abrir que sus registros ya
+     * están en la instantánea.
+     */
+    public void checkpoint() throws IOException {
+        underWriteLock(() -> {
+            // Lo pendiente de una escritura en curso ya está en memoria y queda en la instantánea
+            pending.clear();
+            SnapshotFile.write(Storage.snapshot(), generation + 1, snapshotPath);
+            generation++;
+            resetLog();
+            // Todo lo escrito antes quedó en la instantánea, que ya está en disco
+            synchronized (syncMonitor) {
+                durableBytes = writtenBytes;
+                syncMonitor.notifyAll();
+            }
+            discardedRecords = 0;
+            truncatedBytes = 0;
+            return null;
+        });
+    }
+    
+    /**
+     * Fuerza a disco el directorio para que el cambio de nombre sobreviva a
+     * una caída. No todos los sistemas permiten abrir un directorio.
+     */
+    static void syncDirectory(Path path) {
+        Path directory = path.toAbsolutePath().getParent();
+        if (directory == null) {
+            return;
+        }
+        try (FileChannel dir = FileChannel.open(directory, StandardOpenOption.READ)) {
+            dir.force(true);
+        } catch (IOException e) {
+            // Windows no lo permite; el reemplazo atómico sigue siendo válido
+        }
+    }
+    
+    /**
+     * Registros aplicados al abrir el archivo, después de la instantánea
+     */
+    public long getReplayedRecords() {
+        return replayedRecords;
+    }
+    
+    /**
+     * Registros que no se aplicaron al abrir porque la entidad ya existía;
+     * checkpoint() los elimina
+     */
+    public long getDiscardedRecords() {
+        return discardedRecords;
+    }
+    
+    /**
+     * Bytes descartados al final del archivo por una escritura interrumpida
+     */
+    public long getTruncatedBytes() {
+        return truncatedBytes;
+    }
+    
+    public long getSnapshotMillis() {
+        return snapshotMillis;
+    }
+    
+    public long getReplayMillis() {
+        return replayMillis;
+    }
+    
+    /**
+     * Cantidad de fsync hechos por group commit (política ALWAYS)
+     */
+    public long getSyncCount() {
+        synchronized (syncMonitor) {
+            return syncCount;
+        }
+    }
+    
+    public FsyncPolicy getPolicy() {
+        return policy;
+    }
+    
+    /**
+     * Fuerza a disco lo escrito y cierra el archivo. Espera a que termine la
+     * escritura en curso.
+     */
+    @Override
+    public void close() throws IOException {
+        if (syncer != null) {
+            syncer.shutdownNow();
+        }
+        underWriteLock(() -> {
+            channel.force(true);
+            channel.close();
+            return null;
+        });
+    }
+}
@@ -0,0 +1,99 @@
+package core.server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import core.json.JsonReader;
+import core.json.JsonWriter;
+import core.json.ModelCodec;
+import core.model.Response;
+import core.model.StatusCode;
+
+/**
+ * Base de los handlers de la API: convierte la petición en una llamada a un
+ * controlador y escribe su Response como JSON, con el código HTTP de su
+ * StatusCode. Los datos inválidos (JSON mal formado, campos que faltan)
+ * se responden con 400 sin llegar al controlador.
+ *
+ * Las listas de los GET se paginan con ?offset=&limit= (por defecto 100
+ * elementos, hasta ApiRequest.MAX_LIMIT); la respuesta incluye el total.
+ * El JSON se escribe con ModelCodec directo en la conexión (ver ResponseBody).
+ */
+abstract class ApiHandler implements HttpHandler {
+    
+    /**
+     * @return la respuesta del controlador, o de la propia API si la ruta o
+     * el método no existen
+     */
+    protected abstract Response<?> handle(ApiRequest request) throws IOException;
+    
+    @Override
+    public final void handle(HttpExchange exchange) throws IOException {
+        try {
+            Response<?> response;
+            int offset = 0;
+            int limit = Integer.MAX_VALUE;
+            try {
+                ApiRequest request = new ApiRequest(exchange);
+                if (request.isGet()) {
+                    offset = request.getOffset();
+                    limit = request.getLimit();
+                }
+                response = handle(request);
+            } catch (IllegalArgumentException e) {
+                response = new Response<>(StatusCode.BAD_REQUEST, e.getMessage());
+            } catch (RuntimeException e) {
+                response = new Response<>(StatusCode.INTERNAL_SERVER_ERROR, "Error interno: " + e);
+            }
+            exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+            // Sin try-with-resources: si la escritura falla no se envía un JSON cortado
+            JsonWriter out = new JsonWriter(new ResponseBody(exchange, response.getStatus().getCode()));
+            ModelCodec.writeResponse(out, response, offset, limit);
+            out.close();
+        } finally {
+            exchange.close();
+        }
+    }
+    
+    protected static Response<?> notFound(ApiRequest request) {
+        return new Response<>(StatusCode.NOT_FOUND, "Ruta no encontrada");
+    }
+    
+    protected static Response<?> methodNotAllowed(ApiRequest request) {
+        return new Response<>(StatusCode.METHOD_NOT_ALLOWED, "Método no permitido: " + request.getMethod());
+    }
+    
+    /**
+     * Atiende un POST de creación: un objeto va al método individual y un
+     * arreglo de objetos al método en lote del controlador. reader lee un
+     * objeto del cuerpo (ver ModelCodec).
+     */
+    protected static <D> Response<?> create(ApiRequest request, Function<JsonReader, D> reader,
+                                            Function<D, Response<?>> single,
+                                            Function<List<D>, List<? extends Response<?>>> batch) throws IOException {
+        JsonReader in = new JsonReader(request.readBody());
+        if (in.peek() != JsonReader.Token.BEGIN_ARRAY) {
+            D item = reader.apply(in);
+            in.endDocument();
+            return single.apply(item);
+        }
+        List<D> items = new ArrayList<>();
+        in.beginArray();
+        while (in.hasNext()) {
+            items.add(reader.apply(in));
+        }
+        in.endArray();
+        in.endDocument();
+        List<? extends Response<?>> responses = batch.apply(items);
+        int accepted = 0;
+        for (Response<?> response : responses) {
+            if (response.isSuccess()) {
+                accepted++;
+            }
+        }
+        return new Response<>(StatusCode.OK, "Lote procesado: " + accepted + " de " + responses.size() + " aceptados", responses);
+    }
+}
@@ -0,0 +1,121 @@
+package core.server;
+
+import com.sun.net.httpserver.HttpExchange;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Petición a la API: método, segmentos de la ruta después del contexto del
+ * handler (en /authors/7 el contexto es /authors y el único segmento "7"),
+ * parámetros de la consulta y cuerpo.
+ */
+final class ApiRequest {
+    
+    static final int DEFAULT_LIMIT = 100;
+    static final int MAX_LIMIT = 10_000;
+    // Tamaño máximo del cuerpo; un lote grande de libros ocupa unos pocos MB
+    private static final int MAX_BODY = 16 * 1024 * 1024;
+    
+    private final HttpExchange exchange;
+    private final String method;
+    private final List<String> path;
+    private final Map<String, String> query;
+    
+    ApiRequest(HttpExchange exchange) {
+        this.exchange = exchange;
+        this.method = exchange.getRequestMethod();
+        this.path = new ArrayList<>();
+        String full = exchange.getRequestURI().getPath();
+        String rest = full.substring(Math.min(full.length(), exchange.getHttpContext().getPath().length()));
+        for (String segment : rest.split("/")) {
+            if (!segment.isEmpty()) {
+                path.add(segment);
+            }
+        }
+        this.query = new HashMap<>();
+        String raw = exchange.getRequestURI().getRawQuery();
+        if (raw != null) {
+            for (String pair : raw.split("&")) {
+                int equals = pair.indexOf('=');
+                String name = equals < 0 ? pair : pair.substring(0, equals);
+                String value = equals < 0 ? "" : pair.substring(equals + 1);
+                query.put(URLDecoder.decode(name, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+            }
+        }
+    }
+    
+    String getMethod() {
+        return method;
+    }
+    
+    boolean isGet() {
+        return method.equals("GET");
+    }
+    
+    boolean isPost() {
+        return method.equals("POST");
+    }
+    
+    int getPathSize() {
+        return path.size();
+    }
+    
+    String getPath(int index) {
+        return path.get(index);
+    }
+    
+    long getPathLong(int index) {
+        try {
+            return Long.parseLong(path.get(index));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Se esperaba un número en la ruta: " + path.get(index));
+        }
+    }
+    
+    /**
+     * @return el parámetro de la consulta, o null si no está
+     */
+    String getQuery(String name) {
+        return query.get(name);
+    }
+    
+    int getOffset() {
+        return intQuery("offset", 0, 0, Integer.MAX_VALUE);
+    }
+    
+    int getLimit() {
+        return intQuery("limit", DEFAULT_LIMIT, 1, MAX_LIMIT);
+    }
+    
+    private int intQuery(String name, int defaultValue, int min, int max) {
+        String text = query.get(name);
+        if (text == null) {
+            return defaultValue;
+        }
+        try {
+            int value = Integer.parseInt(text);
+            if (value >= min && value <= max) {
+                return value;
+            }
+        } catch (NumberFormatException e) {
+            // Se informa abajo
+        }
+        throw new IllegalArgumentException("El parámetro " + name + " debe ser un número entre " + min + " y " + max);
+    }
+    
+    String readBody() throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            byte[] body = in.readNBytes(MAX_BODY + 1);
+            if (body.length > MAX_BODY) {
+                throw new IllegalArgumentException("El cuerpo supera " + MAX_BODY + " bytes");
+            }
+            return new String(body, StandardCharsets.UTF_8);
+        }
+    }
+}
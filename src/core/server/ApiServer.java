@@ -0,0 +1,92 @@
+package core.server;
+
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import core.controller.AuthorController;
+import core.controller.BookController;
+import core.controller.ManagerController;
+import core.controller.NarratorController;
+import core.controller.PublisherController;
+import core.controller.QueryController;
+import core.controller.StandController;
+import core.controller.StandPurchaseController;
+import core.model.Response;
+
+/**
+ * API HTTP/JSON sobre los controladores, para usar la feria sin la ventana
+ * (quioscos, lectores de códigos). Usa el servidor HTTP del JDK y atiende
+ * cada petición en su propio hilo virtual: las peticiones que esperan el
+ * candado de escritura o el disco no ocupan un hilo de plataforma.
+ *
+ * Rutas: /authors, /managers, /narrators, /publishers, /stands, /purchases,
+ * /books y /queries (ver cada handler). Las respuestas son la Response del
+ * controlador como {"status","code","message","data"} y el código HTTP es el
+ * de su StatusCode.
+ */
+public final class ApiServer {
+    
+    // Conexiones pendientes de aceptar; el valor por defecto del sistema es bajo para ráfagas
+    private static final int BACKLOG = 1024;
+    
+    private final HttpServer server;
+    private final ExecutorService executor;
+    
+    static {
+        // El servidor del JDK escribe los encabezados y el cuerpo por separado;
+        // con Nagle activo cada respuesta espera el ACK retrasado del cliente
+        // (unos 40 ms por conexión). Se lee una sola vez, al crear el primer servidor.
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+    
+    public ApiServer(int port) throws IOException {
+        this.server = HttpServer.create(new InetSocketAddress(port), BACKLOG);
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+        
+        // Los controladores no guardan estado propio: una instancia atiende todas las peticiones
+        AuthorController authorController = new AuthorController();
+        ManagerController managerController = new ManagerController();
+        NarratorController narratorController = new NarratorController();
+        QueryController queryController = new QueryController();
+        server.createContext("/authors", new PersonHandler(authorController::createAuthor, authorController::createAuthors,
+                                                           authorController::getAuthorsPage, authorController::getAuthorById));
+        server.createContext("/managers", new PersonHandler(managerController::createManager, managerController::createManagers,
+                                                            managerController::getManagersPage, managerController::getManagerById));
+        server.createContext("/narrators", new PersonHandler(narratorController::createNarrator, narratorController::createNarrators,
+                                                             narratorController::getNarratorsPage, narratorController::getNarratorById));
+        server.createContext("/publishers", new PublisherHandler(new PublisherController()));
+        server.createContext("/stands", new StandHandler(new StandController()));
+        server.createContext("/purchases", new PurchaseHandler(new StandPurchaseController()));
+        server.createContext("/books", new BookHandler(new BookController()));
+        server.createContext("/queries", new QueryHandler(queryController));
+        // Cualquier otra ruta responde 404 en JSON
+        server.createContext("/", new ApiHandler() {
+            @Override
+            protected Response<?> handle(ApiRequest request) {
+                return notFound(request);
+            }
+        });
+    }
+    
+    public void start() {
+        server.start();
+    }
+    
+    /**
+     * Deja de aceptar peticiones y espera hasta delaySeconds a que terminen
+     * las que están en curso
+     */
+    public void stop(int delaySeconds) {
+        server.stop(delaySeconds);
+        executor.close();
+    }
+    
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+}
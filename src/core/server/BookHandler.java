@@ -0,0 +1,70 @@
+package core.server;
+
+import java.io.IOException;
+import core.controller.BookController;
+import core.controller.BookData;
+import core.json.ModelCodec;
+import core.model.Audiobook;
+import core.model.Book;
+import core.model.DigitalBook;
+import core.model.PrintedBook;
+import core.model.Response;
+
+/**
+ * GET /books (con ?type=printed|digital|audiobook para un solo tipo) y
+ * POST /books con el campo "type" y los campos del tipo, por ejemplo
+ * {"type":"printed","isbn","title","authorIds":[...],"genre","format","value","publisherNit","pages","copies"};
+ * los digitales llevan "hyperlink" (opcional) y los audiolibros "duration"
+ * y "narratorId". Un arreglo de libros se crea en lote.
+ */
+final class BookHandler extends ApiHandler {
+    
+    private final BookController controller;
+    
+    BookHandler(BookController controller) {
+        this.controller = controller;
+    }
+    
+    @Override
+    protected Response<?> handle(ApiRequest request) throws IOException {
+        if (request.getPathSize() > 0) {
+            return notFound(request);
+        }
+        if (request.isGet()) {
+            // Solo se copian los libros de la página pedida
+            return controller.getBooksPage(typeOf(request.getQuery("type")), request.getOffset(), request.getLimit());
+        }
+        if (request.isPost()) {
+            return create(request, ModelCodec::readBook, this::createBook, controller::createBooks);
+        }
+        return methodNotAllowed(request);
+    }
+    
+    private static Class<? extends Book> typeOf(String type) {
+        if (type == null) {
+            return Book.class;
+        }
+        switch (type) {
+            case "printed": return PrintedBook.class;
+            case "digital": return DigitalBook.class;
+            case "audiobook": return Audiobook.class;
+            default: throw new IllegalArgumentException("Tipo de libro desconocido: " + type);
+        }
+    }
+    
+    private Response<?> createBook(BookData data) {
+        if (data.getType() == PrintedBook.class) {
+            return controller.createPrintedBook(data.getTitle(), data.getAuthorIds(), data.getIsbn(), data.getGenre(),
+                                                data.getFormat(), data.getValue(), data.getPublisherNit(),
+                                                data.getPages(), data.getCopies());
+        }
+        if (data.getType() == DigitalBook.class) {
+            return controller.createDigitalBook(data.getTitle(), data.getAuthorIds(), data.getIsbn(), data.getGenre(),
+                                                data.getFormat(), data.getValue(), data.getPublisherNit(),
+                                                data.getHyperlink());
+        }
+        return controller.createAudiobook(data.getTitle(), data.getAuthorIds(), data.getIsbn(), data.getGenre(),
+                                          data.getFormat(), data.getValue(), data.getPublisherNit(),
+                                          data.getDuration(), data.getNarratorId());
+    }
+}
@@ -0,0 +1,65 @@
+package core.server;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.LongFunction;
+import core.controller.PersonData;
+import core.json.ModelCodec;
+import core.model.Response;
+
+/**
+ * /authors, /managers y /narrators: los tres controladores de personas
+ * tienen las mismas operaciones.
+ *
+ * GET /authors, GET /authors/{id}, POST /authors con {"id","firstname","lastname"}
+ * (o un arreglo de esos objetos para crearlos en lote).
+ */
+final class PersonHandler extends ApiHandler {
+    
+    /**
+     * Método de creación individual del controlador
+     */
+    interface Creator {
+        Response<?> create(long id, String firstname, String lastname);
+    }
+    
+    /**
+     * Método del controlador que copia una página de la colección
+     */
+    interface Pager {
+        Response<?> page(int offset, int limit);
+    }
+    
+    private final Creator creator;
+    private final Function<List<PersonData>, List<? extends Response<?>>> batch;
+    private final Pager all;
+    private final LongFunction<Response<?>> byId;
+    
+    PersonHandler(Creator creator, Function<List<PersonData>, List<? extends Response<?>>> batch,
+                  Pager all, LongFunction<Response<?>> byId) {
+        this.creator = creator;
+        this.batch = batch;
+        this.all = all;
+        this.byId = byId;
+    }
+    
+    @Override
+    protected Response<?> handle(ApiRequest request) throws IOException {
+        if (request.getPathSize() == 0) {
+            if (request.isGet()) {
+                return all.page(request.getOffset(), request.getLimit());
+            }
+            if (request.isPost()) {
+                return create(request, ModelCodec::readPerson,
+                              data -> creator.create(data.getId(), data.getFirstname(), data.getLastname()),
+                              batch);
+            }
+            return methodNotAllowed(request);
+        }
+        if (request.getPathSize() == 1) {
+            return request.isGet() ? byId.apply(request.getPathLong(0)) : methodNotAllowed(request);
+        }
+        return notFound(request);
+    }
+}
@@ -0,0 +1,39 @@
+package core.server;
+
+import java.io.IOException;
+import core.controller.PublisherController;
+import core.json.ModelCodec;
+import core.model.Response;
+
+/**
+ * GET /publishers, GET /publishers/{nit} y POST /publishers con
+ * {"nit","name","address","managerId"} (o un arreglo para crearlas en lote)
+ */
+final class PublisherHandler extends ApiHandler {
+    
+    private final PublisherController controller;
+    
+    PublisherHandler(PublisherController controller) {
+        this.controller = controller;
+    }
+    
+    @Override
+    protected Response<?> handle(ApiRequest request) throws IOException {
+        if (request.getPathSize() == 0) {
+            if (request.isGet()) {
+                return controller.getPublishersPage(request.getOffset(), request.getLimit());
+            }
+            if (request.isPost()) {
+                return create(request, ModelCodec::readPublisher,
+                              data -> controller.createPublisher(data.getNit(), data.getName(), data.getAddress(),
+                                                                 data.getManagerId()),
+                              controller::createPublishers);
+            }
+            return methodNotAllowed(request);
+        }
+        if (request.getPathSize() == 1) {
+            return request.isGet() ? controller.getPublisherByNit(request.getPath(0)) : methodNotAllowed(request);
+        }
+        return notFound(request);
+    }
+}
@@ -0,0 +1,32 @@
+package core.server;
+
+import java.io.IOException;
+import core.controller.StandPurchaseController;
+import core.json.ModelCodec;
+import core.model.Response;
+
+/**
+ * POST /purchases con {"standIds":[...],"publisherNits":[...]} (o un arreglo
+ * de compras, cada una atómica)
+ */
+final class PurchaseHandler extends ApiHandler {
+    
+    private final StandPurchaseController controller;
+    
+    PurchaseHandler(StandPurchaseController controller) {
+        this.controller = controller;
+    }
+    
+    @Override
+    protected Response<?> handle(ApiRequest request) throws IOException {
+        if (request.getPathSize() > 0) {
+            return notFound(request);
+        }
+        if (!request.isPost()) {
+            return methodNotAllowed(request);
+        }
+        return create(request, ModelCodec::readPurchase,
+                      data -> controller.purchaseStands(data.getStandIds(), data.getPublisherNits()),
+                      controller::purchaseStands);
+    }
+}
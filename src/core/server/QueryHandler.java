@@ -0,0 +1,47 @@
+package core.server;
+
+import core.controller.QueryController;
+import core.model.Response;
+
+/**
+ * Consultas de QueryController, todas con GET:
+ * /queries/persons, /queries/authors-with-most-publishers,
+ * /queries/books-by-author/{id}, /queries/books-by-publisher/{nit},
+ * /queries/books-by-format/{formato} y /queries/books-by-genre/{género}
+ */
+final class QueryHandler extends ApiHandler {
+    
+    private final QueryController controller;
+    
+    QueryHandler(QueryController controller) {
+        this.controller = controller;
+    }
+    
+    @Override
+    protected Response<?> handle(ApiRequest request) {
+        if (request.getPathSize() == 0) {
+            return notFound(request);
+        }
+        if (!request.isGet()) {
+            return methodNotAllowed(request);
+        }
+        String query = request.getPath(0);
+        if (request.getPathSize() == 1) {
+            switch (query) {
+                case "persons": return controller.getPersonsPage(request.getOffset(), request.getLimit());
+                case "authors-with-most-publishers": return controller.getAuthorsWithMostPublishers();
+                default: return notFound(request);
+            }
+        }
+        if (request.getPathSize() == 2) {
+            switch (query) {
+                case "books-by-author": return controller.getBooksByAuthor(request.getPathLong(1));
+                case "books-by-publisher": return controller.getBooksByPublisher(request.getPath(1));
+                case "books-by-format": return controller.getBooksByFormat(request.getPath(1));
+                case "books-by-genre": return controller.getBooksByGenre(request.getPath(1));
+                default: return notFound(request);
+            }
+        }
+        return notFound(request);
+    }
+}
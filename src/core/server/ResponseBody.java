@@ -0,0 +1,59 @@
+package core.server;
+
+import com.sun.net.httpserver.HttpExchange;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Cuerpo de una respuesta de la API. Guarda el comienzo del JSON y demora
+ * los encabezados: si la respuesta completa cabe en el búfer se envía con
+ * Content-Length, y si no, en cuanto se llena se envían los encabezados y
+ * el resto sale por partes (chunked) sin guardar la respuesta completa.
+ */
+final class ResponseBody extends OutputStream {
+    
+    static final int BUFFER_SIZE = 32 * 1024;
+    
+    private final HttpExchange exchange;
+    private final int code;
+    private byte[] buffer = new byte[BUFFER_SIZE];
+    private int count;
+    private OutputStream out;
+    
+    ResponseBody(HttpExchange exchange, int code) {
+        this.exchange = exchange;
+        this.code = code;
+    }
+    
+    @Override
+    public void write(int b) throws IOException {
+        write(new byte[] {(byte) b}, 0, 1);
+    }
+    
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+        if (out == null && count + length <= buffer.length) {
+            System.arraycopy(bytes, offset, buffer, count, length);
+            count += length;
+            return;
+        }
+        if (out == null) {
+            // No cabe: se pasa a enviar por partes
+            exchange.sendResponseHeaders(code, 0);
+            out = exchange.getResponseBody();
+            out.write(buffer, 0, count);
+            buffer = null;
+        }
+        out.write(bytes, offset, length);
+    }
+    
+    @Override
+    public void close() throws IOException {
+        if (out == null) {
+            exchange.sendResponseHeaders(code, count);
+            out = exchange.getResponseBody();
+            out.write(buffer, 0, count);
+        }
+        out.close();
+    }
+}
@@ -0,0 +1,35 @@
+package core.server;
+
+import java.io.IOException;
+import core.controller.StandController;
+import core.json.ModelCodec;
+import core.model.Response;
+
+/**
+ * GET /stands y POST /stands con {"id","price"} (o un arreglo para crearlos
+ * en lote)
+ */
+final class StandHandler extends ApiHandler {
+    
+    private final StandController controller;
+    
+    StandHandler(StandController controller) {
+        this.controller = controller;
+    }
+    
+    @Override
+    protected Response<?> handle(ApiRequest request) throws IOException {
+        if (request.getPathSize() > 0) {
+            return notFound(request);
+        }
+        if (request.isGet()) {
+            return controller.getStandsPage(request.getOffset(), request.getLimit());
+        }
+        if (request.isPost()) {
+            return create(request, ModelCodec::readStand,
+                          data -> controller.createStand(data.getId(), data.getPrice()),
+                          controller::createStands);
+        }
+        return methodNotAllowed(request);
+    }
+}
@@ -1,87 +1,321 @@
 package core.storage;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
 import core.model.Book;
+import core.model.EntityAdded;
+import core.model.Keys;
 import core.model.Author;
-import core.model.Observer;
 
-public class BookStorage {
+public class BookStorage extends Storage {
     
-    private static BookStorage instance;
-    private List<Book> books;
-    private List<Observer> observers;
+    // Orden de todas las listas de libros
+    public static final Comparator<Book> ISBN_ORDER = Comparator.comparingLong(Book::getIsbnKey);
+    
+    // Libros ordenados por ISBN desde la inserción
+    SortedList<Book> books;
+    // Índice por clave primaria (ISBN codificado, ver Keys) para búsquedas en O(1)
+    LongHashMap<Book> booksByIsbn;
+    // Índices secundarios, cada uno ordenado por ISBN. Los que usan Map se
+    // reemplazan por una copia al cambiar una clave (ver index), así que se
+    // pueden leer sin candado mientras se escriben
+    Map<String, SortedList<Book>> booksByFormat;
+    Map<Class<?>, SortedList<Book>> booksByType;
+    LongHashMap<SortedList<Book>> booksByPublisher;
+    Map<String, SortedList<Book>> booksByGenre;
+    LongHashMap<SortedList<Book>> booksByAuthor;
+    // Autores con más editoriales distintas, ordenados por ID
+    SortedList<Author> topAuthors;
+    int topPublisherQuantity;
     
     private BookStorage() {
-        this.books = new ArrayList<>();
-        this.observers = new ArrayList<>();
+        reset();
+    }
+    
+    private void reset() {
+        this.books = new SortedList<>(ISBN_ORDER);
+        this.booksByIsbn = new LongHashMap<>();
+        this.booksByFormat = new HashMap<>();
+        this.booksByType = new HashMap<>();
+        this.booksByPublisher = new LongHashMap<>();
+        this.booksByGenre = new HashMap<>();
+        this.booksByAuthor = new LongHashMap<>();
+        this.topAuthors = new SortedList<>(PersonStorage.ID_ORDER);
+        this.topPublisherQuantity = 0;
+    }
+    
+    // Inicialización perezosa y segura entre hilos (holder idiom)
+    private static class Holder {
+        private static final BookStorage INSTANCE = new BookStorage();
     }
     
     public static BookStorage getInstance() {
-        if (instance == null) {
-            instance = new BookStorage();
+        return Holder.INSTANCE;
+    }
+    
+    /**
+     * Agrega el libro si no existe otro con el mismo ISBN.
+     * @return false si el ISBN ya estaba registrado
+     */
+    public boolean addBook(Book book) {
+        return write(() -> {
+            if (booksByIsbn.containsKey(book.getIsbnKey())) {
+                return false;
+            }
+            // Se registra primero: deshace también lo que alcance a aplicarse si algo falla a mitad
+            onRollback(() -> removeBook(book));
+            this.books = books.mutable();
+            this.books.insert(book);
+            this.booksByIsbn = booksByIsbn.mutable();
+            this.booksByIsbn.put(book.getIsbnKey(), book);
+            this.booksByFormat = index(booksByFormat, book.getFormat(), book);
+            this.booksByType = index(booksByType, book.getClass(), book);
+            this.booksByGenre = index(booksByGenre, book.getGenre(), book);
+            this.booksByPublisher = index(booksByPublisher, book.getPublisher().getNitKey(), book);
+            for (Author author : book.getAuthors()) {
+                this.booksByAuthor = index(booksByAuthor, author.getId(), book);
+                updateTopAuthors(author);
+            }
+            notifyObservers(new EntityAdded<>(Book.class, book.getIsbn(), book));
+            return true;
+        });
+    }
+    
+    /**
+     * La cantidad de editoriales de un autor solo crece, y a lo sumo en uno
+     * por libro, así que basta con compararla contra el máximo actual.
+     */
+    private void updateTopAuthors(Author author) {
+        int quantity = author.getPublisherQuantity();
+        if (quantity > topPublisherQuantity) {
+            SortedList<Author> previous = topAuthors;
+            int previousQuantity = topPublisherQuantity;
+            onRollback(() -> {
+                this.topAuthors = previous;
+                this.topPublisherQuantity = previousQuantity;
+            });
+            topPublisherQuantity = quantity;
+            topAuthors = new SortedList<>(PersonStorage.ID_ORDER);
+            topAuthors.insert(author);
+        } else if (quantity == topPublisherQuantity && topAuthors.find(author) < 0) {
+            topAuthors = topAuthors.mutable();
+            topAuthors.insert(author);
+            onRollback(() -> {
+                this.topAuthors = topAuthors.mutable();
+                this.topAuthors.delete(author);
+            });
+        }
+    }
+    
+    /**
+     * Deshace addBook: lo quita de las listas e índices en los que alcanzó a
+     * entrar y de sus autores y editorial
+     */
+    private void removeBook(Book book) {
+        this.books = books.mutable();
+        this.books.delete(book);
+        this.booksByIsbn = booksByIsbn.mutable();
+        this.booksByIsbn.remove(book.getIsbnKey());
+        this.booksByFormat = unindex(booksByFormat, book.getFormat(), book);
+        this.booksByType = unindex(booksByType, book.getClass(), book);
+        this.booksByGenre = unindex(booksByGenre, book.getGenre(), book);
+        this.booksByPublisher = unindex(booksByPublisher, book.getPublisher().getNitKey(), book);
+        for (Author author : book.getAuthors()) {
+            this.booksByAuthor = unindex(booksByAuthor, author.getId(), book);
         }
-        return instance;
+        unlink(book);
     }
     
-    public void addObserver(Observer observer) {
-        this.observers.add(observer);
+    /**
+     * Los índices por texto y tipo tienen pocas claves, así que nunca se
+     * modifican: si cambia una clave o la lista de una clave (después de una
+     * Snapshot) se reemplazan por una copia. Un HashMap que se redimensiona
+     * no se puede leer sin candado.
+     * @return el índice actual o su copia con el cambio
+     */
+    private static <K> Map<K, SortedList<Book>> index(Map<K, SortedList<Book>> index, K key, Book book) {
+        SortedList<Book> indexed = index.get(key);
+        SortedList<Book> mutable = indexed == null ? new SortedList<>(ISBN_ORDER) : indexed.mutable();
+        if (mutable != indexed) {
+            index = new HashMap<>(index);
+            index.put(key, mutable);
+        }
+        mutable.insert(book);
+        return index;
     }
     
-    public void removeObserver(Observer observer) {
-        this.observers.remove(observer);
+    /**
+     * @return el índice en su versión modificable (puede ser una copia)
+     */
+    private static LongHashMap<SortedList<Book>> index(LongHashMap<SortedList<Book>> index, long key, Book book) {
+        LongHashMap<SortedList<Book>> writable = index.mutable();
+        SortedList<Book> indexed = writable.get(key);
+        SortedList<Book> mutable = indexed == null ? new SortedList<>(ISBN_ORDER) : indexed.mutable();
+        if (mutable != indexed) {
+            writable.put(key, mutable);
+        }
+        mutable.insert(book);
+        return writable;
     }
     
-    private void notifyObservers() {
-        for (Observer observer : observers) {
-            observer.update();
+    private static <K> Map<K, SortedList<Book>> unindex(Map<K, SortedList<Book>> index, K key, Book book) {
+        SortedList<Book> indexed = index.get(key);
+        if (indexed == null) {
+            return index;
         }
+        SortedList<Book> mutable = indexed.mutable();
+        mutable.delete(book);
+        if (mutable.isEmpty()) {
+            index = new HashMap<>(index);
+            index.remove(key);
+        } else if (mutable != indexed) {
+            index = new HashMap<>(index);
+            index.put(key, mutable);
+        }
+        return index;
     }
     
-    public void addBook(Book book) {
-        this.books.add(book);
-        notifyObservers();
+    private static LongHashMap<SortedList<Book>> unindex(LongHashMap<SortedList<Book>> index, long key, Book book) {
+        LongHashMap<SortedList<Book>> writable = index.mutable();
+        SortedList<Book> indexed = writable.get(key);
+        if (indexed == null) {
+            return writable;
+        }
+        indexed = indexed.mutable();
+        indexed.delete(book);
+        if (indexed.isEmpty()) {
+            writable.remove(key);
+        } else {
+            writable.put(key, indexed);
+        }
+        return writable;
+    }
+    
+    private static List<Book> copyOf(List<Book> indexed) {
+        return indexed == null ? new ArrayList<>() : new ArrayList<>(indexed);
     }
     
     public Book getBookByIsbn(String isbn) {
-        return books.stream()
-            .filter(b -> b.getIsbn().equals(isbn))
-            .findFirst()
-            .orElse(null);
+        long key = Keys.parseIsbn(isbn);
+        return key < 0 ? null : getBookByIsbn(key);
+    }
+    
+    public Book getBookByIsbn(long isbnKey) {
+        return read(() -> booksByIsbn.get(isbnKey));
     }
     
     public List<Book> getAllBooks() {
-        return new ArrayList<>(books.stream()
-            .sorted((b1, b2) -> b1.getIsbn().compareTo(b2.getIsbn()))
-            .collect(Collectors.toList()));
+        return read(() -> new ArrayList<>(books));
+    }
+    
+    public int getBookQuantity() {
+        return read(() -> books.size());
+    }
+    
+    /**
+     * Vista en vivo de solo lectura de todos los libros, ordenada por ISBN.
+     * No copia los datos; refleja las inserciones posteriores. Cada acceso
+     * se lee con read().
+     */
+    public List<Book> getBooksView() {
+        return liveView(() -> books);
+    }
+    
+    /**
+     * Vista en vivo de solo lectura de los libros de un tipo concreto.
+     * Para Book (o una superclase) retorna la vista de todos los libros.
+     */
+    public List<Book> getBooksByTypeView(Class<? extends Book> type) {
+        if (type.isAssignableFrom(Book.class)) {
+            return getBooksView();
+        }
+        return liveView(() -> {
+            SortedList<Book> indexed = booksByType.get(type);
+            return indexed == null ? Collections.<Book>emptyList() : indexed;
+        });
     }
     
+    /**
+     * Los libros se indexan por su clase concreta. Si el tipo pedido es una
+     * superclase que abarca varias clases indexadas, se filtra la lista general.
+     */
     public List<Book> getBooksByType(Class<?> type) {
-        return new ArrayList<>(books.stream()
-            .filter(b -> type.isInstance(b))
-            .sorted((b1, b2) -> b1.getIsbn().compareTo(b2.getIsbn()))
-            .collect(Collectors.toList()));
+        return read(() -> copyOf(booksOfType(booksByType, books, type)));
+    }
+    
+    /**
+     * @return la lista indexada del tipo (sin copiar) o una lista nueva filtrada
+     */
+    static List<Book> booksOfType(Map<Class<?>, SortedList<Book>> byType, List<Book> all, Class<?> type) {
+        SortedList<Book> exact = byType.get(type);
+        if (exact != null) {
+            return exact;
+        }
+        int matches = 0;
+        SortedList<Book> match = null;
+        for (Map.Entry<Class<?>, SortedList<Book>> entry : byType.entrySet()) {
+            if (type.isAssignableFrom(entry.getKey())) {
+                matches++;
+                match = entry.getValue();
+            }
+        }
+        if (matches == 1) {
+            return match;
+        }
+        List<Book> result = new ArrayList<>();
+        if (matches > 1) {
+            for (Book book : all) {
+                if (type.isInstance(book)) {
+                    result.add(book);
+                }
+            }
+        }
+        return result;
     }
     
     public List<Book> getBooksByFormat(String format) {
-        return new ArrayList<>(books.stream()
-            .filter(b -> b.getFormat().equals(format))
-            .sorted((b1, b2) -> b1.getIsbn().compareTo(b2.getIsbn()))
-            .collect(Collectors.toList()));
+        return read(() -> copyOf(booksByFormat.get(format)));
+    }
+    
+    public List<Book> getBooksByPublisher(String nit) {
+        long key = Keys.parseNit(nit);
+        return key < 0 ? new ArrayList<>() : read(() -> copyOf(booksByPublisher.get(key)));
+    }
+    
+    public List<Book> getBooksByGenre(String genre) {
+        return read(() -> copyOf(booksByGenre.get(genre)));
     }
     
     public List<Book> getBooksByAuthor(Author author) {
-        return new ArrayList<>(author.getBooks().stream()
-            .sorted((b1, b2) -> b1.getIsbn().compareTo(b2.getIsbn()))
-            .collect(Collectors.toList()));
+        return read(() -> copyOf(booksByAuthor.get(author.getId())));
+    }
+    
+    /**
+     * Autores con la mayor cantidad de editoriales distintas, ordenados por ID.
+     * Se mantiene en cada addBook, así que el costo depende solo del resultado.
+     */
+    public List<Author> getAuthorsWithMostPublishers() {
+        return read(() -> new ArrayList<>(topAuthors));
+    }
+    
+    public int getTopPublisherQuantity() {
+        return read(() -> topPublisherQuantity);
     }
     
     public boolean existsBookByIsbn(String isbn) {
-        return books.stream().anyMatch(b -> b.getIsbn().equals(isbn));
+        return getBookByIsbn(isbn) != null;
+    }
+    
+    public boolean existsBookByIsbn(long isbnKey) {
+        return read(() -> booksByIsbn.containsKey(isbnKey));
     }
     
     public void clear() {
-        this.books.clear();
+        // Se reemplazan las colecciones: las Snapshot anteriores conservan las suyas
+        write(this::reset);
     }
 }
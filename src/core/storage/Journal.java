@@ -0,0 +1,41 @@
+package core.storage;
+
+import core.model.ChangeEvent;
+
+/**
+ * Destino de los cambios de los Storage para persistirlos (por ejemplo un
+ * registro en disco). Se instala con Storage.setJournal().
+ *
+ * append() y commit() se llaman al confirmar una transacción, con el candado
+ * de escritura tomado, así que nunca se ejecutan en paralelo. Los cambios de
+ * una transacción que se deshace nunca llegan al Journal, y los de una que
+ * falla al registrarse se descartan con abort().
+ */
+public interface Journal {
+    
+    /**
+     * Registra un cambio de la transacción que se está confirmando
+     */
+    void append(ChangeEvent event);
+    
+    /**
+     * Escribe los cambios registrados desde el commit anterior como una
+     * unidad. Si falla, la transacción se deshace.
+     * @return un ticket para awaitDurable(), o 0 si no hay que esperar al disco
+     */
+    long commit();
+    
+    /**
+     * Descarta lo registrado con append() desde el commit anterior. Se llama
+     * cuando un append() o el commit() fallan, antes de deshacer la
+     * transacción, para que sus cambios no se escriban con el commit siguiente.
+     */
+    void abort();
+    
+    /**
+     * Espera a que lo escrito hasta el ticket esté en disco. Se llama después
+     * de soltar el candado, así que varios escritores pueden compartir la
+     * misma espera (group commit).
+     */
+    void awaitDurable(long ticket);
+}
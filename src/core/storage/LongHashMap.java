@@ -0,0 +1,239 @@
+package core.storage;
+
+/**
+ * Mapa de claves long primitivas a entidades con direccionamiento abierto
+ * (sondeo lineal). Evita crear un Long por cada búsqueda y guarda cada entrada
+ * en dos arreglos paralelos en lugar de un nodo por entrada como HashMap.
+ *
+ * Las entradas se reparten en SEGMENTS tablas independientes para poder
+ * compartirlas entre versiones (copy-on-write), igual que SortedList: el mapa
+ * solo se modifica en la época en que se creó, mutable() copia el arreglo de
+ * segmentos y cada segmento se copia la primera vez que se modifica.
+ */
+class LongHashMap<V> {
+
+    private static final int SEGMENTS = 64;
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private final int epoch;
+    private final Segment[] segments;
+    private int size;
+
+    private static final class Segment {
+        
+        final int epoch;
+        long[] keys;
+        Object[] values;
+        int size;
+        int mask;
+        int resizeAt;
+        
+        Segment(int epoch, int capacity) {
+            this.epoch = epoch;
+            allocate(capacity);
+        }
+        
+        Segment(int epoch, Segment other) {
+            this.epoch = epoch;
+            this.keys = other.keys.clone();
+            this.values = other.values.clone();
+            this.size = other.size;
+            this.mask = other.mask;
+            this.resizeAt = other.resizeAt;
+        }
+        
+        void allocate(int capacity) {
+            this.keys = new long[capacity];
+            this.values = new Object[capacity];
+            this.mask = capacity - 1;
+            this.resizeAt = capacity * 2 / 3;
+        }
+        
+        Object get(long key, int hash) {
+            int i = hash & mask;
+            Object value;
+            while ((value = values[i]) != null) {
+                if (keys[i] == key) {
+                    return value;
+                }
+                i = (i + 1) & mask;
+            }
+            return null;
+        }
+        
+        Object put(long key, int hash, Object value) {
+            int i = hash & mask;
+            Object current;
+            while ((current = values[i]) != null) {
+                if (keys[i] == key) {
+                    values[i] = value;
+                    return current;
+                }
+                i = (i + 1) & mask;
+            }
+            keys[i] = key;
+            values[i] = value;
+            if (++size > resizeAt) {
+                rehash(values.length << 1);
+            }
+            return null;
+        }
+        
+        /**
+         * Borra sin lápidas: las entradas siguientes del mismo grupo se
+         * corren hacia atrás para que el sondeo lineal las siga encontrando
+         */
+        Object remove(long key, int hash) {
+            int i = hash & mask;
+            Object current;
+            while ((current = values[i]) != null) {
+                if (keys[i] == key) {
+                    break;
+                }
+                i = (i + 1) & mask;
+            }
+            if (current == null) {
+                return null;
+            }
+            values[i] = null;
+            size--;
+            int j = i;
+            while (values[j = (j + 1) & mask] != null) {
+                int home = hash(keys[j]) & mask;
+                // La entrada j puede ocupar el hueco si este queda entre su posición ideal y j
+                if (((j - home) & mask) >= ((j - i) & mask)) {
+                    keys[i] = keys[j];
+                    values[i] = values[j];
+                    values[j] = null;
+                    i = j;
+                }
+            }
+            return current;
+        }
+        
+        void rehash(int capacity) {
+            long[] oldKeys = keys;
+            Object[] oldValues = values;
+            allocate(capacity);
+            for (int j = 0; j < oldValues.length; j++) {
+                if (oldValues[j] != null) {
+                    int i = hash(oldKeys[j]) & mask;
+                    while (values[i] != null) {
+                        i = (i + 1) & mask;
+                    }
+                    keys[i] = oldKeys[j];
+                    values[i] = oldValues[j];
+                }
+            }
+        }
+    }
+
+    LongHashMap() {
+        this(Storage.currentEpoch(), new Segment[SEGMENTS]);
+    }
+
+    private LongHashMap(int epoch, Segment[] segments) {
+        this.epoch = epoch;
+        this.segments = segments;
+    }
+
+    /**
+     * Retorna un mapa que se puede modificar en la época actual: este mismo
+     * si ya pertenece a ella, o una copia que comparte los segmentos.
+     */
+    LongHashMap<V> mutable() {
+        int current = Storage.currentEpoch();
+        if (epoch == current) {
+            return this;
+        }
+        LongHashMap<V> copy = new LongHashMap<>(current, segments.clone());
+        copy.size = size;
+        return copy;
+    }
+
+    /**
+     * Mezcla los bits de la clave (finalizador de MurmurHash3) para que IDs
+     * consecutivos no queden en posiciones consecutivas de la tabla.
+     */
+    private static int hash(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return (int) key;
+    }
+
+    // Los bits altos eligen el segmento y los bajos la posición dentro de él
+    private static int segmentFor(int hash) {
+        return hash >>> 26;
+    }
+    
+    @SuppressWarnings("unchecked")
+    V get(long key) {
+        int hash = hash(key);
+        Segment segment = segments[segmentFor(hash)];
+        return segment == null ? null : (V) segment.get(key, hash);
+    }
+
+    boolean containsKey(long key) {
+        return get(key) != null;
+    }
+
+    /**
+     * Inserta o reemplaza el valor asociado a la clave. Solo se debe llamar
+     * sobre un mapa obtenido con mutable().
+     * @return el valor anterior, o null si la clave no existía
+     */
+    @SuppressWarnings("unchecked")
+    V put(long key, V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("LongHashMap no admite valores null");
+        }
+        if (epoch != Storage.currentEpoch()) {
+            throw new IllegalStateException("El mapa pertenece a una versión anterior");
+        }
+        int hash = hash(key);
+        int index = segmentFor(hash);
+        Segment segment = segments[index];
+        if (segment == null) {
+            segment = new Segment(epoch, DEFAULT_CAPACITY);
+            segments[index] = segment;
+        } else if (segment.epoch != epoch) {
+            segment = new Segment(epoch, segment);
+            segments[index] = segment;
+        }
+        Object previous = segment.put(key, hash, value);
+        if (previous == null) {
+            size++;
+        }
+        return (V) previous;
+    }
+
+    /**
+     * Quita la clave. Solo se debe llamar sobre un mapa obtenido con mutable().
+     * @return el valor que tenía, o null si la clave no existía
+     */
+    @SuppressWarnings("unchecked")
+    V remove(long key) {
+        if (epoch != Storage.currentEpoch()) {
+            throw new IllegalStateException("El mapa pertenece a una versión anterior");
+        }
+        int hash = hash(key);
+        int index = segmentFor(hash);
+        Segment segment = segments[index];
+        if (segment == null || segment.get(key, hash) == null) {
+            return null;
+        }
+        if (segment.epoch != epoch) {
+            segment = new Segment(epoch, segment);
+            segments[index] = segment;
+        }
+        size--;
+        return (V) segment.remove(key, hash);
+    }
+    
+    int size() {
+        return size;
+    }
+}
@@ -0,0 +1,16 @@
+package core.storage;
+
+/**
+ * Una escritura se confirmó (los cambios ya están en los Storage y se
+ * notificaron) pero el Journal no pudo llevarlos a disco. Los controladores
+ * la convierten en una Response de error: el cambio se ve en la aplicación,
+ * pero podría perderse si el proceso termina.
+ */
+public class NotDurableException extends RuntimeException {
+    
+    private static final long serialVersionUID = 1L;
+    
+    NotDurableException(RuntimeException cause) {
+        super("Los cambios se aplicaron pero no se pudieron guardar en disco: " + cause.getMessage(), cause);
+    }
+}
@@ -0,0 +1,16 @@
+package core.storage;
+
+/**
+ * El Journal no pudo registrar una escritura (por ejemplo, el disco está
+ * lleno) y la transacción se deshizo: a diferencia de NotDurableException,
+ * los cambios no quedan en los Storage ni se notifican. Los controladores
+ * la convierten en una Response de error.
+ */
+public class NotWrittenException extends RuntimeException {
+    
+    private static final long serialVersionUID = 1L;
+    
+    NotWrittenException(RuntimeException cause) {
+        super("Los cambios no se pudieron guardar en disco y se deshicieron: " + cause.getMessage(), cause);
+    }
+}
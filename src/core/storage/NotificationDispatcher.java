@@ -0,0 +1,219 @@
+package core.storage;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import core.model.ChangeEvent;
+import core.model.Observer;
+
+/**
+ * Despachador de notificaciones compartido por todos los Storage.
+ *
+ * Agrupa las notificaciones de una ráfaga para que cada observador reciba un
+ * único update(): dentro de un lote (beginBatch/endBatch) no se notifica nada
+ * hasta cerrar el lote más externo, y con una ventana mayor a 0 las
+ * notificaciones que lleguen dentro de esa ventana se entregan juntas.
+ * Cada observador recibe los eventos de la ráfaga en orden; si supera
+ * MAX_PENDING_EVENTS recibe solo ChangeEvent.RELOAD.
+ *
+ * Los lotes son de cada hilo: los eventos publicados dentro de un lote se
+ * guardan aparte y pasan a los pendientes al cerrarlo, así que un lote
+ * largo de un hilo no demora las notificaciones de los demás.
+ */
+public class NotificationDispatcher {
+
+    private static NotificationDispatcher instance;
+
+    static final int MAX_PENDING_EVENTS = 10000;
+
+    // Eventos pendientes por observador, en orden de llegada
+    private final Map<Observer, List<ChangeEvent>> pending;
+    // Lote abierto por cada hilo
+    private final ThreadLocal<Batch> batches;
+    private long windowMillis;
+    private boolean flushScheduled;
+    private ScheduledExecutorService scheduler;
+
+    private NotificationDispatcher() {
+        this.pending = new LinkedHashMap<>();
+        this.batches = new ThreadLocal<>();
+        this.windowMillis = 0;
+    }
+
+    public static synchronized NotificationDispatcher getInstance() {
+        if (instance == null) {
+            instance = new NotificationDispatcher();
+        }
+        return instance;
+    }
+
+    /**
+     * Define la ventana de agrupación. Con 0 (valor por defecto) las
+     * notificaciones fuera de un lote se entregan de inmediato.
+     */
+    public synchronized void setWindow(long window, TimeUnit unit) {
+        if (window < 0) {
+            throw new IllegalArgumentException("La ventana no puede ser negativa");
+        }
+        this.windowMillis = unit.toMillis(window);
+    }
+
+    public synchronized long getWindowMillis() {
+        return windowMillis;
+    }
+
+    /**
+     * Registra el evento para cada uno de los observadores. Dentro de un
+     * lote queda en el lote del hilo hasta cerrarlo.
+     */
+    void publish(Collection<Observer> observers, ChangeEvent event) {
+        Batch batch = batches.get();
+        if (batch != null) {
+            for (Observer observer : observers) {
+                add(batch.events, observer, event);
+            }
+            return;
+        }
+        synchronized (this) {
+            for (Observer observer : observers) {
+                add(pending, observer, event);
+            }
+        }
+        deliver();
+    }
+    
+    private static void add(Map<Observer, List<ChangeEvent>> events, Observer observer, ChangeEvent event) {
+        List<ChangeEvent> list = events.computeIfAbsent(observer, o -> new ArrayList<>());
+        if (list.size() < MAX_PENDING_EVENTS) {
+            list.add(event);
+        } else if (list.get(0) != ChangeEvent.RELOAD) {
+            // Demasiados cambios: es más barato recargar todo
+            list.clear();
+            list.add(ChangeEvent.RELOAD);
+        }
+    }
+    
+    /**
+     * Entrega los pendientes de inmediato o al final de la ventana
+     */
+    private void deliver() {
+        synchronized (this) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            if (windowMillis > 0) {
+                scheduleFlush();
+                return;
+            }
+        }
+        flush();
+    }
+
+    /**
+     * Abre un lote en el hilo actual (o uno anidado dentro del que ya tiene)
+     */
+    public void beginBatch() {
+        Batch batch = batches.get();
+        if (batch == null) {
+            batches.set(new Batch());
+        } else {
+            batch.depth++;
+        }
+    }
+
+    /**
+     * Cierra un lote del hilo actual. Al cerrar el más externo se entrega
+     * una sola notificación a cada observador afectado.
+     */
+    public void endBatch() {
+        Batch batch = batches.get();
+        if (batch == null) {
+            throw new IllegalStateException("endBatch() sin beginBatch()");
+        }
+        if (--batch.depth > 0) {
+            return;
+        }
+        batches.remove();
+        if (batch.events.isEmpty()) {
+            return;
+        }
+        synchronized (this) {
+            for (Map.Entry<Observer, List<ChangeEvent>> entry : batch.events.entrySet()) {
+                for (ChangeEvent event : entry.getValue()) {
+                    add(pending, entry.getKey(), event);
+                }
+            }
+        }
+        deliver();
+    }
+
+    /**
+     * Indica si el hilo actual tiene un lote abierto
+     */
+    public boolean isInBatch() {
+        return batches.get() != null;
+    }
+
+    private void scheduleFlush() {
+        if (flushScheduled) {
+            return;
+        }
+        if (scheduler == null) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "megaferia-notifications");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        flushScheduled = true;
+        scheduler.schedule(this::flush, windowMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Entrega las notificaciones pendientes fuera del candado para que los
+     * observadores puedan volver a consultar los Storage. Cada entrega emite
+     * un NotificationEvent si hay una grabación JFR activa.
+     */
+    public void flush() {
+        Map<Observer, List<ChangeEvent>> deliveries;
+        synchronized (this) {
+            flushScheduled = false;
+            if (pending.isEmpty()) {
+                return;
+            }
+            deliveries = new LinkedHashMap<>(pending);
+            pending.clear();
+        }
+        NotificationEvent event = new NotificationEvent();
+        event.begin();
+        for (Map.Entry<Observer, List<ChangeEvent>> delivery : deliveries.entrySet()) {
+            delivery.getKey().update(Collections.unmodifiableList(delivery.getValue()));
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.observers = deliveries.size();
+            for (List<ChangeEvent> events : deliveries.values()) {
+                event.events += events.size();
+                if (events.get(0) == ChangeEvent.RELOAD) {
+                    event.reloads++;
+                }
+            }
+            event.commit();
+        }
+    }
+    
+    /**
+     * Lote abierto de un hilo: su profundidad y los eventos que publicó
+     */
+    private static final class Batch {
+        
+        int depth = 1;
+        final Map<Observer, List<ChangeEvent>> events = new LinkedHashMap<>();
+    }
+}
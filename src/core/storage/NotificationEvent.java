@@ -0,0 +1,30 @@
+package core.storage;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento de Java Flight Recorder por cada entrega de notificaciones del
+ * NotificationDispatcher: a cuántos observadores y cuántos eventos, y cuánto
+ * tardaron sus update() (la duración del evento).
+ */
+@Name("core.NotificationFanOut")
+@Label("Notification Fan-Out")
+@Category({"Megaferia", "Storage"})
+@Description("Entrega de los eventos de cambio pendientes a los observadores")
+@StackTrace(false)
+class NotificationEvent extends jdk.jfr.Event {
+    
+    @Label("Observers")
+    int observers;
+    
+    @Label("Events")
+    int events;
+    
+    // Observadores que recibieron ChangeEvent.RELOAD por exceso de eventos
+    @Label("Reloads")
+    int reloads;
+}
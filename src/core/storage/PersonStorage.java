@@ -1,129 +1,225 @@
 package core.storage;
 
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
-import java.util.stream.Collectors;
 import core.model.Author;
+import core.model.EntityAdded;
 import core.model.Manager;
 import core.model.Narrator;
-import core.model.Observer;
 import core.model.Person;
 
-public class PersonStorage {
+public class PersonStorage extends Storage {
     
-    private static PersonStorage instance;
-    private List<Author> authors;
-    private List<Manager> managers;
-    private List<Narrator> narrators;
-    private List<Observer> observers;
+    // Orden de todas las listas de personas
+    public static final Comparator<Person> ID_ORDER = Comparator.comparingLong(Person::getId);
+    
+    // Personas ordenadas por ID desde la inserción
+    SortedList<Author> authors;
+    SortedList<Manager> managers;
+    SortedList<Narrator> narrators;
+    SortedList<Person> persons;
+    // Índices por ID con claves long primitivas
+    LongHashMap<Author> authorsById;
+    LongHashMap<Manager> managersById;
+    LongHashMap<Narrator> narratorsById;
     
     private PersonStorage() {
-        this.authors = new ArrayList<>();
-        this.managers = new ArrayList<>();
-        this.narrators = new ArrayList<>();
-        this.observers = new ArrayList<>();
+        reset();
     }
     
-    public static PersonStorage getInstance() {
-        if (instance == null) {
-            instance = new PersonStorage();
-        }
-        return instance;
+    private void reset() {
+        this.authors = new SortedList<>(ID_ORDER);
+        this.managers = new SortedList<>(ID_ORDER);
+        this.narrators = new SortedList<>(ID_ORDER);
+        this.persons = new SortedList<>(ID_ORDER);
+        this.authorsById = new LongHashMap<>();
+        this.managersById = new LongHashMap<>();
+        this.narratorsById = new LongHashMap<>();
     }
     
-    public void addObserver(Observer observer) {
-        this.observers.add(observer);
+    // Inicialización perezosa y segura entre hilos (holder idiom)
+    private static class Holder {
+        private static final PersonStorage INSTANCE = new PersonStorage();
     }
     
-    public void removeObserver(Observer observer) {
-        this.observers.remove(observer);
+    public static PersonStorage getInstance() {
+        return Holder.INSTANCE;
+    }
+    
+    /**
+     * Agrega el autor si no existe otro con el mismo ID.
+     * @return false si el ID ya estaba registrado
+     */
+    public boolean addAuthor(Author author) {
+        return write(() -> {
+            if (authorsById.containsKey(author.getId())) {
+                return false;
+            }
+            this.authors = authors.mutable();
+            this.authors.insert(author);
+            this.persons = persons.mutable();
+            this.persons.insert(author);
+            this.authorsById = authorsById.mutable();
+            this.authorsById.put(author.getId(), author);
+            onRollback(() -> removeAuthor(author));
+            notifyObservers(new EntityAdded<>(Author.class, author.getId(), author));
+            return true;
+        });
+    }
+    
+    private void removeAuthor(Author author) {
+        this.authors = authors.mutable();
+        this.authors.delete(author);
+        this.persons = persons.mutable();
+        this.persons.delete(author);
+        this.authorsById = authorsById.mutable();
+        this.authorsById.remove(author.getId());
     }
     
-    private void notifyObservers() {
-        for (Observer observer : observers) {
-            observer.update();
-        }
+    public Author getAuthorById(long id) {
+        return read(() -> authorsById.get(id));
     }
     
-    public void addAuthor(Author author) {
-        this.authors.add(author);
-        notifyObservers();
+    public List<Author> getAllAuthors() {
+        return read(() -> new ArrayList<>(authors));
     }
     
-    public Author getAuthorById(long id) {
-        return authors.stream()
-            .filter(a -> a.getId() == id)
-            .findFirst()
-            .orElse(null);
+    /**
+     * Vista en vivo de solo lectura de los autores, ordenada por ID
+     */
+    public List<Author> getAuthorsView() {
+        return liveView(() -> authors);
     }
     
-    public List<Author> getAllAuthors() {
-        return new ArrayList<>(authors.stream()
-            .sorted((a1, a2) -> Long.compare(a1.getId(), a2.getId()))
-            .collect(Collectors.toList()));
+    public int getAuthorQuantity() {
+        return read(() -> authors.size());
     }
     
     public boolean existsAuthorById(long id) {
-        return authors.stream().anyMatch(a -> a.getId() == id);
-    }
-    
-    public void addManager(Manager manager) {
-        this.managers.add(manager);
-        notifyObservers();
+        return read(() -> authorsById.containsKey(id));
+    }
+    
+    /**
+     * Agrega el gerente si no existe otro con el mismo ID.
+     * @return false si el ID ya estaba registrado
+     */
+    public boolean addManager(Manager manager) {
+        return write(() -> {
+            if (managersById.containsKey(manager.getId())) {
+                return false;
+            }
+            this.managers = managers.mutable();
+            this.managers.insert(manager);
+            this.persons = persons.mutable();
+            this.persons.insert(manager);
+            this.managersById = managersById.mutable();
+            this.managersById.put(manager.getId(), manager);
+            onRollback(() -> removeManager(manager));
+            notifyObservers(new EntityAdded<>(Manager.class, manager.getId(), manager));
+            return true;
+        });
+    }
+    
+    private void removeManager(Manager manager) {
+        this.managers = managers.mutable();
+        this.managers.delete(manager);
+        this.persons = persons.mutable();
+        this.persons.delete(manager);
+        this.managersById = managersById.mutable();
+        this.managersById.remove(manager.getId());
     }
     
     public Manager getManagerById(long id) {
-        return managers.stream()
-            .filter(m -> m.getId() == id)
-            .findFirst()
-            .orElse(null);
+        return read(() -> managersById.get(id));
     }
     
     public List<Manager> getAllManagers() {
-        return new ArrayList<>(managers.stream()
-            .sorted((m1, m2) -> Long.compare(m1.getId(), m2.getId()))
-            .collect(Collectors.toList()));
+        return read(() -> new ArrayList<>(managers));
     }
     
-    public boolean existsManagerById(long id) {
-        return managers.stream().anyMatch(m -> m.getId() == id);
+    /**
+     * Vista en vivo de solo lectura de los gerentes, ordenada por ID
+     */
+    public List<Manager> getManagersView() {
+        return liveView(() -> managers);
     }
     
-    public void addNarrator(Narrator narrator) {
-        this.narrators.add(narrator);
-        notifyObservers();
+    public int getManagerQuantity() {
+        return read(() -> managers.size());
+    }
+    
+    public boolean existsManagerById(long id) {
+        return read(() -> managersById.containsKey(id));
+    }
+    
+    /**
+     * Agrega el narrador si no existe otro con el mismo ID.
+     * @return false si el ID ya estaba registrado
+     */
+    public boolean addNarrator(Narrator narrator) {
+        return write(() -> {
+            if (narratorsById.containsKey(narrator.getId())) {
+                return false;
+            }
+            this.narrators = narrators.mutable();
+            this.narrators.insert(narrator);
+            this.persons = persons.mutable();
+            this.persons.insert(narrator);
+            this.narratorsById = narratorsById.mutable();
+            this.narratorsById.put(narrator.getId(), narrator);
+            onRollback(() -> removeNarrator(narrator));
+            notifyObservers(new EntityAdded<>(Narrator.class, narrator.getId(), narrator));
+            return true;
+        });
+    }
+    
+    private void removeNarrator(Narrator narrator) {
+        this.narrators = narrators.mutable();
+        this.narrators.delete(narrator);
+        this.persons = persons.mutable();
+        this.persons.delete(narrator);
+        this.narratorsById = narratorsById.mutable();
+        this.narratorsById.remove(narrator.getId());
     }
     
     public Narrator getNarratorById(long id) {
-        return narrators.stream()
-            .filter(n -> n.getId() == id)
-            .findFirst()
-            .orElse(null);
+        return read(() -> narratorsById.get(id));
     }
     
     public List<Narrator> getAllNarrators() {
-        return new ArrayList<>(narrators.stream()
-            .sorted((n1, n2) -> Long.compare(n1.getId(), n2.getId()))
-            .collect(Collectors.toList()));
+        return read(() -> new ArrayList<>(narrators));
+    }
+    
+    /**
+     * Vista en vivo de solo lectura de los narradores, ordenada por ID
+     */
+    public List<Narrator> getNarratorsView() {
+        return liveView(() -> narrators);
+    }
+    
+    public int getNarratorQuantity() {
+        return read(() -> narrators.size());
     }
     
     public boolean existsNarratorById(long id) {
-        return narrators.stream().anyMatch(n -> n.getId() == id);
+        return read(() -> narratorsById.containsKey(id));
     }
     
     public List<Person> getAllPersons() {
-        List<Person> persons = new ArrayList<>();
-        persons.addAll(authors);
-        persons.addAll(managers);
-        persons.addAll(narrators);
-        return persons.stream()
-            .sorted((p1, p2) -> Long.compare(p1.getId(), p2.getId()))
-            .collect(Collectors.toList());
+        return read(() -> new ArrayList<>(persons));
+    }
+    
+    /**
+     * Vista en vivo de solo lectura de todas las personas, ordenada por ID.
+     * Cada acceso se lee con read().
+     */
+    public List<Person> getPersonsView() {
+        return liveView(() -> persons);
     }
     
     public void clear() {
-        this.authors.clear();
-        this.managers.clear();
-        this.narrators.clear();
+        // Se reemplazan las colecciones: las Snapshot anteriores conservan las suyas
+        write(this::reset);
     }
 }
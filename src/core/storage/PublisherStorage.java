@@ -1,66 +1,102 @@
 package core.storage;
 
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
-import java.util.stream.Collectors;
+import core.model.Keys;
 import core.model.Publisher;
-import core.model.Observer;
+import core.model.EntityAdded;
 
-public class PublisherStorage {
+public class PublisherStorage extends Storage {
     
-    private static PublisherStorage instance;
-    private List<Publisher> publishers;
-    private List<Observer> observers;
+    // Orden de la lista de editoriales
+    public static final Comparator<Publisher> NIT_ORDER = Comparator.comparingLong(Publisher::getNitKey);
+    
+    // Editoriales ordenadas por NIT desde la inserción
+    SortedList<Publisher> publishers;
+    // Índice por NIT codificado (ver Keys)
+    LongHashMap<Publisher> publishersByNit;
     
     private PublisherStorage() {
-        this.publishers = new ArrayList<>();
-        this.observers = new ArrayList<>();
+        reset();
     }
     
-    public static PublisherStorage getInstance() {
-        if (instance == null) {
-            instance = new PublisherStorage();
-        }
-        return instance;
+    private void reset() {
+        this.publishers = new SortedList<>(NIT_ORDER);
+        this.publishersByNit = new LongHashMap<>();
     }
     
-    public void addObserver(Observer observer) {
-        this.observers.add(observer);
+    // Inicialización perezosa y segura entre hilos (holder idiom)
+    private static class Holder {
+        private static final PublisherStorage INSTANCE = new PublisherStorage();
     }
     
-    public void removeObserver(Observer observer) {
-        this.observers.remove(observer);
+    public static PublisherStorage getInstance() {
+        return Holder.INSTANCE;
     }
     
-    private void notifyObservers() {
-        for (Observer observer : observers) {
-            observer.update();
-        }
+    /**
+     * Agrega la editorial si no existe otra con el mismo NIT.
+     * @return false si el NIT ya estaba registrado
+     */
+    public boolean addPublisher(Publisher publisher) {
+        return write(() -> {
+            if (publishersByNit.containsKey(publisher.getNitKey())) {
+                return false;
+            }
+            this.publishers = publishers.mutable();
+            this.publishers.insert(publisher);
+            this.publishersByNit = publishersByNit.mutable();
+            this.publishersByNit.put(publisher.getNitKey(), publisher);
+            onRollback(() -> removePublisher(publisher));
+            notifyObservers(new EntityAdded<>(Publisher.class, publisher.getNit(), publisher));
+            return true;
+        });
     }
     
-    public void addPublisher(Publisher publisher) {
-        this.publishers.add(publisher);
-        notifyObservers();
+    private void removePublisher(Publisher publisher) {
+        this.publishers = publishers.mutable();
+        this.publishers.delete(publisher);
+        this.publishersByNit = publishersByNit.mutable();
+        this.publishersByNit.remove(publisher.getNitKey());
+        unlink(publisher);
     }
     
     public Publisher getPublisherByNit(String nit) {
-        return publishers.stream()
-            .filter(p -> p.getNit().equals(nit))
-            .findFirst()
-            .orElse(null);
+        long key = Keys.parseNit(nit);
+        return key < 0 ? null : getPublisherByNit(key);
+    }
+    
+    public Publisher getPublisherByNit(long nitKey) {
+        return read(() -> publishersByNit.get(nitKey));
     }
     
     public List<Publisher> getAllPublishers() {
-        return new ArrayList<>(publishers.stream()
-            .sorted((p1, p2) -> p1.getNit().compareTo(p2.getNit()))
-            .collect(Collectors.toList()));
+        return read(() -> new ArrayList<>(publishers));
+    }
+    
+    public int getPublisherQuantity() {
+        return read(() -> publishers.size());
+    }
+    
+    /**
+     * Vista en vivo de solo lectura de las editoriales, ordenada por NIT.
+     * Cada acceso se lee con read().
+     */
+    public List<Publisher> getPublishersView() {
+        return liveView(() -> publishers);
     }
     
     public boolean existsPublisherByNit(String nit) {
-        return publishers.stream().anyMatch(p -> p.getNit().equals(nit));
+        return getPublisherByNit(nit) != null;
+    }
+    
+    public boolean existsPublisherByNit(long nitKey) {
+        return read(() -> publishersByNit.containsKey(nitKey));
     }
     
     public void clear() {
-        this.publishers.clear();
+        // Se reemplazan las colecciones: las Snapshot anteriores conservan las suyas
+        write(this::reset);
     }
 }
@@ -0,0 +1,185 @@
+package core.storage;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import core.model.Author;
+import core.model.Book;
+import core.model.Keys;
+import core.model.Manager;
+import core.model.Narrator;
+import core.model.Person;
+import core.model.Publisher;
+import core.model.Stand;
+
+/**
+ * Versión inmutable de las colecciones de todos los Storage en un instante
+ * (ver Storage.snapshot()).
+ *
+ * Guarda las referencias a las colecciones de esa época, que los escritores
+ * ya no modifican, así que se puede consultar desde cualquier hilo y sin
+ * candados durante el tiempo que haga falta. Las listas retornadas son vistas
+ * de solo lectura, sin copia. Cubre qué entidades existen y sus índices, no
+ * las relaciones dentro de cada entidad (por ejemplo los libros de un autor):
+ * esas siguen siendo las actuales. Son listas inmutables que se reemplazan
+ * en cada cambio, así que recorrerlas nunca falla, pero no son las del
+ * instante de la Snapshot; para copiar entidades con relaciones de un mismo
+ * instante confirmado se usa Storage.copy().
+ */
+public final class Snapshot {
+
+    private final long version;
+
+    private final SortedList<Book> books;
+    private final LongHashMap<Book> booksByIsbn;
+    private final Map<String, SortedList<Book>> booksByFormat;
+    private final Map<Class<?>, SortedList<Book>> booksByType;
+    private final LongHashMap<SortedList<Book>> booksByPublisher;
+    private final Map<String, SortedList<Book>> booksByGenre;
+    private final LongHashMap<SortedList<Book>> booksByAuthor;
+    private final SortedList<Author> topAuthors;
+    private final int topPublisherQuantity;
+
+    private final SortedList<Author> authors;
+    private final SortedList<Manager> managers;
+    private final SortedList<Narrator> narrators;
+    private final SortedList<Person> persons;
+    private final LongHashMap<Author> authorsById;
+    private final LongHashMap<Manager> managersById;
+    private final LongHashMap<Narrator> narratorsById;
+
+    private final SortedList<Publisher> publishers;
+    private final LongHashMap<Publisher> publishersByNit;
+
+    private final SortedList<Stand> stands;
+    private final LongHashMap<Stand> standsById;
+
+    /**
+     * Se construye con el candado de lectura tomado (o dentro de una escritura)
+     */
+    Snapshot(long version, BookStorage bookStorage, PersonStorage personStorage,
+             PublisherStorage publisherStorage, StandStorage standStorage) {
+        this.version = version;
+
+        this.books = bookStorage.books;
+        this.booksByIsbn = bookStorage.booksByIsbn;
+        this.booksByFormat = bookStorage.booksByFormat;
+        this.booksByType = bookStorage.booksByType;
+        this.booksByPublisher = bookStorage.booksByPublisher;
+        this.booksByGenre = bookStorage.booksByGenre;
+        this.booksByAuthor = bookStorage.booksByAuthor;
+        this.topAuthors = bookStorage.topAuthors;
+        this.topPublisherQuantity = bookStorage.topPublisherQuantity;
+
+        this.authors = personStorage.authors;
+        this.managers = personStorage.managers;
+        this.narrators = personStorage.narrators;
+        this.persons = personStorage.persons;
+        this.authorsById = personStorage.authorsById;
+        this.managersById = personStorage.managersById;
+        this.narratorsById = personStorage.narratorsById;
+
+        this.publishers = publisherStorage.publishers;
+        this.publishersByNit = publisherStorage.publishersByNit;
+
+        this.stands = standStorage.stands;
+        this.standsById = standStorage.standsById;
+    }
+
+    /**
+     * Número de época de la Snapshot; crece con cada Snapshot tomada
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    private static <E> List<E> view(List<E> list) {
+        return list == null ? Collections.emptyList() : Collections.unmodifiableList(list);
+    }
+
+    public List<Book> getAllBooks() {
+        return view(books);
+    }
+
+    public Book getBookByIsbn(String isbn) {
+        long key = Keys.parseIsbn(isbn);
+        return key < 0 ? null : booksByIsbn.get(key);
+    }
+
+    public List<Book> getBooksByType(Class<?> type) {
+        return view(BookStorage.booksOfType(booksByType, books, type));
+    }
+
+    public List<Book> getBooksByFormat(String format) {
+        return view(booksByFormat.get(format));
+    }
+
+    public List<Book> getBooksByPublisher(String nit) {
+        long key = Keys.parseNit(nit);
+        return key < 0 ? Collections.emptyList() : view(booksByPublisher.get(key));
+    }
+
+    public List<Book> getBooksByGenre(String genre) {
+        return view(booksByGenre.get(genre));
+    }
+
+    public List<Book> getBooksByAuthor(long authorId) {
+        return view(booksByAuthor.get(authorId));
+    }
+
+    /**
+     * Autores con la mayor cantidad de editoriales distintas, ordenados por ID
+     */
+    public List<Author> getAuthorsWithMostPublishers() {
+        return view(topAuthors);
+    }
+
+    public int getTopPublisherQuantity() {
+        return topPublisherQuantity;
+    }
+
+    public List<Author> getAllAuthors() {
+        return view(authors);
+    }
+
+    public Author getAuthorById(long id) {
+        return authorsById.get(id);
+    }
+
+    public List<Manager> getAllManagers() {
+        return view(managers);
+    }
+
+    public Manager getManagerById(long id) {
+        return managersById.get(id);
+    }
+
+    public List<Narrator> getAllNarrators() {
+        return view(narrators);
+    }
+
+    public Narrator getNarratorById(long id) {
+        return narratorsById.get(id);
+    }
+
+    public List<Person> getAllPersons() {
+        return view(persons);
+    }
+
+    public List<Publisher> getAllPublishers() {
+        return view(publishers);
+    }
+
+    public Publisher getPublisherByNit(String nit) {
+        long key = Keys.parseNit(nit);
+        return key < 0 ? null : publishersByNit.get(key);
+    }
+
+    public List<Stand> getAllStands() {
+        return view(stands);
+    }
+
+    public Stand getStandById(long id) {
+        return standsById.get(id);
+    }
+}
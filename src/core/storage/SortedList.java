@@ -0,0 +1,325 @@
+package core.storage;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.RandomAccess;
+
+/**
+ * Lista que se mantiene ordenada en cada inserción (búsqueda binaria del
+ * punto de inserción). Las lecturas recorren los elementos ya ordenados,
+ * sin volver a ordenar la colección.
+ *
+ * Los elementos se guardan en bloques de CHUNK_SIZE para poder compartirlos
+ * entre versiones (copy-on-write): una lista solo se modifica en la época en
+ * que se creó. Para escribir en una época posterior se usa mutable(), que
+ * copia el índice de bloques, y cada bloque se copia la primera vez que se
+ * modifica. Así una Snapshot puede seguir leyendo la versión anterior sin
+ * candados mientras los escritores continúan.
+ */
+class SortedList<E> extends AbstractList<E> implements RandomAccess {
+
+    static final int CHUNK_SIZE = 256;
+    // Capacidad inicial de un bloque; la mayoría de los índices tiene pocos elementos
+    private static final int MIN_CHUNK = 8;
+    
+    private final Comparator<? super E> comparator;
+    // Época en la que esta lista (su índice de bloques) admite escrituras
+    private final int epoch;
+    private Object[][] chunks;
+    // Índice del primer elemento de cada bloque
+    private int[] offsets;
+    private int[] counts;
+    // Época en la que se creó cada bloque
+    private int[] chunkEpochs;
+    private int chunkCount;
+    private int size;
+
+    SortedList(Comparator<? super E> comparator) {
+        this(comparator, Storage.currentEpoch());
+    }
+    
+    private SortedList(Comparator<? super E> comparator, int epoch) {
+        this.comparator = comparator;
+        this.epoch = epoch;
+        this.chunks = new Object[4][];
+        this.offsets = new int[4];
+        this.counts = new int[4];
+        this.chunkEpochs = new int[4];
+    }
+    
+    /**
+     * Retorna una lista que se puede modificar en la época actual: esta
+     * misma si ya pertenece a ella, o una copia que comparte los bloques.
+     */
+    SortedList<E> mutable() {
+        int current = Storage.currentEpoch();
+        if (epoch == current) {
+            return this;
+        }
+        SortedList<E> copy = new SortedList<>(comparator, current);
+        copy.chunks = chunks.clone();
+        copy.offsets = offsets.clone();
+        copy.counts = counts.clone();
+        copy.chunkEpochs = chunkEpochs.clone();
+        copy.chunkCount = chunkCount;
+        copy.size = size;
+        return copy;
+    }
+
+    /**
+     * Inserta el elemento en su posición ordenada (después de los iguales).
+     * Solo se debe llamar sobre una lista obtenida con mutable().
+     * @return el índice en el que quedó el elemento
+     */
+    @SuppressWarnings("unchecked")
+    int insert(E element) {
+        if (epoch != Storage.currentEpoch()) {
+            throw new IllegalStateException("La lista pertenece a una versión anterior");
+        }
+        if (chunkCount == 0) {
+            addChunk(0, new Object[MIN_CHUNK], 0);
+        }
+        int chunk = chunkCount - 1;
+        int position;
+        int lastCount = counts[chunk];
+        // Caso común: las claves llegan en orden creciente
+        if (lastCount == 0 || comparator.compare((E) chunks[chunk][lastCount - 1], element) <= 0) {
+            position = lastCount;
+            if (position == CHUNK_SIZE) {
+                // Se abre un bloque nuevo en lugar de partir el lleno
+                addChunk(chunkCount, new Object[MIN_CHUNK], 0);
+                chunk++;
+                position = 0;
+            }
+        } else {
+            chunk = chunkFor(element);
+            position = upperBound(chunks[chunk], counts[chunk], element);
+            if (counts[chunk] == CHUNK_SIZE) {
+                split(chunk);
+                if (position > counts[chunk]) {
+                    position -= counts[chunk];
+                    chunk++;
+                }
+            }
+        }
+        Object[] target = writableChunk(chunk);
+        System.arraycopy(target, position, target, position + 1, counts[chunk] - position);
+        target[position] = element;
+        counts[chunk]++;
+        for (int i = chunk + 1; i < chunkCount; i++) {
+            offsets[i]++;
+        }
+        size++;
+        modCount++;
+        return offsets[chunk] + position;
+    }
+    
+    /**
+     * Quita el elemento (por identidad). Solo se debe llamar sobre una lista
+     * obtenida con mutable().
+     * @return false si el elemento no estaba en la lista
+     */
+    boolean delete(E element) {
+        if (epoch != Storage.currentEpoch()) {
+            throw new IllegalStateException("La lista pertenece a una versión anterior");
+        }
+        int index = find(element);
+        if (index < 0) {
+            return false;
+        }
+        int chunk = chunkOf(index);
+        int position = index - offsets[chunk];
+        Object[] target = ownChunk(chunk);
+        int count = counts[chunk];
+        System.arraycopy(target, position + 1, target, position, count - position - 1);
+        target[count - 1] = null;
+        counts[chunk]--;
+        for (int i = chunk + 1; i < chunkCount; i++) {
+            offsets[i]--;
+        }
+        if (counts[chunk] == 0) {
+            removeChunk(chunk);
+        }
+        size--;
+        modCount++;
+        return true;
+    }
+    
+    /**
+     * Busca el elemento (por identidad) con búsqueda binaria.
+     * @return su índice, o -1 si no está en la lista
+     */
+    int find(E element) {
+        for (int i = lowerBound(element); i < size; i++) {
+            E current = get(i);
+            if (comparator.compare(current, element) != 0) {
+                break;
+            }
+            if (current == element) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Primer bloque cuyo último elemento es mayor que el buscado (o el último)
+     */
+    @SuppressWarnings("unchecked")
+    private int chunkFor(E element) {
+        int low = 0;
+        int high = chunkCount - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (comparator.compare((E) chunks[mid][counts[mid] - 1], element) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    @SuppressWarnings("unchecked")
+    private int upperBound(Object[] chunk, int count, E element) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (comparator.compare((E) chunk[mid], element) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+    
+    private int lowerBound(E element) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (comparator.compare(get(mid), element) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+    
+    /**
+     * Retorna el bloque listo para agregarle un elemento: copiado si es de
+     * otra época y con espacio libre (los bloques crecen hasta CHUNK_SIZE)
+     */
+    private Object[] writableChunk(int chunk) {
+        Object[] current = chunks[chunk];
+        if (counts[chunk] < current.length) {
+            return ownChunk(chunk);
+        }
+        chunks[chunk] = Arrays.copyOf(current, Math.min(current.length * 2, CHUNK_SIZE));
+        chunkEpochs[chunk] = epoch;
+        return chunks[chunk];
+    }
+    
+    /**
+     * Retorna el bloque, copiado si pertenece a otra época
+     */
+    private Object[] ownChunk(int chunk) {
+        if (chunkEpochs[chunk] != epoch) {
+            chunks[chunk] = chunks[chunk].clone();
+            chunkEpochs[chunk] = epoch;
+        }
+        return chunks[chunk];
+    }
+    
+    /**
+     * Parte un bloque lleno en dos mitades (sin modificar el original, que
+     * puede estar compartido con otra versión)
+     */
+    private void split(int chunk) {
+        Object[] full = chunks[chunk];
+        int half = CHUNK_SIZE / 2;
+        Object[] left = new Object[CHUNK_SIZE];
+        Object[] right = new Object[CHUNK_SIZE];
+        System.arraycopy(full, 0, left, 0, half);
+        System.arraycopy(full, half, right, 0, CHUNK_SIZE - half);
+        chunks[chunk] = left;
+        counts[chunk] = half;
+        chunkEpochs[chunk] = epoch;
+        addChunk(chunk + 1, right, CHUNK_SIZE - half);
+    }
+    
+    private void addChunk(int index, Object[] chunk, int count) {
+        if (chunkCount == chunks.length) {
+            int capacity = chunkCount * 2;
+            chunks = Arrays.copyOf(chunks, capacity);
+            offsets = Arrays.copyOf(offsets, capacity);
+            counts = Arrays.copyOf(counts, capacity);
+            chunkEpochs = Arrays.copyOf(chunkEpochs, capacity);
+        }
+        int moved = chunkCount - index;
+        System.arraycopy(chunks, index, chunks, index + 1, moved);
+        System.arraycopy(offsets, index, offsets, index + 1, moved);
+        System.arraycopy(counts, index, counts, index + 1, moved);
+        System.arraycopy(chunkEpochs, index, chunkEpochs, index + 1, moved);
+        chunks[index] = chunk;
+        counts[index] = count;
+        chunkEpochs[index] = epoch;
+        offsets[index] = index == 0 ? 0 : offsets[index - 1] + counts[index - 1];
+        chunkCount++;
+    }
+    
+    private void removeChunk(int index) {
+        int moved = chunkCount - index - 1;
+        System.arraycopy(chunks, index + 1, chunks, index, moved);
+        System.arraycopy(offsets, index + 1, offsets, index, moved);
+        System.arraycopy(counts, index + 1, counts, index, moved);
+        System.arraycopy(chunkEpochs, index + 1, chunkEpochs, index, moved);
+        chunkCount--;
+        chunks[chunkCount] = null;
+    }
+    
+    /**
+     * Último bloque cuyo primer índice es <= index
+     */
+    private int chunkOf(int index) {
+        int low = 0;
+        int high = chunkCount - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (offsets[mid] <= index) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+    
+    @Override
+    @SuppressWarnings("unchecked")
+    public E get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        int chunk = chunkOf(index);
+        return (E) chunks[chunk][index - offsets[chunk]];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Object[] toArray() {
+        Object[] result = new Object[size];
+        for (int i = 0; i < chunkCount; i++) {
+            System.arraycopy(chunks[i], 0, result, offsets[i], counts[i]);
+        }
+        return result;
+    }
+}
@@ -1,68 +1,108 @@
 package core.storage;
 
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
-import java.util.stream.Collectors;
+import core.model.Publisher;
+import core.model.RelationLinked;
 import core.model.Stand;
-import core.model.Observer;
+import core.model.EntityAdded;
 
-public class StandStorage {
+public class StandStorage extends Storage {
     
-    private static StandStorage instance;
-    private List<Stand> stands;
-    private List<Observer> observers;
+    // Orden de la lista de stands
+    public static final Comparator<Stand> ID_ORDER = Comparator.comparingLong(Stand::getId);
+    
+    // Stands ordenados por ID desde la inserción
+    SortedList<Stand> stands;
+    // Índice por ID con claves long primitivas
+    LongHashMap<Stand> standsById;
     
     private StandStorage() {
-        this.stands = new ArrayList<>();
-        this.observers = new ArrayList<>();
+        reset();
     }
     
-    public static StandStorage getInstance() {
-        if (instance == null) {
-            instance = new StandStorage();
-        }
-        return instance;
+    private void reset() {
+        this.stands = new SortedList<>(ID_ORDER);
+        this.standsById = new LongHashMap<>();
+    }
+    
+    // Inicialización perezosa y segura entre hilos (holder idiom)
+    private static class Holder {
+        private static final StandStorage INSTANCE = new StandStorage();
     }
     
-    public void addObserver(Observer observer) {
-        this.observers.add(observer);
+    public static StandStorage getInstance() {
+        return Holder.INSTANCE;
     }
     
-    public void removeObserver(Observer observer) {
-        this.observers.remove(observer);
+    /**
+     * Agrega el stand si no existe otro con el mismo ID.
+     * @return false si el ID ya estaba registrado
+     */
+    public boolean addStand(Stand stand) {
+        return write(() -> {
+            if (standsById.containsKey(stand.getId())) {
+                return false;
+            }
+            this.stands = stands.mutable();
+            this.stands.insert(stand);
+            this.standsById = standsById.mutable();
+            this.standsById.put(stand.getId(), stand);
+            onRollback(() -> removeStand(stand));
+            notifyObservers(new EntityAdded<>(Stand.class, stand.getId(), stand));
+            return true;
+        });
     }
     
-    private void notifyObservers() {
-        for (Observer observer : observers) {
-            observer.update();
-        }
+    private void removeStand(Stand stand) {
+        this.stands = stands.mutable();
+        this.stands.delete(stand);
+        this.standsById = standsById.mutable();
+        this.standsById.remove(stand.getId());
     }
     
-    public void addStand(Stand stand) {
-        this.stands.add(stand);
-        notifyObservers();
+    /**
+     * Registra la compra de un stand por parte de una editorial
+     */
+    public void linkPublisher(Stand stand, Publisher publisher) {
+        write(() -> {
+            stand.addPublisher(publisher);
+            publisher.addStand(stand);
+            onRollback(() -> {
+                stand.removePublisher(publisher);
+                publisher.removeStand(stand);
+            });
+            notifyObservers(new RelationLinked<>(stand, publisher));
+        });
     }
     
     public Stand getStandById(long id) {
-        for (Stand stand : stands) {
-            if (stand.getId() == id) {
-                return stand;
-            }
-        }
-        return null;
+        return read(() -> standsById.get(id));
     }
     
     public List<Stand> getAllStands() {
-        return new ArrayList<>(stands.stream()
-            .sorted((s1, s2) -> Long.compare(s1.getId(), s2.getId()))
-            .collect(Collectors.toList()));
+        return read(() -> new ArrayList<>(stands));
+    }
+    
+    public int getStandQuantity() {
+        return read(() -> stands.size());
+    }
+    
+    /**
+     * Vista en vivo de solo lectura de los stands, ordenada por ID.
+     * Cada acceso se lee con read().
+     */
+    public List<Stand> getStandsView() {
+        return liveView(() -> stands);
     }
     
     public boolean existsStandById(long id) {
-        return stands.stream().anyMatch(s -> s.getId() == id);
+        return read(() -> standsById.containsKey(id));
     }
     
     public void clear() {
-        this.stands.clear();
+        // Se reemplazan las colecciones: las Snapshot anteriores conservan las suyas
+        write(this::reset);
     }
 }
@@ -0,0 +1,299 @@
+package core.storage;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Supplier;
+import core.metrics.Metrics;
+import core.model.ChangeEvent;
+import core.model.Observer;
+import core.model.RelationStore;
+
+/**
+ * Base común de los Storage: manejo de observadores, notificaciones
+ * agrupadas a través del NotificationDispatcher y el candado compartido.
+ *
+ * Todos los Storage comparten un único StampedLock, porque una sola
+ * operación (crear un libro, comprar stands) modifica entidades de varios
+ * Storage a la vez. Las lecturas son optimistas: se ejecutan sin bloquear
+ * y solo se repiten con el candado de lectura si hubo una escritura en medio.
+ *
+ * Para consultas largas, snapshot() entrega una versión fija de todos los
+ * Storage en O(1). Las colecciones internas (SortedList, LongHashMap) son
+ * copy-on-write por época: tomar una Snapshot cierra la época actual y los
+ * escritores copian solo los bloques que modifican después.
+ *
+ * Cada write() es una transacción (ver Transaction): si la acción falla, o
+ * llama a setRollbackOnly(), los cambios se deshacen en todos los Storage.
+ * Si hay un Journal instalado (ver setJournal), los cambios confirmados se
+ * le entregan antes de soltar el candado y la espera al disco se hace
+ * después, compartida entre los escritores concurrentes.
+ */
+public abstract class Storage extends RelationStore {
+
+    private static final StampedLock LOCK = new StampedLock();
+    // Hilo que tiene el candado de escritura, para permitir reentrada
+    private static volatile Thread writer;
+    // Época actual de las colecciones; avanza con cada Snapshot
+    private static final AtomicInteger EPOCH = new AtomicInteger();
+    // Registro de los cambios para persistirlos; null si no hay persistencia
+    private static volatile Journal journal;
+    // Transacción del hilo que tiene el candado de escritura
+    private static Transaction transaction;
+    
+    private final List<Observer> observers;
+
+    protected Storage() {
+        this.observers = new CopyOnWriteArrayList<>();
+    }
+
+    public void addObserver(Observer observer) {
+        this.observers.add(observer);
+    }
+
+    public void removeObserver(Observer observer) {
+        this.observers.remove(observer);
+    }
+
+    /**
+     * El evento se entrega al confirmar la transacción en curso
+     */
+    protected void notifyObservers(ChangeEvent event) {
+        if (journal != null || !observers.isEmpty()) {
+            currentTransaction().record(observers, event);
+        }
+    }
+    
+    private static Transaction currentTransaction() {
+        if (writer != Thread.currentThread()) {
+            throw new IllegalStateException("Solo se puede modificar un Storage dentro de Storage.write()");
+        }
+        return transaction;
+    }
+    
+    /**
+     * Registra cómo deshacer un cambio ya aplicado, por si la transacción en
+     * curso no se confirma. Las acciones se ejecutan en orden inverso.
+     */
+    public static void onRollback(Runnable undo) {
+        currentTransaction().onRollback(undo);
+    }
+    
+    /**
+     * Marca la transacción en curso para deshacerla al terminar la escritura,
+     * por ejemplo cuando una validación falla después de haber modificado
+     * algún Storage. La acción de write() termina normalmente.
+     */
+    public static void setRollbackOnly() {
+        currentTransaction().setRollbackOnly();
+    }
+
+    /**
+     * Instala el registro que recibe todos los cambios (o null para quitarlo).
+     * Los cambios hechos mientras no hay registro no se persisten.
+     */
+    public static void setJournal(Journal journal) {
+        write(() -> {
+            Storage.journal = journal;
+        });
+    }
+    
+    /**
+     * Abre un lote: las inserciones siguientes del mismo hilo no notifican
+     * hasta endBatch(). El lote es compartido por todos los Storage, así que
+     * una importación que toque varios Storage produce una sola notificación
+     * por observador; las escrituras de otros hilos notifican como siempre.
+     */
+    public void beginBatch() {
+        NotificationDispatcher.getInstance().beginBatch();
+    }
+
+    public void endBatch() {
+        NotificationDispatcher.getInstance().endBatch();
+    }
+    
+    /**
+     * Ejecuta la acción con el candado de escritura de todos los Storage, como
+     * una transacción. Es reentrante para el mismo hilo: una escritura dentro
+     * de otra forma parte de la misma transacción. Las notificaciones se
+     * entregan al soltar el candado, nunca mientras se tiene, y solo si la
+     * transacción se confirma.
+     * @throws NotWrittenException si el Journal no pudo registrar la
+     *         transacción, que se deshizo
+     * @throws NotDurableException si la transacción se confirmó pero el
+     *         Journal no pudo llevarla a disco
+     */
+    public static <T> T write(Supplier<T> action) {
+        Thread current = Thread.currentThread();
+        if (writer == current) {
+            return action.get();
+        }
+        long start = System.nanoTime();
+        NotificationDispatcher dispatcher = NotificationDispatcher.getInstance();
+        dispatcher.beginBatch();
+        Journal installed = journal;
+        long ticket = 0;
+        boolean committed = false;
+        try {
+            long stamp = LOCK.writeLock();
+            writer = current;
+            Transaction started = new Transaction();
+            transaction = started;
+            try {
+                T result;
+                try {
+                    result = action.get();
+                } catch (RuntimeException | Error e) {
+                    started.rollback(e);
+                    throw e;
+                }
+                if (started.isRollbackOnly()) {
+                    started.rollback(null);
+                } else {
+                    installed = journal;
+                    ticket = started.commit(installed, dispatcher);
+                    committed = true;
+                }
+                return result;
+            } finally {
+                transaction = null;
+                writer = null;
+                LOCK.unlockWrite(stamp);
+            }
+        } finally {
+            try {
+                // Fuera del candado: otros escritores avanzan y comparten el fsync
+                if (ticket != 0) {
+                    try {
+                        installed.awaitDurable(ticket);
+                    } catch (RuntimeException e) {
+                        throw new NotDurableException(e);
+                    }
+                }
+            } finally {
+                dispatcher.endBatch();
+                Metrics.getInstance().writeFinished(System.nanoTime() - start, committed);
+            }
+        }
+    }
+    
+    static int currentEpoch() {
+        return EPOCH.get();
+    }
+    
+    /**
+     * Toma una versión inmutable de las colecciones e índices de todos los
+     * Storage (las relaciones dentro de cada entidad no, ver Snapshot).
+     * Cuesta O(1) y solo espera a que termine la escritura en curso; las
+     * consultas sobre la Snapshot no toman candados y no ven escrituras
+     * posteriores.
+     */
+    public static Snapshot snapshot() {
+        if (writer == Thread.currentThread()) {
+            return takeSnapshot();
+        }
+        long stamp = LOCK.readLock();
+        try {
+            return takeSnapshot();
+        } finally {
+            LOCK.unlockRead(stamp);
+        }
+    }
+    
+    private static Snapshot takeSnapshot() {
+        Snapshot snapshot = new Snapshot(EPOCH.get(), BookStorage.getInstance(), PersonStorage.getInstance(),
+                                         PublisherStorage.getInstance(), StandStorage.getInstance());
+        // Lo capturado queda congelado: las escrituras siguientes copian
+        EPOCH.incrementAndGet();
+        Metrics.getInstance().snapshotTaken();
+        return snapshot;
+    }
+    
+    /**
+     * Vista en vivo de solo lectura que siempre lee la versión actual de la
+     * lista (las colecciones se reemplazan por copias después de cada
+     * Snapshot). Cada get() y size() es un read(), así que se puede recorrer
+     * desde el EDT mientras otros hilos (la API, el importador) escriben;
+     * entre dos llamadas la lista puede haber crecido.
+     */
+    protected static <E> List<E> liveView(Supplier<? extends List<E>> current) {
+        return new LiveView<>(current);
+    }
+    
+    private static final class LiveView<E> extends AbstractList<E> implements RandomAccess {
+        
+        private final Supplier<? extends List<E>> current;
+        
+        LiveView(Supplier<? extends List<E>> current) {
+            this.current = current;
+        }
+        
+        @Override
+        public E get(int index) {
+            return read(() -> current.get().get(index));
+        }
+        
+        @Override
+        public int size() {
+            return read(() -> current.get().size());
+        }
+    }
+    
+    /**
+     * Ejecuta como una sola lectura la consulta de un controlador y las
+     * copias (Prototype) que retorna: las relaciones de todas las copias
+     * (los libros de un autor, las editoriales de un stand) son las de un
+     * mismo instante confirmado, sin la mitad de una escritura en curso. La
+     * acción puede llamar a los métodos de lectura de los Storage, pero no a
+     * snapshot(), y puede ejecutarse dos veces.
+     */
+    public static <T> T copy(Supplier<T> action) {
+        return read(action);
+    }
+    
+    public static void write(Runnable action) {
+        write(() -> {
+            action.run();
+            return null;
+        });
+    }
+    
+    /**
+     * Ejecuta una lectura. Primero la intenta sin bloquear; si una escritura
+     * la invalidó (o la hizo fallar a medias) la repite con el candado de
+     * lectura. La acción no debe tener efectos secundarios, ya que puede
+     * ejecutarse dos veces. Puede llamar a otro read(): mientras se tiene el
+     * candado de lectura no hay escrituras, así que el interno valida sin
+     * bloquear.
+     */
+    protected static <T> T read(Supplier<T> action) {
+        if (writer == Thread.currentThread()) {
+            return action.get();
+        }
+        long stamp = LOCK.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                T result = action.get();
+                if (LOCK.validate(stamp)) {
+                    Metrics.getInstance().readFinished(false);
+                    return result;
+                }
+            } catch (RuntimeException e) {
+                // Estado intermedio de una escritura concurrente: se reintenta
+                if (LOCK.validate(stamp)) {
+                    throw e;
+                }
+            }
+        }
+        Metrics.getInstance().readFinished(true);
+        stamp = LOCK.readLock();
+        try {
+            return action.get();
+        } finally {
+            LOCK.unlockRead(stamp);
+        }
+    }
+}
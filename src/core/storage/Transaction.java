@@ -0,0 +1,112 @@
+package core.storage;
+
+import java.util.ArrayList;
+import java.util.List;
+import core.model.ChangeEvent;
+import core.model.Observer;
+
+/**
+ * Unidad de cambios de una escritura (Storage.write) sobre uno o varios
+ * Storage.
+ *
+ * Los cambios se aplican en memoria a medida que ocurren y cada uno registra
+ * cómo deshacerse. Los eventos se retienen hasta el final: si la escritura
+ * termina bien se entregan al Journal y a los observadores; si falla (o se
+ * marcó con setRollbackOnly) se ejecutan las acciones de deshacer en orden
+ * inverso y los eventos se descartan, así que nadie ve un estado a medias.
+ */
+final class Transaction {
+    
+    private final List<Runnable> undoActions = new ArrayList<>();
+    private final List<List<Observer>> eventObservers = new ArrayList<>();
+    private final List<ChangeEvent> events = new ArrayList<>();
+    private boolean rollbackOnly;
+    
+    void onRollback(Runnable undo) {
+        undoActions.add(undo);
+    }
+    
+    void record(List<Observer> observers, ChangeEvent event) {
+        eventObservers.add(observers);
+        events.add(event);
+    }
+    
+    void setRollbackOnly() {
+        this.rollbackOnly = true;
+    }
+    
+    boolean isRollbackOnly() {
+        return rollbackOnly;
+    }
+    
+    /**
+     * Escribe los eventos en el Journal (si hay) y los pasa al dispatcher.
+     * Si el Journal falla se deshacen los cambios, para que la memoria no
+     * quede adelante del disco, y se lanza NotWrittenException.
+     * @return el ticket para Journal.awaitDurable, o 0 si no hay que esperar
+     */
+    long commit(Journal journal, NotificationDispatcher dispatcher) {
+        long ticket = 0;
+        if (journal != null && !events.isEmpty()) {
+            try {
+                for (ChangeEvent event : events) {
+                    journal.append(event);
+                }
+                ticket = journal.commit();
+            } catch (RuntimeException e) {
+                abort(journal, e);
+                throw new NotWrittenException(e);
+            } catch (Error e) {
+                abort(journal, e);
+                throw e;
+            }
+        }
+        for (int i = 0; i < events.size(); i++) {
+            List<Observer> observers = eventObservers.get(i);
+            if (!observers.isEmpty()) {
+                dispatcher.publish(observers, events.get(i));
+            }
+        }
+        return ticket;
+    }
+    
+    /**
+     * Descarta lo ya registrado en el Journal, para que no salga con el
+     * próximo commit, y deshace los cambios
+     */
+    private void abort(Journal journal, Throwable cause) {
+        try {
+            journal.abort();
+        } catch (RuntimeException e) {
+            cause.addSuppressed(e);
+        }
+        rollback(cause);
+    }
+    
+    /**
+     * Deshace los cambios en orden inverso. Si una acción de deshacer falla se
+     * siguen ejecutando las demás y el error se agrega a la causa.
+     */
+    void rollback(Throwable cause) {
+        RuntimeException failure = null;
+        for (int i = undoActions.size() - 1; i >= 0; i--) {
+            try {
+                undoActions.get(i).run();
+            } catch (RuntimeException e) {
+                if (cause != null) {
+                    cause.addSuppressed(e);
+                } else if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        undoActions.clear();
+        eventObservers.clear();
+        events.clear();
+        if (failure != null) {
+            throw failure;
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package core.tools;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import core.controller.AuthorController;
+import core.controller.BookController;
+import core.controller.BookData;
+import core.controller.ManagerController;
+import core.controller.NarratorController;
+import core.controller.PersonData;
+import core.controller.PublisherController;
+import core.controller.PublisherData;
+import core.controller.PurchaseData;
+import core.controller.StandController;
+import core.controller.StandData;
+import core.controller.StandPurchaseController;
+import core.model.Keys;
+import core.model.Response;
+
+/**
+ * Genera un catálogo sintético a través de los controladores reales (con sus
+ * métodos en lote), para dimensionar el hardware y para las pruebas de
+ * carga. Con la misma semilla y los mismos tamaños siempre produce los
+ * mismos datos.
+ *
+ * Cada editorial tiene su propio gerente, cada libro tiene de 1 a 3 autores
+ * y los tipos de libro se reparten por partes iguales. Cada stand queda
+ * comprado por 1 a 3 editoriales.
+ *
+ * Los Storage deben estar vacíos: si algún controlador rechaza un dato,
+ * generate() lanza IllegalStateException con su mensaje.
+ */
+public final class DatasetGenerator {
+    
+    public static final String[] GENRES = {"Novela", "Poesía", "Ensayo", "Historia", "Ciencia", "Infantil"};
+    public static final String[] FORMATS = {"Tapa dura", "Bolsillo", "PDF", "EPUB", "MP3"};
+    
+    // Claves de 13 y 10 dígitos que cumplen los formatos de ISBN y NIT
+    private static final long FIRST_ISBN = 9780000000000L;
+    private static final long FIRST_NIT = 9000000000L;
+    // Cantidad de datos enviados en cada llamada a los controladores
+    private static final int BATCH = 4096;
+    
+    private final long seed;
+    private final int authors;
+    private final int publishers;
+    private final int books;
+    private final int stands;
+    private final int narrators;
+    
+    public DatasetGenerator(long seed, int authors, int publishers, int books, int stands, int narrators) {
+        if (authors < 1 || publishers < 1 || stands < 1 || narrators < 1 || books < 0) {
+            throw new IllegalArgumentException("Se necesita al menos un autor, una editorial, un stand y un narrador");
+        }
+        this.seed = seed;
+        this.authors = authors;
+        this.publishers = publishers;
+        this.books = books;
+        this.stands = stands;
+        this.narrators = narrators;
+    }
+    
+    /**
+     * Catálogo de referencia: 100.000 autores, 10.000 editoriales, 1.000.000
+     * de libros, 5.000 stands y 1.000 narradores
+     */
+    public static DatasetGenerator fair(long seed) {
+        return new DatasetGenerator(seed, 100_000, 10_000, 1_000_000, 5_000, 1_000);
+    }
+    
+    /**
+     * Catálogo con las mismas proporciones del de referencia para esa
+     * cantidad de libros
+     */
+    public static DatasetGenerator scaled(long seed, int books) {
+        return new DatasetGenerator(seed, Math.max(1, books / 10), Math.max(1, books / 100), books,
+                                    Math.max(1, books / 200), Math.max(1, books / 1000));
+    }
+    
+    public static String isbn(long index) {
+        return Keys.formatIsbn(FIRST_ISBN + index);
+    }
+    
+    public static String nit(long index) {
+        return Keys.formatNit(FIRST_NIT + index);
+    }
+    
+    public long getSeed() {
+        return seed;
+    }
+    
+    public int getAuthors() {
+        return authors;
+    }
+    
+    public int getPublishers() {
+        return publishers;
+    }
+    
+    public int getBooks() {
+        return books;
+    }
+    
+    public int getStands() {
+        return stands;
+    }
+    
+    public int getNarrators() {
+        return narrators;
+    }
+    
+    /**
+     * Registra todo el catálogo: personas, editoriales, stands con sus
+     * compras y por último los libros
+     */
+    public void generate() {
+        Random random = new Random(seed);
+        AuthorController authorController = new AuthorController();
+        ManagerController managerController = new ManagerController();
+        NarratorController narratorController = new NarratorController();
+        PublisherController publisherController = new PublisherController();
+        StandController standController = new StandController();
+        StandPurchaseController purchaseController = new StandPurchaseController();
+        BookController bookController = new BookController();
+        
+        List<PersonData> persons = new ArrayList<>(BATCH);
+        for (int i = 0; i < authors; i++) {
+            persons.add(new PersonData(i, "Autor " + i, "Apellido " + random.nextInt(1000)));
+            if (persons.size() == BATCH || i == authors - 1) {
+                check(authorController.createAuthors(persons));
+                persons.clear();
+            }
+        }
+        for (int i = 0; i < publishers; i++) {
+            persons.add(new PersonData(i, "Gerente " + i, "Apellido " + random.nextInt(1000)));
+            if (persons.size() == BATCH || i == publishers - 1) {
+                check(managerController.createManagers(persons));
+                persons.clear();
+            }
+        }
+        for (int i = 0; i < narrators; i++) {
+            persons.add(new PersonData(i, "Narrador " + i, "Apellido " + random.nextInt(1000)));
+            if (persons.size() == BATCH || i == narrators - 1) {
+                check(narratorController.createNarrators(persons));
+                persons.clear();
+            }
+        }
+        
+        List<PublisherData> publisherData = new ArrayList<>(BATCH);
+        for (int i = 0; i < publishers; i++) {
+            publisherData.add(new PublisherData(nit(i), "Editorial " + i, "Calle " + i + " # " + random.nextInt(100), i));
+            if (publisherData.size() == BATCH || i == publishers - 1) {
+                check(publisherController.createPublishers(publisherData));
+                publisherData.clear();
+            }
+        }
+        
+        List<StandData> standData = new ArrayList<>(BATCH);
+        List<PurchaseData> purchases = new ArrayList<>(BATCH);
+        for (int i = 0; i < stands; i++) {
+            standData.add(new StandData(i, 50_000 + random.nextInt(450_000)));
+            purchases.add(new PurchaseData(List.of((long) i), randomNits(random)));
+            if (standData.size() == BATCH || i == stands - 1) {
+                check(standController.createStands(standData));
+                check(purchaseController.purchaseStands(purchases));
+                standData.clear();
+                purchases.clear();
+            }
+        }
+        
+        List<BookData> bookData = new ArrayList<>(BATCH);
+        for (int i = 0; i < books; i++) {
+            bookData.add(book(i, random));
+            if (bookData.size() == BATCH || i == books - 1) {
+                check(bookController.createBooks(bookData));
+                bookData.clear();
+            }
+        }
+    }
+    
+    private List<String> randomNits(Random random) {
+        int count = Math.min(publishers, 1 + random.nextInt(3));
+        List<String> nits = new ArrayList<>(count);
+        while (nits.size() < count) {
+            String nit = nit(random.nextInt(publishers));
+            if (!nits.contains(nit)) {
+                nits.add(nit);
+            }
+        }
+        return nits;
+    }
+    
+    /**
+     * Datos del libro número index, con autores, editorial, género y formato
+     * al azar
+     */
+    public BookData book(long index, Random random) {
+        int count = Math.min(authors, 1 + random.nextInt(3));
+        List<Long> authorIds = new ArrayList<>(count);
+        while (authorIds.size() < count) {
+            long authorId = random.nextInt(authors);
+            if (!authorIds.contains(authorId)) {
+                authorIds.add(authorId);
+            }
+        }
+        String title = "Libro " + index;
+        String genre = GENRES[random.nextInt(GENRES.length)];
+        String format = FORMATS[random.nextInt(FORMATS.length)];
+        double value = 10_000 + random.nextInt(190_000);
+        String publisherNit = nit(random.nextInt(publishers));
+        switch ((int) (index % 3)) {
+            case 0:
+                return BookData.printed(title, authorIds, isbn(index), genre, format, value, publisherNit,
+                                        50 + random.nextInt(950), 1 + random.nextInt(100));
+            case 1:
+                String hyperlink = random.nextBoolean() ? "https://libros.example/" + index : null;
+                return BookData.digital(title, authorIds, isbn(index), genre, format, value, publisherNit, hyperlink);
+            default:
+                return BookData.audiobook(title, authorIds, isbn(index), genre, format, value, publisherNit,
+                                          30 + random.nextInt(900), random.nextInt(narrators));
+        }
+    }
+    
+    private static void check(List<? extends Response<?>> responses) {
+        for (Response<?> response : responses) {
+            if (!response.isSuccess()) {
+                throw new IllegalStateException("No se pudo generar el catálogo: " + response.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,310 @@
+package core.tools;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import core.controller.AuthorController;
+import core.controller.BookController;
+import core.controller.BookData;
+import core.controller.PublisherController;
+import core.controller.QueryController;
+import core.controller.StandPurchaseController;
+import core.metrics.LatencyHistogram;
+import core.metrics.Metrics;
+import core.model.Audiobook;
+import core.model.DigitalBook;
+import core.model.Response;
+import core.persistence.FsyncPolicy;
+import core.persistence.WriteAheadLog;
+import core.storage.Storage;
+
+/**
+ * Prueba de carga reproducible: genera el catálogo con DatasetGenerator y
+ * luego varios hilos ejecutan una mezcla configurable de lecturas y
+ * escrituras a través de los controladores. Informa el throughput y las
+ * latencias (p50, p99, p99.9) de cada operación.
+ *
+ * Cada hilo elige sus operaciones con su propia semilla (seed + número de
+ * hilo), así que la secuencia de operaciones se repite entre ejecuciones.
+ * Los hilos ejecutan una operación tras otra sin pausa (lazo cerrado): las
+ * latencias no incluyen tiempo de espera en cola.
+ *
+ * Opciones, con la forma --nombre=valor:
+ * --seed (42), --books (1000000; el resto del catálogo se escala como en
+ * DatasetGenerator.scaled), --threads (cantidad de procesadores),
+ * --warmup y --duration en segundos (10 y 30), --mix con los pesos de cada
+ * operación, por ejemplo "byAuthor=60,createBook=40", y --fsync
+ * (ALWAYS, INTERVAL o NEVER) para medir las escrituras con un registro de
+ * cambios en un directorio temporal.
+ */
+public final class LoadTest {
+    
+    static final String DEFAULT_MIX = "author=15,publisher=5,byAuthor=30,byPublisher=15,ranking=5,"
+            + "createBook=20,createAuthor=5,purchase=5";
+    
+    /**
+     * Operaciones de la mezcla con el nombre que llevan en --mix
+     */
+    enum Operation {
+        AUTHOR("author"),
+        PUBLISHER("publisher"),
+        BY_AUTHOR("byAuthor"),
+        BY_PUBLISHER("byPublisher"),
+        BY_GENRE("byGenre"),
+        RANKING("ranking"),
+        CREATE_BOOK("createBook"),
+        CREATE_AUTHOR("createAuthor"),
+        PURCHASE("purchase");
+        
+        final String label;
+        
+        Operation(String label) {
+            this.label = label;
+        }
+        
+        static Operation of(String label) {
+            for (Operation operation : values()) {
+                if (operation.label.equals(label)) {
+                    return operation;
+                }
+            }
+            throw new IllegalArgumentException("Operación desconocida: " + label);
+        }
+    }
+    
+    private final DatasetGenerator dataset;
+    private final Map<Operation, Integer> mix;
+    private final int threads;
+    private final AuthorController authorController = new AuthorController();
+    private final PublisherController publisherController = new PublisherController();
+    private final BookController bookController = new BookController();
+    private final QueryController queryController = new QueryController();
+    private final StandPurchaseController purchaseController = new StandPurchaseController();
+    // Claves de las entidades creadas durante la prueba
+    private final AtomicLong nextBook;
+    private final AtomicLong nextAuthor;
+    
+    LoadTest(DatasetGenerator dataset, Map<Operation, Integer> mix, int threads) {
+        this.dataset = dataset;
+        this.mix = mix;
+        this.threads = threads;
+        this.nextBook = new AtomicLong(dataset.getBooks());
+        this.nextAuthor = new AtomicLong(dataset.getAuthors());
+    }
+    
+    /**
+     * Convierte "nombre=peso,..." en los pesos de cada operación
+     */
+    static Map<Operation, Integer> parseMix(String text) {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (String entry : text.split(",")) {
+            String[] parts = entry.trim().split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Se esperaba nombre=peso y hay: " + entry);
+            }
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight < 0) {
+                throw new IllegalArgumentException("El peso de " + parts[0] + " no puede ser negativo");
+            }
+            if (weight > 0) {
+                mix.put(Operation.of(parts[0].trim()), weight);
+            }
+        }
+        if (mix.isEmpty()) {
+            throw new IllegalArgumentException("La mezcla no tiene operaciones");
+        }
+        return mix;
+    }
+    
+    /**
+     * Ejecuta la mezcla durante ese tiempo y retorna un histograma por
+     * operación; errors recibe la cantidad de respuestas no exitosas
+     */
+    Map<Operation, LatencyHistogram> run(long seed, long nanos, AtomicLongArray errors) throws InterruptedException {
+        Operation[] operations = mix.keySet().toArray(new Operation[0]);
+        int[] limits = new int[operations.length];
+        int totalWeight = 0;
+        for (int i = 0; i < operations.length; i++) {
+            totalWeight += mix.get(operations[i]);
+            limits[i] = totalWeight;
+        }
+        int weights = totalWeight;
+        List<Map<Operation, LatencyHistogram>> perThread = new ArrayList<>();
+        List<Thread> workers = new ArrayList<>();
+        long deadline = System.nanoTime() + nanos;
+        for (int t = 0; t < threads; t++) {
+            Map<Operation, LatencyHistogram> histograms = new EnumMap<>(Operation.class);
+            for (Operation operation : operations) {
+                histograms.put(operation, new LatencyHistogram());
+            }
+            perThread.add(histograms);
+            Random random = new Random(seed + t);
+            Thread worker = new Thread(() -> {
+                while (System.nanoTime() < deadline) {
+                    int pick = random.nextInt(weights);
+                    int index = 0;
+                    while (pick >= limits[index]) {
+                        index++;
+                    }
+                    Operation operation = operations[index];
+                    long start = System.nanoTime();
+                    Response<?> response = execute(operation, random);
+                    histograms.get(operation).record(System.nanoTime() - start);
+                    if (!response.isSuccess()) {
+                        errors.incrementAndGet(operation.ordinal());
+                    }
+                }
+            }, "megaferia-load-" + t);
+            workers.add(worker);
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        Map<Operation, LatencyHistogram> merged = new EnumMap<>(Operation.class);
+        for (Operation operation : operations) {
+            LatencyHistogram histogram = new LatencyHistogram();
+            for (Map<Operation, LatencyHistogram> histograms : perThread) {
+                histogram.add(histograms.get(operation));
+            }
+            merged.put(operation, histogram);
+        }
+        return merged;
+    }
+    
+    private Response<?> execute(Operation operation, Random random) {
+        switch (operation) {
+            case AUTHOR:
+                return authorController.getAuthorById(random.nextInt(dataset.getAuthors()));
+            case PUBLISHER:
+                return publisherController.getPublisherByNit(DatasetGenerator.nit(random.nextInt(dataset.getPublishers())));
+            case BY_AUTHOR:
+                return queryController.getBooksByAuthor(random.nextInt(dataset.getAuthors()));
+            case BY_PUBLISHER:
+                return queryController.getBooksByPublisher(DatasetGenerator.nit(random.nextInt(dataset.getPublishers())));
+            case BY_GENRE:
+                return queryController.getBooksByGenre(DatasetGenerator.GENRES[random.nextInt(DatasetGenerator.GENRES.length)]);
+            case RANKING:
+                return queryController.getAuthorsWithMostPublishers();
+            case CREATE_BOOK:
+                return createBook(dataset.book(nextBook.getAndIncrement(), random));
+            case CREATE_AUTHOR:
+                long id = nextAuthor.getAndIncrement();
+                return authorController.createAuthor(id, "Autor " + id, "Carga");
+            case PURCHASE:
+                return purchaseController.purchaseStands(List.of((long) random.nextInt(dataset.getStands())),
+                                                         List.of(DatasetGenerator.nit(random.nextInt(dataset.getPublishers()))));
+            default:
+                throw new IllegalArgumentException("Operación desconocida: " + operation);
+        }
+    }
+    
+    /**
+     * Crea el libro con el método individual de su tipo, como la interfaz
+     */
+    private Response<?> createBook(BookData book) {
+        if (book.getType() == DigitalBook.class) {
+            return bookController.createDigitalBook(book.getTitle(), book.getAuthorIds(), book.getIsbn(), book.getGenre(),
+                                                    book.getFormat(), book.getValue(), book.getPublisherNit(), book.getHyperlink());
+        }
+        if (book.getType() == Audiobook.class) {
+            return bookController.createAudiobook(book.getTitle(), book.getAuthorIds(), book.getIsbn(), book.getGenre(),
+                                                  book.getFormat(), book.getValue(), book.getPublisherNit(),
+                                                  book.getDuration(), book.getNarratorId());
+        }
+        return bookController.createPrintedBook(book.getTitle(), book.getAuthorIds(), book.getIsbn(), book.getGenre(),
+                                                book.getFormat(), book.getValue(), book.getPublisherNit(),
+                                                book.getPages(), book.getCopies());
+    }
+    
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            if (!arg.startsWith("--") || equals < 0) {
+                throw new IllegalArgumentException("Se esperaba --nombre=valor y hay: " + arg);
+            }
+            options.put(arg.substring(2, equals), arg.substring(equals + 1));
+        }
+        return options;
+    }
+    
+    private static String micros(long nanos) {
+        return String.format(Locale.ROOT, "%.1f", nanos / 1000.0);
+    }
+    
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseOptions(args);
+        long seed = Long.parseLong(options.getOrDefault("seed", "42"));
+        int books = Integer.parseInt(options.getOrDefault("books", "1000000"));
+        int threads = Integer.parseInt(options.getOrDefault("threads", String.valueOf(Runtime.getRuntime().availableProcessors())));
+        long warmup = Long.parseLong(options.getOrDefault("warmup", "10"));
+        long duration = Long.parseLong(options.getOrDefault("duration", "30"));
+        Map<Operation, Integer> mix = parseMix(options.getOrDefault("mix", DEFAULT_MIX));
+        
+        // Permite seguir la prueba con jconsole mientras corre
+        Metrics.register();
+        DatasetGenerator dataset = DatasetGenerator.scaled(seed, books);
+        long start = System.nanoTime();
+        dataset.generate();
+        System.out.printf(Locale.ROOT, "Generated %d books, %d authors, %d publishers, %d stands in %d ms%n",
+                          dataset.getBooks(), dataset.getAuthors(), dataset.getPublishers(), dataset.getStands(),
+                          (System.nanoTime() - start) / 1_000_000);
+        
+        WriteAheadLog log = null;
+        Path directory = null;
+        if (options.containsKey("fsync")) {
+            directory = Files.createTempDirectory("megaferia-load");
+            log = WriteAheadLog.open(directory.resolve("load.wal"), directory.resolve("load.snapshot"),
+                                     FsyncPolicy.valueOf(options.get("fsync")));
+            Storage.setJournal(log);
+        }
+        try {
+            LoadTest test = new LoadTest(dataset, mix, threads);
+            test.run(seed ^ 0x5DEECE66DL, warmup * 1_000_000_000L, new AtomicLongArray(Operation.values().length));
+            AtomicLongArray errors = new AtomicLongArray(Operation.values().length);
+            Map<Operation, LatencyHistogram> results = test.run(seed, duration * 1_000_000_000L, errors);
+            report(results, errors, threads, duration);
+        } finally {
+            if (log != null) {
+                Storage.setJournal(null);
+                log.close();
+                for (String name : new String[] {"load.wal", "load.snapshot"}) {
+                    Files.deleteIfExists(directory.resolve(name));
+                }
+                Files.deleteIfExists(directory);
+            }
+        }
+    }
+    
+    private static void report(Map<Operation, LatencyHistogram> results, AtomicLongArray errors, int threads, long duration) {
+        System.out.printf(Locale.ROOT, "%d threads, %d s, latencies in microseconds%n", threads, duration);
+        System.out.printf(Locale.ROOT, "%-14s %10s %10s %9s %9s %9s %9s %9s %7s%n",
+                          "operation", "count", "ops/s", "mean", "p50", "p99", "p99.9", "max", "errors");
+        LatencyHistogram all = new LatencyHistogram();
+        long allErrors = 0;
+        for (Map.Entry<Operation, LatencyHistogram> entry : results.entrySet()) {
+            LatencyHistogram histogram = entry.getValue();
+            long operationErrors = errors.get(entry.getKey().ordinal());
+            all.add(histogram);
+            allErrors += operationErrors;
+            printRow(entry.getKey().label, histogram, operationErrors, duration);
+        }
+        printRow("total", all, allErrors, duration);
+    }
+    
+    private static void printRow(String label, LatencyHistogram histogram, long errors, long duration) {
+        System.out.printf(Locale.ROOT, "%-14s %10d %10.0f %9.1f %9s %9s %9s %9s %7d%n", label, histogram.getCount(),
+                          histogram.getCount() / (double) Math.max(1, duration), histogram.getMean() / 1000.0,
+                          micros(histogram.getPercentile(50)), micros(histogram.getPercentile(99)),
+                          micros(histogram.getPercentile(99.9)), micros(histogram.getMax()), errors);
+    }
+}
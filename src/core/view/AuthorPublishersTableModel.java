@@ -0,0 +1,26 @@
+package core.view;
+
+import core.model.Author;
+import core.storage.PersonStorage;
+
+/**
+ * Modelo de la tabla de autores con más editoriales
+ */
+public class AuthorPublishersTableModel extends EntityTableModel<Author> {
+    
+    private static final long serialVersionUID = 1L;
+    
+    public AuthorPublishersTableModel() {
+        super(PersonStorage.ID_ORDER, "ID", "Nombre", "Cantidad");
+    }
+    
+    @Override
+    protected Object valueAt(Author author, int column) {
+        switch (column) {
+            case 0: return author.getId();
+            case 1: return author.getFullname();
+            case 2: return author.getPublisherQuantity();
+            default: return null;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package core.view;
+
+import core.model.Audiobook;
+import core.model.Author;
+import core.model.Book;
+import core.model.DigitalBook;
+import core.model.PrintedBook;
+import core.storage.BookStorage;
+
+/**
+ * Modelo de las tablas de libros. Las columnas que no aplican al tipo de
+ * libro se muestran como "-".
+ */
+public class BookTableModel extends EntityTableModel<Book> {
+    
+    private static final long serialVersionUID = 1L;
+    
+    public BookTableModel() {
+        super(BookStorage.ISBN_ORDER, "Titulo", "Autores", "ISBN", "Genero", "Formato", "Valor", "Editorial", "Nro. Ejem", "Nro. Pag", "URL", "Narrador", "Duración");
+    }
+    
+    @Override
+    protected Object valueAt(Book book, int column) {
+        switch (column) {
+            case 0: return book.getTitle();
+            case 1: return authorNames(book);
+            case 2: return book.getIsbn();
+            case 3: return book.getGenre();
+            case 4: return book.getFormat();
+            case 5: return book.getValue();
+            case 6: return book.getPublisher().getName();
+            case 7: return book instanceof PrintedBook ? ((PrintedBook) book).getCopies() : "-";
+            case 8: return book instanceof PrintedBook ? ((PrintedBook) book).getPages() : "-";
+            case 9:
+                if (book instanceof DigitalBook) {
+                    DigitalBook digitalBook = (DigitalBook) book;
+                    return digitalBook.hasHyperlink() ? digitalBook.getHyperlink() : "No";
+                }
+                return "-";
+            case 10: return book instanceof Audiobook ? ((Audiobook) book).getNarrador().getFullname() : "-";
+            case 11: return book instanceof Audiobook ? ((Audiobook) book).getDuration() : "-";
+            default: return null;
+        }
+    }
+    
+    private static String authorNames(Book book) {
+        StringBuilder names = new StringBuilder();
+        for (Author author : book.getAuthors()) {
+            if (names.length() > 0) {
+                names.append(", ");
+            }
+            names.append(author.getFullname());
+        }
+        return names.toString();
+    }
+}
@@ -0,0 +1,177 @@
+package core.view;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import javax.swing.table.AbstractTableModel;
+
+/**
+ * Modelo de tabla virtual: no copia las filas a un DefaultTableModel, sino que
+ * lee cada celda bajo demanda de una lista de solo lectura (una vista en vivo
+ * de un Storage o el resultado de una consulta).
+ *
+ * Cuando la lista es una vista en vivo, el frame avisa cada inserción o
+ * cambio y el modelo dispara solo el evento de la fila afectada.
+ */
+public abstract class EntityTableModel<T> extends AbstractTableModel {
+    
+    private static final long serialVersionUID = 1L;
+    
+    private final String[] columns;
+    private final transient Comparator<? super T> order;
+    private transient List<T> rows;
+    private boolean live;
+    // Filas ya anunciadas a la tabla; la vista en vivo puede ir adelante
+    private int rowCount;
+    
+    protected EntityTableModel(Comparator<? super T> order, String... columns) {
+        this.columns = columns;
+        this.order = order;
+        this.rows = Collections.emptyList();
+    }
+    
+    /**
+     * Muestra una vista en vivo de un Storage, ordenada con el mismo orden
+     * del modelo
+     */
+    public void showLive(List<T> view) {
+        show(view, true);
+    }
+    
+    /**
+     * Muestra el resultado fijo de una consulta
+     */
+    public void showResult(List<T> result) {
+        show(result, false);
+    }
+    
+    private void show(List<T> rows, boolean live) {
+        this.rows = rows;
+        this.live = live;
+        this.rowCount = rows.size();
+        fireTableDataChanged();
+    }
+    
+    /**
+     * Empieza a mostrar un resultado que llegará por partes con appendRows()
+     */
+    public void startResult() {
+        show(new ArrayList<>(), false);
+    }
+    
+    /**
+     * Agrega al final un bloque de filas del resultado iniciado con
+     * startResult() y anuncia solo ese rango
+     */
+    public void appendRows(List<? extends T> chunk) {
+        if (live || !(rows instanceof ArrayList)) {
+            throw new IllegalStateException("appendRows() requiere startResult()");
+        }
+        if (chunk.isEmpty()) {
+            return;
+        }
+        int first = rows.size();
+        rows.addAll(chunk);
+        rowCount = rows.size();
+        fireTableRowsInserted(first, rowCount - 1);
+    }
+    
+    public boolean isLive() {
+        return live;
+    }
+    
+    /**
+     * Se agregó una entidad al Storage. Si la vista la contiene, se anuncia
+     * solo esa fila.
+     */
+    public void entityAdded(T entity) {
+        if (!live || rowCount >= rows.size()) {
+            return;
+        }
+        int index = indexOf(entity);
+        if (index >= 0) {
+            rowCount++;
+            fireTableRowsInserted(index, index);
+        }
+    }
+    
+    /**
+     * Cambió alguna columna calculada de la entidad
+     */
+    public void entityChanged(T entity) {
+        int index = indexOf(entity);
+        if (index >= 0 && index < rowCount) {
+            fireTableRowsUpdated(index, index);
+        }
+    }
+    
+    /**
+     * Vuelve a leer el tamaño de la lista y redibuja toda la tabla
+     */
+    public void reload() {
+        this.rowCount = rows.size();
+        fireTableDataChanged();
+    }
+    
+    private int indexOf(T entity) {
+        if (live) {
+            int index = Collections.binarySearch(rows, entity, order);
+            if (index < 0) {
+                return -1;
+            }
+            // Pueden existir claves iguales (p. ej. un autor y un gerente con el mismo ID)
+            for (int i = index; i >= 0 && order.compare(rows.get(i), entity) == 0; i--) {
+                if (rows.get(i) == entity) {
+                    return i;
+                }
+            }
+            for (int i = index + 1; i < rows.size() && order.compare(rows.get(i), entity) == 0; i++) {
+                if (rows.get(i) == entity) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+        for (int i = 0; i < rows.size(); i++) {
+            if (rows.get(i) == entity) {
+                return i;
+            }
+        }
+        return -1;
+    }
+    
+    public T getRow(int rowIndex) {
+        return rows.get(rowIndex);
+    }
+    
+    @Override
+    public int getRowCount() {
+        return Math.min(rowCount, rows.size());
+    }
+    
+    @Override
+    public int getColumnCount() {
+        return columns.length;
+    }
+    
+    @Override
+    public String getColumnName(int column) {
+        return columns[column];
+    }
+    
+    @Override
+    public boolean isCellEditable(int rowIndex, int columnIndex) {
+        return false;
+    }
+    
+    @Override
+    public Object getValueAt(int rowIndex, int columnIndex) {
+        return valueAt(rows.get(rowIndex), columnIndex);
+    }
+    
+    /**
+     * Calcula el valor de una celda a partir de la entidad de la fila
+     */
+    protected abstract Object valueAt(T row, int column);
+}
@@ -7,7 +7,6 @@ package core.view;
 import com.formdev.flatlaf.FlatDarkLaf;
 import java.util.ArrayList;
 import javax.swing.UIManager;
-import javax.swing.table.DefaultTableModel;
 import core.controller.StandController;
 import core.controller.AuthorController;
 import core.controller.ManagerController;
@@ -32,7 +31,9 @@ import core.model.Publisher;
 import core.model.Response;
 import core.model.Person;
 import core.model.Observer;
-import core.model.StatusCode;
+import core.model.ChangeEvent;
+import core.model.EntityAdded;
+import core.model.RelationLinked;
 
 /**
  *
@@ -41,6 +42,8 @@ import core.model.StatusCode;
  */
 public class MegaferiaFrame extends javax.swing.JFrame implements Observer {
 
+    private static final long serialVersionUID = 1L;
+
     // Controladores
     private StandController standController;
     private AuthorController authorController;
@@ -57,6 +60,21 @@ public class MegaferiaFrame extends javax.swing.JFrame implements Observer {
     private PublisherStorage publisherStorage;
     private BookStorage bookStorage;
     
+    // Modelos de tabla virtuales (leen las filas bajo demanda)
+    private final PublisherTableModel publishersModel = new PublisherTableModel();
+    private final PersonTableModel personsModel = new PersonTableModel();
+    private final StandTableModel standsModel = new StandTableModel();
+    private final BookTableModel booksModel = new BookTableModel();
+    private final BookTableModel bookSearchModel = new BookTableModel();
+    private final AuthorPublishersTableModel authorRankingModel = new AuthorPublishersTableModel();
+    
+    // Consultas fuera del EDT, una por tabla
+    private final transient QueryExecutor queryExecutor = new QueryExecutor();
+    
+    // Eventos de Storage pendientes de aplicar en el EDT
+    private final java.util.concurrent.ConcurrentLinkedQueue<ChangeEvent> pendingEvents = new java.util.concurrent.ConcurrentLinkedQueue<>();
+    private final java.util.concurrent.atomic.AtomicBoolean applyScheduled = new java.util.concurrent.atomic.AtomicBoolean(false);
+    
     /**
      * Creates new form MegaferiaFrame
      */
@@ -85,6 +103,18 @@ public class MegaferiaFrame extends javax.swing.JFrame implements Observer {
         this.personStorage.addObserver(this);
         this.publisherStorage.addObserver(this);
         this.bookStorage.addObserver(this);
+        
+        // Las tablas de editoriales, personas, stands y libros muestran vistas en vivo
+        jTable1.setModel(publishersModel);
+        jTable2.setModel(personsModel);
+        jTable3.setModel(standsModel);
+        jTable4.setModel(booksModel);
+        jTable5.setModel(bookSearchModel);
+        jTable6.setModel(authorRankingModel);
+        publishersModel.showLive(queryController.getPublishersView().getData());
+        personsModel.showLive(queryController.getPersonsView().getData());
+        standsModel.showLive(queryController.getStandsView().getData());
+        booksModel.showLive(queryController.getBooksView(Book.class).getData());
     }
 
     /**
@@ -93,120 +123,99 @@ public class MegaferiaFrame extends javax.swing.JFrame implements Observer {
      */
     @Override
     public void update() {
-        // Ejecutar en el Event Dispatch Thread de Swing
-        javax.swing.SwingUtilities.invokeLater(new Runnable() {
-            @Override
-            public void run() {
-                // Refrescar todas las tablas cuando Storage notifica cambios
-                refreshAllTables();
-            }
-        });
+        pendingEvents.add(ChangeEvent.RELOAD);
+        scheduleApply();
     }
 
     /**
-     * Recarga datos de todas las tablas desde Storage
+     * Recibe los eventos de cambio y los aplica fila por fila en el EDT
      */
-    private void refreshAllTables() {
-        try {
-            // Tabla de Stands
-            Response<java.util.List<Stand>> standsResp = queryController.getAllStands();
-            if (standsResp.getStatus() == StatusCode.OK) {
-                updateStandsTable(standsResp.getData());
-            }
-            
-            // Tabla de Autores - directamente de Storage
-            java.util.List<Person> allPersons = personStorage.getAllPersons();
-            java.util.List<Author> authors = new java.util.ArrayList<>();
-            for (Person p : allPersons) {
-                if (p instanceof Author) {
-                    authors.add((Author) p);
-                }
-            }
-            updateAuthorsTable(authors);
-            
-            // Tabla de Managers - directamente de Storage
-            java.util.List<Manager> managers = new java.util.ArrayList<>();
-            for (Person p : allPersons) {
-                if (p instanceof Manager) {
-                    managers.add((Manager) p);
-                }
-            }
-            updateManagersTable(managers);
-            
-            // Tabla de Libros
-            Response<java.util.List<Book>> booksResp = queryController.getAllBooks();
-            if (booksResp.getStatus() == StatusCode.OK) {
-                updateBooksTable(booksResp.getData());
-            }
-        } catch (Exception e) {
-            System.err.println("Error refrescando tablas: " + e.getMessage());
-        }
+    @Override
+    public void update(java.util.List<ChangeEvent> events) {
+        pendingEvents.addAll(events);
+        scheduleApply();
     }
 
-    /**
-     * Actualiza la tabla de Stands
-     */
-    private void updateStandsTable(java.util.List<Stand> stands) {
-        if (jTable1 == null) return;
-        DefaultTableModel model = (DefaultTableModel) jTable1.getModel();
-        model.setRowCount(0);
-        
-        for (Stand stand : stands) {
-            model.addRow(new Object[]{
-                stand.getId(),
-                stand.getPrice()
-            });
+    private void scheduleApply() {
+        // Si ya hay una aplicación encolada en el EDT, esa aplicación cubre estos eventos
+        if (!applyScheduled.compareAndSet(false, true)) {
+            return;
         }
+        // Ejecutar en el Event Dispatch Thread de Swing
+        javax.swing.SwingUtilities.invokeLater(new Runnable() {
+            @Override
+            public void run() {
+                applyScheduled.set(false);
+                applyPendingEvents();
+            }
+        });
     }
 
     /**
-     * Actualiza la tabla de Autores
+     * Aplica los eventos pendientes a los modelos de tabla. Emite un
+     * TableRefreshEvent para ver con JFR cuánto tiempo ocupa el EDT.
      */
-    private void updateAuthorsTable(java.util.List<Author> authors) {
-        if (jTable2 == null) return;
-        DefaultTableModel model = (DefaultTableModel) jTable2.getModel();
-        model.setRowCount(0);
-        
-        for (Author author : authors) {
-            model.addRow(new Object[]{
-                author.getId(),
-                author.getFirstname(),
-                author.getLastname()
-            });
+    private void applyPendingEvents() {
+        TableRefreshEvent refresh = new TableRefreshEvent();
+        refresh.begin();
+        int applied = 0;
+        boolean reloaded = false;
+        ChangeEvent event;
+        while ((event = pendingEvents.poll()) != null) {
+            applied++;
+            reloaded |= event == ChangeEvent.RELOAD;
+            try {
+                applyEvent(event);
+            } catch (Exception e) {
+                System.err.println("Error aplicando cambio a las tablas: " + e.getMessage());
+            }
         }
-    }
-
-    /**
-     * Actualiza la tabla de Managers
-     */
-    private void updateManagersTable(java.util.List<Manager> managers) {
-        if (jTable3 == null) return;
-        DefaultTableModel model = (DefaultTableModel) jTable3.getModel();
-        model.setRowCount(0);
-        
-        for (Manager manager : managers) {
-            model.addRow(new Object[]{
-                manager.getId(),
-                manager.getFirstname(),
-                manager.getLastname()
-            });
+        refresh.end();
+        if (refresh.shouldCommit()) {
+            refresh.events = applied;
+            refresh.reloaded = reloaded;
+            refresh.rows = publishersModel.getRowCount() + personsModel.getRowCount()
+                    + standsModel.getRowCount() + booksModel.getRowCount();
+            refresh.commit();
         }
     }
 
-    /**
-     * Actualiza la tabla de Libros
-     */
-    private void updateBooksTable(java.util.List<Book> books) {
-        if (jTable5 == null) return;
-        DefaultTableModel model = (DefaultTableModel) jTable5.getModel();
-        model.setRowCount(0);
-        
-        for (Book book : books) {
-            model.addRow(new Object[]{
-                book.getTitle(),
-                book.getIsbn(),
-                book.getClass().getSimpleName()
-            });
+    private void applyEvent(ChangeEvent event) {
+        if (event instanceof EntityAdded) {
+            Object entity = ((EntityAdded<?>) event).getEntity();
+            if (entity instanceof Stand) {
+                standsModel.entityAdded((Stand) entity);
+            } else if (entity instanceof Person) {
+                personsModel.entityAdded((Person) entity);
+            } else if (entity instanceof Publisher) {
+                Publisher publisher = (Publisher) entity;
+                publishersModel.entityAdded(publisher);
+                // El gerente ahora muestra su editorial
+                personsModel.entityChanged(publisher.getManager());
+            } else if (entity instanceof Book) {
+                Book book = (Book) entity;
+                booksModel.entityAdded(book);
+                // Cambia el número de libros de sus autores y narrador
+                for (Author author : book.getAuthors()) {
+                    personsModel.entityChanged(author);
+                }
+                if (book instanceof Audiobook) {
+                    personsModel.entityChanged(((Audiobook) book).getNarrador());
+                }
+            }
+        } else if (event instanceof RelationLinked) {
+            RelationLinked<?, ?> link = (RelationLinked<?, ?>) event;
+            if (link.getSource() instanceof Stand) {
+                standsModel.entityChanged((Stand) link.getSource());
+            }
+            if (link.getTarget() instanceof Publisher) {
+                publishersModel.entityChanged((Publisher) link.getTarget());
+            }
+        } else {
+            publishersModel.reload();
+            personsModel.reload();
+            standsModel.reload();
+            booksModel.reload();
         }
     }
 
@@ -1860,179 +1869,88 @@ public class MegaferiaFrame extends javax.swing.JFrame implements Observer {
 
     private void jButton12ActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_jButton12ActionPerformed
         // Consultar Editoriales
-        Response<java.util.List<Publisher>> response = queryController.getAllPublishers();
+        Response<java.util.List<Publisher>> response = queryController.getPublishersView();
         if (response.isSuccess()) {
-            DefaultTableModel model = (DefaultTableModel) jTable1.getModel();
-            model.setRowCount(0);
-            for (Publisher publisher : response.getData()) {
-                model.addRow(new Object[]{publisher.getNit(), publisher.getName(), publisher.getAddress(), publisher.getManager().getFullname(), publisher.getStandQuantity()});
-            }
+            publishersModel.showLive(response.getData());
         }
     }//GEN-LAST:event_jButton12ActionPerformed
 
     private void jButton13ActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_jButton13ActionPerformed
         // Consultar Personas
-        Response<java.util.List<Person>> response = queryController.getAllPersons();
+        Response<java.util.List<Person>> response = queryController.getPersonsView();
         if (response.isSuccess()) {
-            DefaultTableModel model = (DefaultTableModel) jTable2.getModel();
-            model.setRowCount(0);
-            for (Person person : response.getData()) {
-                if (person instanceof Author) {
-                    Author author = (Author) person;
-                    model.addRow(new Object[]{author.getId(), author.getFullname(), "Autor", "-", author.getBookQuantity()});
-                } else if (person instanceof Manager) {
-                    Manager manager = (Manager) person;
-                    String publisherName = manager.getPublisher() != null ? manager.getPublisher().getName() : "-";
-                    model.addRow(new Object[]{manager.getId(), manager.getFullname(), "Gerente", publisherName, 0});
-                } else if (person instanceof Narrator) {
-                    Narrator narrator = (Narrator) person;
-                    model.addRow(new Object[]{narrator.getId(), narrator.getFullname(), "Narrador", "-", narrator.getBookQuantity()});
-                }
-            }
+            personsModel.showLive(response.getData());
         }
     }//GEN-LAST:event_jButton13ActionPerformed
 
     private void jButton14ActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_jButton14ActionPerformed
         // Consultar Stands
-        Response<java.util.List<Stand>> response = queryController.getAllStands();
+        Response<java.util.List<Stand>> response = queryController.getStandsView();
         if (response.isSuccess()) {
-            DefaultTableModel model = (DefaultTableModel) jTable3.getModel();
-            model.setRowCount(0);
-            for (Stand stand : response.getData()) {
-                String publishers = "";
-                if (stand.getPublisherQuantity() > 0) {
-                    publishers += stand.getPublishers().get(0).getName();
-                    for (int i = 1; i < stand.getPublisherQuantity(); i++) {
-                        publishers += (", " + stand.getPublishers().get(i).getName());
-                    }
-                }
-                model.addRow(new Object[]{stand.getId(), stand.getPrice(), stand.getPublisherQuantity() > 0 ? "Si" : "No", publishers});
-            }
+            standsModel.showLive(response.getData());
         }
     }//GEN-LAST:event_jButton14ActionPerformed
 
     private void jButton15ActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_jButton15ActionPerformed
         // Consultar Libros
         String search = jComboBox9.getItemAt(jComboBox9.getSelectedIndex()).toString();
-        
-        DefaultTableModel model = (DefaultTableModel) jTable4.getModel();
-        model.setRowCount(0);
-        
-        Response<?> response = null;
-        
+        Class<? extends Book> type = null;
         if (search.equals("Libros Impresos")) {
-            response = queryController.getAllPrintedBooks();
+            type = PrintedBook.class;
         } else if (search.equals("Libros Digitales")) {
-            response = queryController.getAllDigitalBooks();
+            type = DigitalBook.class;
         } else if (search.equals("Audiolibros")) {
-            response = queryController.getAllAudiobooks();
+            type = Audiobook.class;
         } else if (search.equals("Todos los Libros")) {
-            response = queryController.getAllBooks();
+            type = Book.class;
         }
-        
-        if (response != null && response.isSuccess()) {
-            @SuppressWarnings("unchecked")
-            Response<java.util.List<Book>> bookResponse = (Response<java.util.List<Book>>) response;
-            for (Book book : bookResponse.getData()) {
-                String authors = book.getAuthors().get(0).getFullname();
-                for (int i = 1; i < book.getAuthors().size(); i++) {
-                    authors += (", " + book.getAuthors().get(i).getFullname());
-                }
-                if (book instanceof PrintedBook) {
-                    PrintedBook printedBook = (PrintedBook) book;
-                    model.addRow(new Object[]{printedBook.getTitle(), authors, printedBook.getIsbn(), printedBook.getGenre(), printedBook.getFormat(), printedBook.getValue(), printedBook.getPublisher().getName(), printedBook.getCopies(), printedBook.getPages(), "-", "-", "-"});
-                } else if (book instanceof DigitalBook) {
-                    DigitalBook digitalBook = (DigitalBook) book;
-                    model.addRow(new Object[]{digitalBook.getTitle(), authors, digitalBook.getIsbn(), digitalBook.getGenre(), digitalBook.getFormat(), digitalBook.getValue(), digitalBook.getPublisher().getName(), "-", "-", digitalBook.hasHyperlink() ? digitalBook.getHyperlink() : "No", "-", "-"});
-                } else if (book instanceof Audiobook) {
-                    Audiobook audiobook = (Audiobook) book;
-                    model.addRow(new Object[]{audiobook.getTitle(), authors, audiobook.getIsbn(), audiobook.getGenre(), audiobook.getFormat(), audiobook.getValue(), audiobook.getPublisher().getName(), "-", "-", "-", audiobook.getNarrador().getFullname(), audiobook.getDuration()});
-                }
-            }
+        if (type == null) {
+            booksModel.showResult(new java.util.ArrayList<>());
+            return;
+        }
+        Response<java.util.List<Book>> response = queryController.getBooksView(type);
+        if (response.isSuccess()) {
+            booksModel.showLive(response.getData());
         }
     }//GEN-LAST:event_jButton15ActionPerformed
 
     private void jButton18ActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_jButton18ActionPerformed
         // Buscar libros por autor
+        long authorId;
         try {
             String[] authorData = jComboBox10.getItemAt(jComboBox10.getSelectedIndex()).toString().split(" - ");
-            long authorId = Long.parseLong(authorData[0]);
-            
-            Response<java.util.List<Book>> response = queryController.getBooksByAuthor(authorId);
-            
-            if (response.isSuccess()) {
-                DefaultTableModel model = (DefaultTableModel) jTable5.getModel();
-                model.setRowCount(0);
-                for (Book book : response.getData()) {
-                    String authors = book.getAuthors().get(0).getFullname();
-                    for (int i = 1; i < book.getAuthors().size(); i++) {
-                        authors += (", " + book.getAuthors().get(i).getFullname());
-                    }
-                    if (book instanceof PrintedBook) {
-                        PrintedBook printedBook = (PrintedBook) book;
-                        model.addRow(new Object[]{printedBook.getTitle(), authors, printedBook.getIsbn(), printedBook.getGenre(), printedBook.getFormat(), printedBook.getValue(), printedBook.getPublisher().getName(), printedBook.getCopies(), printedBook.getPages(), "-", "-", "-"});
-                    } else if (book instanceof DigitalBook) {
-                        DigitalBook digitalBook = (DigitalBook) book;
-                        model.addRow(new Object[]{digitalBook.getTitle(), authors, digitalBook.getIsbn(), digitalBook.getGenre(), digitalBook.getFormat(), digitalBook.getValue(), digitalBook.getPublisher().getName(), "-", "-", digitalBook.hasHyperlink() ? digitalBook.getHyperlink() : "No", "-", "-"});
-                    } else if (book instanceof Audiobook) {
-                        Audiobook audiobook = (Audiobook) book;
-                        model.addRow(new Object[]{audiobook.getTitle(), authors, audiobook.getIsbn(), audiobook.getGenre(), audiobook.getFormat(), audiobook.getValue(), audiobook.getPublisher().getName(), "-", "-", "-", audiobook.getNarrador().getFullname(), audiobook.getDuration()});
-                    }
-                }
-            } else {
-                javax.swing.JOptionPane.showMessageDialog(this, response.getMessage(), "Error", javax.swing.JOptionPane.ERROR_MESSAGE);
-            }
+            authorId = Long.parseLong(authorData[0]);
         } catch (Exception e) {
             javax.swing.JOptionPane.showMessageDialog(this, "Error: " + e.getMessage(), "Error", javax.swing.JOptionPane.ERROR_MESSAGE);
+            return;
         }
+        queryExecutor.submit(bookSearchModel, () -> queryController.getBooksByAuthor(authorId), response -> {
+            if (!response.isSuccess()) {
+                javax.swing.JOptionPane.showMessageDialog(this, response.getMessage(), "Error", javax.swing.JOptionPane.ERROR_MESSAGE);
+            }
+        });
     }//GEN-LAST:event_jButton18ActionPerformed
 
     private void jButton19ActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_jButton19ActionPerformed
         // Buscar libros por formato
         String format = jComboBox11.getItemAt(jComboBox11.getSelectedIndex()).toString();
-        
-        Response<java.util.List<Book>> response = queryController.getBooksByFormat(format);
-        
-        if (response.isSuccess()) {
-            DefaultTableModel model = (DefaultTableModel) jTable5.getModel();
-            model.setRowCount(0);
-            for (Book book : response.getData()) {
-                String authors = book.getAuthors().get(0).getFullname();
-                for (int i = 1; i < book.getAuthors().size(); i++) {
-                    authors += (", " + book.getAuthors().get(i).getFullname());
-                }
-                if (book instanceof PrintedBook) {
-                    PrintedBook printedBook = (PrintedBook) book;
-                    model.addRow(new Object[]{printedBook.getTitle(), authors, printedBook.getIsbn(), printedBook.getGenre(), printedBook.getFormat(), printedBook.getValue(), printedBook.getPublisher().getName(), printedBook.getCopies(), printedBook.getPages(), "-", "-", "-"});
-                } else if (book instanceof DigitalBook) {
-                    DigitalBook digitalBook = (DigitalBook) book;
-                    model.addRow(new Object[]{digitalBook.getTitle(), authors, digitalBook.getIsbn(), digitalBook.getGenre(), digitalBook.getFormat(), digitalBook.getValue(), digitalBook.getPublisher().getName(), "-", "-", digitalBook.hasHyperlink() ? digitalBook.getHyperlink() : "No", "-", "-"});
-                } else if (book instanceof Audiobook) {
-                    Audiobook audiobook = (Audiobook) book;
-                    model.addRow(new Object[]{audiobook.getTitle(), authors, audiobook.getIsbn(), audiobook.getGenre(), audiobook.getFormat(), audiobook.getValue(), audiobook.getPublisher().getName(), "-", "-", "-", audiobook.getNarrador().getFullname(), audiobook.getDuration()});
-                }
+        queryExecutor.submit(bookSearchModel, () -> queryController.getBooksByFormat(format), response -> {
+            if (!response.isSuccess()) {
+                javax.swing.JOptionPane.showMessageDialog(this, response.getMessage(), "Error", javax.swing.JOptionPane.ERROR_MESSAGE);
             }
-        }
+        });
     }//GEN-LAST:event_jButton19ActionPerformed
 
     private void jButton20ActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_jButton20ActionPerformed
         // Autores con más libros en diferentes editoriales
-        Response<java.util.List<Author>> response = queryController.getAuthorsWithMostPublishers();
-        
-        if (response.isSuccess()) {
-            DefaultTableModel model = (DefaultTableModel) jTable6.getModel();
-            model.setRowCount(0);
-            
-            if (response.getData().isEmpty()) {
+        queryExecutor.submit(authorRankingModel, () -> queryController.getAuthorsWithMostPublishers(), response -> {
+            if (response.isSuccess() && response.getData().isEmpty()) {
                 javax.swing.JOptionPane.showMessageDialog(this, 
                     "No hay autores con libros en diferentes editoriales", "Información", javax.swing.JOptionPane.INFORMATION_MESSAGE);
-            } else {
-                int maxPublishers = response.getData().get(0).getPublisherQuantity();
-                for (Author author : response.getData()) {
-                    model.addRow(new Object[]{author.getId(), author.getFullname(), maxPublishers});
-                }
+            } else if (!response.isSuccess()) {
+                javax.swing.JOptionPane.showMessageDialog(this, response.getMessage(), "Error", javax.swing.JOptionPane.ERROR_MESSAGE);
             }
-        }
+        });
     }//GEN-LAST:event_jButton20ActionPerformed
 
     // Variables declaration - do not modify//GEN-BEGIN:variables
@@ -0,0 +1,52 @@
+package core.view;
+
+import core.model.Author;
+import core.model.Manager;
+import core.model.Narrator;
+import core.model.Person;
+import core.storage.PersonStorage;
+
+/**
+ * Modelo de la tabla de personas (autores, gerentes y narradores)
+ */
+public class PersonTableModel extends EntityTableModel<Person> {
+    
+    private static final long serialVersionUID = 1L;
+    
+    public PersonTableModel() {
+        super(PersonStorage.ID_ORDER, "ID", "Nombre Completo", "Tipo", "Editorial", "Nro. Libros");
+    }
+    
+    @Override
+    protected Object valueAt(Person person, int column) {
+        switch (column) {
+            case 0: return person.getId();
+            case 1: return person.getFullname();
+            case 2: return typeOf(person);
+            case 3:
+                if (person instanceof Manager && ((Manager) person).getPublisher() != null) {
+                    return ((Manager) person).getPublisher().getName();
+                }
+                return "-";
+            case 4:
+                if (person instanceof Author) {
+                    return ((Author) person).getBookQuantity();
+                } else if (person instanceof Narrator) {
+                    return ((Narrator) person).getBookQuantity();
+                }
+                return 0;
+            default: return null;
+        }
+    }
+    
+    private static String typeOf(Person person) {
+        if (person instanceof Author) {
+            return "Autor";
+        } else if (person instanceof Manager) {
+            return "Gerente";
+        } else if (person instanceof Narrator) {
+            return "Narrador";
+        }
+        return "-";
+    }
+}
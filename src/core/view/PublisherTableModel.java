@@ -0,0 +1,28 @@
+package core.view;
+
+import core.model.Publisher;
+import core.storage.PublisherStorage;
+
+/**
+ * Modelo de la tabla de editoriales
+ */
+public class PublisherTableModel extends EntityTableModel<Publisher> {
+    
+    private static final long serialVersionUID = 1L;
+    
+    public PublisherTableModel() {
+        super(PublisherStorage.NIT_ORDER, "NIT", "Nombre", "Dirección", "Nombre Gerente", "Nro. Stands");
+    }
+    
+    @Override
+    protected Object valueAt(Publisher publisher, int column) {
+        switch (column) {
+            case 0: return publisher.getNit();
+            case 1: return publisher.getName();
+            case 2: return publisher.getAddress();
+            case 3: return publisher.getManager().getFullname();
+            case 4: return publisher.getStandQuantity();
+            default: return null;
+        }
+    }
+}
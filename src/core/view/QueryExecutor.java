@@ -0,0 +1,108 @@
+package core.view;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import javax.swing.SwingWorker;
+import core.model.Response;
+import core.model.StatusCode;
+
+/**
+ * Ejecuta las consultas de la vista fuera del Event Dispatch Thread.
+ *
+ * Cada consulta corre en un hilo virtual y publica sus filas en bloques al
+ * modelo de la tabla. Hay a lo sumo una consulta por tabla: si el usuario
+ * vuelve a consultar, la anterior se cancela y sus filas se descartan.
+ * Todos los métodos públicos se llaman desde el EDT.
+ */
+public class QueryExecutor {
+    
+    private static final int CHUNK_SIZE = 500;
+    
+    private final ExecutorService executor;
+    // Consulta en curso por modelo de tabla (solo se accede desde el EDT)
+    private final Map<EntityTableModel<?>, SwingWorker<?, ?>> running;
+    
+    public QueryExecutor() {
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        this.running = new HashMap<>();
+    }
+    
+    /**
+     * Ejecuta la consulta y muestra su resultado en el modelo.
+     * @param onDone se llama en el EDT con la respuesta cuando la consulta
+     *               termina y todas sus filas ya están en la tabla; no se
+     *               llama si la consulta fue reemplazada por otra
+     */
+    public <T> void submit(EntityTableModel<T> model, Callable<Response<List<T>>> query, Consumer<Response<List<T>>> onDone) {
+        SwingWorker<?, ?> previous = running.remove(model);
+        if (previous != null) {
+            previous.cancel(true);
+        }
+        model.startResult();
+        
+        SwingWorker<Response<List<T>>, List<T>> worker = new SwingWorker<Response<List<T>>, List<T>>() {
+            @Override
+            protected Response<List<T>> doInBackground() throws Exception {
+                Response<List<T>> response = query.call();
+                if (response.isSuccess() && response.getData() != null) {
+                    List<T> rows = response.getData();
+                    for (int from = 0; from < rows.size() && !isCancelled(); from += CHUNK_SIZE) {
+                        publish(rows.subList(from, Math.min(from + CHUNK_SIZE, rows.size())));
+                    }
+                }
+                return response;
+            }
+            
+            @Override
+            protected void process(List<List<T>> chunks) {
+                if (isCancelled()) {
+                    return;
+                }
+                for (List<T> chunk : chunks) {
+                    model.appendRows(chunk);
+                }
+            }
+            
+            @Override
+            protected void done() {
+                if (running.get(model) == this) {
+                    running.remove(model);
+                }
+                if (isCancelled()) {
+                    return;
+                }
+                Response<List<T>> response;
+                try {
+                    response = get();
+                } catch (InterruptedException | CancellationException e) {
+                    return;
+                } catch (ExecutionException e) {
+                    response = new Response<>(StatusCode.INTERNAL_SERVER_ERROR, "Error: " + e.getCause().getMessage());
+                }
+                if (onDone != null) {
+                    onDone.accept(response);
+                }
+            }
+        };
+        running.put(model, worker);
+        executor.execute(worker);
+    }
+    
+    /**
+     * Cancela todas las consultas en curso y libera los hilos
+     */
+    public void shutdown() {
+        for (SwingWorker<?, ?> worker : running.values()) {
+            worker.cancel(true);
+        }
+        running.clear();
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,39 @@
+package core.view;
+
+import core.model.Publisher;
+import core.model.Stand;
+import core.storage.StandStorage;
+
+/**
+ * Modelo de la tabla de stands
+ */
+public class StandTableModel extends EntityTableModel<Stand> {
+    
+    private static final long serialVersionUID = 1L;
+    
+    public StandTableModel() {
+        super(StandStorage.ID_ORDER, "ID", "Precio", "Comprado", "Editoriales");
+    }
+    
+    @Override
+    protected Object valueAt(Stand stand, int column) {
+        switch (column) {
+            case 0: return stand.getId();
+            case 1: return stand.getPrice();
+            case 2: return stand.getPublisherQuantity() > 0 ? "Si" : "No";
+            case 3: return publisherNames(stand);
+            default: return null;
+        }
+    }
+    
+    private static String publisherNames(Stand stand) {
+        StringBuilder names = new StringBuilder();
+        for (Publisher publisher : stand.getPublishers()) {
+            if (names.length() > 0) {
+                names.append(", ");
+            }
+            names.append(publisher.getName());
+        }
+        return names.toString();
+    }
+}
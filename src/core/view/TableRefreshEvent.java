@@ -0,0 +1,30 @@
+package core.view;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento de Java Flight Recorder por cada aplicación de cambios a las tablas
+ * de MegaferiaFrame en el EDT. Una duración alta es un bloqueo de la
+ * interfaz.
+ */
+@Name("core.TableRefresh")
+@Label("Table Refresh")
+@Category({"Megaferia", "View"})
+@Description("Aplicación de los eventos de cambio pendientes a los modelos de tabla")
+@StackTrace(false)
+class TableRefreshEvent extends jdk.jfr.Event {
+    
+    @Label("Events")
+    int events;
+    
+    // Filas de las tablas en vivo (editoriales, personas, stands y libros)
+    @Label("Rows")
+    int rows;
+    
+    @Label("Reloaded")
+    boolean reloaded;
+}
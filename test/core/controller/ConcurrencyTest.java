@@ -0,0 +1,187 @@
+package core.controller;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import core.model.Author;
+import core.model.Book;
+import core.model.Manager;
+import core.model.Publisher;
+import core.model.Response;
+import core.model.StatusCode;
+import core.storage.BookStorage;
+import core.storage.PersonStorage;
+import core.storage.PublisherStorage;
+import core.storage.StandStorage;
+import core.tools.DatasetGenerator;
+
+/**
+ * Varios hilos crean entidades mientras otros las consultan: no se pierde
+ * ninguna creación y las consultas nunca fallan ni ven listas desordenadas.
+ */
+public class ConcurrencyTest {
+    
+    private static final int WRITERS = 4;
+    private static final int READERS = 4;
+    private static final int PER_WRITER = 2000;
+    // Muchos formatos y géneros distintos: los índices por texto agregan claves durante la prueba
+    private static final int KEYS = 50;
+    
+    private ExecutorService executor;
+    private AtomicBoolean writing;
+    private ConcurrentLinkedQueue<Throwable> failures;
+    
+    @Before
+    public void clear() {
+        BookStorage.getInstance().clear();
+        PublisherStorage.getInstance().clear();
+        StandStorage.getInstance().clear();
+        PersonStorage.getInstance().clear();
+        executor = Executors.newFixedThreadPool(WRITERS + READERS);
+        writing = new AtomicBoolean(true);
+        failures = new ConcurrentLinkedQueue<>();
+    }
+    
+    @After
+    public void shutdown() throws InterruptedException {
+        executor.shutdownNow();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+    
+    /**
+     * Ejecuta los escritores y, mientras tanto, repite la lectura en los
+     * lectores. Falla si algún hilo lanzó una excepción.
+     */
+    private void run(Writer writer, Runnable reader) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> writers = new ArrayList<>();
+        for (int w = 0; w < WRITERS; w++) {
+            int from = w * PER_WRITER;
+            writers.add(executor.submit(() -> {
+                await(start);
+                for (int i = from; i < from + PER_WRITER; i++) {
+                    writer.write(i);
+                }
+                return null;
+            }));
+        }
+        List<Future<?>> readers = new ArrayList<>();
+        for (int r = 0; r < READERS; r++) {
+            readers.add(executor.submit(() -> {
+                await(start);
+                try {
+                    while (writing.get()) {
+                        reader.run();
+                    }
+                    // Una lectura más con todo ya escrito
+                    reader.run();
+                } catch (Throwable e) {
+                    failures.add(e);
+                }
+            }));
+        }
+        start.countDown();
+        try {
+            for (Future<?> future : writers) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            writing.set(false);
+        }
+        for (Future<?> future : readers) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        if (!failures.isEmpty()) {
+            throw new AssertionError("Falló una lectura concurrente", failures.peek());
+        }
+    }
+    
+    private static void await(CountDownLatch start) {
+        try {
+            start.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    private static void assertAscending(List<? extends Author> authors) {
+        for (int i = 1; i < authors.size(); i++) {
+            assertTrue("Autores fuera de orden", authors.get(i - 1).getId() < authors.get(i).getId());
+        }
+    }
+    
+    @Test
+    public void parallelCreateAuthorLosesNothing() throws Exception {
+        AuthorController authorController = new AuthorController();
+        
+        run(id -> {
+            Response<Author> response = authorController.createAuthor(id, "Autor", "Número " + id);
+            assertEquals(response.getMessage(), StatusCode.CREATED, response.getStatus());
+        }, () -> {
+            List<Author> authors = authorController.getAllAuthors().getData();
+            assertAscending(authors);
+            assertTrue(authors.size() <= WRITERS * PER_WRITER);
+        });
+        
+        List<Author> authors = authorController.getAllAuthors().getData();
+        assertEquals(WRITERS * PER_WRITER, authors.size());
+        for (int i = 0; i < authors.size(); i++) {
+            assertEquals(i, authors.get(i).getId());
+        }
+    }
+    
+    @Test
+    public void parallelCreateBookKeepsIndexesComplete() throws Exception {
+        AuthorController authorController = new AuthorController();
+        BookController bookController = new BookController();
+        QueryController queryController = new QueryController();
+        authorController.createAuthor(1, "Luis", "Pérez");
+        Manager manager = new Manager(2, "Ana", "Gómez");
+        PersonStorage.getInstance().addManager(manager);
+        String nit = DatasetGenerator.nit(1);
+        PublisherStorage.getInstance().addPublisher(new Publisher(nit, "Editorial", "Dirección", manager));
+        List<Long> authorIds = List.of(1L);
+        
+        run(i -> {
+            Response<?> response = bookController.createPrintedBook("Libro " + i, authorIds, DatasetGenerator.isbn(i),
+                                                                   "Género " + (i % KEYS), "Formato " + (i % KEYS),
+                                                                   1000, nit, 100, 1);
+            assertEquals(response.getMessage(), StatusCode.CREATED, response.getStatus());
+        }, () -> {
+            for (int key = 0; key < KEYS; key++) {
+                assertTrue(queryController.getBooksByFormat("Formato " + key).getData().size() <= WRITERS * PER_WRITER / KEYS);
+                assertTrue(queryController.getBooksByGenre("Género " + key).getData().size() <= WRITERS * PER_WRITER / KEYS);
+            }
+        });
+        
+        assertEquals(WRITERS * PER_WRITER, queryController.getAllBooks().getData().size());
+        for (int key = 0; key < KEYS; key++) {
+            List<Book> byFormat = queryController.getBooksByFormat("Formato " + key).getData();
+            assertEquals(WRITERS * PER_WRITER / KEYS, byFormat.size());
+            assertEquals(WRITERS * PER_WRITER / KEYS, queryController.getBooksByGenre("Género " + key).getData().size());
+            for (Book book : byFormat) {
+                assertEquals("Formato " + key, book.getFormat());
+            }
+        }
+        assertEquals(WRITERS * PER_WRITER, PersonStorage.getInstance().getAuthorById(1).getBookQuantity());
+    }
+    
+    /**
+     * Una escritura de un hilo: i es su número, único entre todos los hilos
+     */
+    private interface Writer {
+        
+        void write(int i) throws Exception;
+    }
+}
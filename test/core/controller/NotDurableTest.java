@@ -0,0 +1,106 @@
+package core.controller;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import core.model.Author;
+import core.model.ChangeEvent;
+import core.model.Response;
+import core.model.StatusCode;
+import core.storage.BookStorage;
+import core.storage.Journal;
+import core.storage.PersonStorage;
+import core.storage.PublisherStorage;
+import core.storage.StandStorage;
+import core.storage.Storage;
+
+/**
+ * Si el Journal confirma una escritura pero no la lleva a disco, el
+ * controlador responde con un error en lugar de lanzar la excepción, y el
+ * cambio queda en los Storage. Si ni siquiera puede escribirla, también
+ * responde con un error, pero el cambio se deshace.
+ */
+public class NotDurableTest {
+    
+    // Hace fallar commit() en lugar de awaitDurable()
+    private boolean failWrite;
+    
+    @Before
+    public void installFailingJournal() {
+        BookStorage.getInstance().clear();
+        PublisherStorage.getInstance().clear();
+        StandStorage.getInstance().clear();
+        PersonStorage.getInstance().clear();
+        Storage.setJournal(new Journal() {
+            @Override
+            public void append(ChangeEvent event) {
+            }
+            
+            @Override
+            public long commit() {
+                if (failWrite) {
+                    throw new UncheckedIOException(new IOException("Disco lleno"));
+                }
+                return 1;
+            }
+            
+            @Override
+            public void abort() {
+            }
+            
+            @Override
+            public void awaitDurable(long ticket) {
+                throw new UncheckedIOException(new IOException("Disco lleno"));
+            }
+        });
+    }
+    
+    @After
+    public void removeJournal() {
+        Storage.setJournal(null);
+    }
+    
+    @Test
+    public void createReturnsErrorResponse() {
+        Response<Author> response = new AuthorController().createAuthor(1, "Luis", "Pérez");
+        
+        assertEquals(StatusCode.INTERNAL_SERVER_ERROR, response.getStatus());
+        assertNotNull(PersonStorage.getInstance().getAuthorById(1));
+    }
+    
+    @Test
+    public void batchReportsOnlyRegisteredElements() {
+        List<Response<Author>> responses = new AuthorController().createAuthors(List.of(
+                new PersonData(1, "Luis", "Pérez"), new PersonData(-1, "Ana", "Gómez")));
+        
+        assertEquals(StatusCode.INTERNAL_SERVER_ERROR, responses.get(0).getStatus());
+        assertEquals(StatusCode.BAD_REQUEST, responses.get(1).getStatus());
+        assertEquals(1, PersonStorage.getInstance().getAllAuthors().size());
+    }
+    
+    @Test
+    public void failedWriteReturnsErrorAndRollsBack() {
+        failWrite = true;
+        Response<Author> response = new AuthorController().createAuthor(1, "Luis", "Pérez");
+        
+        assertEquals(StatusCode.INTERNAL_SERVER_ERROR, response.getStatus());
+        assertNull(PersonStorage.getInstance().getAuthorById(1));
+    }
+    
+    @Test
+    public void failedBatchWriteRegistersNothing() {
+        failWrite = true;
+        List<Response<Author>> responses = new AuthorController().createAuthors(List.of(
+                new PersonData(1, "Luis", "Pérez"), new PersonData(-1, "Ana", "Gómez")));
+        
+        assertEquals(StatusCode.INTERNAL_SERVER_ERROR, responses.get(0).getStatus());
+        assertEquals(StatusCode.BAD_REQUEST, responses.get(1).getStatus());
+        assertEquals(0, PersonStorage.getInstance().getAuthorQuantity());
+    }
+}
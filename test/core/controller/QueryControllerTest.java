@@ -0,0 +1,165 @@
+package core.controller;
+
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import core.model.Author;
+import core.model.Book;
+import core.model.Page;
+import core.model.Person;
+import core.model.Publisher;
+import core.model.Stand;
+import core.storage.BookStorage;
+import core.storage.PersonStorage;
+import core.storage.PublisherStorage;
+import core.storage.StandStorage;
+import core.storage.Storage;
+import core.tools.DatasetGenerator;
+
+/**
+ * Las copias (Prototype) que retornan las consultas no cambian el grafo de
+ * objetos: consultar muchas veces no hace crecer las relaciones ni la
+ * memoria, y cambiar una copia no afecta a la entidad guardada.
+ */
+public class QueryControllerTest {
+    
+    private static final int BOOKS = 2000;
+    private static final int CALLS = 200;
+    // Margen para la medición de memoria; el error que se prueba retenía una copia de cada libro por llamada
+    private static final long MEMORY_SLACK = 4L << 20;
+    
+    private QueryController queryController;
+    
+    @Before
+    public void load() {
+        BookStorage.getInstance().clear();
+        PublisherStorage.getInstance().clear();
+        StandStorage.getInstance().clear();
+        PersonStorage.getInstance().clear();
+        DatasetGenerator.scaled(7, BOOKS).generate();
+        queryController = new QueryController();
+    }
+    
+    private static int[] bookQuantities(List<Author> authors) {
+        int[] quantities = new int[authors.size()];
+        for (int i = 0; i < quantities.length; i++) {
+            quantities[i] = authors.get(i).getBookQuantity();
+        }
+        return quantities;
+    }
+    
+    private static long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        long used = Long.MAX_VALUE;
+        // Varias pasadas: el recolector no garantiza liberar todo en una
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            used = Math.min(used, runtime.totalMemory() - runtime.freeMemory());
+        }
+        return used;
+    }
+    
+    @Test
+    public void repeatedGetAllBooksLeavesQuantitiesAndMemoryFlat() {
+        List<Author> authors = PersonStorage.getInstance().getAllAuthors();
+        int[] before = bookQuantities(authors);
+        assertEquals(BOOKS, queryController.getAllBooks().getData().size());
+        long memoryBefore = usedMemory();
+        
+        for (int i = 0; i < CALLS; i++) {
+            assertEquals(BOOKS, queryController.getAllBooks().getData().size());
+        }
+        
+        long memoryAfter = usedMemory();
+        for (int i = 0; i < before.length; i++) {
+            assertEquals("Libros del autor " + authors.get(i).getId(), before[i], authors.get(i).getBookQuantity());
+        }
+        assertEquals(BOOKS, BookStorage.getInstance().getBookQuantity());
+        assertTrue("La memoria creció " + (memoryAfter - memoryBefore) + " bytes", memoryAfter - memoryBefore < MEMORY_SLACK);
+    }
+    
+    @Test
+    public void queriesDoNotTakeSnapshots() {
+        long before = Storage.snapshot().getVersion();
+        
+        queryController.getBooksByAuthor(0);
+        queryController.getBooksByPublisher(DatasetGenerator.nit(0));
+        queryController.getAuthorsWithMostPublishers();
+        queryController.getAllBooks();
+        queryController.getAllPrintedBooks();
+        queryController.getBooksByFormat(DatasetGenerator.FORMATS[0]);
+        queryController.getBooksByGenre(DatasetGenerator.GENRES[0]);
+        queryController.getAllStands();
+        queryController.getAllPersons();
+        queryController.getAllPublishers();
+        
+        assertEquals(before + 1, Storage.snapshot().getVersion());
+    }
+    
+    @Test
+    public void pagesCopyOnlyTheRequestedItems() {
+        List<Book> stored = BookStorage.getInstance().getAllBooks();
+        
+        Page<Book> page = new BookController().getBooksPage(Book.class, 10, 5).getData();
+        
+        assertEquals(BOOKS, page.getTotal());
+        assertEquals(10, page.getOffset());
+        assertEquals(5, page.getItems().size());
+        for (int i = 0; i < 5; i++) {
+            Book copy = page.getItems().get(i);
+            assertEquals(stored.get(10 + i).getIsbn(), copy.getIsbn());
+            assertNotSame(stored.get(10 + i), copy);
+        }
+        
+        Page<Person> last = queryController.getPersonsPage(Integer.MAX_VALUE, 100).getData();
+        assertEquals(PersonStorage.getInstance().getAllPersons().size(), last.getTotal());
+        assertEquals(last.getTotal(), last.getOffset());
+        assertTrue(last.getItems().isEmpty());
+    }
+    
+    @Test
+    public void changingCopiesDoesNotChangeStoredEntities() {
+        Stand stored = StandStorage.getInstance().getAllStands().get(0);
+        Publisher storedPublisher = PublisherStorage.getInstance().getAllPublishers().get(0);
+        int purchases = stored.getPublisherQuantity();
+        int stands = storedPublisher.getStandQuantity();
+        Publisher managed = storedPublisher.getManager().getPublisher();
+        
+        Stand copy = queryController.getAllStands().getData().get(0);
+        Publisher publisherCopy = queryController.getAllPublishers().getData().get(0);
+        copy.addPublisher(publisherCopy);
+        publisherCopy.addStand(copy);
+        publisherCopy.removeStand(stored);
+        
+        assertEquals(purchases, stored.getPublisherQuantity());
+        assertEquals(stands, storedPublisher.getStandQuantity());
+        assertSame(managed, storedPublisher.getManager().getPublisher());
+        try {
+            copy.getPublishers().add(publisherCopy);
+            fail("Las relaciones de una copia son de solo lectura");
+        } catch (UnsupportedOperationException e) {
+            // Esperada
+        }
+    }
+    
+    @Test
+    public void bookCopiesShareImmutableAuthors() {
+        Book copy = queryController.getAllBooks().getData().get(0);
+        try {
+            copy.getAuthors().add(new Author(BOOKS, "Otro", "Autor"));
+            fail("Los autores de una copia son de solo lectura");
+        } catch (UnsupportedOperationException e) {
+            // Esperada
+        }
+        
+        Book stored = BookStorage.getInstance().getBookByIsbn(copy.getIsbn());
+        for (Author author : stored.getAuthors()) {
+            assertTrue(author.getBooks().contains(stored));
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package core.persistence;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import core.model.Manager;
+import core.model.Publisher;
+import core.storage.BookStorage;
+import core.storage.PersonStorage;
+import core.storage.PublisherStorage;
+import core.storage.StandStorage;
+import core.storage.Storage;
+import core.tools.DatasetGenerator;
+
+/**
+ * Guardar una instantánea y volver a cargarla deja los Storage y las
+ * relaciones entre entidades como estaban.
+ */
+public class SnapshotFileTest {
+    
+    private Path directory;
+    
+    @Before
+    public void clear() throws IOException {
+        clearStorages();
+        directory = Files.createTempDirectory("megaferia-test");
+    }
+    
+    @After
+    public void delete() throws IOException {
+        Storage.setJournal(null);
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(file);
+            }
+        }
+    }
+    
+    private static void clearStorages() {
+        BookStorage.getInstance().clear();
+        PublisherStorage.getInstance().clear();
+        StandStorage.getInstance().clear();
+        PersonStorage.getInstance().clear();
+    }
+    
+    private WriteAheadLog open() throws IOException {
+        return WriteAheadLog.open(directory.resolve("megaferia.wal"), directory.resolve("megaferia.snapshot"), FsyncPolicy.NEVER);
+    }
+    
+    @Test
+    public void managerKeepsLastCreatedPublisher() throws IOException {
+        WriteAheadLog log = open();
+        Storage.setJournal(log);
+        Manager manager = new Manager(1, "Ana", "Gómez");
+        PersonStorage.getInstance().addManager(manager);
+        // La última editorial creada tiene el NIT menor
+        PublisherStorage.getInstance().addPublisher(new Publisher(DatasetGenerator.nit(2), "Segunda", "Dirección", manager));
+        PublisherStorage.getInstance().addPublisher(new Publisher(DatasetGenerator.nit(1), "Primera", "Dirección", manager));
+        log.checkpoint();
+        Storage.setJournal(null);
+        log.close();
+        
+        clearStorages();
+        open().close();
+        
+        Manager loaded = PersonStorage.getInstance().getManagerById(1);
+        assertEquals(DatasetGenerator.nit(1), loaded.getPublisher().getNit());
+        assertEquals(2, PublisherStorage.getInstance().getPublisherQuantity());
+    }
+}
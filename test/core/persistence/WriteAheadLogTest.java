@@ -0,0 +1,85 @@
+package core.persistence;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+import core.model.Author;
+import core.storage.BookStorage;
+import core.storage.PersonStorage;
+import core.storage.PublisherStorage;
+import core.storage.StandStorage;
+import core.storage.Storage;
+
+/**
+ * Una transacción que falla a mitad del registro se deshace en memoria y
+ * tampoco llega al archivo con el commit siguiente.
+ */
+public class WriteAheadLogTest {
+    
+    private Path directory;
+    
+    @Before
+    public void clear() throws IOException {
+        clearStorages();
+        directory = Files.createTempDirectory("megaferia-test");
+    }
+    
+    @After
+    public void delete() throws IOException {
+        Storage.setJournal(null);
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(file);
+            }
+        }
+    }
+    
+    private static void clearStorages() {
+        BookStorage.getInstance().clear();
+        PublisherStorage.getInstance().clear();
+        StandStorage.getInstance().clear();
+        PersonStorage.getInstance().clear();
+    }
+    
+    private WriteAheadLog open() throws IOException {
+        return WriteAheadLog.open(directory.resolve("megaferia.wal"), directory.resolve("megaferia.snapshot"), FsyncPolicy.NEVER);
+    }
+    
+    @Test
+    public void failedAppendIsNotWrittenByNextCommit() throws IOException {
+        WriteAheadLog log = open();
+        Storage.setJournal(log);
+        PersonStorage storage = PersonStorage.getInstance();
+        // El segundo autor no cabe en un registro (RecordBuffer.MAX_RECORD)
+        String tooLong = "x".repeat(RecordBuffer.MAX_RECORD + 1);
+        try {
+            Storage.write(() -> {
+                storage.addAuthor(new Author(1, "Luis", "Pérez"));
+                storage.addAuthor(new Author(2, tooLong, "Gómez"));
+            });
+            fail("El registro demasiado grande debía fallar");
+        } catch (RuntimeException e) {
+            // Esperada
+        }
+        assertNull(storage.getAuthorById(1));
+        storage.addAuthor(new Author(3, "Ana", "Gómez"));
+        Storage.setJournal(null);
+        log.close();
+        
+        clearStorages();
+        open().close();
+        
+        assertNull(PersonStorage.getInstance().getAuthorById(1));
+        assertNotNull(PersonStorage.getInstance().getAuthorById(3));
+        assertEquals(1, PersonStorage.getInstance().getAuthorQuantity());
+    }
+}
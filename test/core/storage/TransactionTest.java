@@ -0,0 +1,132 @@
+package core.storage;
+
+import java.util.ArrayList;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+import core.model.Author;
+import core.model.Book;
+import core.model.Manager;
+import core.model.PrintedBook;
+import core.model.Publisher;
+import core.model.Stand;
+import core.tools.DatasetGenerator;
+
+/**
+ * Reversión de Storage.write(): lo que hizo una transacción que falla o
+ * se marca con setRollbackOnly() no queda ni en los Storage ni en las
+ * relaciones entre entidades.
+ */
+public class TransactionTest {
+    
+    private BookStorage bookStorage;
+    private PersonStorage personStorage;
+    private PublisherStorage publisherStorage;
+    private StandStorage standStorage;
+    
+    @Before
+    public void clear() {
+        bookStorage = BookStorage.getInstance();
+        personStorage = PersonStorage.getInstance();
+        publisherStorage = PublisherStorage.getInstance();
+        standStorage = StandStorage.getInstance();
+        bookStorage.clear();
+        publisherStorage.clear();
+        standStorage.clear();
+        personStorage.clear();
+    }
+    
+    private Publisher publisher(int index, Manager manager) {
+        return new Publisher(DatasetGenerator.nit(index), "Editorial " + index, "Dirección", manager);
+    }
+    
+    @Test
+    public void rollbackRestoresPreviousPublisherOfManager() {
+        Manager manager = new Manager(1, "Ana", "Gómez");
+        personStorage.addManager(manager);
+        Publisher first = publisher(1, manager);
+        publisherStorage.addPublisher(first);
+        
+        Storage.write(() -> {
+            publisherStorage.addPublisher(publisher(2, manager));
+            Storage.setRollbackOnly();
+        });
+        
+        assertSame(first, manager.getPublisher());
+        assertFalse(publisherStorage.existsPublisherByNit(DatasetGenerator.nit(2)));
+    }
+    
+    @Test
+    public void rollbackOfSeveralPublishersForOneManager() {
+        Manager manager = new Manager(1, "Ana", "Gómez");
+        personStorage.addManager(manager);
+        
+        Storage.write(() -> {
+            publisherStorage.addPublisher(publisher(1, manager));
+            publisherStorage.addPublisher(publisher(2, manager));
+            Storage.setRollbackOnly();
+        });
+        
+        assertNull(manager.getPublisher());
+        assertEquals(0, publisherStorage.getPublisherQuantity());
+    }
+    
+    @Test
+    public void failedTransactionUnlinksBook() {
+        Author author = new Author(1, "Luis", "Pérez");
+        personStorage.addAuthor(author);
+        Publisher publisher = publisher(1, new Manager(2, "Ana", "Gómez"));
+        publisherStorage.addPublisher(publisher);
+        ArrayList<Author> authors = new ArrayList<>();
+        authors.add(author);
+        
+        try {
+            Storage.write(() -> {
+                Book book = new PrintedBook("Libro", authors, DatasetGenerator.isbn(1), "Novela", "Bolsillo", 1000, publisher, 100, 1);
+                bookStorage.addBook(book);
+                throw new IllegalStateException("Falla después de agregar el libro");
+            });
+            fail("La excepción de la acción debe propagarse");
+        } catch (IllegalStateException e) {
+            // Esperada
+        }
+        
+        assertEquals(0, author.getBookQuantity());
+        assertEquals(0, author.getPublisherQuantity());
+        assertEquals(0, bookStorage.getBookQuantity());
+        assertFalse(bookStorage.existsBookByIsbn(DatasetGenerator.isbn(1)));
+    }
+    
+    @Test
+    public void rollbackUndoesPurchase() {
+        Stand stand = new Stand(1, 500);
+        standStorage.addStand(stand);
+        Publisher publisher = publisher(1, new Manager(2, "Ana", "Gómez"));
+        publisherStorage.addPublisher(publisher);
+        
+        Storage.write(() -> {
+            standStorage.linkPublisher(stand, publisher);
+            standStorage.linkPublisher(stand, publisher);
+            Storage.setRollbackOnly();
+        });
+        
+        assertEquals(0, stand.getPublisherQuantity());
+        assertEquals(0, publisher.getStandQuantity());
+    }
+    
+    @Test
+    public void removingMissingPurchaseIsIgnored() {
+        Stand stand = new Stand(1, 500);
+        Publisher publisher = publisher(1, new Manager(2, "Ana", "Gómez"));
+        
+        stand.removePublisher(publisher);
+        publisher.removeStand(stand);
+        
+        assertEquals(0, stand.getPublisherQuantity());
+        assertEquals(0, publisher.getStandQuantity());
+    }
+}